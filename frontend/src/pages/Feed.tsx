@@ -87,18 +87,18 @@ export const Feed: React.FC = () => {
         isFetchingNextPage
     } = useInfiniteQuery<FeedResponse>({
         queryKey: ['feed', coords, radius, interestBoost],
-        queryFn: ({ pageParam = 0 }) => feedService.getFeed({
+        queryFn: ({ pageParam }) => feedService.getFeed({
             lat: coords!.lat,
             lon: coords!.lon,
             radiusKm: radius,
             interestBoost,
-            page: pageParam as number,
+            cursor: pageParam as string | undefined,
             size: 20
         }),
         getNextPageParam: (lastPage) => {
-            return lastPage.hasNext ? lastPage.currentPage + 1 : undefined;
+            return lastPage.hasNext ? lastPage.nextCursor : undefined;
         },
-        initialPageParam: 0,
+        initialPageParam: undefined as string | undefined,
         enabled: !!coords && isSupportedZone && feedTab === 'feed',
         refetchOnWindowFocus: false
     });
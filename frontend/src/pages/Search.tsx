@@ -32,7 +32,7 @@ const Search: React.FC = () => {
                 } else if (activeTab === 'posts') {
                     // Pass dummy location for now, or get real location
                     const results = await searchService.searchPosts(query);
-                    setPostResults(results);
+                    setPostResults(results.posts);
                 } else if (activeTab === 'hashtags') {
                     const results = await searchService.searchHashtags(query);
                     setPostResults(results);
@@ -36,6 +36,7 @@ export interface FeedResponse {
     totalPages: number;
     hasNext: boolean;
     hasPrevious: boolean;
+    nextCursor?: string;
 }
 
 export interface FeedParams {
@@ -45,6 +46,7 @@ export interface FeedParams {
     interestBoost?: boolean;
     page?: number;
     size?: number;
+    cursor?: string;
 }
 
 export const feedService = {
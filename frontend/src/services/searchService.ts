@@ -2,6 +2,13 @@ import { api } from './api';
 import { Post } from '../types/Post';
 import { UserSummary } from '../types/User';
 
+// Best matches first; pass nextCursor back for the next page
+export interface PostSearchPage {
+    posts: Post[];
+    hasNext: boolean;
+    nextCursor?: string;
+}
+
 export const searchService = {
     searchUsers: async (query: string): Promise<UserSummary[]> => {
         const response = await api.get<UserSummary[]>('/search/users', {
@@ -10,9 +17,9 @@ export const searchService = {
         return response.data;
     },
 
-    searchPosts: async (query: string, lat?: number, lon?: number, radiusKm?: number): Promise<Post[]> => {
-        const response = await api.get<Post[]>('/search/posts', {
-            params: { q: query, lat, lon, radiusKm },
+    searchPosts: async (query: string, lat?: number, lon?: number, radiusKm?: number, cursor?: string): Promise<PostSearchPage> => {
+        const response = await api.get<PostSearchPage>('/search/posts', {
+            params: { q: query, lat, lon, radiusKm, cursor },
         });
         return response.data;
     },
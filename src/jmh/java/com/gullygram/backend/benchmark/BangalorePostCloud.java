@@ -0,0 +1,100 @@
+package com.gullygram.backend.benchmark;
+
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.service.feed.FeedPostSkeleton;
+import com.gullygram.backend.util.GeoUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Synthetic post locations with Bangalore-like density: most posts cluster around
+ * busy neighbourhoods, the rest are spread over the city. Seeded, so every run
+ * benchmarks the same cloud.
+ */
+final class BangalorePostCloud {
+
+    static final double CENTER_LAT = 12.9716;
+    static final double CENTER_LON = 77.5946;
+
+    private static final double[][] HOTSPOTS = {
+        {12.9352, 77.6245}, // Koramangala
+        {12.9719, 77.6412}, // Indiranagar
+        {12.9698, 77.7500}, // Whitefield
+        {12.9121, 77.6446}, // HSR Layout
+        {12.9308, 77.5838}, // Jayanagar
+        {12.9756, 77.6050}, // MG Road
+        {12.8452, 77.6602}, // Electronic City
+        {13.0358, 77.5970}, // Hebbal
+    };
+
+    private static final double HOTSPOT_SIGMA_DEG = 0.015;   // ~1.6km
+    private static final double CITY_SPAN_DEG = 0.25;        // ~28km either way
+    private static final double HOTSPOT_SHARE = 0.8;
+    private static final int INTEREST_COUNT = 20;
+
+    final double[] lats;
+    final double[] lons;
+
+    private BangalorePostCloud(int size) {
+        lats = new double[size];
+        lons = new double[size];
+    }
+
+    static BangalorePostCloud generate(int size, long seed) {
+        Random random = new Random(seed);
+        BangalorePostCloud cloud = new BangalorePostCloud(size);
+        for (int i = 0; i < size; i++) {
+            if (random.nextDouble() < HOTSPOT_SHARE) {
+                double[] hotspot = HOTSPOTS[random.nextInt(HOTSPOTS.length)];
+                cloud.lats[i] = hotspot[0] + random.nextGaussian() * HOTSPOT_SIGMA_DEG;
+                cloud.lons[i] = hotspot[1] + random.nextGaussian() * HOTSPOT_SIGMA_DEG;
+            } else {
+                cloud.lats[i] = CENTER_LAT + (random.nextDouble() * 2 - 1) * CITY_SPAN_DEG;
+                cloud.lons[i] = CENTER_LON + (random.nextDouble() * 2 - 1) * CITY_SPAN_DEG;
+            }
+        }
+        return cloud;
+    }
+
+    int size() {
+        return lats.length;
+    }
+
+    /**
+     * Feed skeletons at the cloud's points: posted over the last three days,
+     * one to three of twenty interests, long-tailed likes and comments
+     */
+    List<FeedPostSkeleton> skeletons(LocalDateTime now, long seed) {
+        Random random = new Random(seed);
+        List<FeedPostSkeleton> posts = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            posts.add(FeedPostSkeleton.builder()
+                .id(new UUID(random.nextLong(), random.nextLong()))
+                .authorId(new UUID(random.nextLong(), random.nextLong()))
+                .lat(lats[i])
+                .lon(lons[i])
+                .geohash(GeoUtil.generateGeohash(lats[i], lons[i]))
+                .createdAt(now.minusSeconds(random.nextInt(3 * 24 * 3600)))
+                .visibility(random.nextInt(10) == 0 ? Post.PostVisibility.FRIENDS_ONLY : Post.PostVisibility.PUBLIC)
+                .interestIds(randomInterests(random))
+                .likeCount((long) (-Math.log(1 - random.nextDouble()) * 8))
+                .commentCount((long) (-Math.log(1 - random.nextDouble()) * 3))
+                .build());
+        }
+        return posts;
+    }
+
+    static Set<Integer> randomInterests(Random random) {
+        int first = 1 + random.nextInt(INTEREST_COUNT);
+        return switch (random.nextInt(3)) {
+            case 0 -> Set.of(first);
+            case 1 -> Set.of(first, 1 + (first % INTEREST_COUNT));
+            default -> Set.of(first, 1 + (first % INTEREST_COUNT), 1 + ((first + 1) % INTEREST_COUNT));
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.gullygram.backend.benchmark;
+
+import com.gullygram.backend.service.feed.FeedCandidateBatch;
+import com.gullygram.backend.service.feed.FeedPostSkeleton;
+import com.gullygram.backend.service.feed.FeedRanker;
+import com.gullygram.backend.service.feed.FeedRankingContext;
+import com.gullygram.backend.service.feed.RecencyFeedRanker;
+import com.gullygram.backend.service.feed.TieredHybridFeedRanker;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The feed ranking path of FeedService.getFeed without the database: build the
+ * candidate batch, filter it to the radius, score and pick the first page.
+ * One operation ranks the whole cloud once.
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="FeedRankingBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class FeedRankingBenchmark {
+
+    private static final int RADIUS_KM = 10;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    int points;
+
+    @Param({TieredHybridFeedRanker.NAME, RecencyFeedRanker.NAME})
+    String ranker;
+
+    private List<FeedPostSkeleton> posts;
+    private FeedRanker feedRanker;
+    private FeedRankingContext context;
+    private FeedCandidateBatch inRadius;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 15, 18, 0);
+        posts = BangalorePostCloud.generate(points, 42).skeletons(now, 7);
+        feedRanker = TieredHybridFeedRanker.NAME.equals(ranker) ? new TieredHybridFeedRanker() : new RecencyFeedRanker();
+
+        Set<Integer> userInterestIds = Set.of(3, 8, 15);
+        context = FeedRankingContext.builder()
+            .radiusKm(RADIUS_KM)
+            .interestBoost(true)
+            .userInterestIds(userInterestIds)
+            .userInterestMask(FeedPostSkeleton.interestMask(userInterestIds))
+            .snapshotMicros(FeedPostSkeleton.toEpochMicros(now))
+            .build();
+
+        inRadius = buildBatch();
+    }
+
+    private FeedCandidateBatch buildBatch() {
+        FeedCandidateBatch batch = FeedCandidateBatch.of(posts, BangalorePostCloud.CENTER_LAT, BangalorePostCloud.CENTER_LON, RADIUS_KM);
+        batch.retainIf(i -> batch.distanceKm(i) <= RADIUS_KM);
+        return batch;
+    }
+
+    /**
+     * Columnar layout, distances and radius filter
+     */
+    @Benchmark
+    public FeedCandidateBatch buildCandidateBatch() {
+        return buildBatch();
+    }
+
+    /**
+     * Scoring and top-k selection over an already filtered batch
+     */
+    @Benchmark
+    public int[] rankFirstPage() {
+        return feedRanker.rank(inRadius, context, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public int[] buildAndRank() {
+        return feedRanker.rank(buildBatch(), context, PAGE_SIZE + 1);
+    }
+}
@@ -0,0 +1,117 @@
+package com.gullygram.backend.benchmark;
+
+import com.gullygram.backend.util.GeoUtil;
+import com.gullygram.backend.util.Geohash;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the GeoUtil functions behind every feed, search, huddle and
+ * suggestion request. Each invocation takes the next point of the cloud, so larger
+ * clouds also show the effect of points no longer fitting in cache.
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="GeoUtilBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class GeoUtilBenchmark {
+
+    private static final int SLICE = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    int points;
+
+    private BangalorePostCloud cloud;
+    private final long[] cells = new long[GeoUtil.MAX_COVERING_CELLS];
+    private final double[] sliceLats = new double[SLICE];
+    private final double[] sliceLons = new double[SLICE];
+    private final double[] sliceDistances = new double[SLICE];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cloud = BangalorePostCloud.generate(points, 42);
+    }
+
+    private int nextSlice() {
+        int start = next;
+        next = start + 2 * SLICE > points ? 0 : start + SLICE;
+        return start;
+    }
+
+    private int nextPoint() {
+        int i = next;
+        next = i + 1 == points ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public double calculateDistance() {
+        int i = nextPoint();
+        return GeoUtil.calculateDistance(BangalorePostCloud.CENTER_LAT, BangalorePostCloud.CENTER_LON,
+            cloud.lats[i], cloud.lons[i]);
+    }
+
+    /**
+     * Haversine over a slice of the cloud; scores are per point
+     */
+    @Benchmark
+    @OperationsPerInvocation(SLICE)
+    public double haversineSlice() {
+        int start = nextSlice();
+        double sum = 0;
+        for (int i = start; i < start + SLICE; i++) {
+            sum += GeoUtil.calculateDistance(BangalorePostCloud.CENTER_LAT, BangalorePostCloud.CENTER_LON,
+                cloud.lats[i], cloud.lons[i]);
+        }
+        return sum;
+    }
+
+    /**
+     * Batched equirectangular distances with Haversine near the radius; scores are per point
+     */
+    @Benchmark
+    @OperationsPerInvocation(SLICE)
+    public int distancesWithinSlice() {
+        int start = nextSlice();
+        System.arraycopy(cloud.lats, start, sliceLats, 0, SLICE);
+        System.arraycopy(cloud.lons, start, sliceLons, 0, SLICE);
+        return GeoUtil.distancesWithin(BangalorePostCloud.CENTER_LAT, BangalorePostCloud.CENTER_LON, 10,
+            sliceLats, sliceLons, SLICE, sliceDistances);
+    }
+
+    @Benchmark
+    public double[] getBoundingBox() {
+        int i = nextPoint();
+        return GeoUtil.getBoundingBox(cloud.lats[i], cloud.lons[i], 10);
+    }
+
+    @Benchmark
+    public String generateGeohash() {
+        int i = nextPoint();
+        return GeoUtil.generateGeohash(cloud.lats[i], cloud.lons[i]);
+    }
+
+    @Benchmark
+    public long encodeGeohashLong() {
+        int i = nextPoint();
+        return Geohash.encode(cloud.lats[i], cloud.lons[i], GeoUtil.STORED_GEOHASH_PRECISION);
+    }
+
+    @Benchmark
+    public int coveringGeohashes() {
+        int i = nextPoint();
+        return GeoUtil.coveringGeohashes(cloud.lats[i], cloud.lons[i], 10).size();
+    }
+
+    @Benchmark
+    public int coveringCellsLong() {
+        int i = nextPoint();
+        return Geohash.coveringCells(cloud.lats[i], cloud.lons[i], 10, 5, cells);
+    }
+}
@@ -0,0 +1,42 @@
+package com.gullygram.backend.config;
+
+import com.gullygram.backend.service.FeedService;
+import com.gullygram.backend.service.feed.FeedCacheService;
+import com.gullygram.backend.service.impl.EventServiceImpl;
+import com.gullygram.backend.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Single-flight coalescing as Micrometer counters, tagged by query;
+ * coalescing ratio = shared / (leader + shared)
+ */
+@Configuration
+public class CoalescingMetricsConfig {
+
+    private static final String METRIC = "query.coalescing.calls";
+
+    @Bean
+    public MeterBinder coalescingMetrics(FeedCacheService feedCacheService, FeedService feedService,
+                                         EventServiceImpl eventService) {
+        return registry -> {
+            register(registry, "feed.cell", feedCacheService.getCellLoads());
+            register(registry, "feed.window", feedService.getWindowLoads());
+            register(registry, "events.nearby", eventService.getNearbyLoads());
+        };
+    }
+
+    private static void register(MeterRegistry registry, String query, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder(METRIC, flight, SingleFlight::getLeaderCount)
+            .tag("query", query)
+            .tag("result", "leader")
+            .register(registry);
+        FunctionCounter.builder(METRIC, flight, SingleFlight::getSharedCount)
+            .tag("query", query)
+            .tag("result", "shared")
+            .register(registry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.gullygram.backend.config;
+
+import com.gullygram.backend.service.feed.FeedCacheService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Feed cache hits and misses as Micrometer counters, next to feed.conditional.requests
+ * (FeedController); hit rate = hit / (hit + miss)
+ */
+@Configuration
+public class FeedMetricsConfig {
+
+    @Bean
+    public MeterBinder feedCacheMetrics(FeedCacheService feedCacheService) {
+        return registry -> {
+            FunctionCounter.builder("feed.cache.cells", feedCacheService, FeedCacheService::getHitCount)
+                .tag("result", "hit")
+                .register(registry);
+            FunctionCounter.builder("feed.cache.cells", feedCacheService, FeedCacheService::getMissCount)
+                .tag("result", "miss")
+                .register(registry);
+        };
+    }
+}
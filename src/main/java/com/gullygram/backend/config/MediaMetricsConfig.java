@@ -0,0 +1,42 @@
+package com.gullygram.backend.config;
+
+import com.gullygram.backend.service.media.ImageVariantService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Image variant rendering: images by outcome, render time and queue depth.
+ * Throughput in images per second is the rate of media.variants{result=processed}.
+ */
+@Configuration
+public class MediaMetricsConfig {
+
+    private static final String METRIC = "media.variants";
+
+    @Bean
+    public MeterBinder mediaMetrics(ImageVariantService imageVariantService) {
+        return registry -> {
+            FunctionCounter.builder(METRIC, imageVariantService, ImageVariantService::getProcessedCount)
+                .tag("result", "processed")
+                .register(registry);
+            FunctionCounter.builder(METRIC, imageVariantService, ImageVariantService::getFailedCount)
+                .tag("result", "failed")
+                .register(registry);
+            FunctionCounter.builder(METRIC, imageVariantService, ImageVariantService::getDroppedCount)
+                .tag("result", "dropped")
+                .register(registry);
+            FunctionTimer.builder(METRIC + ".render", imageVariantService,
+                    service -> service.getProcessedCount() + service.getFailedCount(),
+                    ImageVariantService::getRenderNanos, TimeUnit.NANOSECONDS)
+                .register(registry);
+            Gauge.builder(METRIC + ".queue", imageVariantService, ImageVariantService::getQueueSize)
+                .register(registry);
+        };
+    }
+}
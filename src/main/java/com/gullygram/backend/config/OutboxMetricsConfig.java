@@ -0,0 +1,31 @@
+package com.gullygram.backend.config;
+
+import com.gullygram.backend.service.outbox.OutboxDispatcher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Outbox events by outcome: processed, retried (one per failed attempt) and failed for good
+ */
+@Configuration
+public class OutboxMetricsConfig {
+
+    private static final String METRIC = "outbox.events";
+
+    @Bean
+    public MeterBinder outboxMetrics(OutboxDispatcher outboxDispatcher) {
+        return registry -> {
+            FunctionCounter.builder(METRIC, outboxDispatcher, OutboxDispatcher::getProcessedCount)
+                .tag("result", "processed")
+                .register(registry);
+            FunctionCounter.builder(METRIC, outboxDispatcher, OutboxDispatcher::getRetriedCount)
+                .tag("result", "retried")
+                .register(registry);
+            FunctionCounter.builder(METRIC, outboxDispatcher, OutboxDispatcher::getFailedCount)
+                .tag("result", "failed")
+                .register(registry);
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.gullygram.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Logs how many SQL statements each API request executed
+ */
+@Component
+@Slf4j
+public class SqlStatementCountInterceptor implements HandlerInterceptor {
+
+    @Value("${app.sql-count.warn-threshold:50}")
+    private int warnThreshold;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int statements = SqlStatementCounter.current();
+        SqlStatementCounter.clear();
+        if (statements > warnThreshold) {
+            log.warn("{} {} executed {} SQL statements", request.getMethod(), request.getRequestURI(), statements);
+        } else {
+            log.debug("{} {} executed {} SQL statements", request.getMethod(), request.getRequestURI(), statements);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.gullygram.backend.controller;
+
+import com.gullygram.backend.dto.request.BulkIngestRequest;
+import com.gullygram.backend.dto.response.ApiResponse;
+import com.gullygram.backend.dto.response.BulkIngestResponse;
+import com.gullygram.backend.service.BulkIngestionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Bulk loading for seed and load-test environments only. Rows name any existing author
+ * and creation time and skip every interactive check, so the endpoint exists only when
+ * seed.bulk.enabled is set, and then only for signed-in callers (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/admin/seed")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "seed.bulk.enabled", havingValue = "true")
+public class BulkSeedController {
+
+    private final BulkIngestionService bulkIngestionService;
+
+    /**
+     * Load up to 10000 posts with their likes and comments in one transaction;
+     * larger datasets are sent as several batches
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkIngestResponse>> ingestBulk(@Valid @RequestBody BulkIngestRequest request) {
+        BulkIngestResponse response = bulkIngestionService.ingest(request.getPosts());
+        return ResponseEntity.ok(ApiResponse.success("Bulk ingestion complete", response));
+    }
+}
@@ -2,12 +2,18 @@ package com.gullygram.backend.controller;
 
 import com.gullygram.backend.dto.response.ApiResponse;
 import com.gullygram.backend.dto.response.FeedResponse;
+import com.gullygram.backend.dto.response.PostResponse;
 import com.gullygram.backend.security.CurrentUser;
 import com.gullygram.backend.service.FeedService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -17,6 +23,9 @@ public class FeedController {
 
     private final FeedService feedService;
     private final CurrentUser currentUser;
+    private final MeterRegistry meterRegistry;
+
+    private static final String CONDITIONAL_METRIC = "feed.conditional.requests";
 
     @GetMapping
     public ResponseEntity<ApiResponse<FeedResponse>> getFeed(
@@ -25,10 +34,36 @@ public class FeedController {
             @RequestParam(required = false) Integer radiusKm,
             @RequestParam(defaultValue = "true") Boolean interestBoost,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
         
         UUID userId = currentUser.getUserId();
-        FeedResponse feed = feedService.getFeed(userId, lat, lon, radiusKm, interestBoost, page, size);
-        return ResponseEntity.ok(ApiResponse.success("Success", feed));
+
+        // Polling clients send If-None-Match; an unchanged feed is answered without running it.
+        // The tag is taken before the feed is built, so a racing write can only cause an extra refetch.
+        String eTag = feedService.getFeedETag(userId, lat, lon, radiusKm, interestBoost, page, size, cursor);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            meterRegistry.counter(CONDITIONAL_METRIC, "result", "not_modified").increment();
+            return null;
+        }
+        meterRegistry.counter(CONDITIONAL_METRIC, "result", request.getHeader(HttpHeaders.IF_NONE_MATCH) != null ? "modified" : "unconditional").increment();
+
+        FeedResponse feed = feedService.getFeed(userId, lat, lon, radiusKm, interestBoost, page, size, cursor);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(ApiResponse.success("Success", feed));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<ApiResponse<List<PostResponse>>> getTrending(
+            @RequestParam Double lat,
+            @RequestParam Double lon,
+            @RequestParam(required = false) Integer radiusKm,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        UUID userId = currentUser.getUserId();
+        List<PostResponse> posts = feedService.getTrending(userId, lat, lon, radiusKm, limit);
+        return ResponseEntity.ok(ApiResponse.success("Success", posts));
     }
 }
@@ -1,17 +1,24 @@
 package com.gullygram.backend.controller;
 
+import com.gullygram.backend.dto.request.StartUploadRequest;
 import com.gullygram.backend.dto.response.ApiResponse;
+import com.gullygram.backend.dto.response.UploadSessionResponse;
+import com.gullygram.backend.security.CurrentUser;
 import com.gullygram.backend.service.StorageService;
+import com.gullygram.backend.service.media.ChunkedUploadService;
+import com.gullygram.backend.service.media.ImageVariants;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/media")
@@ -19,6 +26,8 @@ import java.util.Map;
 public class MediaController {
 
     private final StorageService storageService;
+    private final ChunkedUploadService chunkedUploadService;
+    private final CurrentUser currentUser;
 
     @PostMapping("/upload")
     public ResponseEntity<ApiResponse<Map<String, String>>> uploadFile(
@@ -26,10 +35,59 @@ public class MediaController {
             @RequestParam(value = "folder", defaultValue = "general") String folder
     ) {
         String fileUrl = storageService.uploadFile(file, folder);
+        return ResponseEntity.ok(ApiResponse.success("File uploaded successfully", urls(fileUrl)));
+    }
+
+    /**
+     * Resumable upload for large files and flaky networks: start, then PUT chunks with
+     * ?offset= (the offset from the last response), then complete. After a failed chunk,
+     * GET the upload for the offset to resume from.
+     */
+    @PostMapping("/uploads")
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> startUpload(
+            @Valid @RequestBody StartUploadRequest request) throws IOException {
+        UploadSessionResponse upload = chunkedUploadService.start(currentUser.getUserId(), request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(ApiResponse.success("Upload started", upload));
+    }
+
+    @GetMapping("/uploads/{id}")
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> getUpload(@PathVariable UUID id) {
+        UploadSessionResponse upload = chunkedUploadService.status(currentUser.getUserId(), id);
+        return ResponseEntity.ok(ApiResponse.success("Success", upload));
+    }
+
+    /**
+     * The raw chunk bytes are the request body, streamed to disk as they arrive
+     */
+    @PutMapping("/uploads/{id}")
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> uploadChunk(
+            @PathVariable UUID id,
+            @RequestParam("offset") long offset,
+            HttpServletRequest request) throws IOException {
+        UploadSessionResponse upload = chunkedUploadService.append(
+            currentUser.getUserId(), id, offset, request.getInputStream());
+        return ResponseEntity.ok(ApiResponse.success("Chunk stored", upload));
+    }
+
+    @PostMapping("/uploads/{id}/complete")
+    public ResponseEntity<ApiResponse<Map<String, String>>> completeUpload(@PathVariable UUID id) {
+        String fileUrl = chunkedUploadService.complete(currentUser.getUserId(), id);
+        return ResponseEntity.ok(ApiResponse.success("File uploaded successfully", urls(fileUrl)));
+    }
 
+    @DeleteMapping("/uploads/{id}")
+    public ResponseEntity<ApiResponse<Void>> abortUpload(@PathVariable UUID id) throws IOException {
+        chunkedUploadService.abort(currentUser.getUserId(), id);
+        return ResponseEntity.ok(ApiResponse.success("Upload cancelled", null));
+    }
+
+    private static Map<String, String> urls(String fileUrl) {
         Map<String, String> data = new HashMap<>();
         data.put("url", fileUrl);
-
-        return ResponseEntity.ok(ApiResponse.success("File uploaded successfully", data));
+        data.put("thumbUrl", ImageVariants.variantUrl(fileUrl, ImageVariants.Variant.THUMB));
+        data.put("feedUrl", ImageVariants.variantUrl(fileUrl, ImageVariants.Variant.FEED));
+        data.put("fullUrl", ImageVariants.variantUrl(fileUrl, ImageVariants.Variant.FULL));
+        return data;
     }
 }
@@ -0,0 +1,114 @@
+package com.gullygram.backend.controller;
+
+import com.gullygram.backend.exception.ResourceNotFoundException;
+import com.gullygram.backend.service.media.MediaFileService;
+import com.gullygram.backend.service.media.MediaFileService.MediaFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.List;
+
+/**
+ * Serves uploaded files with validators, caching and byte ranges.
+ *
+ * - If-None-Match / If-Modified-Since answer 304 with no body
+ * - A single Range is answered with 206, honouring If-Range; several ranges get the whole file
+ * - Bodies of 48 KB or more go through Tomcat's sendfile, so the kernel copies the file to
+ *   the socket; smaller bodies, and other containers, use FileChannel.transferTo
+ */
+@RestController
+@RequiredArgsConstructor
+public class MediaFileController {
+
+    private static final String PREFIX = "/uploads/";
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    // Request attributes of Tomcat's sendfile support, as used by its DefaultServlet
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    private final MediaFileService mediaFileService;
+
+    @GetMapping(PREFIX + "**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = URL_PATH_HELPER.getPathWithinApplication(request).substring(PREFIX.length());
+        MediaFile file = mediaFileService.resolve(path)
+            .orElseThrow(() -> new ResourceNotFoundException("File not found"));
+
+        // Set first, so a 304 carries them too
+        response.setHeader(HttpHeaders.CACHE_CONTROL, file.getCacheControl());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(file.getETag(), file.getLastModified())) {
+            return;
+        }
+
+        long length = file.getLength();
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = singleRange(request, file);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start >= length || start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentType(file.getContentType().toString());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        mediaFileService.transfer(file, start, count, Channels.newChannel(response.getOutputStream()));
+    }
+
+    /**
+     * The requested range, or null to send the whole file: no Range, an If-Range that
+     * no longer matches, or a header that is malformed or asks for several ranges
+     */
+    private static HttpRange singleRange(HttpServletRequest request, MediaFile file) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(file.getETag())) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.gullygram.backend.controller;
 
+import com.gullygram.backend.dto.response.FeedResponse;
 import com.gullygram.backend.dto.response.PostResponse;
 import com.gullygram.backend.dto.response.UserSummary;
 import com.gullygram.backend.entity.User;
@@ -29,14 +30,15 @@ public class SearchController {
     }
 
     @GetMapping("/posts")
-    public ResponseEntity<List<PostResponse>> searchPosts(
+    public ResponseEntity<FeedResponse> searchPosts(
             @RequestParam("q") String query,
             @RequestParam(required = false) Double lat,
             @RequestParam(required = false) Double lon,
             @RequestParam(required = false, defaultValue = "50.0") Double radiusKm,
+            @RequestParam(required = false) String cursor,
             @AuthenticationPrincipal UUID userId) {
         
-        List<PostResponse> results = searchService.searchPosts(query, userId, lat, lon, radiusKm);
+        FeedResponse results = searchService.searchPosts(query, userId, lat, lon, radiusKm, cursor);
         return ResponseEntity.ok(results);
     }
 
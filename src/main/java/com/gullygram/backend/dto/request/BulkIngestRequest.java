@@ -0,0 +1,23 @@
+package com.gullygram.backend.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestRequest {
+
+    @Valid
+    @NotEmpty(message = "At least one post is required")
+    @Size(max = 10000, message = "At most 10000 posts per batch")
+    private List<BulkPostRequest> posts;
+}
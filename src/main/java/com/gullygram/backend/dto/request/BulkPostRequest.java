@@ -0,0 +1,94 @@
+package com.gullygram.backend.dto.request;
+
+import com.gullygram.backend.entity.Post;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A post for bulk ingestion, with its author, timestamps, likes and comments given explicitly
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPostRequest {
+
+    @NotNull(message = "Author is required")
+    private UUID authorId;
+
+    @NotBlank(message = "Text is required")
+    @Size(max = 5000, message = "Text must not exceed 5000 characters")
+    private String text;
+
+    @Builder.Default
+    private Post.PostType type = Post.PostType.GENERAL;
+
+    @NotNull(message = "Latitude is required")
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    @Min(value = 1, message = "Visibility radius must be at least 1km")
+    @Max(value = 50, message = "Visibility radius must not exceed 50km")
+    private Integer visibilityRadiusKm;
+
+    private Set<Integer> interestIds;
+
+    @Builder.Default
+    private boolean friendsOnly = false;
+
+    private LocalDateTime eventDate;
+    private String eventLocationName;
+    private String eventCity;
+
+    // Defaults to the time of ingestion
+    private LocalDateTime createdAt;
+
+    @Valid
+    @Builder.Default
+    private List<Like> likes = new ArrayList<>();
+
+    @Valid
+    @Builder.Default
+    private List<Comment> comments = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Like {
+        @NotNull(message = "Liking user is required")
+        private UUID userId;
+        private LocalDateTime createdAt;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Comment {
+        @NotNull(message = "Comment author is required")
+        private UUID authorId;
+
+        @NotBlank(message = "Comment text is required")
+        @Size(max = 2000, message = "Comment must not exceed 2000 characters")
+        private String text;
+
+        private LocalDateTime createdAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.gullygram.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rows written by one bulk ingestion batch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestResponse {
+    private int posts;
+    private int interestTags;
+    private int likes;
+    private int comments;
+    private long elapsedMs;
+}
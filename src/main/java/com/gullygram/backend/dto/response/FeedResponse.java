@@ -20,4 +20,5 @@ public class FeedResponse {
     private int pageSize;
     private boolean hasNext;
     private boolean hasPrevious;
+    private String nextCursor; // opaque; pass back as ?cursor= for the next page
 }
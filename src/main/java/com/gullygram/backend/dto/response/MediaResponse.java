@@ -0,0 +1,31 @@
+package com.gullygram.backend.dto.response;
+
+import com.gullygram.backend.service.media.ImageVariants;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One media item in every size; all four are the same URL for media without variants
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaResponse {
+
+    private String original;
+    private String thumb;
+    private String feed;
+    private String full;
+
+    public static MediaResponse of(String url) {
+        return MediaResponse.builder()
+            .original(url)
+            .thumb(ImageVariants.variantUrl(url, ImageVariants.Variant.THUMB))
+            .feed(ImageVariants.variantUrl(url, ImageVariants.Variant.FEED))
+            .full(ImageVariants.variantUrl(url, ImageVariants.Variant.FULL))
+            .build();
+    }
+}
@@ -21,7 +21,8 @@ public class PostResponse {
     private AuthorView author;
     private Post.PostType type;
     private String text;
-    private List<String> mediaUrls;
+    private List<String> mediaUrls; // Feed-sized variants where available
+    private List<MediaResponse> media;
     private Double latitude;
     private Double longitude;
     private Integer visibilityRadiusKm;
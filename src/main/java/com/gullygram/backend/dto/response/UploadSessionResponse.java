@@ -0,0 +1,22 @@
+package com.gullygram.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * A chunked upload in progress: the next chunk starts at offset
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionResponse {
+
+    private UUID uploadId;
+    private long offset;
+    private long size;
+}
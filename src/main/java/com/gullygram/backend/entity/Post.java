@@ -1,5 +1,6 @@
 package com.gullygram.backend.entity;
 
+import com.gullygram.backend.util.InterestBitmap;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -67,6 +68,15 @@ public class Post {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    // Maintained in batched deltas by EngagementCounterService, never written through the entity
+    @Column(name = "like_count", insertable = false, updatable = false)
+    @Builder.Default
+    private long likeCount = 0L;
+
+    @Column(name = "comment_count", insertable = false, updatable = false)
+    @Builder.Default
+    private long commentCount = 0L;
+
     @ManyToMany
     @JoinTable(
         name = "post_interest_tag",
@@ -76,6 +86,11 @@ public class Post {
     @Builder.Default
     private Set<Interest> interests = new HashSet<>();
 
+    // InterestBitmap of interests, kept in step by setInterests and on insert
+    @Column(name = "interest_bits", nullable = false)
+    @Builder.Default
+    private long interestBits = 0L;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL)
     @org.hibernate.annotations.BatchSize(size = 20)
     @Builder.Default
@@ -121,4 +136,16 @@ public class Post {
     public void softDelete() {
         this.deletedAt = LocalDateTime.now();
     }
+
+    public void setInterests(Set<Interest> interests) {
+        this.interests = interests;
+        this.interestBits = interests != null ? InterestBitmap.ofInterests(interests) : 0L;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (interests != null) {
+            interestBits = InterestBitmap.ofInterests(interests);
+        }
+    }
 }
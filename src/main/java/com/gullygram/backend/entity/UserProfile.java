@@ -1,5 +1,6 @@
 package com.gullygram.backend.entity;
 
+import com.gullygram.backend.util.InterestBitmap;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -91,6 +92,11 @@ public class UserProfile {
     @Builder.Default
     private Set<Interest> interests = new HashSet<>();
 
+    // InterestBitmap of interests, kept in step by setInterests and on insert
+    @Column(name = "interest_bits", nullable = false)
+    @Builder.Default
+    private long interestBits = 0L;
+
     // Trust system fields (Week 3+)
     @Column(name = "trust_score")
     @Builder.Default
@@ -99,4 +105,16 @@ public class UserProfile {
     @Column(name = "trust_level")
     @Builder.Default
     private Integer trustLevel = 1;
+
+    public void setInterests(Set<Interest> interests) {
+        this.interests = interests;
+        this.interestBits = interests != null ? InterestBitmap.ofInterests(interests) : 0L;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (interests != null) {
+            interestBits = InterestBitmap.ofInterests(interests);
+        }
+    }
 }
@@ -17,4 +17,8 @@ public interface InterestAliasRepository extends JpaRepository<InterestAlias, In
     
     @Query("SELECT ia FROM InterestAlias ia WHERE LOWER(ia.alias) IN :aliases")
     List<InterestAlias> findByAliasIn(@Param("aliases") Set<String> aliases);
+
+    // Alias to interest id, without loading the interests; read by InterestDictionary
+    @Query("SELECT ia.alias, ia.interest.id FROM InterestAlias ia")
+    List<Object[]> findAllAliasMappings();
 }
@@ -0,0 +1,50 @@
+package com.gullygram.backend.repository;
+
+import com.gullygram.backend.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Serializes claims across instances for the rest of the transaction; false if another holds it
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryClaimLock(@Param("key") long key);
+
+    /**
+     * Claimable events in id order. An event waits while an earlier event of its aggregate
+     * is leased or backing off, so each aggregate's events are handled in order.
+     */
+    @Query(value = "SELECT * FROM outbox_event o " +
+           "WHERE o.failed_at IS NULL AND o.available_at <= :now " +
+           "AND NOT EXISTS (SELECT 1 FROM outbox_event e " +
+           "                WHERE e.aggregate_id = o.aggregate_id AND e.id < o.id " +
+           "                AND e.failed_at IS NULL AND e.available_at > :now) " +
+           "ORDER BY o.id LIMIT :limit",
+           nativeQuery = true)
+    List<OutboxEvent> findClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.availableAt = :availableAt WHERE e.id IN :ids")
+    int setAvailableAt(@Param("ids") Collection<Long> ids, @Param("availableAt") LocalDateTime availableAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id = :id")
+    int deleteProcessed(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = :attempts, e.availableAt = :availableAt, " +
+           "e.failedAt = :failedAt, e.lastError = :lastError WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("attempts") int attempts,
+                      @Param("availableAt") LocalDateTime availableAt,
+                      @Param("failedAt") LocalDateTime failedAt, @Param("lastError") String lastError);
+}
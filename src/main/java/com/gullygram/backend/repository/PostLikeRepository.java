@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,4 +25,10 @@ public interface PostLikeRepository extends JpaRepository<PostLike, PostLike.Pos
      */
     @Query("SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = :postId")
     long countByPostId(@Param("postId") UUID postId);
+
+    /**
+     * Which of the given posts the user has liked
+     */
+    @Query("SELECT pl.post.id FROM PostLike pl WHERE pl.user.id = :userId AND pl.post.id IN :postIds")
+    List<UUID> findLikedPostIds(@Param("userId") UUID userId, @Param("postIds") Collection<UUID> postIds);
 }
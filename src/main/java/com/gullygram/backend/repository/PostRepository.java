@@ -8,12 +8,13 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, UUID> {
+public interface PostRepository extends JpaRepository<Post, UUID>, PostRepositoryCustom {
 
     /**
      * Find posts within bounding box (used for geo-filtering)
@@ -44,35 +45,22 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
 
     long countByAuthorId(UUID authorId);
 
-    @Query(value = "SELECT * FROM post p " +
-           "WHERE p.deleted_at IS NULL " +
-           "AND p.lat BETWEEN :minLat AND :maxLat " +
-           "AND p.lon BETWEEN :minLon AND :maxLon " +
-           "AND to_tsvector('english', p.text) @@ plainto_tsquery('english', :query) " +
-           "ORDER BY p.created_at DESC", nativeQuery = true)
-    Page<Post> searchPosts(
-        @Param("query") String query,
-        @Param("minLat") double minLat,
-        @Param("maxLat") double maxLat,
-        @Param("minLon") double minLon,
-        @Param("maxLon") double maxLon,
-        Pageable pageable
-    );
+    @Query("SELECT DISTINCT p.geohash FROM Post p WHERE p.author.id = :authorId AND p.deletedAt IS NULL AND p.geohash IS NOT NULL")
+    List<String> findGeohashesByAuthorId(@Param("authorId") UUID authorId);
 
-    @Query(value = "SELECT * FROM post p " +
-           "WHERE p.deleted_at IS NULL " +
-           "AND p.lat BETWEEN :minLat AND :maxLat " +
-           "AND p.lon BETWEEN :minLon AND :maxLon " +
-           "AND p.text LIKE %:hashtag% " +
-           "ORDER BY p.created_at DESC", nativeQuery = true)
-    Page<Post> searchHashtags(
-        @Param("hashtag") String hashtag,
-        @Param("minLat") double minLat,
-        @Param("maxLat") double maxLat,
-        @Param("minLon") double minLon,
-        @Param("maxLon") double maxLon,
-        Pageable pageable
-    );
+    /**
+     * Most recent FRIENDS_ONLY posts of several authors, used to fill friends inboxes
+     */
+    @Query("SELECT p FROM Post p WHERE p.author.id IN :authorIds AND p.visibility = 'FRIENDS_ONLY' " +
+           "AND p.deletedAt IS NULL ORDER BY p.createdAt DESC")
+    List<Post> findRecentFriendsOnlyByAuthorIds(@Param("authorIds") Collection<UUID> authorIds, Pageable pageable);
+
+    /**
+     * Interest tags of several posts at once
+     * @return rows of [postId, interestId]
+     */
+    @Query("SELECT p.id, i.id FROM Post p JOIN p.interests i WHERE p.id IN :postIds")
+    List<Object[]> findInterestIdsByPostIds(@Param("postIds") Collection<UUID> postIds);
 
     // Find upcoming events in a specific city
     @Query("SELECT p FROM Post p WHERE p.type = 'EVENT_PROMO' AND LOWER(p.eventCity) = LOWER(:city) AND p.eventDate > CURRENT_TIMESTAMP ORDER BY p.eventDate ASC")
@@ -91,7 +79,9 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
            "(6371 * acos(cos(radians(:lat)) * cos(radians(p.lat)) * cos(radians(p.lon) - radians(:lon)) + sin(radians(:lat)) * sin(radians(p.lat)))) < :radius " +
            "ORDER BY p.eventDate ASC")
     java.util.List<Post> findUpcomingEventsNearby(@Param("lat") double lat, @Param("lon") double lon, @Param("radius") double radius);
-    @org.springframework.data.jpa.repository.Modifying
-    @Query("UPDATE Post p SET p.createdAt = :createdAt WHERE p.id = :id")
-    void updateCreatedAt(@Param("id") UUID id, @Param("createdAt") java.time.LocalDateTime createdAt);
+
+    @Query("SELECT p.id FROM Post p WHERE p.type = 'EVENT_PROMO' AND p.eventDate > CURRENT_TIMESTAMP AND " +
+           "(6371 * acos(cos(radians(:lat)) * cos(radians(p.lat)) * cos(radians(p.lon) - radians(:lon)) + sin(radians(:lat)) * sin(radians(p.lat)))) < :radius " +
+           "ORDER BY p.eventDate ASC")
+    java.util.List<UUID> findUpcomingEventIdsNearby(@Param("lat") double lat, @Param("lon") double lon, @Param("radius") double radius);
 }
@@ -0,0 +1,34 @@
+package com.gullygram.backend.repository;
+
+import com.gullygram.backend.entity.Post;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Queries that need a dynamically built predicate and cannot be expressed with @Query
+ */
+public interface PostRepositoryCustom {
+
+    /**
+     * Find the most recent posts whose geohash starts with any of the given prefixes.
+     * Each prefix becomes an index range scan on post.geohash, combined into a single statement.
+     */
+    List<Post> findRecentByGeohashPrefixes(Collection<String> prefixes, int limit);
+
+    /**
+     * The most recent `limit` posts of every prefix, newest first, read with one statement
+     * that runs a separate limited range scan per prefix. A post under nested prefixes is
+     * listed under each of them.
+     */
+    Map<String, List<Post>> findRecentByEachGeohashPrefix(Collection<String> prefixes, int limit);
+
+    /**
+     * Keyset page of the same cells: posts strictly older than (before, beforeId), newest first.
+     * With beforeId null every post created at exactly `before` is excluded as well.
+     */
+    List<Post> findOlderByGeohashPrefixes(Collection<String> prefixes, LocalDateTime before, UUID beforeId, int limit);
+}
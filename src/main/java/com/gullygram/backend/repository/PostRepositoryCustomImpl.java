@@ -0,0 +1,137 @@
+package com.gullygram.backend.repository;
+
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.util.GeoUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Post> findRecentByGeohashPrefixes(Collection<String> prefixes, int limit) {
+        return findByGeohashPrefixes(prefixes, null, null, limit);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, List<Post>> findRecentByEachGeohashPrefix(Collection<String> prefixes, int limit) {
+        Map<String, List<Post>> byPrefix = new LinkedHashMap<>();
+        prefixes.forEach(prefix -> byPrefix.put(prefix, new ArrayList<>()));
+        if (byPrefix.isEmpty()) {
+            return byPrefix;
+        }
+
+        // One LATERAL range scan per cell, each with its own LIMIT on the (geohash, created_at) index
+        // A prefix of only 'z's has no upper bound; it is written as a typed NULL, not bound
+        StringBuilder cells = new StringBuilder();
+        int index = 0;
+        for (String prefix : byPrefix.keySet()) {
+            cells.append(index == 0 ? "" : ", ").append("(:lower").append(index).append(", ")
+                .append(GeoUtil.geohashPrefixUpperBound(prefix) == null ? "CAST(NULL AS varchar)" : ":upper" + index)
+                .append(')');
+            index++;
+        }
+        String sql = "SELECT p.* FROM (VALUES " + cells + ") AS cell(lower_bound, upper_bound) " +
+                     "CROSS JOIN LATERAL (SELECT * FROM post " +
+                     "  WHERE deleted_at IS NULL AND geohash >= cell.lower_bound " +
+                     "  AND (cell.upper_bound IS NULL OR geohash < cell.upper_bound) " +
+                     "  ORDER BY created_at DESC, id DESC LIMIT :limit) p";
+
+        Query query = entityManager.createNativeQuery(sql, Post.class).setParameter("limit", limit);
+        index = 0;
+        for (String prefix : byPrefix.keySet()) {
+            String upper = GeoUtil.geohashPrefixUpperBound(prefix);
+            query.setParameter("lower" + index, prefix);
+            if (upper != null) {
+                query.setParameter("upper" + index, upper);
+            }
+            index++;
+        }
+
+        // Rows do not say which scan returned them; a post is listed under every prefix it falls
+        // in, and each list is cut back to the limit so nested prefixes keep only their newest
+        Set<Post> posts = Collections.newSetFromMap(new IdentityHashMap<>());
+        posts.addAll((List<Post>) query.getResultList());
+        Comparator<Post> newestFirst = Comparator.comparing(Post::getCreatedAt)
+            .thenComparing(Post::getId).reversed();
+        for (Map.Entry<String, List<Post>> entry : byPrefix.entrySet()) {
+            List<Post> cellPosts = entry.getValue();
+            for (Post post : posts) {
+                if (post.getGeohash().startsWith(entry.getKey())) {
+                    cellPosts.add(post);
+                }
+            }
+            cellPosts.sort(newestFirst);
+            if (cellPosts.size() > limit) {
+                cellPosts.subList(limit, cellPosts.size()).clear();
+            }
+        }
+        return byPrefix;
+    }
+
+    @Override
+    public List<Post> findOlderByGeohashPrefixes(Collection<String> prefixes, LocalDateTime before, UUID beforeId, int limit) {
+        return findByGeohashPrefixes(prefixes, before, beforeId, limit);
+    }
+
+    private List<Post> findByGeohashPrefixes(Collection<String> prefixes, LocalDateTime before, UUID beforeId, int limit) {
+        if (prefixes.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Post> query = cb.createQuery(Post.class);
+        Root<Post> post = query.from(Post.class);
+        Path<String> geohash = post.get("geohash");
+        Path<LocalDateTime> createdAt = post.get("createdAt");
+        Path<UUID> id = post.get("id");
+
+        // geohash >= 'tdr1w' AND geohash < 'tdr1x' is a plain btree range,
+        // unlike LIKE 'tdr1w%' which needs text_pattern_ops under a non-C collation
+        List<Predicate> cellRanges = new ArrayList<>();
+        for (String prefix : prefixes) {
+            String upper = GeoUtil.geohashPrefixUpperBound(prefix);
+            Predicate lower = cb.greaterThanOrEqualTo(geohash, prefix);
+            cellRanges.add(upper == null ? lower : cb.and(lower, cb.lessThan(geohash, upper)));
+        }
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.isNull(post.get("deletedAt")));
+        where.add(cb.or(cellRanges.toArray(new Predicate[0])));
+        if (before != null) {
+            // (created_at, id) < (before, beforeId), seeking on the (geohash, created_at) index
+            Predicate older = cb.lessThan(createdAt, before);
+            where.add(beforeId == null ? older
+                : cb.or(older, cb.and(cb.equal(createdAt, before), cb.lessThan(id, beforeId))));
+        }
+
+        query.select(post)
+            .where(where.toArray(new Predicate[0]))
+            .orderBy(cb.desc(createdAt), cb.desc(id));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+}
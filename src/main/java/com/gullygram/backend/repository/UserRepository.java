@@ -4,6 +4,8 @@ import com.gullygram.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,4 +23,7 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @org.springframework.data.jpa.repository.Modifying
     @org.springframework.data.jpa.repository.Query("UPDATE User u SET u.karmaScore = :newScore WHERE u.id = :userId")
     void updateKarmaScore(UUID userId, Integer newScore);
+
+    @org.springframework.data.jpa.repository.Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<UUID> findExistingIds(Collection<UUID> ids);
 }
@@ -40,6 +40,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/interests").permitAll()
                 .requestMatchers("/api/health").permitAll()
                 .requestMatchers("/uploads/**").permitAll()
+                // Bulk rows can name any author: never open, and off unless seed.bulk.enabled
+                .requestMatchers("/api/admin/seed/bulk").authenticated()
                 .requestMatchers("/api/admin/seed/**").permitAll()
                 .requestMatchers("/api/growth/**").permitAll()
                 .anyRequest().authenticated()
@@ -0,0 +1,444 @@
+package com.gullygram.backend.service;
+
+import com.gullygram.backend.entity.UserProfile;
+import com.gullygram.backend.util.GeoUtil;
+import com.gullygram.backend.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Aliases of all users in memory, for typeahead without a database round trip per keystroke.
+ *
+ * Readers use an immutable snapshot: entries sorted by lower-case alias, so a prefix is a
+ * binary search, and trigram postings into that array for matches inside an alias. Saved
+ * profiles go to an overlay that searches scan next to the snapshot until the next rebuild.
+ *
+ * Loaded when the application is ready; every search.alias-index.refresh-interval-ms the
+ * profiles updated since the last load are read back, which also picks up writes made on
+ * other instances, and the snapshot is rebuilt if anything changed. A full reload drops
+ * deleted users. Until the first load, SearchServiceImpl queries the database instead.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AliasSearchIndex {
+
+    // Candidates scored per query before ranking, per kind of match
+    static final int MAX_CANDIDATES = 500;
+
+    // Within a kind of match: trust level 1-5 is worth up to 25, proximity up to 25
+    private static final double TRUST_WEIGHT = 5.0;
+    private static final double PROXIMITY_WEIGHT = 25.0;
+    private static final double PROXIMITY_HALF_KM = 5.0;
+
+    // Rows updated shortly before the last load may have committed after it
+    private static final long REFRESH_OVERLAP_SECONDS = 60;
+
+    private static final String SELECT = "SELECT p.user_id, p.alias, p.real_name, p.avatar_url_alias, p.avatar_url_real, "
+        + "p.trust_level, COALESCE(p.last_seen_lat, p.home_lat) AS lat, COALESCE(p.last_seen_lon, p.home_lon) AS lon, "
+        + "p.updated_at FROM user_profile p JOIN users u ON u.id = p.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${search.alias-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.alias-index.full-reload-interval-ms:3600000}")
+    private long fullReloadIntervalMs;
+
+    private final ConcurrentHashMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Entry> overlay = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    private volatile Snapshot snapshot;
+    private volatile LocalDateTime watermark;
+    private volatile long fullLoadAt;
+
+    public boolean isReady() {
+        return enabled && snapshot != null;
+    }
+
+    /**
+     * Other users whose alias starts with or contains the query, best first: an exact alias,
+     * then prefixes, then other matches; within each, by trust level and distance to the
+     * viewer. Queries shorter than three characters match prefixes only.
+     * @param excluded users to leave out before the limit applies, such as blocked ones
+     */
+    public List<Entry> search(String query, UUID viewerId, Predicate<UUID> excluded, int limit) {
+        Snapshot current = snapshot;
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (current == null || q.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Entry> pending = overlay;
+
+        Map<UUID, Entry> candidates = new HashMap<>();
+        int from = current.lowerBound(q);
+        for (int i = from; i < current.sorted.length && i < from + MAX_CANDIDATES; i++) {
+            if (!current.sorted[i].aliasLower.startsWith(q)) {
+                break;
+            }
+            addCandidate(candidates, current.sorted[i], pending);
+        }
+        if (q.length() >= 3) {
+            int found = 0;
+            for (int i : current.smallestPosting(q)) {
+                Entry entry = current.sorted[i];
+                if (entry.aliasLower.contains(q) && addCandidate(candidates, entry, pending) && ++found == MAX_CANDIDATES) {
+                    break;
+                }
+            }
+        }
+        for (Entry entry : pending.values()) {
+            if (q.length() >= 3 ? entry.aliasLower.contains(q) : entry.aliasLower.startsWith(q)) {
+                candidates.putIfAbsent(entry.userId, entry);
+            }
+        }
+
+        Entry viewer = viewerId == null ? null : find(current, pending, viewerId);
+        List<Scored> scored = new ArrayList<>(candidates.size());
+        for (Entry entry : candidates.values()) {
+            if (entry.userId.equals(viewerId) || excluded.test(entry.userId)) {
+                continue;
+            }
+            scored.add(new Scored(entry, score(entry, q, viewer)));
+        }
+        scored.sort(Comparator.comparingDouble((Scored s) -> -s.score)
+            .thenComparingInt(s -> s.entry.alias.length())
+            .thenComparing(s -> s.entry.aliasLower));
+
+        List<Entry> results = new ArrayList<>(Math.min(limit, scored.size()));
+        for (int i = 0; i < scored.size() && results.size() < limit; i++) {
+            results.add(scored.get(i).entry);
+        }
+        return results;
+    }
+
+    /**
+     * Index the profile once the surrounding transaction commits
+     */
+    public void onProfileSaved(UserProfile profile) {
+        if (!enabled || profile.getUserId() == null || profile.getAlias() == null) {
+            return;
+        }
+        Entry entry = Entry.of(profile);
+        TransactionHooks.afterCommit(() -> put(entry));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reloadAll();
+        } catch (RuntimeException e) {
+            // Searches keep using the database until a refresh succeeds
+            log.warn("Could not load alias index: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.alias-index.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (snapshot == null || System.currentTimeMillis() - fullLoadAt >= fullReloadIntervalMs) {
+                reloadAll();
+                return;
+            }
+            LocalDateTime since = watermark.minusSeconds(REFRESH_OVERLAP_SECONDS);
+            List<Entry> changed = jdbcTemplate.query(SELECT + " WHERE p.updated_at > ?", AliasSearchIndex::mapEntry,
+                Timestamp.valueOf(since));
+            for (Entry entry : changed) {
+                advanceWatermark(entry.updatedAt);
+                Entry existing = entries.get(entry.userId);
+                if (existing == null || !existing.sameAs(entry)) {
+                    put(entry);
+                }
+            }
+            if (!overlay.isEmpty()) {
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh alias index: {}", e.getMessage());
+        }
+    }
+
+    void reloadAll() {
+        long start = System.currentTimeMillis();
+        List<Entry> all = jdbcTemplate.query(SELECT, AliasSearchIndex::mapEntry);
+        synchronized (writeLock) {
+            Map<UUID, Entry> loaded = new HashMap<>();
+            for (Entry entry : all) {
+                loaded.put(entry.userId, entry);
+                advanceWatermark(entry.updatedAt);
+            }
+            // Saved after the query started, so newer than what was read
+            loaded.putAll(overlay);
+            entries.clear();
+            entries.putAll(loaded);
+        }
+        if (watermark == null) {
+            watermark = LocalDateTime.now();
+        }
+        fullLoadAt = start;
+        rebuild();
+        log.info("Alias index loaded {} users in {} ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    void put(Entry entry) {
+        synchronized (writeLock) {
+            entries.put(entry.userId, entry);
+            overlay.put(entry.userId, entry);
+        }
+    }
+
+    /**
+     * Fold the overlay into a new snapshot; writes that land meanwhile stay in the overlay
+     */
+    void rebuild() {
+        Map<UUID, Entry> folded;
+        Entry[] sorted;
+        synchronized (writeLock) {
+            folded = new HashMap<>(overlay);
+            sorted = entries.values().toArray(new Entry[0]);
+        }
+        snapshot = Snapshot.build(sorted);
+        folded.forEach(overlay::remove);
+    }
+
+    private void advanceWatermark(LocalDateTime updatedAt) {
+        if (updatedAt != null && (watermark == null || updatedAt.isAfter(watermark))) {
+            watermark = updatedAt;
+        }
+    }
+
+    /**
+     * Adds the snapshot entry unless the overlay holds a newer version of it
+     */
+    private static boolean addCandidate(Map<UUID, Entry> candidates, Entry entry, Map<UUID, Entry> pending) {
+        if (pending.containsKey(entry.userId)) {
+            return false;
+        }
+        return candidates.putIfAbsent(entry.userId, entry) == null;
+    }
+
+    private static Entry find(Snapshot current, Map<UUID, Entry> pending, UUID userId) {
+        Entry entry = pending.get(userId);
+        return entry != null ? entry : current.byUserId.get(userId);
+    }
+
+    static double score(Entry entry, String q, Entry viewer) {
+        int match = entry.aliasLower.equals(q) ? 3 : entry.aliasLower.startsWith(q) ? 2 : 1;
+        double score = match * 100 + TRUST_WEIGHT * (entry.trustLevel == null ? 1 : entry.trustLevel);
+        if (viewer != null && viewer.lat != null && viewer.lon != null && entry.lat != null && entry.lon != null) {
+            double km = GeoUtil.calculateDistance(viewer.lat, viewer.lon, entry.lat, entry.lon);
+            score += PROXIMITY_WEIGHT * PROXIMITY_HALF_KM / (PROXIMITY_HALF_KM + km);
+        }
+        return score;
+    }
+
+    private static Entry mapEntry(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new Entry(
+            rs.getObject("user_id", UUID.class),
+            rs.getString("alias"),
+            rs.getString("real_name"),
+            rs.getString("avatar_url_alias"),
+            rs.getString("avatar_url_real"),
+            (Integer) rs.getObject("trust_level"),
+            (Double) rs.getObject("lat"),
+            (Double) rs.getObject("lon"),
+            updatedAt == null ? null : updatedAt.toLocalDateTime());
+    }
+
+    /**
+     * What a search result shows of a user
+     */
+    public static class Entry {
+        private final UUID userId;
+        private final String alias;
+        private final String aliasLower;
+        private final String realName;
+        private final String avatarUrlAlias;
+        private final String avatarUrlReal;
+        private final Integer trustLevel;
+        private final Double lat;
+        private final Double lon;
+        private final LocalDateTime updatedAt;
+
+        Entry(UUID userId, String alias, String realName, String avatarUrlAlias, String avatarUrlReal,
+              Integer trustLevel, Double lat, Double lon, LocalDateTime updatedAt) {
+            this.userId = userId;
+            this.alias = alias;
+            this.aliasLower = alias == null ? "" : alias.toLowerCase(Locale.ROOT);
+            this.realName = realName;
+            this.avatarUrlAlias = avatarUrlAlias;
+            this.avatarUrlReal = avatarUrlReal;
+            this.trustLevel = trustLevel;
+            this.lat = lat;
+            this.lon = lon;
+            this.updatedAt = updatedAt;
+        }
+
+        static Entry of(UserProfile profile) {
+            return new Entry(profile.getUserId(), profile.getAlias(), profile.getRealName(),
+                profile.getAvatarUrlAlias(), profile.getAvatarUrlReal(), profile.getTrustLevel(),
+                profile.getLastSeenLat() != null ? profile.getLastSeenLat() : profile.getHomeLat(),
+                profile.getLastSeenLon() != null ? profile.getLastSeenLon() : profile.getHomeLon(),
+                profile.getUpdatedAt());
+        }
+
+        boolean sameAs(Entry other) {
+            return Objects.equals(alias, other.alias) && Objects.equals(realName, other.realName)
+                && Objects.equals(avatarUrlAlias, other.avatarUrlAlias) && Objects.equals(avatarUrlReal, other.avatarUrlReal)
+                && Objects.equals(trustLevel, other.trustLevel) && Objects.equals(lat, other.lat) && Objects.equals(lon, other.lon);
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public String getAlias() {
+            return alias;
+        }
+
+        public String getRealName() {
+            return realName;
+        }
+
+        public String getAvatarUrlAlias() {
+            return avatarUrlAlias;
+        }
+
+        public String getAvatarUrlReal() {
+            return avatarUrlReal;
+        }
+
+        public Integer getTrustLevel() {
+            return trustLevel;
+        }
+    }
+
+    private static class Scored {
+        private final Entry entry;
+        private final double score;
+
+        Scored(Entry entry, double score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Entries sorted by lower-case alias, and for each trigram the ascending positions of
+     * the aliases containing it
+     */
+    private static class Snapshot {
+        private static final int[] NONE = new int[0];
+
+        private final Entry[] sorted;
+        private final Map<UUID, Entry> byUserId;
+        private final Map<Long, int[]> postings;
+
+        private Snapshot(Entry[] sorted, Map<UUID, Entry> byUserId, Map<Long, int[]> postings) {
+            this.sorted = sorted;
+            this.byUserId = byUserId;
+            this.postings = postings;
+        }
+
+        static Snapshot build(Entry[] entries) {
+            Arrays.sort(entries, Comparator.comparing((Entry e) -> e.aliasLower).thenComparing(e -> e.userId));
+            Map<UUID, Entry> byUserId = new HashMap<>(entries.length * 2);
+            for (Entry entry : entries) {
+                byUserId.put(entry.userId, entry);
+            }
+
+            // Count first, so each posting list is allocated once at its final size
+            Map<Long, int[]> counts = new HashMap<>();
+            for (Entry entry : entries) {
+                for (long trigram : trigrams(entry.aliasLower)) {
+                    counts.computeIfAbsent(trigram, t -> new int[1])[0]++;
+                }
+            }
+            Map<Long, int[]> postings = new HashMap<>(counts.size() * 2);
+            Map<Long, int[]> filled = new HashMap<>(counts.size() * 2);
+            counts.forEach((trigram, count) -> {
+                postings.put(trigram, new int[count[0]]);
+                filled.put(trigram, new int[1]);
+            });
+            for (int i = 0; i < entries.length; i++) {
+                for (long trigram : trigrams(entries[i].aliasLower)) {
+                    postings.get(trigram)[filled.get(trigram)[0]++] = i;
+                }
+            }
+            return new Snapshot(entries, byUserId, postings);
+        }
+
+        int lowerBound(String prefix) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid].aliasLower.compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Positions of the aliases holding the query's rarest trigram; a superset of the matches
+         */
+        int[] smallestPosting(String q) {
+            int[] smallest = null;
+            for (long trigram : trigrams(q)) {
+                int[] posting = postings.getOrDefault(trigram, NONE);
+                if (smallest == null || posting.length < smallest.length) {
+                    smallest = posting;
+                }
+            }
+            return smallest == null ? NONE : smallest;
+        }
+    }
+
+    /**
+     * Distinct trigrams of a lower-case string, three chars packed into a long
+     */
+    static long[] trigrams(String s) {
+        if (s.length() < 3) {
+            return new long[0];
+        }
+        long[] result = new long[s.length() - 2];
+        int count = 0;
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            long trigram = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+            boolean seen = false;
+            for (int j = 0; j < count && !seen; j++) {
+                seen = result[j] == trigram;
+            }
+            if (!seen) {
+                result[count++] = trigram;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -32,6 +32,7 @@ public class AuthService {
     private final OtpVerificationRepository otpVerificationRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final AliasSearchIndex aliasSearchIndex;
 
     @Value("${app.otp.expiration-minutes}")
     private int otpExpirationMinutes;
@@ -89,6 +90,7 @@ public class AuthService {
             .build();
 
         userProfileRepository.save(profile);
+        aliasSearchIndex.onProfileSaved(profile);
 
 
         // Generate JWT
@@ -213,6 +215,7 @@ public class AuthService {
                 .build();
 
             userProfileRepository.save(profile);
+            aliasSearchIndex.onProfileSaved(profile);
 
         }
 
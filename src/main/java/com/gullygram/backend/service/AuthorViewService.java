@@ -4,7 +4,6 @@ import com.gullygram.backend.dto.response.AuthorView;
 import com.gullygram.backend.dto.response.UserSummary;
 import com.gullygram.backend.entity.User;
 import com.gullygram.backend.entity.UserProfile;
-import com.gullygram.backend.repository.RelationshipRepository;
 import com.gullygram.backend.repository.UserProfileRepository;
 import com.gullygram.backend.util.GeoUtil;
 import lombok.RequiredArgsConstructor;
@@ -28,7 +27,7 @@ import java.util.UUID;
 @Slf4j
 public class AuthorViewService {
 
-    private final RelationshipRepository relationshipRepository;
+    private final SocialContextService socialContextService;
     private final UserProfileRepository userProfileRepository;
 
     /**
@@ -40,24 +39,40 @@ public class AuthorViewService {
         if (author == null) {
             return null;
         }
+        return buildAuthorView(socialContextService.forViewer(viewerId), author);
+    }
 
-        UserProfile profile = author.getProfile();
+    /**
+     * Same as buildAuthorView(viewerId, author) with the viewer's relationships already loaded
+     */
+    public AuthorView buildAuthorView(ViewerSocialContext viewer, User author) {
+        if (author == null) {
+            return null;
+        }
+
+        boolean isFriend = !viewer.isSelf(author.getId()) && viewer.isFriend(author.getId());
+        return buildAuthorView(viewer.getViewerId(), author.getId(), author.getProfile(), isFriend);
+    }
+
+    /**
+     * Build an AuthorView from an already loaded profile and friendship flag.
+     * Used by batch conversions that resolve profiles and friendships up front.
+     */
+    public AuthorView buildAuthorView(UUID viewerId, UUID authorId, UserProfile profile, boolean isFriend) {
         if (profile == null) {
             return AuthorView.builder()
-                .userId(author.getId())
+                .userId(authorId)
                 .alias("unknown")
                 .build();
         }
 
-        boolean isSelf = viewerId != null && viewerId.equals(author.getId());
-        boolean isFriend = !isSelf && viewerId != null && 
-                           relationshipRepository.areFriends(viewerId, author.getId());
+        boolean isSelf = viewerId != null && viewerId.equals(authorId);
         
         // Determine what identity info to reveal
         boolean revealIdentity = isSelf || isFriend;
 
         return AuthorView.builder()
-            .userId(author.getId())
+            .userId(authorId)
             .alias(profile.getAlias())
             .avatarUrl(profile.getAvatarUrlAlias())
             .realName(revealIdentity ? profile.getRealName() : null)
@@ -86,9 +101,9 @@ public class AuthorViewService {
                 .build();
         }
 
-        boolean isSelf = viewerId != null && viewerId.equals(targetUser.getId());
-        boolean isFriend = !isSelf && viewerId != null && 
-                           relationshipRepository.areFriends(viewerId, targetUser.getId());
+        ViewerSocialContext viewer = socialContextService.forViewer(viewerId);
+        boolean isSelf = viewer.isSelf(targetUser.getId());
+        boolean isFriend = !isSelf && viewer.isFriend(targetUser.getId());
         
         boolean revealIdentity = isSelf || isFriend;
 
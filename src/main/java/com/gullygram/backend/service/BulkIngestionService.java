@@ -0,0 +1,223 @@
+package com.gullygram.backend.service;
+
+import com.gullygram.backend.dto.request.BulkPostRequest;
+import com.gullygram.backend.dto.response.BulkIngestResponse;
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.exception.BadRequestException;
+import com.gullygram.backend.exception.ResourceNotFoundException;
+import com.gullygram.backend.repository.UserRepository;
+import com.gullygram.backend.service.feed.CellVersionService;
+import com.gullygram.backend.service.feed.FeedCacheService;
+import com.gullygram.backend.util.GeoUtil;
+import com.gullygram.backend.util.Hashtags;
+import com.gullygram.backend.util.InterestBitmap;
+import com.gullygram.backend.util.TransactionHooks;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Bulk writes of posts with their interest tags, hashtags, likes and comments, for seeding and imports.
+ *
+ * Each table is loaded with one PostgreSQL COPY per batch, bypassing the persistence
+ * context: no entity or INSERT round trip per row, and timestamps are written as given
+ * rather than patched afterwards. Counters and interest bits are computed up front, so
+ * the posts are complete when the batch commits.
+ *
+ * Interactive side effects are skipped (notifications, trending, inbox fan-out); the feed
+ * cache is dropped and the touched cells' versions are bumped. Large datasets are loaded
+ * as batches of a few thousand posts, one transaction each.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkIngestionService {
+
+    private static final String COPY_POSTS = "COPY post (id, author_id, type, text, lat, lon, geohash, " +
+        "visibility_radius_km, visibility, event_date, event_location_name, event_city, created_at, updated_at, " +
+        "like_count, comment_count, interest_bits) FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_INTEREST_TAGS =
+        "COPY post_interest_tag (post_id, interest_id, created_at) FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_HASHTAGS =
+        "COPY post_hashtag (post_id, tag, geohash, created_at) FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_LIKES =
+        "COPY post_like (post_id, user_id, created_at) FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_COMMENTS =
+        "COPY comment (id, post_id, author_id, text, created_at, updated_at) FROM STDIN WITH (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final UserRepository userRepository;
+    private final InterestDictionary interestDictionary;
+    private final FeedCacheService feedCacheService;
+    private final CellVersionService cellVersionService;
+
+    @Transactional
+    public BulkIngestResponse ingest(List<BulkPostRequest> posts) {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Users created earlier in the caller's transaction must reach the database before COPY
+        entityManager.flush();
+        requireUsers(posts);
+
+        CsvRows postRows = new CsvRows();
+        CsvRows interestTagRows = new CsvRows();
+        CsvRows hashtagRows = new CsvRows();
+        CsvRows likeRows = new CsvRows();
+        CsvRows commentRows = new CsvRows();
+        Set<String> geohashes = new HashSet<>();
+
+        for (BulkPostRequest request : posts) {
+            validate(request);
+            UUID postId = UUID.randomUUID();
+            LocalDateTime createdAt = request.getCreatedAt() != null ? request.getCreatedAt() : now;
+            String geohash = GeoUtil.generateGeohash(request.getLatitude(), request.getLongitude());
+            geohashes.add(geohash);
+
+            // Explicit ids plus hashtags, as for interactive posts
+            Set<Integer> interestIds = interestDictionary.resolve(request.getText(), request.getInterestIds());
+            for (Integer interestId : interestIds) {
+                interestTagRows.add(postId, interestId, createdAt);
+            }
+
+            for (String tag : Hashtags.extract(request.getText())) {
+                hashtagRows.add(postId, tag, geohash, createdAt);
+            }
+
+            // A user likes a post once
+            Map<UUID, BulkPostRequest.Like> likes = new LinkedHashMap<>();
+            for (BulkPostRequest.Like like : request.getLikes()) {
+                likes.putIfAbsent(like.getUserId(), like);
+            }
+            for (BulkPostRequest.Like like : likes.values()) {
+                likeRows.add(postId, like.getUserId(), like.getCreatedAt() != null ? like.getCreatedAt() : createdAt);
+            }
+
+            for (BulkPostRequest.Comment comment : request.getComments()) {
+                if (comment.getText() == null || comment.getText().isBlank()) {
+                    throw new BadRequestException("Comment text is required");
+                }
+                LocalDateTime commentedAt = comment.getCreatedAt() != null ? comment.getCreatedAt() : createdAt;
+                commentRows.add(UUID.randomUUID(), postId, comment.getAuthorId(), comment.getText(), commentedAt, commentedAt);
+            }
+
+            postRows.add(postId, request.getAuthorId(),
+                (request.getType() != null ? request.getType() : Post.PostType.GENERAL).name(),
+                request.getText(), request.getLatitude(), request.getLongitude(), geohash,
+                request.getVisibilityRadiusKm() != null ? request.getVisibilityRadiusKm() : 10,
+                (request.isFriendsOnly() ? Post.PostVisibility.FRIENDS_ONLY : Post.PostVisibility.PUBLIC).name(),
+                request.getEventDate(), request.getEventLocationName(), request.getEventCity(),
+                createdAt, createdAt, likes.size(), request.getComments().size(), InterestBitmap.of(interestIds));
+        }
+
+        // Posts first: the other tables reference them
+        copy(COPY_POSTS, postRows);
+        copy(COPY_INTEREST_TAGS, interestTagRows);
+        copy(COPY_HASHTAGS, hashtagRows);
+        copy(COPY_LIKES, likeRows);
+        copy(COPY_COMMENTS, commentRows);
+
+        TransactionHooks.afterCommit(feedCacheService::invalidateAll);
+        geohashes.forEach(cellVersionService::bumpCell);
+
+        long elapsedMs = System.currentTimeMillis() - start;
+        log.info("Bulk ingested {} posts, {} interest tags, {} likes, {} comments in {} ms",
+            postRows.count, interestTagRows.count, likeRows.count, commentRows.count, elapsedMs);
+
+        return BulkIngestResponse.builder()
+            .posts(postRows.count)
+            .interestTags(interestTagRows.count)
+            .likes(likeRows.count)
+            .comments(commentRows.count)
+            .elapsedMs(elapsedMs)
+            .build();
+    }
+
+    private void validate(BulkPostRequest request) {
+        if (request.getAuthorId() == null) {
+            throw new BadRequestException("Author is required");
+        }
+        if (request.getText() == null || request.getText().isBlank()) {
+            throw new BadRequestException("Text is required");
+        }
+        if (request.getLatitude() == null || !GeoUtil.isValidLatitude(request.getLatitude())) {
+            throw new BadRequestException("Invalid latitude");
+        }
+        if (request.getLongitude() == null || !GeoUtil.isValidLongitude(request.getLongitude())) {
+            throw new BadRequestException("Invalid longitude");
+        }
+        Integer radiusKm = request.getVisibilityRadiusKm();
+        if (radiusKm != null && (radiusKm < 1 || radiusKm > 50)) {
+            throw new BadRequestException("Visibility radius must be between 1 and 50km");
+        }
+    }
+
+    /**
+     * One query for every author, liker and commenter of the batch
+     */
+    private void requireUsers(List<BulkPostRequest> posts) {
+        Set<UUID> userIds = new HashSet<>();
+        for (BulkPostRequest post : posts) {
+            userIds.add(post.getAuthorId());
+            post.getLikes().forEach(like -> userIds.add(like.getUserId()));
+            post.getComments().forEach(comment -> userIds.add(comment.getAuthorId()));
+        }
+        userIds.remove(null);
+        if (userIds.isEmpty()) {
+            return;
+        }
+        userIds.removeAll(userRepository.findExistingIds(userIds));
+        if (!userIds.isEmpty()) {
+            throw new ResourceNotFoundException("User not found: " + userIds.iterator().next());
+        }
+    }
+
+    private void copy(String sql, CsvRows rows) {
+        if (rows.count == 0) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn(sql, new StringReader(rows.csv.toString()));
+            } catch (IOException e) {
+                throw new IllegalStateException("COPY failed: " + sql, e);
+            }
+        });
+    }
+
+    /**
+     * Rows in COPY's CSV format: strings quoted, null as an unquoted empty field
+     */
+    private static final class CsvRows {
+        private final StringBuilder csv = new StringBuilder();
+        private int count;
+
+        void add(Object... values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                Object value = values[i];
+                if (value instanceof String text) {
+                    csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+                } else if (value != null) {
+                    csv.append(value);
+                }
+            }
+            csv.append('\n');
+            count++;
+        }
+    }
+}
@@ -4,15 +4,17 @@ import com.gullygram.backend.dto.request.CreateCommentRequest;
 import com.gullygram.backend.dto.response.AuthorView;
 import com.gullygram.backend.dto.response.CommentResponse;
 import com.gullygram.backend.entity.Comment;
-import com.gullygram.backend.entity.Notification;
+import com.gullygram.backend.entity.OutboxEvent;
 import com.gullygram.backend.entity.Post;
 import com.gullygram.backend.entity.User;
-import com.gullygram.backend.entity.UserProfile;
 import com.gullygram.backend.exception.ResourceNotFoundException;
 import com.gullygram.backend.repository.CommentRepository;
 import com.gullygram.backend.repository.PostRepository;
 import com.gullygram.backend.repository.UserRepository;
-import com.gullygram.backend.repository.UserProfileRepository;
+import com.gullygram.backend.service.feed.FeedCacheService;
+import com.gullygram.backend.service.feed.FriendsInboxService;
+import com.gullygram.backend.service.feed.TrendingService;
+import com.gullygram.backend.service.outbox.OutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -22,6 +24,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,8 +37,11 @@ public class CommentService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final AuthorViewService authorViewService;
-    private final UserProfileRepository userProfileRepository;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final FeedCacheService feedCacheService;
+    private final FriendsInboxService friendsInboxService;
+    private final TrendingService trendingService;
+    private final EngagementCounterService engagementCounterService;
 
     @Transactional
     public CommentResponse createComment(UUID postId, UUID userId, CreateCommentRequest request) {
@@ -52,20 +58,18 @@ public class CommentService {
             .build();
 
         Comment savedComment = commentRepository.save(comment);
+        engagementCounterService.recordComment(postId, 1);
+        feedCacheService.onCommentCreated(post);
+        friendsInboxService.onCommentCreated(post);
+        trendingService.onCommentCreated(post);
         log.info("User {} commented on post {}", userId, postId);
         
-        // Create notification for post author (don't notify if commenting on own post)
+        // Notify the post author after commit (don't notify if commenting on own post)
         if (!post.getAuthor().getId().equals(userId)) {
-            UserProfile commenterProfile = userProfileRepository.findByUserId(userId).orElse(null);
-            String commenterAlias = commenterProfile != null ? commenterProfile.getAlias() : "Someone";
-            notificationService.createNotification(
-                post.getAuthor().getId(),
-                Notification.NotificationType.POST_COMMENT,
-                userId,
-                "POST",
-                postId,
-                commenterAlias + " commented on your post"
-            );
+            outboxService.enqueue("POST", postId, OutboxEvent.EventType.POST_COMMENTED, Map.of(
+                "recipientId", post.getAuthor().getId().toString(),
+                "actorId", userId.toString(),
+                "entityId", postId.toString()));
         }
 
         return convertToResponse(savedComment, userId);
@@ -0,0 +1,251 @@
+package com.gullygram.backend.service;
+
+import com.gullygram.backend.util.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind aggregator for post.like_count and post.comment_count.
+ *
+ * Likes and comments only record a delta in memory after their transaction commits.
+ * A scheduled flush applies all pending deltas in one JDBC batch, so a hot post takes
+ * one UPDATE per interval instead of one row lock per like. Readers add the pending
+ * delta to the stored counter, and a periodic reconciliation recounts the source
+ * tables to repair drift (e.g. deltas lost in a crash between flushes).
+ *
+ * Until it is flushed, a delta pending here or on another instance looks like drift too,
+ * so reconciliation recounts in bounded batches, comes back after a few flushes, and repairs
+ * only posts whose counters and source rows have not moved since it looked. It runs on its
+ * own thread, so the scheduler's flushes and sweeps carry on meanwhile.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EngagementCounterService {
+
+    private static final String APPLY_DELTA_SQL =
+        "UPDATE post SET like_count = GREATEST(like_count + ?, 0), " +
+        "comment_count = GREATEST(comment_count + ?, 0) WHERE id = ?";
+
+    private static final String RECOUNT_BATCH_SQL =
+        "SELECT p.id, p.like_count, p.comment_count, " +
+        "(SELECT COUNT(*) FROM post_like l WHERE l.post_id = p.id) AS likes, " +
+        "(SELECT COUNT(*) FROM comment c WHERE c.post_id = p.id AND c.deleted_at IS NULL) AS comments " +
+        "FROM post p WHERE p.deleted_at IS NULL AND p.id > ? ORDER BY p.id LIMIT ?";
+
+    // Applies only if neither the stored counters nor the source rows changed since the recount
+    private static final String REPAIR_SQL =
+        "UPDATE post p SET like_count = ?, comment_count = ? " +
+        "WHERE p.id = ? AND p.like_count = ? AND p.comment_count = ? " +
+        "AND (SELECT COUNT(*) FROM post_like l WHERE l.post_id = p.id) = ? " +
+        "AND (SELECT COUNT(*) FROM comment c WHERE c.post_id = p.id AND c.deleted_at IS NULL) = ?";
+
+    static final int RECONCILE_BATCH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${engagement.counters.flush-interval-ms:2000}")
+    private long flushIntervalMs;
+
+    // Every mutation of a Delta happens inside compute(), which locks only that key's bin,
+    // so concurrent writers on different posts never contend and a removed Delta is final
+    private final ConcurrentHashMap<UUID, Delta> pending = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService reconciler;
+
+    @PostConstruct
+    void init() {
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "engagement-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void recordLike(UUID postId, int delta) {
+        TransactionHooks.afterCommit(() -> pending.compute(postId, (id, d) -> (d == null ? new Delta() : d).add(delta, 0)));
+    }
+
+    public void recordComment(UUID postId, int delta) {
+        TransactionHooks.afterCommit(() -> pending.compute(postId, (id, d) -> (d == null ? new Delta() : d).add(0, delta)));
+    }
+
+    /**
+     * Likes recorded but not yet flushed, to add to the stored counter
+     */
+    public long pendingLikes(UUID postId) {
+        Delta delta = pending.get(postId);
+        return delta != null ? delta.likes : 0;
+    }
+
+    public long pendingComments(UUID postId) {
+        Delta delta = pending.get(postId);
+        return delta != null ? delta.comments : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${engagement.counters.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<UUID> postIds = new ArrayList<>();
+        List<Delta> deltas = new ArrayList<>();
+        for (UUID postId : new ArrayList<>(pending.keySet())) {
+            Delta delta = pending.remove(postId);
+            if (delta != null && !delta.isZero()) {
+                postIds.add(postId);
+                deltas.add(delta);
+            }
+        }
+        if (postIds.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(postIds.size());
+        for (int i = 0; i < postIds.size(); i++) {
+            batch.add(new Object[]{deltas.get(i).likes, deltas.get(i).comments, postIds.get(i)});
+        }
+
+        try {
+            // All or nothing, since a failure puts every delta back
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, batch));
+            log.debug("Flushed engagement deltas for {} posts", postIds.size());
+        } catch (RuntimeException e) {
+            // Put the deltas back so the next flush retries them
+            for (int i = 0; i < postIds.size(); i++) {
+                Delta failed = deltas.get(i);
+                pending.compute(postIds.get(i), (id, d) -> (d == null ? new Delta() : d).add(failed.likes, failed.comments));
+            }
+            log.error("Failed to flush engagement deltas for {} posts: {}", postIds.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Recount likes and comments from the source tables and fix counters that drifted.
+     * Only starts the recount on the reconciler thread.
+     */
+    @Scheduled(cron = "${engagement.counters.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        try {
+            reconciler.execute(this::recount);
+        } catch (RejectedExecutionException e) {
+            log.warn("Engagement reconciliation not started: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Find posts whose counters differ from the source tables, then check them again once
+     * a few flushes have had the chance to run
+     */
+    void recount() {
+        List<Recount> suspects = findSuspects();
+        if (suspects.isEmpty()) {
+            return;
+        }
+        // A pending delta is flushed within an interval, moving the stored counter, and a new
+        // like or comment moves the source count; either makes the repair a no-op
+        reconciler.schedule(() -> repair(suspects), 3 * flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    List<Recount> findSuspects() {
+        List<Recount> suspects = new ArrayList<>();
+        UUID after = new UUID(0, 0);
+        List<Recount> batch;
+        do {
+            batch = jdbcTemplate.query(RECOUNT_BATCH_SQL, (rs, rowNum) -> new Recount(
+                rs.getObject("id", UUID.class),
+                rs.getLong("like_count"), rs.getLong("comment_count"),
+                rs.getLong("likes"), rs.getLong("comments")), after, RECONCILE_BATCH);
+            for (Recount recount : batch) {
+                if (recount.isDrifted() && !pending.containsKey(recount.postId)) {
+                    suspects.add(recount);
+                }
+            }
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1).postId;
+            }
+        } while (batch.size() == RECONCILE_BATCH);
+        return suspects;
+    }
+
+    void repair(List<Recount> suspects) {
+        List<Object[]> repairs = new ArrayList<>();
+        for (Recount recount : suspects) {
+            if (!pending.containsKey(recount.postId)) {
+                repairs.add(new Object[]{recount.likes, recount.comments, recount.postId,
+                    recount.storedLikes, recount.storedComments, recount.likes, recount.comments});
+            }
+        }
+        if (repairs.isEmpty()) {
+            return;
+        }
+        int repaired = 0;
+        for (int updated : jdbcTemplate.batchUpdate(REPAIR_SQL, repairs)) {
+            if (updated > 0) {
+                repaired++;
+            }
+        }
+        if (repaired > 0) {
+            log.warn("Engagement reconciliation repaired counters of {} posts", repaired);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        reconciler.shutdownNow();
+        flush();
+    }
+
+    static class Recount {
+        private final UUID postId;
+        private final long storedLikes;
+        private final long storedComments;
+        private final long likes;
+        private final long comments;
+
+        Recount(UUID postId, long storedLikes, long storedComments, long likes, long comments) {
+            this.postId = postId;
+            this.storedLikes = storedLikes;
+            this.storedComments = storedComments;
+            this.likes = likes;
+            this.comments = comments;
+        }
+
+        boolean isDrifted() {
+            return storedLikes != likes || storedComments != comments;
+        }
+    }
+
+    private static class Delta {
+        private volatile long likes;
+        private volatile long comments;
+
+        Delta add(long likeDelta, long commentDelta) {
+            likes += likeDelta;
+            comments += commentDelta;
+            return this;
+        }
+
+        boolean isZero() {
+            return likes == 0 && comments == 0;
+        }
+    }
+}
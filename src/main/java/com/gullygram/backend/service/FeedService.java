@@ -9,17 +9,35 @@ import com.gullygram.backend.exception.BadRequestException;
 import com.gullygram.backend.exception.ResourceNotFoundException;
 import com.gullygram.backend.repository.PostRepository;
 import com.gullygram.backend.repository.UserProfileRepository;
+import com.gullygram.backend.service.feed.CellVersionService;
+import com.gullygram.backend.service.feed.FeedCacheService;
+import com.gullygram.backend.service.feed.FeedCandidateBatch;
+import com.gullygram.backend.service.feed.FeedCandidateService;
+import com.gullygram.backend.service.feed.FeedCursor;
+import com.gullygram.backend.service.feed.FeedPostSkeleton;
+import com.gullygram.backend.service.feed.FeedRanker;
+import com.gullygram.backend.service.feed.FeedRankingContext;
+import com.gullygram.backend.service.feed.FeedSessionCache;
+import com.gullygram.backend.service.feed.FeedWindow;
+import com.gullygram.backend.service.feed.FriendsInboxService;
+import com.gullygram.backend.service.feed.TieredHybridFeedRanker;
+import com.gullygram.backend.service.feed.TrendingService;
 import com.gullygram.backend.util.GeoUtil;
+import com.gullygram.backend.util.Geohash;
+import com.gullygram.backend.util.InterestBitmap;
+import com.gullygram.backend.util.SingleFlight;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -28,20 +46,89 @@ import java.util.stream.Collectors;
 @Slf4j
 public class FeedService {
 
-    private final PostRepository postRepository;
     private final UserProfileRepository userProfileRepository;
-    private final PostService postService;
-    private final RelationshipService relationshipService;
+    private final PostResponseAssembler postResponseAssembler;
+    private final SocialContextService socialContextService;
+    private final PostRepository postRepository;
+    private final FeedCandidateService feedCandidateService;
+    private final FeedCacheService feedCacheService;
+    private final FriendsInboxService friendsInboxService;
+    private final CellVersionService cellVersionService;
+    private final TrendingService trendingService;
+    private final FeedSessionCache feedSessionCache;
+
+    private final List<FeedRanker> feedRankers;
+
+    @Value("${feed.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${feed.etag.time-bucket-seconds:60}")
+    private long etagTimeBucketSeconds;
+
+    @Value("${feed.ranker:" + TieredHybridFeedRanker.NAME + "}")
+    private String rankerName;
 
-    // Feed ranking weights
-    private static final double RECENCY_WEIGHT = 1.0;
-    private static final double INTEREST_MATCH_WEIGHT = 2.0;
-    private static final double ENGAGEMENT_WEIGHT = 0.5;
-    private static final int MAX_ENGAGEMENT_SCORE = 100; // Cap for normalization
+    private FeedRanker feedRanker;
+
+    // Uncached candidate windows, keyed by snapped location, radius and fetch size
+    private final SingleFlight<String, FeedWindow> windowLoads = new SingleFlight<>();
+
+    @PostConstruct
+    void selectRanker() {
+        feedRanker = feedRankers.stream()
+            .filter(ranker -> ranker.getName().equals(rankerName))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("Unknown feed.ranker: " + rankerName));
+        log.info("Feed ranking with {}", feedRanker.getName());
+    }
 
     @Transactional(readOnly = true)
-    public FeedResponse getFeed(UUID userId, Double lat, Double lon, Integer radiusKm, 
+    public FeedResponse getFeed(UUID userId, Double lat, Double lon, Integer radiusKm,
                                  Boolean interestBoost, int page, int size) {
+        return getFeed(userId, lat, lon, radiusKm, interestBoost, page, size, null);
+    }
+
+    /**
+     * Fingerprint of everything a feed page depends on, computed without the database:
+     * the request, the versions of the covered cells and of the viewer, and a time bucket
+     * since recency scores age. Null for invalid requests, which getFeed rejects.
+     */
+    public String getFeedETag(UUID userId, Double lat, Double lon, Integer radiusKm,
+                              Boolean interestBoost, int page, int size, String cursorToken) {
+        if (lat == null || lon == null || !GeoUtil.isValidLatitude(lat) || !GeoUtil.isValidLongitude(lon) || size <= 0) {
+            return null;
+        }
+        int effectiveRadius = radiusKm == null || radiusKm <= 0 ? 10 : radiusKm;
+        if (effectiveRadius > 50) {
+            return null;
+        }
+
+        List<String> cells = GeoUtil.coveringGeohashes(lat, lon, effectiveRadius);
+        String fingerprint = String.join("|",
+            feedRanker.getName(), String.valueOf(userId), String.valueOf(lat), String.valueOf(lon),
+            String.valueOf(effectiveRadius), String.valueOf(interestBoost != null && interestBoost),
+            String.valueOf(page), String.valueOf(size), String.valueOf(cursorToken),
+            String.valueOf(System.currentTimeMillis() / (etagTimeBucketSeconds * 1000)),
+            cellVersionService.fingerprint(userId, cells));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Ranked feed page. Without a cursor the first page (or the legacy offset page) is computed,
+     * the session's best posts are kept in rank order and a cursor for the next page is returned.
+     * With a cursor the page continues that order after the boundary post, so the order does not
+     * shift with engagement while the user scrolls. Past the kept posts, or once the session is
+     * evicted, the window is ranked again below the boundary, where a post whose engagement
+     * changed since may cross it.
+     */
+    @Transactional(readOnly = true)
+    public FeedResponse getFeed(UUID userId, Double lat, Double lon, Integer radiusKm,
+                                 Boolean interestBoost, int page, int size, String cursorToken) {
         // Validate inputs
         if (!GeoUtil.isValidLatitude(lat)) {
             throw new BadRequestException("Invalid latitude");
@@ -55,179 +142,366 @@ public class FeedService {
         if (radiusKm > 50) {
             throw new BadRequestException("Radius cannot exceed 50km");
         }
-        
+        if (size <= 0) {
+            throw new BadRequestException("Page size must be positive");
+        }
+
         final int effectiveRadius = radiusKm; // Make it final for lambda
+        final boolean boost = interestBoost != null && interestBoost;
+        int contextHash = FeedCursor.contextHash(lat, lon, effectiveRadius, boost);
+
+        FeedCursor cursor = decodeCursor(cursorToken, contextHash);
+        if (cursor != null && cursor.getMode() == FeedCursor.Mode.RANKED) {
+            FeedResponse sessionPage = getSessionPage(userId, size, cursor);
+            if (sessionPage != null) {
+                return sessionPage;
+            }
+        }
 
         // Get user profile for interest matching
         UserProfile userProfile = userProfileRepository.findByUserId(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User profile not found"));
 
-        Set<Integer> userInterestIds = userProfile.getInterests().stream()
-            .map(Interest::getId)
-            .collect(Collectors.toSet());
-
-
-        // Calculate bounding box
-        double[] bbox = GeoUtil.getBoundingBox(lat, lon, effectiveRadius);
-        double minLat = bbox[0];
-        double maxLat = bbox[1];
-        double minLon = bbox[2];
-        double maxLon = bbox[3];
+        // The interest collection is only loaded for ids beyond the bitmap
+        long userInterestBits = userProfile.getInterestBits();
+        Set<Integer> userInterestIds = InterestBitmap.isExact(userInterestBits)
+            ? InterestBitmap.toIds(userInterestBits)
+            : userProfile.getInterests().stream().map(Interest::getId).collect(Collectors.toSet());
 
-        // Fetch posts from database (larger page to filter and rank)
-        int fetchSize = Math.max(size * 3, 30); // Fetch more for better ranking
-        Pageable pageable = PageRequest.of(0, fetchSize);
-        Page<Post> candidatePosts = postRepository.findPostsInBoundingBox(minLat, maxLat, minLon, maxLon, pageable);
+        // Friends and blocks are loaded once for every visibility check in this request
+        ViewerSocialContext viewer = socialContextService.forViewer(userId);
 
-        log.info("Found {} candidate posts in bounding box for user {}", candidatePosts.getTotalElements(), userId);
-
-        // Filter by actual distance using Haversine
-        List<Post> filteredPosts = candidatePosts.stream()
-            .filter(post -> {
-                double distance = GeoUtil.calculateDistance(lat, lon, post.getLat(), post.getLon());
-                return distance <= effectiveRadius;
-            })
-            .collect(Collectors.toList());
+        if (cursor != null && cursor.getMode() == FeedCursor.Mode.CHRONOLOGICAL) {
+            return getChronologicalPage(viewer, lat, lon, effectiveRadius, size, cursor);
+        }
 
-        log.info("Filtered to {} posts within {}km radius", filteredPosts.size(), effectiveRadius);
+        // Every page of a session scores against the snapshot of its first page
+        LocalDateTime snapshot = cursor != null ? cursor.getSnapshot() : LocalDateTime.now();
 
-        // Filter out FRIENDS_ONLY posts if viewer is not a friend
-        List<Post> visibilityFilteredPosts = filteredPosts.stream()
-            .filter(post -> {
-                // If post is PUBLIC, everyone can see it
-                if (post.getVisibility() == Post.PostVisibility.PUBLIC) {
-                    return true;
-                }
-                // If post is FRIENDS_ONLY, check relationship
-                if (post.getVisibility() == Post.PostVisibility.FRIENDS_ONLY) {
-                    // Author can always see their own posts
-                    if (post.getAuthor().getId().equals(userId)) {
-                        return true;
-                    }
-                    // Check if viewer is friends with author
-                    return relationshipService.areFriends(userId, post.getAuthor().getId());
+        // Candidates from the per-cell cache (or straight from the covering cells when disabled)
+        FeedWindow window;
+        if (cacheEnabled) {
+            window = feedCacheService.getWindow(GeoUtil.coveringGeohashes(lat, lon, effectiveRadius));
+        } else {
+            int fetchSize = Math.max(size * 3, 30); // Fetch more for better ranking
+            window = findCandidateWindowCoalesced(lat, lon, effectiveRadius, fetchSize);
+        }
+        LocalDateTime floor = cursor != null ? cursor.getFloor() : window.getFloor();
+
+        log.info("Found {} candidate posts in covering cells for user {}", window.getPosts().size(), userId);
+
+        // Friends' FRIENDS_ONLY posts are ranked too, wherever they were posted
+        List<FeedPostSkeleton> candidates = new ArrayList<>(window.getPosts());
+        Set<UUID> inboxIds = new HashSet<>();
+        List<FeedPostSkeleton> inboxPosts = friendsInboxService.getInbox(viewer);
+        if (!inboxPosts.isEmpty()) {
+            Set<UUID> seen = new HashSet<>();
+            candidates.forEach(post -> seen.add(post.getId()));
+            for (FeedPostSkeleton post : inboxPosts) {
+                inboxIds.add(post.getId());
+                if (seen.add(post.getId())) {
+                    candidates.add(post);
                 }
-                return false;
-            })
-            .collect(Collectors.toList());
-
-        log.info("After visibility filtering: {} posts visible to user", visibilityFilteredPosts.size());
-
-
-        // Rank and Filter posts using Tiered Hybrid Algorithm
-        List<ScoredPost> scoredPosts = visibilityFilteredPosts.stream()
-            .map(post -> {
-                double distance = GeoUtil.calculateDistance(lat, lon, post.getLat(), post.getLon());
-                boolean isInterestMatch = isInterestMatch(post, userInterestIds);
+            }
+        }
 
-                // TIER 1: Local Zone (0-5km)
-                if (distance <= 5.0) {
-                    // Show EVERYTHING.
-                    // Score is primarily time-based, but we boost interest matches slightly for visual ordering
-                    double score = calculateRecencyScore(post);
-                    if (isInterestMatch) score += 5; // Slight boost
-                    return new ScoredPost(post, score);
-                }
+        // Keep the snapshot's window (nothing newer than the snapshot, nothing below the floor),
+        // the exact radius (inbox posts exempt) and what this viewer may see
+        long snapshotMicros = FeedPostSkeleton.toEpochMicros(snapshot);
+        long floorMicros = floor != null ? FeedPostSkeleton.toEpochMicros(floor) : Long.MIN_VALUE;
+        FeedCandidateBatch batch = FeedCandidateBatch.of(candidates, lat, lon, effectiveRadius);
+        batch.retainIf(i -> batch.createdAtMicros(i) <= snapshotMicros
+            && batch.createdAtMicros(i) >= floorMicros
+            && (batch.distanceKm(i) <= effectiveRadius || inboxIds.contains(batch.id(i)))
+            && isVisible(viewer, batch.post(i)));
+        // Far-away friends rank as if at the edge of the radius, not with a distance boost
+        batch.capDistance(effectiveRadius);
+
+        log.info("After distance and visibility filtering: {} posts visible to user", batch.size());
+
+        boolean trending = trendingService.isEnabled();
+        if (trending) {
+            trendingService.scoreBatch(batch, snapshot.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
 
-                // TIER 2: Extended Zone (5km to effectiveRadius)
-                // We already filtered by effectiveRadius at line 88.
-                
-                double baseScore = calculateRecencyScore(post);
-                double engagementBonus = calculateEngagementScore(post);
-                
-                double finalScore = baseScore + (engagementBonus * 0.5);
-
-                // DISCOVERY LOGIC:
-                // If user asked for a LARGE radius (> 15km), they want to explore.
-                // Boost distant posts so they see what's new out there, instead of just local stuff.
-                if (effectiveRadius > 15 && distance > 5.0) {
-                     // "The Wanderlust Boost": +2 points per km away
-                     finalScore += (distance * 2.0); 
-                } else {
-                     // Normal Mode: Slight decay for distance to keep feed relevant
-                     double decay = Math.max(0.8, 1.0 - (distance / 100.0));
-                     finalScore *= decay;
-                }
-                
-                // Interest Boost matches get a flat bonus
-                if (isInterestMatch && (interestBoost != null && interestBoost)) {
-                    finalScore += 20; 
-                }
+        FeedRankingContext rankingContext = FeedRankingContext.builder()
+            .radiusKm(effectiveRadius)
+            .interestBoost(boost)
+            .userInterestIds(userInterestIds)
+            .userInterestMask(userInterestBits)
+            .snapshotMicros(snapshotMicros)
+            .trendingEngagement(trending)
+            .hasBoundary(cursor != null)
+            .boundaryScore(cursor != null ? cursor.getScore() : 0)
+            .boundaryCreatedAtMicros(cursor != null ? FeedPostSkeleton.toEpochMicros(cursor.getCreatedAt()) : 0)
+            .boundaryId(cursor != null ? cursor.getId() : null)
+            .build();
 
-                return new ScoredPost(post, finalScore);
-            })
-            .filter(Objects::nonNull) // Remove nulls (filtered out posts)
-            .sorted(Comparator.comparingDouble(ScoredPost::getScore).reversed())
-            .collect(Collectors.toList());
+        // Rank, keeping only what this page needs (plus one to know whether more follow)
+        // A first page ranks the session's best posts too, so later pages continue its order
+        int skip = cursor == null ? page * size : 0;
+        int k = cursor == null ? Math.max(skip + size + 1, feedSessionCache.getMaxRanked()) : skip + size + 1;
+        int[] ranked = feedRanker.rank(batch, rankingContext, k);
+        if (cursor == null && ranked.length > skip + size) {
+            feedSessionCache.put(FeedSessionCache.key(userId, contextHash, snapshot),
+                toSession(batch, ranked, ranked.length == batch.size()));
+        }
 
-        // Paginate manually
-        int start = page * size;
-        int end = Math.min(start + size, scoredPosts.size());
-        
-        List<PostResponse> postResponses;
-        if (start >= scoredPosts.size()) {
-            postResponses = new ArrayList<>();
-        } else {
-            postResponses = scoredPosts.subList(start, end).stream()
-                .map(sp -> {
-                    // Add "Reason" to response if needed (not in MVP schema yet)
-                    return postService.convertToResponse(sp.getPost(), userId);
-                })
-                .collect(Collectors.toList());
+        List<UUID> pageIds = new ArrayList<>();
+        for (int r = skip; r < Math.min(skip + size, ranked.length); r++) {
+            pageIds.add(batch.id(ranked[r]));
         }
+        List<PostResponse> postResponses = postResponseAssembler.toResponses(loadPage(pageIds), userId);
 
-        int totalElements = scoredPosts.size();
+        int currentPage = cursor != null ? cursor.getPage() : page;
+        int totalElements = batch.size();
         int totalPages = (int) Math.ceil((double) totalElements / size);
 
+        // Next page: more of the ranked window, or the chronological tail below the floor
+        String nextCursor = null;
+        if (ranked.length > skip + size) {
+            int last = ranked[skip + size - 1];
+            nextCursor = FeedCursor.builder()
+                .mode(FeedCursor.Mode.RANKED)
+                .score(batch.score(last))
+                .createdAt(batch.post(last).getCreatedAt())
+                .id(batch.id(last))
+                .snapshot(snapshot)
+                .floor(floor)
+                .contextHash(contextHash)
+                .page(currentPage + 1)
+                .build()
+                .encode();
+        } else if (floor != null) {
+            nextCursor = FeedCursor.builder()
+                .mode(FeedCursor.Mode.CHRONOLOGICAL)
+                .createdAt(floor)
+                .snapshot(snapshot)
+                .contextHash(contextHash)
+                .page(currentPage + 1)
+                .build()
+                .encode();
+        }
+
         return FeedResponse.builder()
             .posts(postResponses)
-            .currentPage(page)
+            .currentPage(currentPage)
             .totalPages(totalPages)
             .totalElements(totalElements)
             .pageSize(size)
-            .hasNext(page < totalPages - 1)
-            .hasPrevious(page > 0)
+            .hasNext(nextCursor != null)
+            .hasPrevious(currentPage > 0)
+            .nextCursor(nextCursor)
             .build();
     }
 
-    private boolean isInterestMatch(Post post, Set<Integer> userInterestIds) {
-        if (post.getInterests() == null || post.getInterests().isEmpty()) return false;
-        return post.getInterests().stream()
-            .anyMatch(i -> userInterestIds.contains(i.getId()));
-    }
+    /**
+     * Next page of a cached session's order, or null when the session or the boundary post is
+     * gone, or the page runs past the kept posts of an incomplete order
+     */
+    private FeedResponse getSessionPage(UUID userId, int size, FeedCursor cursor) {
+        FeedSessionCache.RankedSession session = feedSessionCache.get(
+            FeedSessionCache.key(userId, cursor.getContextHash(), cursor.getSnapshot()));
+        if (session == null) {
+            return null;
+        }
+        int from = session.indexOf(cursor.getId()) + 1;
+        if (from == 0 || (!session.isComplete() && from + size > session.size())) {
+            return null;
+        }
+        int to = Math.min(from + size, session.size());
+
+        List<UUID> pageIds = new ArrayList<>();
+        for (int r = from; r < to; r++) {
+            pageIds.add(session.id(r));
+        }
+        List<PostResponse> postResponses = postResponseAssembler.toResponses(loadPage(pageIds), userId);
+
+        // An incomplete order always has more below its last kept post
+        String nextCursor = null;
+        if (to < session.size() || !session.isComplete()) {
+            int last = to - 1;
+            nextCursor = FeedCursor.builder()
+                .mode(FeedCursor.Mode.RANKED)
+                .score(session.score(last))
+                .createdAt(session.createdAt(last))
+                .id(session.id(last))
+                .snapshot(cursor.getSnapshot())
+                .floor(cursor.getFloor())
+                .contextHash(cursor.getContextHash())
+                .page(cursor.getPage() + 1)
+                .build()
+                .encode();
+        } else if (cursor.getFloor() != null) {
+            nextCursor = FeedCursor.builder()
+                .mode(FeedCursor.Mode.CHRONOLOGICAL)
+                .createdAt(cursor.getFloor())
+                .snapshot(cursor.getSnapshot())
+                .contextHash(cursor.getContextHash())
+                .page(cursor.getPage() + 1)
+                .build()
+                .encode();
+        }
 
-    private double calculateRecencyScore(Post post) {
-        long hoursSinceCreation = ChronoUnit.HOURS.between(post.getCreatedAt(), LocalDateTime.now());
-        // Simple decay: 100 points - 1 point per hour
-        return Math.max(0, 100 - hoursSinceCreation); 
+        int totalElements = session.getTotalElements();
+        return FeedResponse.builder()
+            .posts(postResponses)
+            .currentPage(cursor.getPage())
+            .totalPages((int) Math.ceil((double) totalElements / size))
+            .totalElements(totalElements)
+            .pageSize(size)
+            .hasNext(nextCursor != null)
+            .hasPrevious(cursor.getPage() > 0)
+            .nextCursor(nextCursor)
+            .build();
     }
 
-    private double calculateEngagementScore(Post post) {
-        // Engagement score for Hype Zone
-        long likes = post.getLikes().size();
-        long comments = post.getComments().size();
-        
-        // Cap at 100
-        return Math.min(100, (likes * 2) + (comments * 3));
+    private static FeedSessionCache.RankedSession toSession(FeedCandidateBatch batch, int[] ranked, boolean complete) {
+        UUID[] ids = new UUID[ranked.length];
+        double[] scores = new double[ranked.length];
+        LocalDateTime[] createdAts = new LocalDateTime[ranked.length];
+        for (int r = 0; r < ranked.length; r++) {
+            ids[r] = batch.id(ranked[r]);
+            scores[r] = batch.score(ranked[r]);
+            createdAts[r] = batch.post(ranked[r]).getCreatedAt();
+        }
+        return new FeedSessionCache.RankedSession(ids, scores, createdAts, complete, batch.size());
     }
 
+    /**
+     * Posts older than the ranking window, newest first, read with a keyset seek
+     */
+    private FeedResponse getChronologicalPage(ViewerSocialContext viewer, double lat, double lon, int radiusKm,
+                                              int size, FeedCursor cursor) {
+        int fetchSize = Math.max(size * 3, 30); // Some rows fall outside the radius or are hidden
+        List<FeedPostSkeleton> fetched = feedCandidateService.findOlderSkeletons(
+            lat, lon, radiusKm, cursor.getCreatedAt(), cursor.getId(), fetchSize);
+
+        List<UUID> pageIds = new ArrayList<>();
+        FeedPostSkeleton lastConsumed = null;
+        for (FeedPostSkeleton post : fetched) {
+            if (pageIds.size() == size) {
+                break;
+            }
+            lastConsumed = post;
+            if (GeoUtil.calculateDistance(lat, lon, post.getLat(), post.getLon()) <= radiusKm && isVisible(viewer, post)) {
+                pageIds.add(post.getId());
+            }
+        }
 
-    // Helper class for scoring
-    private static class ScoredPost {
-        private final Post post;
-        private final double score;
+        List<PostResponse> postResponses = postResponseAssembler.toResponses(loadPage(pageIds), viewer.getViewerId());
+
+        boolean more = fetched.size() == fetchSize || (lastConsumed != null && lastConsumed != fetched.get(fetched.size() - 1));
+        String nextCursor = null;
+        if (more && lastConsumed != null) {
+            nextCursor = FeedCursor.builder()
+                .mode(FeedCursor.Mode.CHRONOLOGICAL)
+                .createdAt(lastConsumed.getCreatedAt())
+                .id(lastConsumed.getId())
+                .snapshot(cursor.getSnapshot())
+                .contextHash(cursor.getContextHash())
+                .page(cursor.getPage() + 1)
+                .build()
+                .encode();
+        }
 
-        public ScoredPost(Post post, double score) {
-            this.post = post;
-            this.score = score;
+        return FeedResponse.builder()
+            .posts(postResponses)
+            .currentPage(cursor.getPage())
+            .totalPages(cursor.getPage() + (nextCursor != null ? 2 : 1))
+            .totalElements((long) cursor.getPage() * size + postResponses.size())
+            .pageSize(size)
+            .hasNext(nextCursor != null)
+            .hasPrevious(cursor.getPage() > 0)
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    /**
+     * Blocked authors and FRIENDS_ONLY visibility
+     */
+    private boolean isVisible(ViewerSocialContext viewer, FeedPostSkeleton post) {
+        if (viewer.isBlocked(post.getAuthorId())) {
+            return false;
         }
+        // If post is PUBLIC, everyone can see it
+        if (post.getVisibility() == Post.PostVisibility.PUBLIC) {
+            return true;
+        }
+        // If post is FRIENDS_ONLY, the author and their friends can see it
+        if (post.getVisibility() == Post.PostVisibility.FRIENDS_ONLY) {
+            return viewer.isSelf(post.getAuthorId()) || viewer.isFriend(post.getAuthorId());
+        }
+        return false;
+    }
 
-        public Post getPost() {
-            return post;
+    /**
+     * Posts with the most recent engagement within the radius, hottest first
+     */
+    @Transactional(readOnly = true)
+    public List<PostResponse> getTrending(UUID userId, Double lat, Double lon, Integer radiusKm, int limit) {
+        if (!GeoUtil.isValidLatitude(lat)) {
+            throw new BadRequestException("Invalid latitude");
+        }
+        if (!GeoUtil.isValidLongitude(lon)) {
+            throw new BadRequestException("Invalid longitude");
+        }
+        if (radiusKm == null || radiusKm <= 0) {
+            radiusKm = 10; // Default
+        }
+        if (radiusKm > 50) {
+            throw new BadRequestException("Radius cannot exceed 50km");
+        }
+        if (limit <= 0 || limit > 50) {
+            throw new BadRequestException("Limit must be between 1 and 50");
         }
+        if (!trendingService.isEnabled()) {
+            return List.of();
+        }
+
+        ViewerSocialContext viewer = socialContextService.forViewer(userId);
+        List<UUID> ids = trendingService.trendingNear(viewer, lat, lon, radiusKm, limit);
+        return postResponseAssembler.toResponses(loadPage(ids), userId);
+    }
 
-        public double getScore() {
-            return score;
+    public SingleFlight<String, ?> getWindowLoads() {
+        return windowLoads;
+    }
+
+    /**
+     * Neighbours requesting the same radius at the same moment share one candidate query:
+     * the location is snapped to the centre of its grid cell and the radius widened to still
+     * cover the exact circle, which the batch filter below applies per request
+     */
+    private FeedWindow findCandidateWindowCoalesced(double lat, double lon, int radiusKm, int fetchSize) {
+        long cell = Geohash.encode(lat, lon, GeoUtil.SNAP_GRID_PRECISION);
+        String key = Geohash.toBase32(cell) + ":" + radiusKm + ":" + fetchSize;
+        return windowLoads.execute(key, () -> feedCandidateService.findCandidateWindow(
+            Geohash.centerLat(cell), Geohash.centerLon(cell), radiusKm + GeoUtil.cellCircumradiusKm(cell), fetchSize));
+    }
+
+    private FeedCursor decodeCursor(String cursorToken, int contextHash) {
+        if (cursorToken == null || cursorToken.isBlank()) {
+            return null;
+        }
+        FeedCursor cursor = FeedCursor.decode(cursorToken);
+        if (cursor.getContextHash() != contextHash) {
+            throw new BadRequestException("Feed cursor does not match the requested location or filters");
         }
+        return cursor;
+    }
+
+    /**
+     * Load full posts for the ranked page, preserving rank order.
+     * Posts deleted since they were cached simply drop out.
+     */
+    private List<Post> loadPage(List<UUID> ids) {
+        Map<UUID, Post> postsById = postRepository.findAllById(ids).stream()
+            .filter(post -> !post.isDeleted())
+            .collect(Collectors.toMap(Post::getId, post -> post));
+        return ids.stream()
+            .map(postsById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,107 @@
+package com.gullygram.backend.service;
+
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.util.GeoUtil;
+import com.gullygram.backend.util.Hashtags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Maintains post_hashtag and answers hashtag lookups from it.
+ *
+ * A lookup is an index range scan per geohash cell on (tag, geohash, created_at), or a
+ * single scan on (tag, created_at) without a location, and returns only post ids; the
+ * caller loads that page of posts by id, and continues after the last one with a keyset
+ * on (created_at, post_id) when filters left the page short.
+ */
+@Service
+@RequiredArgsConstructor
+public class HashtagService {
+
+    private static final String INSERT_TAG =
+        "INSERT INTO post_hashtag (post_id, tag, geohash, created_at) VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Index the hashtags of a post; it must be flushed, so the row and its creation time exist
+     */
+    public void index(Post post) {
+        Set<String> tags = Hashtags.extract(post.getText());
+        if (tags.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(post.getCreatedAt());
+        List<Object[]> rows = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            rows.add(new Object[]{post.getId(), tag, post.getGeohash(), createdAt});
+        }
+        jdbcTemplate.batchUpdate(INSERT_TAG, rows);
+    }
+
+    public void remove(UUID postId) {
+        jdbcTemplate.update("DELETE FROM post_hashtag WHERE post_id = ?", postId);
+    }
+
+    /**
+     * The newest posts carrying the tag, inside any of the geohash cells when given
+     * @param tag a normalized tag, see Hashtags.normalize
+     * @param after the last post of the previous batch, or null for the newest
+     */
+    public List<TaggedPost> findPosts(String tag, Collection<String> cells, TaggedPost after, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT post_id, created_at FROM post_hashtag WHERE tag = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(tag);
+
+        if (cells != null && !cells.isEmpty()) {
+            // Prefix ranges rather than LIKE, as in PostRepositoryCustomImpl
+            StringJoiner ranges = new StringJoiner(" OR ", " AND (", ")");
+            for (String cell : cells) {
+                String upper = GeoUtil.geohashPrefixUpperBound(cell);
+                args.add(cell);
+                if (upper == null) {
+                    ranges.add("geohash >= ?");
+                } else {
+                    ranges.add("(geohash >= ? AND geohash < ?)");
+                    args.add(upper);
+                }
+            }
+            sql.append(ranges);
+        }
+
+        if (after != null) {
+            sql.append(" AND (created_at, post_id) < (?, ?)");
+            args.add(Timestamp.valueOf(after.getCreatedAt()));
+            args.add(after.getPostId());
+        }
+
+        sql.append(" ORDER BY created_at DESC, post_id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new TaggedPost(
+            rs.getObject("post_id", UUID.class),
+            rs.getTimestamp("created_at").toLocalDateTime()), args.toArray());
+    }
+
+    public static class TaggedPost {
+        private final UUID postId;
+        private final LocalDateTime createdAt;
+
+        public TaggedPost(UUID postId, LocalDateTime createdAt) {
+            this.postId = postId;
+            this.createdAt = createdAt;
+        }
+
+        public UUID getPostId() {
+            return postId;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.gullygram.backend.entity.User;
 import com.gullygram.backend.repository.HuddleParticipantRepository;
 import com.gullygram.backend.repository.HuddleRepository;
 import com.gullygram.backend.repository.UserRepository;
+import com.gullygram.backend.util.GeoUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -18,9 +19,9 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -62,7 +63,7 @@ public class HuddleService {
         // Creator automatically joins
         joinHuddle(huddle.getId(), userId);
 
-        return convertToResponse(huddle, userId);
+        return convertToResponse(huddle, userId, null);
     }
 
     @Transactional
@@ -182,12 +183,25 @@ public class HuddleService {
     @Transactional(readOnly = true)
     public List<HuddleResponse> getNearbyHuddles(UUID userId, double lat, double lon, double radiusKm) {
         List<Huddle> huddles = huddleRepository.findNearbyOpenHuddles(lat, lon, radiusKm);
-        return huddles.stream()
-                .map(h -> convertToResponse(h, userId))
-                .collect(Collectors.toList());
+
+        // Distances relative to the requested location, in one batched pass
+        double[] lats = new double[huddles.size()];
+        double[] lons = new double[huddles.size()];
+        for (int i = 0; i < huddles.size(); i++) {
+            lats[i] = huddles.get(i).getLat();
+            lons[i] = huddles.get(i).getLon();
+        }
+        double[] distances = new double[huddles.size()];
+        GeoUtil.distancesWithin(lat, lon, radiusKm, lats, lons, huddles.size(), distances);
+
+        List<HuddleResponse> responses = new ArrayList<>(huddles.size());
+        for (int i = 0; i < huddles.size(); i++) {
+            responses.add(convertToResponse(huddles.get(i), userId, distances[i]));
+        }
+        return responses;
     }
 
-    private HuddleResponse convertToResponse(Huddle huddle, UUID currentUserId) {
+    private HuddleResponse convertToResponse(Huddle huddle, UUID currentUserId, Double distanceKm) {
         AuthorView creatorView = authorViewService.buildAuthorView(currentUserId, huddle.getCreator());
         long currentParticipants = huddleParticipantRepository.countByHuddleIdAndStatus(huddle.getId(), HuddleParticipant.ParticipantStatus.JOINED);
         boolean isJoined = huddleParticipantRepository.existsByHuddleIdAndUserIdAndStatus(huddle.getId(), currentUserId, HuddleParticipant.ParticipantStatus.JOINED);
@@ -195,14 +209,6 @@ public class HuddleService {
         log.info("Converting Huddle {} for user {}: participants={}, isJoined={}", 
                 huddle.getId(), currentUserId, currentParticipants, isJoined);
         
-        // Calculate distance
-        // Simplified Haversine for display
-        double distance = calculateDistanceInternal(huddle.getLat(), huddle.getLon(), huddle.getLat(), huddle.getLon()); // This needs current user location passed in if we want dynamic distance, 
-                                                                                                                        // but for list mapping usually we map relative to center or pass in user location.
-        // Huddle entity stores its own location. The 'distance' in response SHOULD be relative to the requested lat/lon. 
-        // For now, I'll allow distance to be 0 or null in conversion if not available, OR I need to change signature.
-        // Let's assume frontend calculates precise distance or we pass user location context.
-        
         return HuddleResponse.builder()
                 .id(huddle.getId())
                 .creator(creatorView)
@@ -215,7 +221,7 @@ public class HuddleService {
                 .endTime(huddle.getEndTime())
                 .status(huddle.getStatus())
                 .maxParticipants(huddle.getMaxParticipants())
-                // .distanceKm(distance) // Omit for now or calculate if lat/lon available in context
+                .distanceKm(distanceKm)
                 .currentParticipants((int) currentParticipants)
                 .genderFilter(huddle.getGenderFilter())
                 .isJoined(isJoined)
@@ -233,17 +239,4 @@ public class HuddleService {
                         .build())
                 .collect(java.util.stream.Collectors.toList());
     }
-
-    private double calculateDistanceInternal(double lat1, double lon1, double lat2, double lon2) {
-        // Quick Haversine
-        if ((lat1 == lat2) && (lon1 == lon2)) return 0;
-        double theta = lon1 - lon2;
-        double dist = Math.sin(Math.toRadians(lat1)) * Math.sin(Math.toRadians(lat2)) + 
-                      Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.cos(Math.toRadians(theta));
-        dist = Math.acos(dist);
-        dist = Math.toDegrees(dist);
-        dist = dist * 60 * 1.1515;
-        dist = dist * 1.609344; // in Kilometers
-        return dist;
-    }
 }
@@ -0,0 +1,181 @@
+package com.gullygram.backend.service;
+
+import com.gullygram.backend.dto.response.InterestResponse;
+import com.gullygram.backend.entity.Interest;
+import com.gullygram.backend.exception.ResourceNotFoundException;
+import com.gullygram.backend.repository.InterestAliasRepository;
+import com.gullygram.backend.repository.InterestRepository;
+import com.gullygram.backend.util.Hashtags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Interests and their hashtag aliases, held in memory.
+ *
+ * Both tables are small and change only through migrations or by hand, so they are read
+ * into an immutable snapshot that readers use without locking or database access:
+ * - Listing and lookup of interests by id
+ * - Resolving a post's explicit interest ids and hashtags in one pass over the text
+ *
+ * The snapshot is rebuilt every interests.dictionary.refresh-interval-ms, and at most once
+ * per MISS_RELOAD_MS when an explicit id is unknown, so new interests are picked up
+ * without a restart.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InterestDictionary {
+
+    private static final long MISS_RELOAD_MS = 10_000;
+
+    private final InterestRepository interestRepository;
+    private final InterestAliasRepository interestAliasRepository;
+
+    private volatile Snapshot snapshot;
+    private volatile long loadedAt;
+
+    public List<InterestResponse> listAll() {
+        return current().interests.values().stream()
+            .map(InterestDictionary::copyOf)
+            .collect(Collectors.toList());
+    }
+
+    public Optional<InterestResponse> find(int interestId) {
+        return Optional.ofNullable(current().interests.get(interestId)).map(InterestDictionary::copyOf);
+    }
+
+    /**
+     * Whether the interest exists; an unknown id may reload the snapshot
+     */
+    public boolean contains(int interestId) {
+        return current().interests.containsKey(interestId) || reloadOnMiss().interests.containsKey(interestId);
+    }
+
+    /**
+     * A detached Interest carrying the id, for writing associations without loading the row
+     */
+    public Interest reference(int interestId) {
+        InterestResponse interest = current().interests.get(interestId);
+        if (interest == null) {
+            throw new ResourceNotFoundException("Interest not found: " + interestId);
+        }
+        return Interest.builder()
+            .id(interest.getId())
+            .name(interest.getName())
+            .description(interest.getDescription())
+            .build();
+    }
+
+    /**
+     * Interest ids of a post: the explicit ids, plus every hashtag matching an interest name
+     * or an alias (case-insensitive)
+     * @throws ResourceNotFoundException for an unknown explicit id
+     */
+    public Set<Integer> resolve(String text, Collection<Integer> explicitIds) {
+        Snapshot dictionary = current();
+        Set<Integer> resolved = new TreeSet<>();
+
+        if (explicitIds != null) {
+            for (Integer interestId : explicitIds) {
+                if (!contains(interestId)) {
+                    throw new ResourceNotFoundException("Interest not found: " + interestId);
+                }
+                resolved.add(interestId);
+            }
+            dictionary = current();
+        }
+
+        for (String tag : Hashtags.extract(text)) {
+            Integer byName = dictionary.byName.get(tag);
+            if (byName != null) {
+                resolved.add(byName);
+            }
+            Integer byAlias = dictionary.byAlias.get(tag);
+            if (byAlias != null) {
+                resolved.add(byAlias);
+            }
+        }
+        return resolved;
+    }
+
+    @Scheduled(fixedDelayString = "${interests.dictionary.refresh-interval-ms:300000}",
+               initialDelayString = "${interests.dictionary.refresh-interval-ms:300000}")
+    public synchronized void reload() {
+        Map<Integer, InterestResponse> interests = new TreeMap<>();
+        Map<String, Integer> byName = new HashMap<>();
+        for (Interest interest : interestRepository.findAll()) {
+            interests.put(interest.getId(), toResponse(interest));
+            byName.put(interest.getName().toLowerCase(Locale.ROOT), interest.getId());
+        }
+        Map<String, Integer> byAlias = new HashMap<>();
+        for (Object[] row : interestAliasRepository.findAllAliasMappings()) {
+            byAlias.put(((String) row[0]).toLowerCase(Locale.ROOT), (Integer) row[1]);
+        }
+
+        Snapshot previous = snapshot;
+        snapshot = new Snapshot(interests, byName, byAlias);
+        loadedAt = System.currentTimeMillis();
+        if (previous == null || previous.interests.size() != interests.size() || previous.byAlias.size() != byAlias.size()) {
+            log.info("Interest dictionary loaded: {} interests, {} aliases", interests.size(), byAlias.size());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private synchronized Snapshot reloadOnMiss() {
+        if (System.currentTimeMillis() - loadedAt > MISS_RELOAD_MS) {
+            reload();
+        }
+        return snapshot;
+    }
+
+    private static InterestResponse toResponse(Interest interest) {
+        return InterestResponse.builder()
+            .id(interest.getId())
+            .name(interest.getName())
+            .description(interest.getDescription())
+            .build();
+    }
+
+    /**
+     * Responses are mutable, so callers get copies
+     */
+    private static InterestResponse copyOf(InterestResponse interest) {
+        return InterestResponse.builder()
+            .id(interest.getId())
+            .name(interest.getName())
+            .description(interest.getDescription())
+            .build();
+    }
+
+    /**
+     * Immutable view of both tables, holding values rather than entities
+     */
+    private static class Snapshot {
+        private final Map<Integer, InterestResponse> interests;
+        private final Map<String, Integer> byName;
+        private final Map<String, Integer> byAlias;
+
+        Snapshot(Map<Integer, InterestResponse> interests, Map<String, Integer> byName, Map<String, Integer> byAlias) {
+            this.interests = Collections.unmodifiableMap(interests);
+            this.byName = Map.copyOf(byName);
+            this.byAlias = Map.copyOf(byAlias);
+        }
+    }
+}
@@ -6,14 +6,18 @@ import com.gullygram.backend.entity.Interest;
 import com.gullygram.backend.entity.UserProfile;
 import com.gullygram.backend.exception.BadRequestException;
 import com.gullygram.backend.exception.ResourceNotFoundException;
-import com.gullygram.backend.repository.InterestRepository;
 import com.gullygram.backend.repository.UserProfileRepository;
+import com.gullygram.backend.service.feed.CellVersionService;
+import com.gullygram.backend.util.InterestBitmap;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -21,17 +25,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class InterestService {
 
-    private final InterestRepository interestRepository;
+    private final InterestDictionary interestDictionary;
     private final UserProfileRepository userProfileRepository;
+    private final CellVersionService cellVersionService;
 
     public List<InterestResponse> getAllInterests() {
-        return interestRepository.findAll().stream()
-            .map(interest -> InterestResponse.builder()
-                .id(interest.getId())
-                .name(interest.getName())
-                .description(interest.getDescription())
-                .build())
-            .collect(Collectors.toList());
+        return interestDictionary.listAll();
     }
 
     @Transactional
@@ -40,35 +39,38 @@ public class InterestService {
             .orElseThrow(() -> new ResourceNotFoundException("Profile not found"));
 
         // Validate all interest IDs exist
-        List<Interest> interests = interestRepository.findByIdIn(request.getInterestIds());
-        
-        if (interests.size() != request.getInterestIds().size()) {
+        if (!request.getInterestIds().stream().allMatch(interestDictionary::contains)) {
             throw new BadRequestException("One or more interest IDs are invalid");
         }
 
         // Update user interests
-        profile.setInterests(new HashSet<>(interests));
+        Set<Interest> interests = new HashSet<>();
+        for (Integer interestId : request.getInterestIds()) {
+            interests.add(interestDictionary.reference(interestId));
+        }
+        profile.setInterests(interests);
         userProfileRepository.save(profile);
+        // Interests change how the user's feed ranks
+        cellVersionService.bumpViewer(userId);
 
-        return interests.stream()
-            .map(interest -> InterestResponse.builder()
-                .id(interest.getId())
-                .name(interest.getName())
-                .description(interest.getDescription())
-                .build())
-            .collect(Collectors.toList());
+        return toResponses(new TreeSet<>(request.getInterestIds()));
     }
 
     public List<InterestResponse> getUserInterests(UUID userId) {
         UserProfile profile = userProfileRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("Profile not found"));
 
-        return profile.getInterests().stream()
-            .map(interest -> InterestResponse.builder()
-                .id(interest.getId())
-                .name(interest.getName())
-                .description(interest.getDescription())
-                .build())
+        // The interest collection is only loaded for ids beyond the bitmap
+        Set<Integer> interestIds = InterestBitmap.isExact(profile.getInterestBits())
+            ? InterestBitmap.toIds(profile.getInterestBits())
+            : profile.getInterests().stream().map(Interest::getId).collect(Collectors.toCollection(TreeSet::new));
+        return toResponses(interestIds);
+    }
+
+    private List<InterestResponse> toResponses(Set<Integer> interestIds) {
+        return interestIds.stream()
+            .map(interestDictionary::find)
+            .flatMap(Optional::stream)
             .collect(Collectors.toList());
     }
 }
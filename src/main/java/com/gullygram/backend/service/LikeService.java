@@ -1,20 +1,23 @@
 package com.gullygram.backend.service;
 
-import com.gullygram.backend.entity.Notification;
+import com.gullygram.backend.entity.OutboxEvent;
 import com.gullygram.backend.entity.Post;
 import com.gullygram.backend.entity.PostLike;
 import com.gullygram.backend.entity.User;
-import com.gullygram.backend.entity.UserProfile;
 import com.gullygram.backend.exception.ResourceNotFoundException;
 import com.gullygram.backend.repository.PostLikeRepository;
 import com.gullygram.backend.repository.PostRepository;
 import com.gullygram.backend.repository.UserRepository;
-import com.gullygram.backend.repository.UserProfileRepository;
+import com.gullygram.backend.service.feed.FeedCacheService;
+import com.gullygram.backend.service.feed.FriendsInboxService;
+import com.gullygram.backend.service.feed.TrendingService;
+import com.gullygram.backend.service.outbox.OutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,8 +29,11 @@ public class LikeService {
     private final PostLikeRepository postLikeRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final UserProfileRepository userProfileRepository;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final FeedCacheService feedCacheService;
+    private final FriendsInboxService friendsInboxService;
+    private final TrendingService trendingService;
+    private final EngagementCounterService engagementCounterService;
 
     @Transactional
     public boolean toggleLike(UUID postId, UUID userId) {
@@ -42,6 +48,10 @@ public class LikeService {
         if (existingLike.isPresent()) {
             // Unlike
             postLikeRepository.delete(existingLike.get());
+            engagementCounterService.recordLike(postId, -1);
+            feedCacheService.onLikeToggled(post, false);
+            friendsInboxService.onLikeToggled(post, false);
+            trendingService.onLikeToggled(post, false);
             log.info("User {} unliked post {}", userId, postId);
             return false;
         } else {
@@ -52,20 +62,18 @@ public class LikeService {
                 .user(user)
                 .build();
             postLikeRepository.save(postLike);
+            engagementCounterService.recordLike(postId, 1);
+            feedCacheService.onLikeToggled(post, true);
+            friendsInboxService.onLikeToggled(post, true);
+            trendingService.onLikeToggled(post, true);
             log.info("User {} liked post {}", userId, postId);
             
-            // Create notification for post author (don't notify if liking own post)
+            // Notify the post author after commit (don't notify if liking own post)
             if (!post.getAuthor().getId().equals(userId)) {
-                UserProfile likerProfile = userProfileRepository.findByUserId(userId).orElse(null);
-                String likerAlias = likerProfile != null ? likerProfile.getAlias() : "Someone";
-                notificationService.createNotification(
-                    post.getAuthor().getId(),
-                    Notification.NotificationType.POST_LIKE,
-                    userId,
-                    "POST",
-                    postId,
-                    likerAlias + " liked your post"
-                );
+                outboxService.enqueue("POST", postId, OutboxEvent.EventType.POST_LIKED, Map.of(
+                    "recipientId", post.getAuthor().getId().toString(),
+                    "actorId", userId.toString(),
+                    "entityId", postId.toString()));
             }
             
             return true;
@@ -79,6 +87,8 @@ public class LikeService {
 
     @Transactional(readOnly = true)
     public long getLikeCount(UUID postId) {
-        return postLikeRepository.countByPostId(postId);
+        Post post = postRepository.findByIdAndNotDeleted(postId)
+            .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
+        return post.getLikeCount() + engagementCounterService.pendingLikes(postId);
     }
 }
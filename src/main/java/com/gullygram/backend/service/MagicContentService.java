@@ -1,16 +1,15 @@
 package com.gullygram.backend.service;
 
-import com.gullygram.backend.dto.request.CreateCommentRequest;
-import com.gullygram.backend.dto.request.CreatePostRequest;
+import com.gullygram.backend.dto.request.BulkPostRequest;
 import com.gullygram.backend.dto.request.SignupRequest;
 import com.gullygram.backend.dto.response.AuthResponse;
-import com.gullygram.backend.dto.response.PostResponse;
 import com.gullygram.backend.entity.Post;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -18,7 +17,6 @@ import java.util.HashSet; // Added
 import java.util.List;
 import java.util.Random;
 import java.util.Set; // Added
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -26,10 +24,7 @@ import java.util.UUID;
 public class MagicContentService {
 
     private final AuthService authService;
-    private final PostService postService;
-    private final com.gullygram.backend.repository.PostRepository postRepository;
-    private final CommentService commentService;
-    private final LikeService likeService;
+    private final BulkIngestionService bulkIngestionService;
 
     private final Random random = new Random();
 
@@ -52,29 +47,41 @@ public class MagicContentService {
     // Deleting the old implementation to avoid compilation error.
     // (The new one is at the bottom of the file)
 
-    private void simulateEngagement(UUID postId, List<AuthResponse> users) {
-        // Random Likes (0 to 15)
+    private void simulateEngagement(BulkPostRequest post, List<AuthResponse> users) {
+        // Random Likes (0 to 15); repeat likers are dropped by the bulk path
         int likeCount = random.nextInt(16);
         for (int i = 0; i < likeCount; i++) {
             AuthResponse liker = users.get(random.nextInt(users.size()));
-            try {
-                likeService.toggleLike(postId, liker.getUserId());
-            } catch (Exception ignored) {} // Ignore double likes
+            post.getLikes().add(BulkPostRequest.Like.builder()
+                .userId(liker.getUserId())
+                .createdAt(engagementTime(post.getCreatedAt()))
+                .build());
         }
 
         // Random Comments (0 to 5)
         int commentCount = random.nextInt(6);
         for (int i = 0; i < commentCount; i++) {
             AuthResponse commenter = users.get(random.nextInt(users.size()));
-            CreateCommentRequest commentReq = new CreateCommentRequest();
-            commentReq.setText(COMMON_COMMENTS.get(random.nextInt(COMMON_COMMENTS.size())));
-            
-            try {
-                commentService.createComment(postId, commenter.getUserId(), commentReq);
-            } catch (Exception ignored) {}
+            post.getComments().add(BulkPostRequest.Comment.builder()
+                .authorId(commenter.getUserId())
+                .text(COMMON_COMMENTS.get(random.nextInt(COMMON_COMMENTS.size())))
+                .createdAt(engagementTime(post.getCreatedAt()))
+                .build());
         }
     }
 
+    /**
+     * A random moment between the post and now
+     */
+    private LocalDateTime engagementTime(LocalDateTime postedAt) {
+        long minutesSince = Math.max(1, Duration.between(postedAt, LocalDateTime.now()).toMinutes());
+        return postedAt.plusMinutes(random.nextLong(minutesSince));
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
     private List<AuthResponse> ensureBotUsers(String zone) {
         List<AuthResponse> bots = new ArrayList<>();
         // Create 5 bots specific to this seeding run if needed, or reuse.
@@ -181,7 +188,7 @@ public class MagicContentService {
 
     // --- ENHANCED LOGIC ---
 
-    private void simulateConversation(UUID postId, List<AuthResponse> users) {
+    private void simulateConversation(BulkPostRequest post, List<AuthResponse> users) {
         if (users.size() < 2) return;
         
         // Pick two bots to have a chat
@@ -201,16 +208,16 @@ public class MagicContentService {
 
         String[] thread = conversations.get(random.nextInt(conversations.size()));
 
+        LocalDateTime repliedAt = engagementTime(post.getCreatedAt());
         for (int i = 0; i < thread.length; i++) {
-            // Alternate between A and B
+            // Alternate between A and B, a few minutes apart
             AuthResponse speaker = (i % 2 == 0) ? botA : botB;
-            
-            try {
-                // Add slight delay simulation (createdAt would need to be tweaked in real world, but for feed sort it's fine)
-                CreateCommentRequest req = new CreateCommentRequest();
-                req.setText(thread[i]);
-                commentService.createComment(postId, speaker.getUserId(), req);
-            } catch (Exception ignored) {}
+            post.getComments().add(BulkPostRequest.Comment.builder()
+                .authorId(speaker.getUserId())
+                .text(thread[i])
+                .createdAt(repliedAt)
+                .build());
+            repliedAt = min(repliedAt.plusMinutes(1 + random.nextInt(10)), LocalDateTime.now());
         }
     }
 
@@ -234,11 +241,12 @@ public class MagicContentService {
         String zone = identifyZone(lat, lon);
         List<String> postTemplates = getTemplatesForZone(zone);
         List<AuthResponse> users = ensureBotUsers(zone);
+        List<BulkPostRequest> posts = new ArrayList<>();
 
         // 1. DENSE LOCAL CLUSTER (Your hood) - 20 posts
         for (int i = 0; i < 20; i++) {
              String template = postTemplates.get(random.nextInt(postTemplates.size()));
-             createPostWithJitter(template, lat, lon, 0.012, users); // ~1km jitter
+             posts.add(createPostWithJitter(template, lat, lon, 0.012, users)); // ~1km jitter
         }
 
         // 2. REMOTE CLUSTERS (Hotspots) - 5 posts each
@@ -260,7 +268,7 @@ public class MagicContentService {
         for (double[] spot : hotspots) {
             for (int k = 0; k < 5; k++) {
                 String t = hotspotTemplates.get(random.nextInt(hotspotTemplates.size()));
-                createPostWithJitter(t, spot[0], spot[1], 0.01, users);
+                posts.add(createPostWithJitter(t, spot[0], spot[1], 0.01, users));
             }
         }
 
@@ -281,23 +289,19 @@ public class MagicContentService {
         for (int i = 0; i < 30; i++) {
             String template = wideTemplates.get(random.nextInt(wideTemplates.size()));
             double[] loc = getRandomLocationInAnnulus(lat, lon, 4.0, 45.0);
-            createPostWithJitter(template, loc[0], loc[1], 0.005, users);
+            posts.add(createPostWithJitter(template, loc[0], loc[1], 0.005, users));
         }
+
+        // Posts, likes and comments in one bulk write, with their timestamps spread over 3 days
+        bulkIngestionService.ingest(posts);
     }
 
-    private void createPostWithJitter(String template, double lat, double lon, double jitter, List<AuthResponse> users) {
+    private BulkPostRequest createPostWithJitter(String template, double lat, double lon, double jitter, List<AuthResponse> users) {
         AuthResponse author = users.get(random.nextInt(users.size()));
         
         double pLat = lat + (random.nextDouble() - 0.5) * jitter;
         double pLon = lon + (random.nextDouble() - 0.5) * jitter;
 
-        CreatePostRequest postReq = new CreatePostRequest();
-        postReq.setText(template);
-        postReq.setLatitude(pLat);
-        postReq.setLongitude(pLon);
-        postReq.setType(inferType(template));
-        postReq.setFriendsOnly(false);
-
         // --- INTEREST MAPPING (Based on V1__init_users.sql) ---
         Set<Integer> interestIds = new HashSet<>();
         String lower = template.toLowerCase();
@@ -308,24 +312,26 @@ public class MagicContentService {
         if (lower.contains("travel") || lower.contains("getaway") || lower.contains("trekking")) interestIds.add(7); // Travel
         if (lower.contains("dance") || lower.contains("salsa")) interestIds.add(3); // Dance
         if (lower.contains("music") || lower.contains("jazz")) interestIds.add(4); // Music
-        
-        if (!interestIds.isEmpty()) {
-            postReq.setInterestIds(interestIds);
-        }
-
-        PostResponse post = postService.createPost(author.getUserId(), postReq);
 
         // Time Travel (0 - 3 days to show decent feed history)
         int hoursAgo = random.nextInt(72);
-        LocalDateTime pastTime = LocalDateTime.now().minusHours(hoursAgo);
-        postRepository.updateCreatedAt(post.getId(), pastTime);
+        BulkPostRequest post = BulkPostRequest.builder()
+            .authorId(author.getUserId())
+            .text(template)
+            .latitude(pLat)
+            .longitude(pLon)
+            .type(inferType(template))
+            .interestIds(interestIds)
+            .createdAt(LocalDateTime.now().minusHours(hoursAgo))
+            .build();
 
         // Engage
-        simulateEngagement(post.getId(), users);
+        simulateEngagement(post, users);
         
         // 60% chance of a full conversation
         if (random.nextDouble() < 0.6) {
-            simulateConversation(post.getId(), users);
+            simulateConversation(post, users);
         }
+        return post;
     }
 }
@@ -1,5 +1,6 @@
 package com.gullygram.backend.service;
 
+import com.gullygram.backend.dto.response.InterestResponse;
 import com.gullygram.backend.dto.response.PeopleSuggestionResponse;
 import com.gullygram.backend.entity.Interest;
 import com.gullygram.backend.entity.User;
@@ -9,6 +10,7 @@ import com.gullygram.backend.repository.RelationshipRepository;
 import com.gullygram.backend.repository.UserProfileRepository;
 import com.gullygram.backend.repository.UserRepository;
 import com.gullygram.backend.util.GeoUtil;
+import com.gullygram.backend.util.InterestBitmap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -33,6 +35,7 @@ public class PeopleSuggestionService {
     private final UserRepository userRepository;
     private final UserProfileRepository userProfileRepository;
     private final RelationshipRepository relationshipRepository;
+    private final InterestDictionary interestDictionary;
 
     // Scoring weights
     private static final int SAME_TOP_INTEREST_SCORE = 40;
@@ -51,9 +54,11 @@ public class PeopleSuggestionService {
         UserProfile currentProfile = userProfileRepository.findByUserId(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User profile not found"));
 
-        Set<Integer> userInterestIds = currentProfile.getInterests().stream()
-            .map(Interest::getId)
-            .collect(Collectors.toSet());
+        // Interests are compared as bitmaps; collections are only loaded for ids beyond them
+        long userInterestBits = currentProfile.getInterestBits();
+        Set<Integer> userInterestIds = InterestBitmap.isExact(userInterestBits)
+            ? InterestBitmap.toIds(userInterestBits)
+            : currentProfile.getInterests().stream().map(Interest::getId).collect(Collectors.toSet());
 
         // Get the user's top interest (first one for simplicity, could be improved)
         Integer topInterestId = userInterestIds.stream().findFirst().orElse(null);
@@ -83,7 +88,7 @@ public class PeopleSuggestionService {
         
         // Get all user profiles (for pilot with small user base)
         // In production, this would use a more efficient geo query
-        List<UserProfile> candidateProfiles = userProfileRepository.findAll().stream()
+        List<UserProfile> inBox = userProfileRepository.findAll().stream()
             .filter(p -> p.getUserId() != null && !excludedIds.contains(p.getUserId()))
             .filter(p -> p.getLastSeenLat() != null && p.getLastSeenLon() != null)
             .filter(p -> {
@@ -92,21 +97,34 @@ public class PeopleSuggestionService {
                 double pLon = p.getLastSeenLon();
                 return pLat >= bbox[0] && pLat <= bbox[1] && pLon >= bbox[2] && pLon <= bbox[3];
             })
-            .filter(p -> {
-                // Check actual distance with Haversine
-                double distance = GeoUtil.calculateDistance(searchLat, searchLon, 
-                    p.getLastSeenLat(), p.getLastSeenLon());
-                return distance <= searchRadius;
-            })
             .collect(Collectors.toList());
 
+        // Check actual distance in one batched pass
+        double[] lats = new double[inBox.size()];
+        double[] lons = new double[inBox.size()];
+        for (int i = 0; i < inBox.size(); i++) {
+            lats[i] = inBox.get(i).getLastSeenLat();
+            lons[i] = inBox.get(i).getLastSeenLon();
+        }
+        double[] distances = new double[inBox.size()];
+        GeoUtil.distancesWithin(searchLat, searchLon, searchRadius, lats, lons, inBox.size(), distances);
+
+        List<UserProfile> candidateProfiles = new ArrayList<>();
+        Map<UUID, Double> distanceByUser = new HashMap<>();
+        for (int i = 0; i < inBox.size(); i++) {
+            if (distances[i] <= searchRadius) {
+                candidateProfiles.add(inBox.get(i));
+                distanceByUser.put(inBox.get(i).getUserId(), distances[i]);
+            }
+        }
+
         log.info("Found {} candidate users for suggestions within {}km", 
                  candidateProfiles.size(), searchRadius);
 
         // Score and rank candidates
         List<ScoredSuggestion> scoredSuggestions = candidateProfiles.stream()
-            .map(profile -> scoreSuggestion(profile, userInterestIds, topInterestId, 
-                                            searchLat, searchLon))
+            .map(profile -> scoreSuggestion(profile, userInterestBits, userInterestIds, topInterestId,
+                                            distanceByUser.get(profile.getUserId())))
             .sorted(Comparator.comparingInt(ScoredSuggestion::getScore).reversed())
             .limit(limit)
             .collect(Collectors.toList());
@@ -117,48 +135,39 @@ public class PeopleSuggestionService {
             .collect(Collectors.toList());
     }
 
-    private ScoredSuggestion scoreSuggestion(UserProfile profile, Set<Integer> userInterestIds,
-                                              Integer topInterestId, double userLat, double userLon) {
+    private ScoredSuggestion scoreSuggestion(UserProfile profile, long userInterestBits, Set<Integer> userInterestIds,
+                                              Integer topInterestId, double distance) {
         int score = 0;
-        List<String> sharedInterestNames = new ArrayList<>();
         List<String> reasons = new ArrayList<>();
 
-        // Get candidate's interests
-        Set<Interest> candidateInterests = profile.getInterests();
-        Set<Integer> candidateInterestIds = candidateInterests.stream()
-            .map(Interest::getId)
-            .collect(Collectors.toSet());
-
-        // Check for same top interest (+40)
-        if (topInterestId != null && candidateInterestIds.contains(topInterestId)) {
-            score += SAME_TOP_INTEREST_SCORE;
+        // Shared interests: one AND, unless both sides carry ids beyond the bitmap
+        long candidateInterestBits = profile.getInterestBits();
+        Set<Integer> sharedInterestIds;
+        if (InterestBitmap.isExactIntersection(userInterestBits, candidateInterestBits)) {
+            sharedInterestIds = InterestBitmap.toIds(userInterestBits & candidateInterestBits);
+        } else {
+            sharedInterestIds = profile.getInterests().stream()
+                .map(Interest::getId)
+                .filter(userInterestIds::contains)
+                .collect(Collectors.toCollection(TreeSet::new));
         }
 
-        // Count shared interests
-        for (Interest interest : candidateInterests) {
-            if (userInterestIds.contains(interest.getId())) {
-                sharedInterestNames.add(interest.getName());
-            }
+        // Check for same top interest (+40); the top interest is one of the user's own
+        if (topInterestId != null && sharedInterestIds.contains(topInterestId)) {
+            score += SAME_TOP_INTEREST_SCORE;
         }
 
         // +20 for 2+ shared interests
-        if (sharedInterestNames.size() >= 2) {
+        if (sharedInterestIds.size() >= 2) {
             score += SHARED_INTERESTS_2_PLUS_SCORE;
         }
 
-        // Calculate distance
-        double distance = 0;
-        if (profile.getLastSeenLat() != null && profile.getLastSeenLon() != null) {
-            distance = GeoUtil.calculateDistance(userLat, userLon, 
-                profile.getLastSeenLat(), profile.getLastSeenLon());
-            
-            // +20 for close distance (< 3km)
-            if (distance < 3) {
-                score += CLOSE_DISTANCE_SCORE;
-                reasons.add(String.format("%.1f km away", distance));
-            } else {
-                reasons.add(String.format("%.0f km away", distance));
-            }
+        // +20 for close distance (< 3km)
+        if (distance < 3) {
+            score += CLOSE_DISTANCE_SCORE;
+            reasons.add(String.format("%.1f km away", distance));
+        } else {
+            reasons.add(String.format("%.0f km away", distance));
         }
 
         // +10 for recently active (last 48 hours)
@@ -177,11 +186,8 @@ public class PeopleSuggestionService {
             score += HIGH_TRUST_BONUS;
         }
 
-        // Build "why suggested" string
-        String whySuggested = buildWhySuggested(sharedInterestNames, reasons);
-
-        return new ScoredSuggestion(profile, score, sharedInterestNames, distance, 
-                                     whySuggested, recentlyActive);
+        return new ScoredSuggestion(profile, score, new ArrayList<>(sharedInterestIds), distance,
+                                     reasons, recentlyActive);
     }
 
     private String buildWhySuggested(List<String> sharedInterests, List<String> reasons) {
@@ -214,14 +220,19 @@ public class PeopleSuggestionService {
 
     private PeopleSuggestionResponse buildSuggestionResponse(ScoredSuggestion suggestion) {
         UserProfile profile = suggestion.getProfile();
+        List<String> sharedInterests = suggestion.getSharedInterestIds().stream()
+            .map(interestDictionary::find)
+            .flatMap(Optional::stream)
+            .map(InterestResponse::getName)
+            .collect(Collectors.toList());
 
         return PeopleSuggestionResponse.builder()
             .userId(profile.getUserId())
             .alias(profile.getAlias())
             .avatarUrl(profile.getAvatarUrlAlias())
-            .sharedInterests(suggestion.getSharedInterests())
+            .sharedInterests(sharedInterests)
             .distanceKm(Math.round(suggestion.getDistance() * 10.0) / 10.0)
-            .whySuggested(suggestion.getWhySuggested())
+            .whySuggested(buildWhySuggested(sharedInterests, suggestion.getReasons()))
             .trustLevel(profile.getTrustLevel())
             .recentlyActive(suggestion.isRecentlyActive())
             .score(suggestion.getScore())
@@ -233,26 +244,26 @@ public class PeopleSuggestionService {
     private static class ScoredSuggestion {
         private final UserProfile profile;
         private final int score;
-        private final List<String> sharedInterests;
+        private final List<Integer> sharedInterestIds;
         private final double distance;
-        private final String whySuggested;
+        private final List<String> reasons;
         private final boolean recentlyActive;
 
-        public ScoredSuggestion(UserProfile profile, int score, List<String> sharedInterests,
-                                 double distance, String whySuggested, boolean recentlyActive) {
+        public ScoredSuggestion(UserProfile profile, int score, List<Integer> sharedInterestIds,
+                                 double distance, List<String> reasons, boolean recentlyActive) {
             this.profile = profile;
             this.score = score;
-            this.sharedInterests = sharedInterests;
+            this.sharedInterestIds = sharedInterestIds;
             this.distance = distance;
-            this.whySuggested = whySuggested;
+            this.reasons = reasons;
             this.recentlyActive = recentlyActive;
         }
 
         public UserProfile getProfile() { return profile; }
         public int getScore() { return score; }
-        public List<String> getSharedInterests() { return sharedInterests; }
+        public List<Integer> getSharedInterestIds() { return sharedInterestIds; }
         public double getDistance() { return distance; }
-        public String getWhySuggested() { return whySuggested; }
+        public List<String> getReasons() { return reasons; }
         public boolean isRecentlyActive() { return recentlyActive; }
     }
 }
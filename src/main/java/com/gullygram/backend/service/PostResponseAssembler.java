@@ -0,0 +1,130 @@
+package com.gullygram.backend.service;
+
+import com.gullygram.backend.dto.response.InterestResponse;
+import com.gullygram.backend.dto.response.MediaResponse;
+import com.gullygram.backend.dto.response.PostResponse;
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.entity.UserProfile;
+import com.gullygram.backend.repository.PostLikeRepository;
+import com.gullygram.backend.repository.PostRepository;
+import com.gullygram.backend.repository.UserProfileRepository;
+import com.gullygram.backend.service.media.ImageVariants;
+import com.gullygram.backend.util.InterestBitmap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Converts posts to PostResponses in bulk.
+ *
+ * Counts come from the denormalized post counters plus unflushed deltas, friendships from
+ * the viewer's social context, interests from the post's interest bitmap and the
+ * InterestDictionary; the viewer's likes and author profiles are each read with one grouped
+ * query for the whole list, so a page costs the same handful of statements whether it
+ * holds one post or fifty.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostResponseAssembler {
+
+    private final PostRepository postRepository;
+    private final PostLikeRepository postLikeRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final SocialContextService socialContextService;
+    private final AuthorViewService authorViewService;
+    private final EngagementCounterService engagementCounterService;
+    private final InterestDictionary interestDictionary;
+
+    /**
+     * @return responses in the order of the given posts
+     */
+    @Transactional(readOnly = true)
+    public List<PostResponse> toResponses(List<Post> posts, UUID viewerId) {
+        if (posts.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<UUID> postIds = posts.stream().map(Post::getId).collect(Collectors.toList());
+        // getId() on the lazy author proxy does not initialize it
+        Set<UUID> authorIds = posts.stream().map(post -> post.getAuthor().getId()).collect(Collectors.toSet());
+
+        Set<UUID> likedPostIds = viewerId != null
+            ? new HashSet<>(postLikeRepository.findLikedPostIds(viewerId, postIds))
+            : Set.of();
+
+        Map<UUID, UserProfile> profiles = userProfileRepository.findAllById(authorIds).stream()
+            .collect(Collectors.toMap(UserProfile::getUserId, profile -> profile));
+        ViewerSocialContext viewer = socialContextService.forViewer(viewerId);
+
+        // Interest ids from the bitmaps; only posts with ids beyond them are queried
+        Map<UUID, Set<Integer>> interestIds = new HashMap<>();
+        List<UUID> overflowIds = new ArrayList<>();
+        for (Post post : posts) {
+            if (InterestBitmap.isExact(post.getInterestBits())) {
+                interestIds.put(post.getId(), InterestBitmap.toIds(post.getInterestBits()));
+            } else {
+                overflowIds.add(post.getId());
+            }
+        }
+        if (!overflowIds.isEmpty()) {
+            for (Object[] row : postRepository.findInterestIdsByPostIds(overflowIds)) {
+                interestIds.computeIfAbsent((UUID) row[0], id -> new HashSet<>()).add((Integer) row[1]);
+            }
+        }
+        Map<UUID, Set<InterestResponse>> interests = new HashMap<>();
+        interestIds.forEach((postId, ids) -> {
+            Set<InterestResponse> responses = new HashSet<>();
+            for (Integer interestId : ids) {
+                interestDictionary.find(interestId).ifPresent(responses::add);
+            }
+            interests.put(postId, responses);
+        });
+
+        return posts.stream()
+            .map(post -> {
+                UUID authorId = post.getAuthor().getId();
+                return PostResponse.builder()
+                    .id(post.getId())
+                    .author(authorViewService.buildAuthorView(viewerId, authorId,
+                        profiles.get(authorId), !viewer.isSelf(authorId) && viewer.isFriend(authorId)))
+                    .type(post.getType())
+                    .text(post.getText())
+                    .mediaUrls(feedMediaUrls(post))
+                    .media(media(post))
+                    .latitude(post.getLat())
+                    .longitude(post.getLon())
+                    .visibilityRadiusKm(post.getVisibilityRadiusKm())
+                    .interests(interests.getOrDefault(post.getId(), new HashSet<>()))
+                    .likeCount(post.getLikeCount() + engagementCounterService.pendingLikes(post.getId()))
+                    .commentCount(post.getCommentCount() + engagementCounterService.pendingComments(post.getId()))
+                    .likedByCurrentUser(likedPostIds.contains(post.getId()))
+                    .visibility(post.getVisibility().name())
+                    .createdAt(post.getCreatedAt())
+                    .updatedAt(post.getUpdatedAt())
+                    .build();
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Feeds render the feed-sized variant; until it is rendered its URL serves the original
+     */
+    private static List<String> feedMediaUrls(Post post) {
+        if (post.getMediaUrls() == null) {
+            return null;
+        }
+        return post.getMediaUrls().stream()
+            .map(url -> ImageVariants.variantUrl(url, ImageVariants.Variant.FEED))
+            .collect(Collectors.toList());
+    }
+
+    private static List<MediaResponse> media(Post post) {
+        if (post.getMediaUrls() == null) {
+            return null;
+        }
+        return post.getMediaUrls().stream().map(MediaResponse::of).collect(Collectors.toList());
+    }
+}
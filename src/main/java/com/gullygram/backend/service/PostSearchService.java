@@ -0,0 +1,118 @@
+package com.gullygram.backend.service;
+
+import com.gullygram.backend.util.GeoUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full-text post search over post.text_search, ranked in the database.
+ *
+ * The GIN index on the stored tsvector finds the matching posts; each is scored as
+ *   (RELEVANCE_WEIGHT * ts_rank + RECENCY_WEIGHT * recency) * distance factor
+ * where recency and the distance factor are the feed's (TieredHybridFeedRanker): 100 points
+ * minus one per hour of age at the snapshot, and no decay within 5km, then 1% per km down to 80%.
+ * Results page with a keyset on (score, created_at, id) at a pinned snapshot, so the
+ * scores, and with them the order, stay the same from page to page.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostSearchService {
+
+    // ts_rank with normalization 32 is rank / (rank + 1), about 0.05-0.2 for short posts
+    static final double RELEVANCE_WEIGHT = 1000.0;
+    static final double RECENCY_WEIGHT = 0.5;
+
+    private static final String SCORE = "(" + RELEVANCE_WEIGHT + " * ts_rank(p.text_search, q.query, 32)::float8"
+        + " + " + RECENCY_WEIGHT + " * GREATEST(0, 100 - floor(extract(epoch FROM CAST(? AS timestamp) - p.created_at) / 3600))::float8)";
+    private static final String DISTANCE_FACTOR = " * CASE WHEN d.km <= 5 THEN 1 ELSE GREATEST(0.8, 1 - d.km / 100) END";
+    private static final String DISTANCE_KM = " CROSS JOIN LATERAL (SELECT 6371 * acos(LEAST(1, cos(radians(?)) * cos(radians(p.lat))"
+        + " * cos(radians(p.lon) - radians(?)) + sin(radians(?)) * sin(radians(p.lat))))) AS d(km)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Best matches of the query, within radiusKm of (lat, lon) when given
+     * @param snapshot posts created later are left out, and recency is scored against it
+     * @param after the last hit of the previous page, or null for the first
+     */
+    public List<Hit> search(String query, Double lat, Double lon, double radiusKm, LocalDateTime snapshot,
+                            Hit after, int limit) {
+        boolean located = lat != null && lon != null;
+        Timestamp at = Timestamp.valueOf(snapshot);
+        List<Object> args = new ArrayList<>();
+
+        StringBuilder sql = new StringBuilder("SELECT id, created_at, score FROM (SELECT p.id, p.created_at, ")
+            .append(SCORE);
+        args.add(at);
+        if (located) {
+            sql.append(DISTANCE_FACTOR);
+        }
+        sql.append(" AS score FROM post p CROSS JOIN plainto_tsquery('english', ?) AS q(query)");
+        args.add(query);
+        if (located) {
+            sql.append(DISTANCE_KM);
+            args.add(lat);
+            args.add(lon);
+            args.add(lat);
+        }
+
+        sql.append(" WHERE p.text_search @@ q.query AND p.deleted_at IS NULL AND p.created_at <= ?");
+        args.add(at);
+        if (located) {
+            // The box lets Postgres skip far rows before computing their distance
+            double[] box = GeoUtil.getBoundingBox(lat, lon, radiusKm);
+            sql.append(" AND p.lat BETWEEN ? AND ? AND p.lon BETWEEN ? AND ? AND d.km <= ?");
+            args.add(box[0]);
+            args.add(box[1]);
+            args.add(box[2]);
+            args.add(box[3]);
+            args.add(radiusKm);
+        }
+        sql.append(") ranked");
+
+        if (after != null) {
+            sql.append(" WHERE (score, created_at, id) < (?, ?, ?)");
+            args.add(after.getScore());
+            args.add(Timestamp.valueOf(after.getCreatedAt()));
+            args.add(after.getId());
+        }
+        sql.append(" ORDER BY score DESC, created_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new Hit(
+            rs.getObject("id", UUID.class),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getDouble("score")), args.toArray());
+    }
+
+    public static class Hit {
+        private final UUID id;
+        private final LocalDateTime createdAt;
+        private final double score;
+
+        public Hit(UUID id, LocalDateTime createdAt, double score) {
+            this.id = id;
+            this.createdAt = createdAt;
+            this.score = score;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -1,22 +1,17 @@
 package com.gullygram.backend.service;
 
 import com.gullygram.backend.dto.request.CreatePostRequest;
-import com.gullygram.backend.dto.response.AuthorView;
-import com.gullygram.backend.dto.response.InterestResponse;
 import com.gullygram.backend.dto.response.PostResponse;
 import com.gullygram.backend.entity.Interest;
-import com.gullygram.backend.entity.InterestAlias;
 import com.gullygram.backend.entity.Post;
 import com.gullygram.backend.entity.User;
-import com.gullygram.backend.entity.UserProfile;
 import com.gullygram.backend.exception.BadRequestException;
 import com.gullygram.backend.exception.ResourceNotFoundException;
-import com.gullygram.backend.repository.InterestAliasRepository;
-import com.gullygram.backend.repository.InterestRepository;
-import com.gullygram.backend.repository.PostLikeRepository;
-import com.gullygram.backend.repository.CommentRepository;
 import com.gullygram.backend.repository.PostRepository;
 import com.gullygram.backend.repository.UserRepository;
+import com.gullygram.backend.service.feed.FeedCacheService;
+import com.gullygram.backend.service.feed.FriendsInboxService;
+import com.gullygram.backend.service.feed.TrendingService;
 import com.gullygram.backend.util.GeoUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,12 +28,14 @@ public class PostService {
 
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final InterestRepository interestRepository;
-    private final InterestAliasRepository interestAliasRepository;
-    private final PostLikeRepository postLikeRepository;
-    private final CommentRepository commentRepository;
-    private final AuthorViewService authorViewService;
+    private final InterestDictionary interestDictionary;
+    private final HashtagService hashtagService;
+    private final PostResponseAssembler postResponseAssembler;
     private final MarketplaceService marketplaceService;
+    private final FeedCacheService feedCacheService;
+    private final FriendsInboxService friendsInboxService;
+    private final TrendingService trendingService;
+    private final StorageService storageService;
 
     @Transactional
     public PostResponse createPost(UUID userId, CreatePostRequest request) {
@@ -87,41 +84,26 @@ public class PostService {
 
         // Set media URLs directly (converter will handle JSON conversion)
         if (request.getMediaUrls() != null && !request.getMediaUrls().isEmpty()) {
+            // The post holds its own reference to each file, released when it is deleted
+            request.getMediaUrls().forEach(storageService::retainFile);
             post.setMediaUrls(request.getMediaUrls());
         }
 
-        // Add interests
+        // Explicit interests plus hashtags matching an interest name or alias, resolved in memory
         Set<Interest> interests = new HashSet<>();
-        if (request.getInterestIds() != null && !request.getInterestIds().isEmpty()) {
-            for (Integer interestId : request.getInterestIds()) {
-                Interest interest = interestRepository.findById(interestId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Interest not found: " + interestId));
-                interests.add(interest);
-            }
-        }
-        
-        // Auto-detect hashtags from text and map to Interests via Aliases
-        if (request.getText() != null) {
-            Set<String> hashtags = extractHashtags(request.getText());
-            if (!hashtags.isEmpty()) {
-                // 1. Direct Match (Hashtag = Interest Name)
-                List<Interest> directMatches = interestRepository.findByNameInIgnoreCase(new ArrayList<>(hashtags));
-                interests.addAll(directMatches);
-                
-                // 2. Alias Match (Hashtag = Alias -> Interest)
-                List<InterestAlias> aliasMatches = interestAliasRepository.findByAliasIn(hashtags);
-                for (InterestAlias alias : aliasMatches) {
-                    interests.add(alias.getInterest());
-                }
-            }
+        for (Integer interestId : interestDictionary.resolve(request.getText(), request.getInterestIds())) {
+            interests.add(interestDictionary.reference(interestId));
         }
-        
         post.setInterests(interests);
 
-        Post savedPost = postRepository.save(post);
+        // Flushed so the hashtag index can copy the creation time
+        Post savedPost = postRepository.saveAndFlush(post);
+        hashtagService.index(savedPost);
         
         // Handle post-creation logic (e.g., updating limits)
         marketplaceService.handlePostCreated(user, savedPost);
+        feedCacheService.onPostCreated(savedPost);
+        friendsInboxService.onPostCreated(savedPost);
 
         log.info("Created post {} by user {} at location ({}, {})", 
                 savedPost.getId(), userId, request.getLatitude(), request.getLongitude());
@@ -150,7 +132,8 @@ public class PostService {
         org.springframework.data.domain.Page<Post> posts = 
             postRepository.findByAuthorId(userId, pageable);
         
-        return posts.map(post -> convertToResponse(post, currentUserId));
+        List<PostResponse> responses = postResponseAssembler.toResponses(posts.getContent(), currentUserId);
+        return new org.springframework.data.domain.PageImpl<>(responses, pageable, posts.getTotalElements());
     }
 
     @Transactional
@@ -164,67 +147,17 @@ public class PostService {
 
         post.softDelete();
         postRepository.save(post);
+        hashtagService.remove(postId);
+        if (post.getMediaUrls() != null) {
+            post.getMediaUrls().forEach(storageService::deleteFile);
+        }
+        feedCacheService.onPostDeleted(post);
+        trendingService.onPostDeleted(post);
+        friendsInboxService.onPostDeleted(post);
         log.info("Soft deleted post {} by user {}", postId, userId);
     }
 
     public PostResponse convertToResponse(Post post, UUID currentUserId) {
-        // Get media URLs directly (converter handles JSON conversion)
-        List<String> mediaUrls = post.getMediaUrls();
-
-        // Get engagement metrics
-        long likeCount = postLikeRepository.countByPostId(post.getId());
-        long commentCount = commentRepository.countByPostIdAndNotDeleted(post.getId());
-        boolean likedByCurrentUser = postLikeRepository.findByPostIdAndUserId(post.getId(), currentUserId).isPresent();
-
-        // Build author view with identity reveal based on relationship
-        AuthorView authorView = authorViewService.buildAuthorView(currentUserId, post.getAuthor());
-
-        // Convert interests
-        Set<InterestResponse> interestResponses = post.getInterests().stream()
-            .map(interest -> InterestResponse.builder()
-                .id(interest.getId())
-                .name(interest.getName())
-                .description(interest.getDescription())
-                .build())
-            .collect(Collectors.toSet());
-
-        return PostResponse.builder()
-            .id(post.getId())
-            .author(authorView)
-            .type(post.getType())
-            .text(post.getText())
-            .mediaUrls(mediaUrls)
-            .latitude(post.getLat())
-            .longitude(post.getLon())
-            .visibilityRadiusKm(post.getVisibilityRadiusKm())
-            .interests(interestResponses)
-            .likeCount(likeCount)
-            .commentCount(commentCount)
-            .likedByCurrentUser(likedByCurrentUser)
-            .visibility(post.getVisibility().name())
-            .createdAt(post.getCreatedAt())
-            .updatedAt(post.getUpdatedAt())
-            .build();
+        return postResponseAssembler.toResponses(List.of(post), currentUserId).get(0);
     }
-
-    /**
-     * Extract hashtags from text (words starting with #)
-     */
-    private Set<String> extractHashtags(String text) {
-        Set<String> hashtags = new HashSet<>();
-        if (text == null || text.isEmpty()) {
-            return hashtags;
-        }
-        
-        // Match hashtags: # followed by alphanumeric characters
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("#(\\w+)");
-        java.util.regex.Matcher matcher = pattern.matcher(text);
-        
-        while (matcher.find()) {
-            hashtags.add(matcher.group(1).toLowerCase()); // Remove # and lowercase
-        }
-        
-        return hashtags;
-    }
-
 }
@@ -11,6 +11,8 @@ import com.gullygram.backend.repository.PostRepository;
 import com.gullygram.backend.repository.RelationshipRepository;
 import com.gullygram.backend.repository.UserProfileRepository;
 import com.gullygram.backend.repository.UserRepository;
+import com.gullygram.backend.service.feed.CellVersionService;
+import com.gullygram.backend.service.feed.FriendsInboxService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -76,16 +78,21 @@ public class ProfileService {
         UserProfile profile = userProfileRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("Profile not found"));
 
+        // Fields every post of the author shows in feeds
+        boolean authorViewChanged = false;
+
         // Update fields if provided
         if (request.getAlias() != null) {
             if (!request.getAlias().equals(profile.getAlias()) && 
                 userProfileRepository.existsByAlias(request.getAlias())) {
                 throw new BadRequestException("Alias already taken");
             }
+            authorViewChanged |= !request.getAlias().equals(profile.getAlias());
             profile.setAlias(request.getAlias());
         }
 
         if (request.getRealName() != null) {
+            authorViewChanged |= !request.getRealName().equals(profile.getRealName());
             profile.setRealName(request.getRealName());
         }
 
@@ -93,12 +100,19 @@ public class ProfileService {
             profile.setBio(request.getBio());
         }
 
-        if (request.getAvatarUrlAlias() != null) {
+        // The profile holds a reference to each avatar it shows, as a post does to its media
+        if (request.getAvatarUrlAlias() != null && !request.getAvatarUrlAlias().equals(profile.getAvatarUrlAlias())) {
+            storageService.retainFile(request.getAvatarUrlAlias());
+            storageService.deleteFile(profile.getAvatarUrlAlias());
             profile.setAvatarUrlAlias(request.getAvatarUrlAlias());
+            authorViewChanged = true;
         }
 
-        if (request.getAvatarUrlReal() != null) {
+        if (request.getAvatarUrlReal() != null && !request.getAvatarUrlReal().equals(profile.getAvatarUrlReal())) {
+            storageService.retainFile(request.getAvatarUrlReal());
+            storageService.deleteFile(profile.getAvatarUrlReal());
             profile.setAvatarUrlReal(request.getAvatarUrlReal());
+            authorViewChanged = true;
         }
 
         if (request.getDob() != null) {
@@ -110,6 +124,12 @@ public class ProfileService {
         }
 
         userProfileRepository.save(profile);
+        aliasSearchIndex.onProfileSaved(profile);
+        if (authorViewChanged) {
+            // Revalidated feed pages showing the author's posts must not keep the old name or avatar
+            postRepository.findGeohashesByAuthorId(userId).forEach(cellVersionService::bumpCell);
+            friendsInboxService.onAuthorChanged(userId);
+        }
 
         return buildProfileResponse(user, profile);
     }
@@ -117,4 +137,8 @@ public class ProfileService {
     private final UserRepository userRepository;
     private final UserProfileRepository userProfileRepository;
     private final RelationshipRepository relationshipRepository;
+    private final AliasSearchIndex aliasSearchIndex;
+    private final StorageService storageService;
+    private final CellVersionService cellVersionService;
+    private final FriendsInboxService friendsInboxService;
 }
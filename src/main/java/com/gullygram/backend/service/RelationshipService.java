@@ -3,7 +3,7 @@ package com.gullygram.backend.service;
 import com.gullygram.backend.dto.request.FriendRequestDTO;
 import com.gullygram.backend.dto.response.RelationshipResponse;
 import com.gullygram.backend.dto.response.UserSummary;
-import com.gullygram.backend.entity.Notification;
+import com.gullygram.backend.entity.OutboxEvent;
 import com.gullygram.backend.entity.Relationship;
 import com.gullygram.backend.entity.Relationship.RelationshipStatus;
 import com.gullygram.backend.entity.User;
@@ -13,12 +13,15 @@ import com.gullygram.backend.exception.ResourceNotFoundException;
 import com.gullygram.backend.repository.RelationshipRepository;
 import com.gullygram.backend.repository.UserProfileRepository;
 import com.gullygram.backend.repository.UserRepository;
+import com.gullygram.backend.service.feed.FriendsInboxService;
+import com.gullygram.backend.service.outbox.OutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -32,7 +35,9 @@ public class RelationshipService {
     private final UserRepository userRepository;
     private final UserProfileRepository userProfileRepository;
     private final AuthorViewService authorViewService;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final SocialContextService socialContextService;
+    private final FriendsInboxService friendsInboxService;
 
     /**
      * Send a friend request to another user
@@ -95,17 +100,11 @@ public class RelationshipService {
         log.info("User {} sent friend request to user {}", requesterId, receiverId);
         
         
-        // Create notification for receiver
-        UserProfile requesterProfile = userProfileRepository.findByUserId(requesterId).orElse(null);
-        String requesterAlias = requesterProfile != null ? requesterProfile.getAlias() : "Someone";
-        notificationService.createNotification(
-            receiverId,
-            Notification. NotificationType.FRIEND_REQUEST,
-            requesterId,
-            "RELATIONSHIP",
-            saved.getId(),
-            requesterAlias + " sent you a friend request"
-        );
+        // Notify the receiver after commit
+        outboxService.enqueue("RELATIONSHIP", saved.getId(), OutboxEvent.EventType.FRIEND_REQUESTED, Map.of(
+            "recipientId", receiverId.toString(),
+            "actorId", requesterId.toString(),
+            "entityId", saved.getId().toString()));
 
         return buildRelationshipResponse(saved, requesterId);
     }
@@ -133,22 +132,18 @@ public class RelationshipService {
     private RelationshipResponse acceptFriendRequestInternal(UUID userId, Relationship relationship) {
         relationship.setStatus(RelationshipStatus.ACCEPTED);
         Relationship saved = relationshipRepository.save(relationship);
+        socialContextService.invalidate(relationship.getRequester().getId(), relationship.getReceiver().getId());
+        friendsInboxService.invalidate(relationship.getRequester().getId(), relationship.getReceiver().getId());
         
         log.info("User {} accepted friend request from user {}", 
                  relationship.getReceiver().getId(), relationship.getRequester().getId());
         
         
-        // Create notification for requester
-        UserProfile accepterProfile = userProfileRepository.findByUserId(relationship.getReceiver().getId()).orElse(null);
-        String accepterAlias = accepterProfile != null ? accepterProfile.getAlias() : "Someone";
-        notificationService.createNotification(
-            relationship.getRequester().getId(),
-            Notification.NotificationType.FRIEND_ACCEPT,
-            relationship.getReceiver().getId(),
-            "RELATIONSHIP",
-            saved.getId(),
-            accepterAlias + " accepted your friend request"
-        );
+        // Notify the requester after commit
+        outboxService.enqueue("RELATIONSHIP", saved.getId(), OutboxEvent.EventType.FRIEND_ACCEPTED, Map.of(
+            "recipientId", relationship.getRequester().getId().toString(),
+            "actorId", relationship.getReceiver().getId().toString(),
+            "entityId", saved.getId().toString()));
 
         return buildRelationshipResponse(saved, userId);
     }
@@ -212,6 +207,8 @@ public class RelationshipService {
         }
 
         relationshipRepository.delete(relationship.get());
+        socialContextService.invalidate(userId, friendId);
+        friendsInboxService.invalidate(userId, friendId);
         log.info("User {} removed friend {}", userId, friendId);
     }
 
@@ -248,6 +245,8 @@ public class RelationshipService {
             .build();
 
         relationshipRepository.save(block);
+        socialContextService.invalidate(blockerId, blockedId);
+        friendsInboxService.invalidate(blockerId, blockedId);
         log.info("User {} blocked user {}", blockerId, blockedId);
     }
 
@@ -262,6 +261,8 @@ public class RelationshipService {
             .orElseThrow(() -> new BadRequestException("User is not blocked"));
 
         relationshipRepository.delete(block);
+        socialContextService.invalidate(blockerId, blockedId);
+        friendsInboxService.invalidate(blockerId, blockedId);
         log.info("User {} unblocked user {}", blockerId, blockedId);
     }
 
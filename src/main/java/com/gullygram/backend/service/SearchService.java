@@ -1,5 +1,6 @@
 package com.gullygram.backend.service;
 
+import com.gullygram.backend.dto.response.FeedResponse;
 import com.gullygram.backend.dto.response.PostResponse;
 import com.gullygram.backend.dto.response.UserSummary;
 import com.gullygram.backend.entity.Post;
@@ -10,6 +11,6 @@ import java.util.UUID;
 
 public interface SearchService {
     List<UserSummary> searchUsers(String query, UUID currentUserId);
-    List<PostResponse> searchPosts(String query, UUID currentUserId, Double lat, Double lon, Double radiusKm);
+    FeedResponse searchPosts(String query, UUID currentUserId, Double lat, Double lon, Double radiusKm, String cursor);
     List<PostResponse> searchHashtags(String hashtag, UUID currentUserId, Double lat, Double lon, Double radiusKm);
 }
@@ -0,0 +1,87 @@
+package com.gullygram.backend.service;
+
+import com.gullygram.backend.repository.RelationshipRepository;
+import com.gullygram.backend.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads ViewerSocialContexts with two queries and keeps them for a short TTL.
+ *
+ * Relationship writes invalidate both users after commit, so the TTL only bounds
+ * staleness from writes on other instances. Set social.context.ttl-seconds=0 to
+ * load a fresh context for every request.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SocialContextService {
+
+    private final RelationshipRepository relationshipRepository;
+
+    @Value("${social.context.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${social.context.max-entries:10000}")
+    private int maxEntries;
+
+    private final ConcurrentHashMap<UUID, CachedContext> contexts = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation; a load that raced one is returned but not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Transactional(readOnly = true)
+    public ViewerSocialContext forViewer(UUID viewerId) {
+        if (viewerId == null) {
+            return ViewerSocialContext.anonymous();
+        }
+
+        long now = System.currentTimeMillis();
+        CachedContext cached = contexts.get(viewerId);
+        if (cached != null && now - cached.loadedAt <= ttlSeconds * 1000) {
+            return cached.context;
+        }
+
+        long generation = invalidations.get();
+        ViewerSocialContext context = new ViewerSocialContext(viewerId,
+            relationshipRepository.findFriendUserIds(viewerId),
+            relationshipRepository.findBlockedUserIds(viewerId));
+
+        if (ttlSeconds > 0 && generation == invalidations.get()) {
+            if (contexts.size() >= maxEntries) {
+                // Entries are cheap to rebuild; a full reset keeps the bound without LRU bookkeeping
+                contexts.clear();
+            }
+            contexts.put(viewerId, new CachedContext(context, now));
+        }
+        return context;
+    }
+
+    /**
+     * Drop cached contexts of both sides of a relationship once the change commits
+     */
+    public void invalidate(UUID userId1, UUID userId2) {
+        TransactionHooks.afterCommit(() -> {
+            invalidations.incrementAndGet();
+            contexts.remove(userId1);
+            contexts.remove(userId2);
+        });
+    }
+
+    private static class CachedContext {
+        private final ViewerSocialContext context;
+        private final long loadedAt;
+
+        CachedContext(ViewerSocialContext context, long loadedAt) {
+            this.context = context;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
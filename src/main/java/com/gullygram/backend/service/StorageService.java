@@ -2,9 +2,25 @@ package com.gullygram.backend.service;
 
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
+import java.nio.file.Path;
 
 public interface StorageService {
     String uploadFile(MultipartFile file, String folder);
+
+    /**
+     * Store a complete file from local disk, such as a finished chunked upload.
+     * The file is consumed: moved into storage where possible, otherwise deleted.
+     */
+    String storeFile(Path file, String originalFilename, String folder);
+
+    /**
+     * Take a reference to a stored file for a post or profile that now shows it, so storage
+     * keeps it until the matching deleteFile. Fails if the upload is no longer available.
+     */
+    void retainFile(String fileUrl);
+
+    /**
+     * Release a reference taken by retainFile
+     */
     void deleteFile(String fileUrl);
 }
@@ -0,0 +1,55 @@
+package com.gullygram.backend.service;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A viewer's friends and blocked users, loaded once and shared by every check in a request.
+ *
+ * Set.copyOf keeps the IDs in an immutable open-addressing table: no per-entry node objects,
+ * and each membership test is a hash probe instead of a relationship query.
+ */
+public class ViewerSocialContext {
+
+    private final UUID viewerId;
+    private final Set<UUID> friendIds;
+    private final Set<UUID> blockedIds;
+
+    public ViewerSocialContext(UUID viewerId, Collection<UUID> friendIds, Collection<UUID> blockedIds) {
+        this.viewerId = viewerId;
+        this.friendIds = Set.copyOf(friendIds);
+        this.blockedIds = Set.copyOf(blockedIds);
+    }
+
+    public static ViewerSocialContext anonymous() {
+        return new ViewerSocialContext(null, Set.of(), Set.of());
+    }
+
+    public UUID getViewerId() {
+        return viewerId;
+    }
+
+    public boolean isSelf(UUID userId) {
+        return viewerId != null && viewerId.equals(userId);
+    }
+
+    public boolean isFriend(UUID userId) {
+        return friendIds.contains(userId);
+    }
+
+    /**
+     * Blocked in either direction
+     */
+    public boolean isBlocked(UUID userId) {
+        return blockedIds.contains(userId);
+    }
+
+    public Set<UUID> getFriendIds() {
+        return friendIds;
+    }
+
+    public int getFriendCount() {
+        return friendIds.size();
+    }
+}
@@ -0,0 +1,143 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.util.GeoUtil;
+import com.gullygram.backend.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic change counters for feed inputs, used to answer conditional feed requests
+ * without running the feed.
+ *
+ * - Cell versions: every post, like and comment write bumps each prefix of the post's
+ *   geohash down to the stored precision, the deepest a feed covers, so a cell of any
+ *   precision changes version whenever a post inside it does
+ * - Viewer versions: friendship, block, interest and inbox changes bump the user
+ *
+ * Every bump takes the next value of one sequence, so a forgotten version is never handed
+ * out again. Versions not bumped for two ETag time buckets are forgotten: any fingerprint
+ * taken before their last bump has expired with its bucket. Past maxVersions everything is
+ * forgotten at once and the epoch moves on.
+ *
+ * Counters live in memory and start from zero on every boot; the epoch, the boot time at
+ * first, is part of every fingerprint so a restart never revalidates an older response.
+ */
+@Service
+@Slf4j
+public class CellVersionService {
+
+    private volatile long epoch = System.currentTimeMillis();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Value("${feed.etag.time-bucket-seconds:60}")
+    private long etagTimeBucketSeconds = 60;
+
+    @Value("${feed.etag.max-versions:200000}")
+    private int maxVersions = 200_000;
+
+    private final ConcurrentHashMap<String, Version> cellVersions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Version> viewerVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Bump the cells containing the geohash once the surrounding transaction commits
+     */
+    public void bumpCell(String geohash) {
+        if (geohash == null) {
+            return;
+        }
+        int depth = Math.min(geohash.length(), GeoUtil.STORED_GEOHASH_PRECISION);
+        TransactionHooks.afterCommit(() -> {
+            Version version = nextVersion();
+            for (int length = 1; length <= depth; length++) {
+                cellVersions.put(geohash.substring(0, length), version);
+            }
+            enforceLimit();
+        });
+    }
+
+    public void bumpViewer(UUID userId) {
+        TransactionHooks.afterCommit(() -> {
+            viewerVersions.put(userId, nextVersion());
+            enforceLimit();
+        });
+    }
+
+    /**
+     * Version of a cell; a cell deeper than any bumped one shares its stored-precision prefix's
+     */
+    public long cellVersion(String cell) {
+        String key = cell.length() > GeoUtil.STORED_GEOHASH_PRECISION
+            ? cell.substring(0, GeoUtil.STORED_GEOHASH_PRECISION) : cell;
+        Version version = cellVersions.get(key);
+        return version == null ? 0 : version.value;
+    }
+
+    public long viewerVersion(UUID userId) {
+        Version version = viewerVersions.get(userId);
+        return version == null ? 0 : version.value;
+    }
+
+    /**
+     * Epoch, viewer version and the version of every cell, in order
+     */
+    public String fingerprint(UUID viewerId, List<String> cells) {
+        StringBuilder fingerprint = new StringBuilder()
+            .append(epoch).append('|')
+            .append(viewerVersion(viewerId));
+        for (String cell : cells) {
+            fingerprint.append('|').append(cell).append(':').append(cellVersion(cell));
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Forget versions not bumped for two ETag time buckets
+     */
+    @Scheduled(fixedDelayString = "${feed.etag.sweep-interval-ms:60000}")
+    public void sweep() {
+        long cutoff = System.currentTimeMillis() - 2 * etagTimeBucketSeconds * 1000;
+        // values().removeIf removes an entry only if it still holds the version tested
+        cellVersions.values().removeIf(version -> version.bumpedAt < cutoff);
+        viewerVersions.values().removeIf(version -> version.bumpedAt < cutoff);
+    }
+
+    int size() {
+        return cellVersions.size() + viewerVersions.size();
+    }
+
+    private Version nextVersion() {
+        return new Version(sequence.incrementAndGet(), System.currentTimeMillis());
+    }
+
+    private void enforceLimit() {
+        if (size() <= maxVersions) {
+            return;
+        }
+        synchronized (this) {
+            if (size() > maxVersions) {
+                // A new epoch first, so no fingerprint taken before the reset can match after it
+                epoch = Math.max(epoch + 1, System.currentTimeMillis());
+                cellVersions.clear();
+                viewerVersions.clear();
+                log.warn("Feed versions exceeded {} entries; started epoch {}", maxVersions, epoch);
+            }
+        }
+    }
+
+    private static class Version {
+        private final long value;
+        private final long bumpedAt;
+
+        Version(long value, long bumpedAt) {
+            this.value = value;
+            this.bumpedAt = bumpedAt;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.entity.Interest;
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.util.SingleFlight;
+import com.gullygram.backend.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory cache of feed skeletons per geohash cell.
+ *
+ * Every cell holds the newest maxPostsPerCell posts whose geohash starts with the cell key,
+ * newest first. Neighbours asking for the same area share the cells, so a feed request
+ * only merges the cells covering its radius and ranks them for the viewer.
+ *
+ * - Bounded: at most maxCells cells, least recently used evicted first
+ * - TTL: cells older than ttlSeconds are reloaded, which repairs drift from writes
+ *   that bypassed the hooks below
+ * - Incremental: post, like and comment writes patch the cached cells after commit
+ *   and bump the cells' versions (CellVersionService)
+ * - Batched: the cells a request misses are loaded with one query
+ * - Coalesced: concurrent misses on the same cell share one database load
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedCacheService {
+
+    private static final int RECENT_WRITES_CAPACITY = 256;
+
+    private final FeedCandidateService feedCandidateService;
+    private final CellVersionService cellVersionService;
+
+    @Value("${feed.cache.max-cells:2000}")
+    private int maxCells;
+
+    @Value("${feed.cache.max-posts-per-cell:200}")
+    private int maxPostsPerCell;
+
+    @Value("${feed.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<String, CellEntry> cells = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CellEntry> eldest) {
+            return size() > maxCells;
+        }
+    };
+
+    // Structural writes (create/delete) are replayed onto cells whose load raced them; guarded by this
+    private final ArrayDeque<CellWrite> recentWrites = new ArrayDeque<>();
+    private long writeSequence;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private final SingleFlight<String, CellLoad> cellLoads = new SingleFlight<>();
+
+    /**
+     * Skeletons of all posts cached for the given cells, loading missing or expired cells
+     */
+    public List<FeedPostSkeleton> getCandidates(List<String> cellKeys) {
+        return getWindow(cellKeys).getPosts();
+    }
+
+    /**
+     * Cached candidates for the given cells together with the floor below which
+     * truncated cells no longer hold every post
+     */
+    public FeedWindow getWindow(List<String> cellKeys) {
+        List<FeedPostSkeleton> merged = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        LocalDateTime floor = null;
+        long now = System.currentTimeMillis();
+        long loadSequence;
+
+        synchronized (this) {
+            loadSequence = writeSequence;
+            for (String key : cellKeys) {
+                CellEntry entry = cells.get(key);
+                if (entry == null || now - entry.loadedAt > ttlSeconds * 1000) {
+                    missing.add(key);
+                } else {
+                    merged.addAll(entry.posts);
+                    floor = raiseFloor(floor, entry);
+                }
+            }
+        }
+        hits.addAndGet(cellKeys.size() - missing.size());
+        misses.addAndGet(missing.size());
+
+        if (!missing.isEmpty()) {
+            // Missing cells not already being loaded by another request are read with one query
+            Map<String, CellLoad> loads = cellLoads.executeAll(missing, keys -> {
+                long sequence = currentWriteSequence();
+                Map<String, CellLoad> loaded = new HashMap<>();
+                feedCandidateService.loadCells(keys, maxPostsPerCell)
+                    .forEach((key, posts) -> loaded.put(key, new CellLoad(sequence, posts)));
+                return loaded;
+            });
+            synchronized (this) {
+                for (String key : missing) {
+                    // A shared load may have started before this request; replay from where it started
+                    CellLoad load = loads.get(key);
+                    CellEntry entry = new CellEntry(new ArrayList<>(load.posts), now);
+                    replayWritesSince(Math.min(loadSequence, load.sequence), key, entry);
+                    cells.put(key, entry);
+                    merged.addAll(entry.posts);
+                    floor = raiseFloor(floor, entry);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            log.debug("Feed cache loaded {} of {} cells (hits={}, misses={})",
+                    missing.size(), cellKeys.size(), hits.get(), misses.get());
+        }
+        return new FeedWindow(merged, floor);
+    }
+
+    public void onPostCreated(Post post) {
+        if (post.getGeohash() == null) {
+            return;
+        }
+        cellVersionService.bumpCell(post.getGeohash());
+        TransactionHooks.afterCommit(() -> {
+            // Built after commit so the flushed creation timestamp is present
+            Set<Integer> interestIds = post.getInterests().stream()
+                .map(Interest::getId)
+                .collect(Collectors.toSet());
+            FeedPostSkeleton skeleton = FeedPostSkeleton.of(post, interestIds, 0, 0);
+            synchronized (this) {
+                recordWrite(new CellWrite(++writeSequence, skeleton, false));
+                forEachCachedCell(skeleton.getGeohash(), entry -> insert(entry, skeleton));
+            }
+        });
+    }
+
+    public void onPostDeleted(Post post) {
+        if (post.getGeohash() == null) {
+            return;
+        }
+        cellVersionService.bumpCell(post.getGeohash());
+        FeedPostSkeleton skeleton = FeedPostSkeleton.of(post, Set.of(), 0, 0);
+
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                recordWrite(new CellWrite(++writeSequence, skeleton, true));
+                forEachCachedCell(skeleton.getGeohash(), entry -> remove(entry, skeleton.getId()));
+            }
+        });
+    }
+
+    public void onLikeToggled(Post post, boolean liked) {
+        adjustCounts(post, liked ? 1 : -1, 0);
+    }
+
+    public void onCommentCreated(Post post) {
+        adjustCounts(post, 0, 1);
+    }
+
+    /**
+     * Drop every cached cell, e.g. after writes that bypassed the incremental hooks
+     */
+    public synchronized void invalidateAll() {
+        cells.clear();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public SingleFlight<String, ?> getCellLoads() {
+        return cellLoads;
+    }
+
+    private synchronized long currentWriteSequence() {
+        return writeSequence;
+    }
+
+    private void adjustCounts(Post post, int likeDelta, int commentDelta) {
+        if (post.getGeohash() == null) {
+            return;
+        }
+        cellVersionService.bumpCell(post.getGeohash());
+        UUID postId = post.getId();
+        String geohash = post.getGeohash();
+
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                // Nested cells cached together share the skeleton inserted by onPostCreated;
+                // adjust each instance once
+                Set<FeedPostSkeleton> skeletons = Collections.newSetFromMap(new IdentityHashMap<>());
+                forEachCachedCell(geohash, entry -> {
+                    for (FeedPostSkeleton skeleton : entry.posts) {
+                        if (skeleton.getId().equals(postId)) {
+                            skeletons.add(skeleton);
+                            return;
+                        }
+                    }
+                });
+                for (FeedPostSkeleton skeleton : skeletons) {
+                    skeleton.adjustLikeCount(likeDelta);
+                    skeleton.adjustCommentCount(commentDelta);
+                }
+            }
+        });
+    }
+
+    private LocalDateTime raiseFloor(LocalDateTime floor, CellEntry entry) {
+        List<FeedPostSkeleton> posts = entry.posts;
+        if (posts.size() < maxPostsPerCell || posts.isEmpty()) {
+            return floor;
+        }
+        LocalDateTime oldest = posts.get(posts.size() - 1).getCreatedAt();
+        return floor == null || oldest.isAfter(floor) ? oldest : floor;
+    }
+
+    /**
+     * A post belongs to every cached cell whose key is a prefix of its geohash
+     */
+    private void forEachCachedCell(String geohash, Consumer<CellEntry> action) {
+        for (int length = 1; length <= geohash.length(); length++) {
+            CellEntry entry = cells.get(geohash.substring(0, length));
+            if (entry != null) {
+                action.accept(entry);
+            }
+        }
+    }
+
+    private void insert(CellEntry entry, FeedPostSkeleton skeleton) {
+        List<FeedPostSkeleton> posts = entry.posts;
+        for (FeedPostSkeleton existing : posts) {
+            if (existing.getId().equals(skeleton.getId())) {
+                return;
+            }
+        }
+        // Newest first; new posts almost always land at index 0
+        int index = 0;
+        while (index < posts.size() && posts.get(index).getCreatedAt().isAfter(skeleton.getCreatedAt())) {
+            index++;
+        }
+        if (index >= maxPostsPerCell) {
+            return;
+        }
+        posts.add(index, skeleton);
+        if (posts.size() > maxPostsPerCell) {
+            posts.remove(posts.size() - 1);
+        }
+    }
+
+    private void remove(CellEntry entry, UUID postId) {
+        entry.posts.removeIf(skeleton -> skeleton.getId().equals(postId));
+    }
+
+    private void recordWrite(CellWrite write) {
+        recentWrites.addLast(write);
+        if (recentWrites.size() > RECENT_WRITES_CAPACITY) {
+            recentWrites.removeFirst();
+        }
+    }
+
+    private void replayWritesSince(long sequence, String cellKey, CellEntry entry) {
+        for (CellWrite write : recentWrites) {
+            if (write.sequence <= sequence || !write.skeleton.getGeohash().startsWith(cellKey)) {
+                continue;
+            }
+            if (write.deleted) {
+                remove(entry, write.skeleton.getId());
+            } else {
+                insert(entry, write.skeleton);
+            }
+        }
+    }
+
+    private static class CellLoad {
+        private final long sequence;
+        private final List<FeedPostSkeleton> posts;
+
+        CellLoad(long sequence, List<FeedPostSkeleton> posts) {
+            this.sequence = sequence;
+            this.posts = posts;
+        }
+    }
+
+    private static class CellEntry {
+        private final List<FeedPostSkeleton> posts;
+        private final long loadedAt;
+
+        CellEntry(List<FeedPostSkeleton> posts, long loadedAt) {
+            this.posts = posts;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static class CellWrite {
+        private final long sequence;
+        private final FeedPostSkeleton skeleton;
+        private final boolean deleted;
+
+        CellWrite(long sequence, FeedPostSkeleton skeleton, boolean deleted) {
+            this.sequence = sequence;
+            this.skeleton = skeleton;
+            this.deleted = deleted;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.util.GeoUtil;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntPredicate;
+
+/**
+ * Feed candidates in columnar form for ranking.
+ *
+ * One primitive array per attribute keeps the scoring loop free of per-post objects and
+ * boxing; distance is computed once here (GeoUtil.distancesWithin, exact at the radius)
+ * and reused by filtering and every tier.
+ * retainIf compacts all columns in place, so filtering allocates nothing either.
+ */
+public class FeedCandidateBatch {
+
+    private final FeedPostSkeleton[] posts;
+    private final UUID[] ids;
+    private final double[] distanceKm;
+    private final long[] createdAtMicros;
+    private final int[] likeCounts;
+    private final int[] commentCounts;
+    private final long[] interestMasks;
+    private final double[] trendScores;
+    private final double[] scores;
+    private int size;
+
+    private FeedCandidateBatch(int capacity) {
+        posts = new FeedPostSkeleton[capacity];
+        ids = new UUID[capacity];
+        distanceKm = new double[capacity];
+        createdAtMicros = new long[capacity];
+        likeCounts = new int[capacity];
+        commentCounts = new int[capacity];
+        interestMasks = new long[capacity];
+        trendScores = new double[capacity];
+        scores = new double[capacity];
+    }
+
+    public static FeedCandidateBatch of(List<FeedPostSkeleton> candidates, double lat, double lon, double radiusKm) {
+        int count = candidates.size();
+        FeedCandidateBatch batch = new FeedCandidateBatch(count);
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        for (int i = 0; i < count; i++) {
+            FeedPostSkeleton post = candidates.get(i);
+            lats[i] = post.getLat();
+            lons[i] = post.getLon();
+        }
+        GeoUtil.distancesWithin(lat, lon, radiusKm, lats, lons, count, batch.distanceKm);
+
+        for (FeedPostSkeleton post : candidates) {
+            int i = batch.size++;
+            batch.posts[i] = post;
+            batch.ids[i] = post.getId();
+            batch.createdAtMicros[i] = post.getCreatedAtMicros();
+            batch.likeCounts[i] = (int) Math.min(Integer.MAX_VALUE, post.getLikeCount());
+            batch.commentCounts[i] = (int) Math.min(Integer.MAX_VALUE, post.getCommentCount());
+            batch.interestMasks[i] = post.getInterestMask();
+        }
+        return batch;
+    }
+
+    /**
+     * Keep only the candidates matching the predicate, preserving order
+     */
+    public void retainIf(IntPredicate keep) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (keep.test(i)) {
+                if (kept != i) {
+                    posts[kept] = posts[i];
+                    ids[kept] = ids[i];
+                    distanceKm[kept] = distanceKm[i];
+                    createdAtMicros[kept] = createdAtMicros[i];
+                    likeCounts[kept] = likeCounts[i];
+                    commentCounts[kept] = commentCounts[i];
+                    interestMasks[kept] = interestMasks[i];
+                    trendScores[kept] = trendScores[i];
+                }
+                kept++;
+            }
+        }
+        for (int i = kept; i < size; i++) {
+            posts[i] = null;
+            ids[i] = null;
+        }
+        size = kept;
+    }
+
+    /**
+     * Treat every candidate further than maxKm as being at maxKm
+     */
+    public void capDistance(double maxKm) {
+        for (int i = 0; i < size; i++) {
+            distanceKm[i] = Math.min(distanceKm[i], maxKm);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public FeedPostSkeleton post(int i) {
+        return posts[i];
+    }
+
+    public UUID id(int i) {
+        return ids[i];
+    }
+
+    public double distanceKm(int i) {
+        return distanceKm[i];
+    }
+
+    public long createdAtMicros(int i) {
+        return createdAtMicros[i];
+    }
+
+    public int likeCount(int i) {
+        return likeCounts[i];
+    }
+
+    public int commentCount(int i) {
+        return commentCounts[i];
+    }
+
+    public long interestMask(int i) {
+        return interestMasks[i];
+    }
+
+    /**
+     * Recent decayed engagement, filled by TrendingService.scoreBatch
+     */
+    public double trendScore(int i) {
+        return trendScores[i];
+    }
+
+    public void setTrendScore(int i, double trendScore) {
+        trendScores[i] = trendScore;
+    }
+
+    public double score(int i) {
+        return scores[i];
+    }
+
+    public void setScore(int i, double score) {
+        scores[i] = score;
+    }
+}
@@ -0,0 +1,157 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.repository.PostRepository;
+import com.gullygram.backend.service.EngagementCounterService;
+import com.gullygram.backend.util.GeoUtil;
+import com.gullygram.backend.util.InterestBitmap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Retrieves feed candidates around a point.
+ *
+ * The default strategy covers the radius with the minimal set of geohash cells
+ * (adaptive precision, see GeoUtil.coveringGeohashes) and reads them with one
+ * statement of indexed prefix range scans. The legacy lat/lon BETWEEN scan is
+ * kept behind feed.candidates.strategy=bbox for comparison and rollback.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedCandidateService {
+
+    public static final String STRATEGY_GEOHASH = "geohash";
+    public static final String STRATEGY_BBOX = "bbox";
+
+    private final PostRepository postRepository;
+    private final EngagementCounterService engagementCounterService;
+
+    @Value("${feed.candidates.strategy:geohash}")
+    private String strategy;
+
+    /**
+     * Most recent non-deleted posts in the area, newest first.
+     * Candidates may lie slightly outside the radius; callers apply the exact distance filter.
+     */
+    @Transactional(readOnly = true)
+    public List<Post> findCandidates(double lat, double lon, double radiusKm, int limit) {
+        long start = System.nanoTime();
+        List<Post> candidates = STRATEGY_BBOX.equals(strategy)
+            ? findByBoundingBox(lat, lon, radiusKm, limit)
+            : findByGeohashCells(lat, lon, radiusKm, limit);
+
+        log.debug("Candidate fetch [{}] returned {} posts for {}km in {}µs",
+                strategy, candidates.size(), radiusKm, (System.nanoTime() - start) / 1000);
+        return candidates;
+    }
+
+    /**
+     * Same as findCandidates, reduced to ranking skeletons
+     */
+    @Transactional(readOnly = true)
+    public List<FeedPostSkeleton> findCandidateSkeletons(double lat, double lon, double radiusKm, int limit) {
+        return toSkeletons(findCandidates(lat, lon, radiusKm, limit));
+    }
+
+    /**
+     * Uncached ranking window: when the fetch hit its limit, older posts are left to the chronological tail
+     */
+    @Transactional(readOnly = true)
+    public FeedWindow findCandidateWindow(double lat, double lon, double radiusKm, int limit) {
+        List<FeedPostSkeleton> skeletons = findCandidateSkeletons(lat, lon, radiusKm, limit);
+        LocalDateTime floor = skeletons.size() < limit || skeletons.isEmpty()
+            ? null
+            : skeletons.get(skeletons.size() - 1).getCreatedAt();
+        return new FeedWindow(skeletons, floor);
+    }
+
+    /**
+     * Keyset page of posts older than (before, beforeId) in the cells covering the radius, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<FeedPostSkeleton> findOlderSkeletons(double lat, double lon, double radiusKm,
+                                                     LocalDateTime before, UUID beforeId, int limit) {
+        List<String> cells = GeoUtil.coveringGeohashes(lat, lon, radiusKm);
+        return toSkeletons(postRepository.findOlderByGeohashPrefixes(cells, before, beforeId, limit));
+    }
+
+    /**
+     * Most recent posts of each geohash cell, used to fill the feed cache with one query
+     * however many cells missed. A post in nested cells shares one skeleton.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, List<FeedPostSkeleton>> loadCells(Collection<String> cells, int limit) {
+        Map<String, List<Post>> postsByCell = postRepository.findRecentByEachGeohashPrefix(cells, limit);
+
+        List<Post> distinct = new ArrayList<>(postsByCell.values().stream()
+            .flatMap(List::stream)
+            .collect(Collectors.toMap(Post::getId, post -> post, (first, second) -> first))
+            .values());
+        Map<UUID, FeedPostSkeleton> skeletons = new HashMap<>();
+        toSkeletons(distinct).forEach(skeleton -> skeletons.put(skeleton.getId(), skeleton));
+
+        Map<String, List<FeedPostSkeleton>> byCell = new HashMap<>();
+        postsByCell.forEach((cell, posts) -> byCell.put(cell, posts.stream()
+            .map(post -> skeletons.get(post.getId()))
+            .collect(Collectors.toList())));
+        return byCell;
+    }
+
+    /**
+     * Most recent FRIENDS_ONLY posts of the given authors, regardless of location
+     */
+    @Transactional(readOnly = true)
+    public List<FeedPostSkeleton> findRecentFriendsOnlySkeletons(Collection<UUID> authorIds, int limit) {
+        return toSkeletons(postRepository.findRecentFriendsOnlyByAuthorIds(authorIds, PageRequest.of(0, limit)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Post> findByGeohashCells(double lat, double lon, double radiusKm, int limit) {
+        List<String> cells = GeoUtil.coveringGeohashes(lat, lon, radiusKm);
+        return postRepository.findRecentByGeohashPrefixes(cells, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Post> findByBoundingBox(double lat, double lon, double radiusKm, int limit) {
+        double[] bbox = GeoUtil.getBoundingBox(lat, lon, radiusKm);
+        return postRepository.findPostsInBoundingBox(bbox[0], bbox[1], bbox[2], bbox[3], PageRequest.of(0, limit))
+            .getContent();
+    }
+
+    /**
+     * Interests come from the post's interest bitmap; only posts tagged with ids beyond it
+     * read their ids, with one grouped query. Engagement comes from the post counters.
+     */
+    private List<FeedPostSkeleton> toSkeletons(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<UUID> overflowIds = posts.stream()
+            .filter(post -> !InterestBitmap.isExact(post.getInterestBits()))
+            .map(Post::getId)
+            .collect(Collectors.toList());
+
+        Map<UUID, Set<Integer>> interestIds = new HashMap<>();
+        if (!overflowIds.isEmpty()) {
+            for (Object[] row : postRepository.findInterestIdsByPostIds(overflowIds)) {
+                interestIds.computeIfAbsent((UUID) row[0], id -> new HashSet<>()).add((Integer) row[1]);
+            }
+        }
+
+        return posts.stream()
+            .map(post -> FeedPostSkeleton.of(post,
+                interestIds.getOrDefault(post.getId(), Set.of()),
+                post.getLikeCount() + engagementCounterService.pendingLikes(post.getId()),
+                post.getCommentCount() + engagementCounterService.pendingComments(post.getId())))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,99 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor for the ranked feed.
+ *
+ * A feed session is pinned to the snapshot time of its first page: posts created later are
+ * left out and recency is scored against the snapshot. The next page resumes strictly after
+ * the boundary (score, createdAt, id) of the last post returned, in the order FeedSessionCache
+ * kept from the first page; engagement still moves, so a page ranked again once that order
+ * is gone may differ from it near the boundary.
+ *
+ * Once the cached ranking window is exhausted the cursor switches to CHRONOLOGICAL mode
+ * and pages older posts with an index seek on (createdAt, id) below the window floor.
+ *
+ * Post search pages with RANKED cursors too, over the scores of PostSearchService.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class FeedCursor {
+
+    private static final String VERSION = "1";
+    private static final String SEPARATOR = "|";
+
+    public enum Mode {
+        RANKED,
+        CHRONOLOGICAL
+    }
+
+    private final Mode mode;
+    private final double score;
+    private final LocalDateTime createdAt;
+    private final UUID id;
+    private final LocalDateTime snapshot;
+    private final LocalDateTime floor; // oldest post inside the ranking window; null when the window is complete
+    private final int contextHash;
+    private final int page;
+
+    /**
+     * Hash of the request parameters a cursor is only valid for
+     */
+    public static int contextHash(double lat, double lon, int radiusKm, boolean interestBoost) {
+        return Objects.hash(lat, lon, radiusKm, interestBoost);
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR,
+            VERSION,
+            mode.name(),
+            Double.toString(score),
+            createdAt != null ? createdAt.toString() : "",
+            id != null ? id.toString() : "",
+            snapshot.toString(),
+            floor != null ? floor.toString() : "",
+            Integer.toString(contextHash),
+            Integer.toString(page));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FeedCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 9 || !VERSION.equals(parts[0])) {
+                throw new BadRequestException("Invalid feed cursor");
+            }
+            FeedCursor cursor = FeedCursor.builder()
+                .mode(Mode.valueOf(parts[1]))
+                .score(Double.parseDouble(parts[2]))
+                .createdAt(parts[3].isEmpty() ? null : LocalDateTime.parse(parts[3]))
+                .id(parts[4].isEmpty() ? null : UUID.fromString(parts[4]))
+                .snapshot(LocalDateTime.parse(parts[5]))
+                .floor(parts[6].isEmpty() ? null : LocalDateTime.parse(parts[6]))
+                .contextHash(Integer.parseInt(parts[7]))
+                .page(Integer.parseInt(parts[8]))
+                .build();
+            // Ranked boundaries need the full (score, createdAt, id) tuple; chronological ones at least createdAt
+            if (cursor.createdAt == null || (cursor.mode == Mode.RANKED && cursor.id == null) || cursor.page < 0) {
+                throw new BadRequestException("Invalid feed cursor");
+            }
+            return cursor;
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid feed cursor");
+        }
+    }
+}
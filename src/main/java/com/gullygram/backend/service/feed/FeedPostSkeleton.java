@@ -0,0 +1,97 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.util.InterestBitmap;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The slice of a post that feed ranking needs: location, age, audience, interests and engagement.
+ * Cached per geohash cell so a feed request can be ranked without touching the database;
+ * full posts are only loaded for the page that is returned.
+ */
+@Getter
+public class FeedPostSkeleton {
+
+    public static final long INTEREST_OVERFLOW = InterestBitmap.OVERFLOW;
+
+    private final UUID id;
+    private final UUID authorId;
+    private final double lat;
+    private final double lon;
+    private final String geohash;
+    private final LocalDateTime createdAt;
+    private final Post.PostVisibility visibility;
+    // Only loaded when the bitmap overflows; see FeedCandidateService.toSkeletons
+    private final Set<Integer> interestIds;
+
+    // Derived once so ranking works on primitives, see FeedCandidateBatch
+    private final long createdAtMicros;
+    private final long interestMask;
+
+    // Adjusted in place by FeedCacheService when likes and comments are written
+    private volatile long likeCount;
+    private volatile long commentCount;
+
+    @Builder
+    public FeedPostSkeleton(UUID id, UUID authorId, double lat, double lon, String geohash, LocalDateTime createdAt,
+                            Post.PostVisibility visibility, Set<Integer> interestIds, long interestMask,
+                            long likeCount, long commentCount) {
+        this.id = id;
+        this.authorId = authorId;
+        this.lat = lat;
+        this.lon = lon;
+        this.geohash = geohash;
+        this.createdAt = createdAt;
+        this.visibility = visibility;
+        this.interestIds = interestIds != null ? interestIds : Set.of();
+        this.createdAtMicros = createdAt != null ? toEpochMicros(createdAt) : 0;
+        this.interestMask = this.interestIds.isEmpty() ? interestMask : interestMask(this.interestIds);
+        this.likeCount = likeCount;
+        this.commentCount = commentCount;
+    }
+
+    public static FeedPostSkeleton of(Post post, Set<Integer> interestIds, long likeCount, long commentCount) {
+        return FeedPostSkeleton.builder()
+            .id(post.getId())
+            .authorId(post.getAuthor().getId())
+            .lat(post.getLat())
+            .lon(post.getLon())
+            .geohash(post.getGeohash())
+            .createdAt(post.getCreatedAt() != null ? post.getCreatedAt() : LocalDateTime.now())
+            .visibility(post.getVisibility())
+            .interestIds(Set.copyOf(interestIds))
+            .interestMask(post.getInterestBits())
+            .likeCount(likeCount)
+            .commentCount(commentCount)
+            .build();
+    }
+
+    /**
+     * Timestamps are stored without zone; UTC is only used as a fixed reference so that
+     * differences between two values are exact
+     */
+    public static long toEpochMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    /**
+     * InterestBitmap of the ids; an overflowing id is resolved by FeedRankingContext against the id sets
+     */
+    public static long interestMask(Set<Integer> interestIds) {
+        return InterestBitmap.of(interestIds);
+    }
+
+    void adjustLikeCount(int delta) {
+        likeCount = Math.max(0, likeCount + delta);
+    }
+
+    void adjustCommentCount(int delta) {
+        commentCount = Math.max(0, commentCount + delta);
+    }
+}
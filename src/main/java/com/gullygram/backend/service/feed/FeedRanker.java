@@ -0,0 +1,26 @@
+package com.gullygram.backend.service.feed;
+
+/**
+ * Scores feed candidates. Implementations are Spring beans picked by feed.ranker,
+ * so ranking variants can be compared in production by configuration alone.
+ */
+public interface FeedRanker {
+
+    /**
+     * Value of feed.ranker that selects this implementation
+     */
+    String getName();
+
+    /**
+     * Write a score for every candidate of the batch via setScore
+     */
+    void score(FeedCandidateBatch batch, FeedRankingContext context);
+
+    /**
+     * Score the batch and return the indices of the best k candidates below the context's boundary, best first
+     */
+    default int[] rank(FeedCandidateBatch batch, FeedRankingContext context, int k) {
+        score(batch, context);
+        return TopKSelector.select(batch, context, k);
+    }
+}
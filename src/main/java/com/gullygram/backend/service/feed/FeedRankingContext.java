@@ -0,0 +1,48 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.util.InterestBitmap;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-request inputs to a FeedRanker: the viewer's interests, the query and the cursor boundary
+ */
+@Getter
+@Builder
+public class FeedRankingContext {
+
+    private final int radiusKm;
+    private final boolean interestBoost;
+    private final Set<Integer> userInterestIds;
+    private final long userInterestMask;
+    private final long snapshotMicros;
+
+    // Engagement from FeedCandidateBatch.trendScore instead of lifetime counts
+    private final boolean trendingEngagement;
+
+    // Last post of the previous page; only posts ranked strictly below it are eligible
+    private final boolean hasBoundary;
+    private final double boundaryScore;
+    private final long boundaryCreatedAtMicros;
+    private final UUID boundaryId;
+
+    public boolean isInterestMatch(FeedCandidateBatch batch, int i) {
+        long postMask = batch.interestMask(i);
+        if (InterestBitmap.sharesExact(postMask, userInterestMask)) {
+            return true;
+        }
+        if (InterestBitmap.isExactIntersection(postMask, userInterestMask)) {
+            return false;
+        }
+        // Both sides carry ids above the bitmap range; compare the sets
+        for (Integer interestId : batch.post(i).getInterestIds()) {
+            if (userInterestIds.contains(interestId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,123 @@
+package com.gullygram.backend.service.feed;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ranked order of recent feed sessions, so later pages of a session continue the order its
+ * first page computed instead of ranking the window again.
+ *
+ * Engagement keeps moving while a user scrolls: cached skeleton counts are patched in place
+ * and trend scores grow. Re-ranking a later page against the (score, createdAt, id) boundary
+ * would let a post liked in between cross the boundary, shown twice or never.
+ *
+ * - Bounded: the best maxRanked posts per session, at most maxSessions sessions, least
+ *   recently used evicted first
+ * - TTL: sessions expire ttlSeconds after their first page
+ * - Local: a session is only known to the instance that ranked it
+ */
+@Service
+public class FeedSessionCache {
+
+    @Value("${feed.sessions.max-sessions:2000}")
+    private int maxSessions = 2000;
+
+    @Value("${feed.sessions.max-ranked:500}")
+    private int maxRanked = 500;
+
+    @Value("${feed.sessions.ttl-seconds:600}")
+    private long ttlSeconds = 600;
+
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<String, RankedSession> sessions = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RankedSession> eldest) {
+            return size() > maxSessions;
+        }
+    };
+
+    /**
+     * Sessions are per viewer, request context and snapshot, all of which the cursor carries
+     */
+    public static String key(UUID viewerId, int contextHash, LocalDateTime snapshot) {
+        return viewerId + "|" + contextHash + "|" + snapshot;
+    }
+
+    public int getMaxRanked() {
+        return maxRanked;
+    }
+
+    public synchronized void put(String key, RankedSession session) {
+        sessions.put(key, session);
+    }
+
+    public synchronized RankedSession get(String key) {
+        RankedSession session = sessions.get(key);
+        if (session != null && System.currentTimeMillis() - session.rankedAt > ttlSeconds * 1000) {
+            sessions.remove(key);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * The best posts of a session's window in rank order, with each post's boundary
+     */
+    public static class RankedSession {
+        private final UUID[] ids;
+        private final double[] scores;
+        private final LocalDateTime[] createdAts;
+        private final boolean complete;
+        private final int totalElements;
+        private final long rankedAt = System.currentTimeMillis();
+
+        /**
+         * @param complete whether the order holds the whole window, not just its best posts
+         */
+        public RankedSession(UUID[] ids, double[] scores, LocalDateTime[] createdAts, boolean complete, int totalElements) {
+            this.ids = ids;
+            this.scores = scores;
+            this.createdAts = createdAts;
+            this.complete = complete;
+            this.totalElements = totalElements;
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        public int indexOf(UUID id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i].equals(id)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        public UUID id(int i) {
+            return ids[i];
+        }
+
+        public double score(int i) {
+            return scores[i];
+        }
+
+        public LocalDateTime createdAt(int i) {
+            return createdAts[i];
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public int getTotalElements() {
+            return totalElements;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.gullygram.backend.service.feed;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Candidates available for ranking in one area.
+ *
+ * When a cell was truncated to its newest posts the window is only complete down to the
+ * floor: the newest creation time among the truncated cells' oldest posts. Posts older
+ * than the floor are served chronologically from the database instead of being ranked.
+ */
+@Getter
+@AllArgsConstructor
+public class FeedWindow {
+
+    private final List<FeedPostSkeleton> posts;
+    private final LocalDateTime floor; // null when every cell is complete
+}
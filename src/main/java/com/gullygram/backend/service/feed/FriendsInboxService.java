@@ -0,0 +1,350 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.entity.Interest;
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.service.SocialContextService;
+import com.gullygram.backend.service.ViewerSocialContext;
+import com.gullygram.backend.util.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user inboxes of friends' FRIENDS_ONLY posts, filled on write.
+ *
+ * The geo feed only sees posts inside the radius, so a friend's post just outside it
+ * was never shown. Instead, a new FRIENDS_ONLY post is pushed into the inbox of each
+ * of the author's friends by a small worker pool after commit, and FeedService ranks
+ * the inbox together with the geo candidates.
+ *
+ * - Bounded: each inbox keeps the newest maxEntries posts; at most maxInboxes inboxes
+ * - Lazy: an inbox is loaded with one query on first read and reloaded after ttlSeconds;
+ *   fan-out only appends to inboxes that exist
+ * - Hybrid: authors with more than fanoutLimit friends are not fanned out; their posts
+ *   stay in a per-author outbox that readers pull from. An outbox is dropped ttlSeconds
+ *   after its last post, by when every inbox has reloaded those posts from the database;
+ *   at most maxInboxes outboxes
+ * - Live counts: likes and comments patch the cached skeletons after commit, as in
+ *   FeedCacheService, so friends' posts rank with current engagement
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FriendsInboxService {
+
+    private final FeedCandidateService feedCandidateService;
+    private final SocialContextService socialContextService;
+    private final CellVersionService cellVersionService;
+
+    @Value("${feed.inbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${feed.inbox.max-entries:200}")
+    private int maxEntries;
+
+    @Value("${feed.inbox.max-inboxes:50000}")
+    private int maxInboxes;
+
+    @Value("${feed.inbox.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${feed.inbox.fanout-limit:1000}")
+    private int fanoutLimit;
+
+    @Value("${feed.inbox.fanout-threads:2}")
+    private int fanoutThreads;
+
+    @Value("${feed.inbox.fanout-queue:10000}")
+    private int fanoutQueue;
+
+    private final ConcurrentHashMap<UUID, Inbox> inboxes = new ConcurrentHashMap<>();
+
+    // Recent posts of authors too popular to fan out, pulled by their friends at read time
+    private final ConcurrentHashMap<UUID, Inbox> outboxes = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor fanoutExecutor;
+
+    @PostConstruct
+    void startFanout() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        fanoutExecutor = new ThreadPoolExecutor(fanoutThreads, fanoutThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(fanoutQueue),
+            runnable -> {
+                Thread thread = new Thread(runnable, "inbox-fanout-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            (runnable, executor) -> log.warn("Inbox fan-out queue full; inboxes repair on their next reload"));
+    }
+
+    @PreDestroy
+    void stopFanout() {
+        fanoutExecutor.shutdown();
+    }
+
+    /**
+     * Friends' FRIENDS_ONLY posts for the viewer, newest first, including the viewer's own.
+     * Visibility is rechecked by the caller against the current social context.
+     */
+    public List<FeedPostSkeleton> getInbox(ViewerSocialContext viewer) {
+        if (!enabled || viewer.getViewerId() == null) {
+            return List.of();
+        }
+        UUID viewerId = viewer.getViewerId();
+
+        Inbox inbox = inboxes.get(viewerId);
+        if (inbox == null) {
+            if (inboxes.size() >= maxInboxes) {
+                // Inboxes are rebuilt from one query; a full reset keeps the bound without LRU bookkeeping
+                inboxes.clear();
+            }
+            inbox = inboxes.computeIfAbsent(viewerId, id -> new Inbox());
+        }
+        if (inbox.isStale(System.currentTimeMillis())) {
+            // Appended to rather than replaced, so posts fanned out during the load are kept
+            List<UUID> authorIds = new ArrayList<>(viewer.getFriendIds());
+            authorIds.add(viewerId);
+            inbox.load(feedCandidateService.findRecentFriendsOnlySkeletons(authorIds, maxEntries), maxEntries);
+        }
+
+        List<FeedPostSkeleton> posts = inbox.snapshot();
+        long now = System.currentTimeMillis();
+        for (UUID friendId : viewer.getFriendIds()) {
+            Inbox outbox = outboxes.get(friendId);
+            if (outbox != null && !outbox.isExpired(now)) {
+                posts.addAll(outbox.snapshot());
+            }
+        }
+        return posts;
+    }
+
+    public void onPostCreated(Post post) {
+        if (!enabled || post.getVisibility() != Post.PostVisibility.FRIENDS_ONLY) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            // Built after commit so the flushed creation timestamp is present
+            Set<Integer> interestIds = post.getInterests().stream()
+                .map(Interest::getId)
+                .collect(Collectors.toSet());
+            FeedPostSkeleton skeleton = FeedPostSkeleton.of(post, interestIds, 0, 0);
+            fanoutExecutor.execute(() -> fanOut(skeleton));
+        });
+    }
+
+    public void onPostDeleted(Post post) {
+        if (!enabled || post.getVisibility() != Post.PostVisibility.FRIENDS_ONLY) {
+            return;
+        }
+        UUID authorId = post.getAuthor().getId();
+        UUID postId = post.getId();
+        TransactionHooks.afterCommit(() -> fanoutExecutor.execute(() -> {
+            ViewerSocialContext author = socialContextService.forViewer(authorId);
+            forEachRecipient(author, inbox -> inbox.remove(postId));
+            Inbox outbox = outboxes.get(authorId);
+            if (outbox != null) {
+                outbox.remove(postId);
+            }
+            bumpRecipients(author);
+        }));
+    }
+
+    public void onLikeToggled(Post post, boolean liked) {
+        onEngagement(post, liked ? 1 : -1, 0);
+    }
+
+    public void onCommentCreated(Post post) {
+        onEngagement(post, 0, 1);
+    }
+
+    /**
+     * Drop the inboxes of both sides of a relationship once the change commits
+     */
+    public void invalidate(UUID userId1, UUID userId2) {
+        TransactionHooks.afterCommit(() -> {
+            inboxes.remove(userId1);
+            inboxes.remove(userId2);
+        });
+        cellVersionService.bumpViewer(userId1);
+        cellVersionService.bumpViewer(userId2);
+    }
+
+    void fanOut(FeedPostSkeleton skeleton) {
+        UUID authorId = skeleton.getAuthorId();
+        ViewerSocialContext author = socialContextService.forViewer(authorId);
+
+        if (author.getFriendCount() > fanoutLimit) {
+            if (outboxes.size() >= maxInboxes && !outboxes.containsKey(authorId)) {
+                sweepOutboxes();
+                if (outboxes.size() >= maxInboxes) {
+                    // Posts of dropped outboxes reach their readers again with the next inbox reload
+                    outboxes.clear();
+                }
+            }
+            outboxes.computeIfAbsent(authorId, id -> new Inbox()).add(skeleton, maxEntries);
+            appendIfPresent(authorId, skeleton);
+        } else {
+            forEachRecipient(author, inbox -> inbox.add(skeleton, maxEntries));
+        }
+        bumpRecipients(author);
+    }
+
+    /**
+     * Patch the skeletons of the post held in the author's outbox and the recipients' inboxes
+     */
+    void adjustCounts(UUID authorId, UUID postId, int likeDelta, int commentDelta) {
+        ViewerSocialContext author = socialContextService.forViewer(authorId);
+        // A fanned-out skeleton is shared by every inbox it reached; adjust each instance once
+        Set<FeedPostSkeleton> skeletons = Collections.newSetFromMap(new IdentityHashMap<>());
+        forEachRecipient(author, inbox -> inbox.find(postId).ifPresent(skeletons::add));
+        Inbox outbox = outboxes.get(authorId);
+        if (outbox != null) {
+            outbox.find(postId).ifPresent(skeletons::add);
+        }
+        for (FeedPostSkeleton skeleton : skeletons) {
+            skeleton.adjustLikeCount(likeDelta);
+            skeleton.adjustCommentCount(commentDelta);
+        }
+        if (!skeletons.isEmpty()) {
+            bumpRecipients(author);
+        }
+    }
+
+    /**
+     * Drop outboxes whose newest post every inbox has reloaded since
+     */
+    @Scheduled(fixedDelayString = "${feed.inbox.sweep-interval-ms:60000}")
+    public void sweepOutboxes() {
+        long now = System.currentTimeMillis();
+        // values().removeIf removes an entry only if it still holds the outbox tested
+        outboxes.values().removeIf(outbox -> outbox.isExpired(now));
+    }
+
+    int outboxCount() {
+        return outboxes.size();
+    }
+
+    private void onEngagement(Post post, int likeDelta, int commentDelta) {
+        if (!enabled || post.getVisibility() != Post.PostVisibility.FRIENDS_ONLY) {
+            return;
+        }
+        UUID authorId = post.getAuthor().getId();
+        UUID postId = post.getId();
+        TransactionHooks.afterCommit(() -> fanoutExecutor.execute(
+            () -> adjustCounts(authorId, postId, likeDelta, commentDelta)));
+    }
+
+    /**
+     * The author's own inbox and those of their friends, where loaded
+     */
+    private void forEachRecipient(ViewerSocialContext author, Consumer<Inbox> action) {
+        Inbox own = inboxes.get(author.getViewerId());
+        if (own != null) {
+            action.accept(own);
+        }
+        for (UUID friendId : author.getFriendIds()) {
+            Inbox inbox = inboxes.get(friendId);
+            if (inbox != null) {
+                action.accept(inbox);
+            }
+        }
+    }
+
+    /**
+     * The author's posts look different in every recipient's feed, e.g. after a new alias or avatar
+     */
+    public void onAuthorChanged(UUID authorId) {
+        bumpRecipients(socialContextService.forViewer(authorId));
+    }
+
+    /**
+     * Every recipient's feed changed, whether or not their inbox is loaded
+     */
+    private void bumpRecipients(ViewerSocialContext author) {
+        cellVersionService.bumpViewer(author.getViewerId());
+        for (UUID friendId : author.getFriendIds()) {
+            cellVersionService.bumpViewer(friendId);
+        }
+    }
+
+    private void appendIfPresent(UUID userId, FeedPostSkeleton skeleton) {
+        Inbox inbox = inboxes.get(userId);
+        if (inbox != null) {
+            inbox.add(skeleton, maxEntries);
+        }
+    }
+
+    /**
+     * Newest-first bounded list of posts; guarded by itself
+     */
+    private class Inbox {
+        private final ArrayDeque<FeedPostSkeleton> posts = new ArrayDeque<>();
+        private long loadedAt = -1;
+        private long addedAt = System.currentTimeMillis();
+
+        synchronized boolean isStale(long now) {
+            return loadedAt < 0 || now - loadedAt > ttlSeconds * 1000;
+        }
+
+        /**
+         * For outboxes, which are never loaded: nothing added for ttlSeconds
+         */
+        synchronized boolean isExpired(long now) {
+            return now - addedAt > ttlSeconds * 1000;
+        }
+
+        synchronized void load(List<FeedPostSkeleton> loaded, int capacity) {
+            Map<UUID, FeedPostSkeleton> byId = new HashMap<>();
+            for (FeedPostSkeleton post : loaded) {
+                byId.put(post.getId(), post);
+            }
+            for (FeedPostSkeleton post : posts) {
+                byId.putIfAbsent(post.getId(), post);
+            }
+            List<FeedPostSkeleton> merged = new ArrayList<>(byId.values());
+            merged.sort(Comparator.comparing(FeedPostSkeleton::getCreatedAtMicros).reversed());
+
+            posts.clear();
+            for (int i = 0; i < Math.min(capacity, merged.size()); i++) {
+                posts.addLast(merged.get(i));
+            }
+            loadedAt = System.currentTimeMillis();
+        }
+
+        synchronized void add(FeedPostSkeleton skeleton, int capacity) {
+            for (FeedPostSkeleton existing : posts) {
+                if (existing.getId().equals(skeleton.getId())) {
+                    return;
+                }
+            }
+            // New posts arrive newest; an out-of-order arrival still lands near the head
+            posts.addFirst(skeleton);
+            addedAt = System.currentTimeMillis();
+            if (posts.size() > capacity) {
+                posts.removeLast();
+            }
+        }
+
+        synchronized Optional<FeedPostSkeleton> find(UUID postId) {
+            return posts.stream().filter(post -> post.getId().equals(postId)).findFirst();
+        }
+
+        synchronized void remove(UUID postId) {
+            posts.removeIf(post -> post.getId().equals(postId));
+        }
+
+        synchronized List<FeedPostSkeleton> snapshot() {
+            return new ArrayList<>(posts);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.gullygram.backend.service.feed;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Newest first with an interest tie-breaker: the cheapest ranking, used as the
+ * baseline when measuring what the tiered ranking costs and gains
+ */
+@Component
+public class RecencyFeedRanker implements FeedRanker {
+
+    public static final String NAME = "recency";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void score(FeedCandidateBatch batch, FeedRankingContext context) {
+        long snapshot = context.getSnapshotMicros();
+        for (int i = 0; i < batch.size(); i++) {
+            double score = TieredHybridFeedRanker.recencyScore(batch.createdAtMicros(i), snapshot);
+            if (context.isInterestBoost() && context.isInterestMatch(batch, i)) {
+                score += 0.5; // within the same hour, matching interests first
+            }
+            batch.setScore(i, score);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.gullygram.backend.service.feed;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The default feed ranking.
+ *
+ * - Local zone (0-5km): recency only, +5 for an interest match
+ * - Extended zone: recency plus half the engagement score (recent decayed engagement when
+ *   trending is on, lifetime counts otherwise), then either the Wanderlust boost
+ *   (+2 per km, radius above 15km) or a mild distance decay (at most 20%)
+ * - Interest boost: +20 for an interest match outside the local zone when enabled
+ */
+@Component
+public class TieredHybridFeedRanker implements FeedRanker {
+
+    public static final String NAME = "tiered-hybrid";
+
+    static final double LOCAL_ZONE_KM = 5.0;
+    static final double WANDERLUST_RADIUS_KM = 15.0;
+    static final long MICROS_PER_HOUR = 3_600_000_000L;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void score(FeedCandidateBatch batch, FeedRankingContext context) {
+        int radiusKm = context.getRadiusKm();
+        long snapshot = context.getSnapshotMicros();
+
+        for (int i = 0; i < batch.size(); i++) {
+            double distance = batch.distanceKm(i);
+            boolean interestMatch = context.isInterestMatch(batch, i);
+            double recency = recencyScore(batch.createdAtMicros(i), snapshot);
+
+            // TIER 1: Local Zone (0-5km), primarily time-based
+            if (distance <= LOCAL_ZONE_KM) {
+                batch.setScore(i, interestMatch ? recency + 5 : recency);
+                continue;
+            }
+
+            // TIER 2: Extended Zone (5km to radius)
+            double engagement = context.isTrendingEngagement()
+                ? Math.min(100, batch.trendScore(i))
+                : engagementScore(batch.likeCount(i), batch.commentCount(i));
+            double score = recency + engagement * 0.5;
+
+            if (radiusKm > WANDERLUST_RADIUS_KM) {
+                // "The Wanderlust Boost": explorers see what's new further out
+                score += distance * 2.0;
+            } else {
+                // Normal Mode: slight decay for distance to keep feed relevant
+                score *= Math.max(0.8, 1.0 - (distance / 100.0));
+            }
+
+            if (interestMatch && context.isInterestBoost()) {
+                score += 20;
+            }
+            batch.setScore(i, score);
+        }
+    }
+
+    /**
+     * 100 points, minus one per full hour of age
+     */
+    static double recencyScore(long createdAtMicros, long snapshotMicros) {
+        long hours = (snapshotMicros - createdAtMicros) / MICROS_PER_HOUR;
+        return Math.max(0, 100 - hours);
+    }
+
+    /**
+     * Likes count double, comments triple, capped at 100
+     */
+    static double engagementScore(int likes, int comments) {
+        return Math.min(100L, likes * 2L + comments * 3L);
+    }
+}
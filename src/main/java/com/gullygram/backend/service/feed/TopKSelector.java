@@ -0,0 +1,108 @@
+package com.gullygram.backend.service.feed;
+
+/**
+ * Picks the k best scored candidates of a batch with a bounded min-heap of indices:
+ * O(n log k) and no per-candidate allocation, instead of sorting every candidate.
+ *
+ * Rank order is score, then newest, then id, which is total and matches FeedCursor boundaries.
+ */
+final class TopKSelector {
+
+    private TopKSelector() {
+    }
+
+    /**
+     * @return indices of the best k eligible candidates, best first
+     */
+    static int[] select(FeedCandidateBatch batch, FeedRankingContext context, int k) {
+        int[] heap = new int[Math.max(0, Math.min(k, batch.size()))];
+        int heapSize = 0;
+        if (heap.length == 0) {
+            return heap;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (context.isHasBoundary() && !belowBoundary(batch, context, i)) {
+                continue;
+            }
+            if (heapSize < heap.length) {
+                heap[heapSize] = i;
+                siftUp(batch, heap, heapSize++);
+            } else if (compare(batch, i, heap[0]) > 0) {
+                heap[0] = i;
+                siftDown(batch, heap, heapSize);
+            }
+        }
+
+        // Drain worst-first into the tail to get best-first order
+        int[] result = new int[heapSize];
+        for (int n = heapSize; n > 0; n--) {
+            result[n - 1] = heap[0];
+            heap[0] = heap[n - 1];
+            siftDown(batch, heap, n - 1);
+        }
+        return result;
+    }
+
+    /**
+     * Positive when candidate a ranks above candidate b
+     */
+    static int compare(FeedCandidateBatch batch, int a, int b) {
+        int byScore = Double.compare(batch.score(a), batch.score(b));
+        if (byScore != 0) {
+            return byScore;
+        }
+        int byTime = Long.compare(batch.createdAtMicros(a), batch.createdAtMicros(b));
+        if (byTime != 0) {
+            return byTime;
+        }
+        return batch.id(a).compareTo(batch.id(b));
+    }
+
+    private static boolean belowBoundary(FeedCandidateBatch batch, FeedRankingContext context, int i) {
+        int byScore = Double.compare(batch.score(i), context.getBoundaryScore());
+        if (byScore != 0) {
+            return byScore < 0;
+        }
+        int byTime = Long.compare(batch.createdAtMicros(i), context.getBoundaryCreatedAtMicros());
+        if (byTime != 0) {
+            return byTime < 0;
+        }
+        return batch.id(i).compareTo(context.getBoundaryId()) < 0;
+    }
+
+    private static void siftUp(FeedCandidateBatch batch, int[] heap, int pos) {
+        int item = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (compare(batch, item, heap[parent]) >= 0) {
+                break;
+            }
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = item;
+    }
+
+    private static void siftDown(FeedCandidateBatch batch, int[] heap, int size) {
+        if (size == 0) {
+            return;
+        }
+        int pos = 0;
+        int item = heap[0];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < size && compare(batch, heap[right], heap[child]) < 0) {
+                child = right;
+            }
+            if (compare(batch, item, heap[child]) <= 0) {
+                break;
+            }
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = item;
+    }
+}
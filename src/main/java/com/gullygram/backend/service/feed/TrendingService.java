@@ -0,0 +1,347 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.service.ViewerSocialContext;
+import com.gullygram.backend.util.GeoUtil;
+import com.gullygram.backend.util.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Hype Zone": recent engagement per post and per neighbourhood cell, in memory.
+ *
+ * Every like and comment adds its ranking weight (2 and 3, as in the lifetime formula)
+ * to exponentially decaying counters: one per post and one per geohash cell of
+ * CELL_PRECISION (~5km). Time is counted in buckets of bucketSeconds and decay factors
+ * are precomputed per bucket distance, so an update or a read is O(1) with no exp call.
+ *
+ * - Ranking: trendScore gives the decayed engagement of a post for FeedCandidateBatch
+ * - Trending near me: the hottest posts of the cells covering a radius
+ * - Bounded: counters that decayed below MIN_SCORE are swept; at most maxPosts posts
+ * - Warm start: engagement of the last few half-lives is replayed from the database on boot
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingService {
+
+    public static final int CELL_PRECISION = 5;
+    static final double LIKE_WEIGHT = 2.0;
+    static final double COMMENT_WEIGHT = 3.0;
+    static final double MIN_SCORE = 0.05;
+
+    private static final int WARM_START_HALF_LIVES = 6;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${feed.trending.enabled:true}")
+    private boolean enabled;
+
+    @Value("${feed.trending.half-life-minutes:60}")
+    private long halfLifeMinutes;
+
+    @Value("${feed.trending.bucket-seconds:60}")
+    private long bucketSeconds;
+
+    @Value("${feed.trending.max-posts:100000}")
+    private int maxPosts;
+
+    // A post and its cell membership change together inside posts.compute(), which then takes
+    // the cell's bin in cells; cells are dropped inside cells.compute() after re-checking, so
+    // a sweep cannot remove a cell a concurrent add is putting a post into
+    private final ConcurrentHashMap<UUID, TrendingPost> posts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TrendingCell> cells = new ConcurrentHashMap<>();
+
+    // decay[n] = 0.5^(n buckets / half-life), up to 16 half-lives
+    private double[] decay;
+
+    @PostConstruct
+    void precomputeDecay() {
+        double bucketsPerHalfLife = halfLifeMinutes * 60.0 / bucketSeconds;
+        decay = new double[(int) Math.ceil(bucketsPerHalfLife * 16) + 1];
+        for (int n = 0; n < decay.length; n++) {
+            decay[n] = Math.pow(0.5, n / bucketsPerHalfLife);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void onLikeToggled(Post post, boolean liked) {
+        record(post, liked ? LIKE_WEIGHT : -LIKE_WEIGHT);
+    }
+
+    public void onCommentCreated(Post post) {
+        record(post, COMMENT_WEIGHT);
+    }
+
+    public void onPostDeleted(Post post) {
+        UUID postId = post.getId();
+        TransactionHooks.afterCommit(() -> remove(postId));
+    }
+
+    /**
+     * Decayed engagement of a post on the lifetime formula's scale; 0 when quiet
+     */
+    public double trendScore(UUID postId) {
+        TrendingPost post = posts.get(postId);
+        return post == null ? 0 : post.counter.value(currentBucket());
+    }
+
+    /**
+     * Decayed engagement of all posts in a cell
+     */
+    public double cellHeat(String cell) {
+        TrendingCell trendingCell = cells.get(cell);
+        return trendingCell == null ? 0 : trendingCell.counter.value(currentBucket());
+    }
+
+    /**
+     * Write every candidate's trend score, as of the given time, into the batch: one hash
+     * lookup per post. Pages of one feed session pass the same snapshot so scores agree.
+     */
+    public void scoreBatch(FeedCandidateBatch batch, long atMillis) {
+        long bucket = atMillis / (bucketSeconds * 1000);
+        for (int i = 0; i < batch.size(); i++) {
+            TrendingPost post = posts.get(batch.id(i));
+            batch.setTrendScore(i, post == null ? 0 : post.counter.value(bucket));
+        }
+    }
+
+    /**
+     * Hottest posts within the radius that the viewer may see, hottest first
+     */
+    public List<UUID> trendingNear(ViewerSocialContext viewer, double lat, double lon, double radiusKm, int limit) {
+        long bucket = currentBucket();
+        List<String> covering = GeoUtil.coveringGeohashes(lat, lon, radiusKm);
+
+        // A post belongs to exactly one cell, so no id is seen twice
+        Map<UUID, Double> scores = new HashMap<>();
+        for (TrendingCell cell : coveredCells(covering)) {
+            for (UUID postId : cell.postIds) {
+                TrendingPost post = posts.get(postId);
+                if (post != null && isVisible(viewer, post)
+                        && GeoUtil.calculateDistance(lat, lon, post.lat, post.lon) <= radiusKm) {
+                    scores.put(postId, post.counter.value(bucket));
+                }
+            }
+        }
+        return scores.entrySet().stream()
+            .filter(entry -> entry.getValue() >= MIN_SCORE)
+            .sorted(Map.Entry.<UUID, Double>comparingByValue().reversed())
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    /**
+     * Drop counters that decayed to nothing, and keep the hottest maxPosts posts
+     */
+    @Scheduled(fixedDelayString = "${feed.trending.sweep-interval-ms:60000}")
+    public void sweep() {
+        long bucket = currentBucket();
+        for (UUID postId : posts.keySet()) {
+            posts.computeIfPresent(postId, (id, post) -> {
+                if (post.counter.value(bucket) >= MIN_SCORE) {
+                    return post;
+                }
+                leaveCell(post);
+                return null;
+            });
+        }
+        for (String key : cells.keySet()) {
+            cells.computeIfPresent(key, (k, cell) ->
+                cell.postIds.isEmpty() && cell.counter.value(bucket) < MIN_SCORE ? null : cell);
+        }
+
+        if (posts.size() > maxPosts) {
+            List<TrendingPost> coldestFirst = new ArrayList<>(posts.values());
+            coldestFirst.sort(Comparator.comparingDouble(post -> post.counter.value(bucket)));
+            for (TrendingPost post : coldestFirst.subList(0, coldestFirst.size() - maxPosts)) {
+                remove(post.postId);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmStart() {
+        if (!enabled) {
+            return;
+        }
+        Timestamp since = new Timestamp(System.currentTimeMillis() - WARM_START_HALF_LIVES * halfLifeMinutes * 60_000);
+        String select = "SELECT p.id, p.author_id, p.lat, p.lon, p.geohash, p.visibility, e.created_at " +
+            "FROM %s e JOIN post p ON p.id = e.post_id " +
+            "WHERE e.created_at >= ? AND p.deleted_at IS NULL AND p.geohash IS NOT NULL";
+        try {
+            replay(String.format(select, "post_like"), since, LIKE_WEIGHT);
+            replay(String.format(select, "comment") + " AND e.deleted_at IS NULL", since, COMMENT_WEIGHT);
+            log.info("Trending warm start: {} posts in {} cells", posts.size(), cells.size());
+        } catch (Exception e) {
+            log.warn("Trending warm start failed; counters fill from new engagement: {}", e.getMessage());
+        }
+    }
+
+    private void replay(String sql, Timestamp since, double weight) {
+        jdbcTemplate.query(sql, rs -> {
+            add((UUID) rs.getObject(1), (UUID) rs.getObject(2), rs.getDouble(3), rs.getDouble(4),
+                rs.getString(5), Post.PostVisibility.valueOf(rs.getString(6)), weight,
+                rs.getTimestamp(7).getTime() / (bucketSeconds * 1000));
+        }, since);
+    }
+
+    private void record(Post post, double weight) {
+        if (!enabled || post.getGeohash() == null || post.getLat() == null || post.getLon() == null) {
+            return;
+        }
+        UUID postId = post.getId();
+        UUID authorId = post.getAuthor().getId();
+        double lat = post.getLat();
+        double lon = post.getLon();
+        String geohash = post.getGeohash();
+        Post.PostVisibility visibility = post.getVisibility();
+
+        TransactionHooks.afterCommit(() ->
+            add(postId, authorId, lat, lon, geohash, visibility, weight, currentBucket()));
+    }
+
+    void add(UUID postId, UUID authorId, double lat, double lon, String geohash,
+                     Post.PostVisibility visibility, double weight, long bucket) {
+        String cellKey = geohash.substring(0, Math.min(CELL_PRECISION, geohash.length()));
+        posts.compute(postId, (id, existing) -> {
+            TrendingPost post = existing != null ? existing : new TrendingPost(id, authorId, lat, lon, cellKey, visibility);
+            post.counter.add(weight, bucket);
+            cells.compute(post.cell, (key, cell) -> {
+                TrendingCell target = cell != null ? cell : new TrendingCell();
+                target.counter.add(weight, bucket);
+                target.postIds.add(id);
+                return target;
+            });
+            return post;
+        });
+    }
+
+    private void remove(UUID postId) {
+        posts.computeIfPresent(postId, (id, post) -> {
+            leaveCell(post);
+            return null;
+        });
+    }
+
+    /**
+     * Called inside posts.compute() for the post
+     */
+    private void leaveCell(TrendingPost post) {
+        cells.computeIfPresent(post.cell, (key, cell) -> {
+            cell.postIds.remove(post.postId);
+            return cell;
+        });
+    }
+
+    /**
+     * Trending cells inside the covering cells, whose precision adapts to the radius
+     */
+    private List<TrendingCell> coveredCells(List<String> covering) {
+        List<TrendingCell> covered = new ArrayList<>();
+        if (!covering.isEmpty() && covering.get(0).length() >= CELL_PRECISION) {
+            Set<String> keys = new HashSet<>();
+            for (String cell : covering) {
+                keys.add(cell.substring(0, CELL_PRECISION));
+            }
+            for (String key : keys) {
+                TrendingCell cell = cells.get(key);
+                if (cell != null) {
+                    covered.add(cell);
+                }
+            }
+            return covered;
+        }
+        // Coarser covering cells: only active cells are kept, so scanning them is cheap
+        for (Map.Entry<String, TrendingCell> entry : cells.entrySet()) {
+            for (String cell : covering) {
+                if (entry.getKey().startsWith(cell)) {
+                    covered.add(entry.getValue());
+                    break;
+                }
+            }
+        }
+        return covered;
+    }
+
+    private static boolean isVisible(ViewerSocialContext viewer, TrendingPost post) {
+        if (viewer.isBlocked(post.authorId)) {
+            return false;
+        }
+        return post.visibility == Post.PostVisibility.PUBLIC
+            || viewer.isSelf(post.authorId) || viewer.isFriend(post.authorId);
+    }
+
+    long currentBucket() {
+        return System.currentTimeMillis() / (bucketSeconds * 1000);
+    }
+
+    private double decay(long buckets) {
+        if (buckets <= 0) {
+            return 1.0;
+        }
+        return buckets < decay.length ? decay[(int) buckets] : 0.0;
+    }
+
+    /**
+     * Value decayed to the last update's bucket; guarded by itself
+     */
+    private class DecayedCounter {
+        private double value;
+        private long bucket;
+
+        synchronized void add(double weight, long at) {
+            if (at >= bucket) {
+                value = value * decay(at - bucket) + weight;
+                bucket = at;
+            } else {
+                // Replayed history older than the last update
+                value += weight * decay(bucket - at);
+            }
+            value = Math.max(0, value);
+        }
+
+        synchronized double value(long at) {
+            return value * decay(at - bucket);
+        }
+    }
+
+    private class TrendingPost {
+        private final UUID postId;
+        private final UUID authorId;
+        private final double lat;
+        private final double lon;
+        private final String cell;
+        private final Post.PostVisibility visibility;
+        private final DecayedCounter counter = new DecayedCounter();
+
+        TrendingPost(UUID postId, UUID authorId, double lat, double lon, String cell, Post.PostVisibility visibility) {
+            this.postId = postId;
+            this.authorId = authorId;
+            this.lat = lat;
+            this.lon = lon;
+            this.cell = cell;
+            this.visibility = visibility;
+        }
+    }
+
+    private class TrendingCell {
+        private final DecayedCounter counter = new DecayedCounter();
+        private final Set<UUID> postIds = ConcurrentHashMap.newKeySet();
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 @Service
@@ -70,6 +71,38 @@ public class CloudinaryStorageServiceImpl implements StorageService {
         }
     }
 
+    @Override
+    public String storeFile(Path file, String originalFilename, String folder) {
+        try {
+            Map params = ObjectUtils.asMap(
+                "folder", "gullygram/" + folder,
+                "resource_type", "auto"
+            );
+
+            // Uploaded from disk, so large files are not read into memory
+            Map uploadResult = cloudinary.uploader().upload(file.toFile(), params);
+
+            String url = (String) uploadResult.get("secure_url");
+            log.info("Uploaded file to Cloudinary: {}", url);
+            return url;
+
+        } catch (IOException e) {
+            log.error("Failed to upload file to Cloudinary", e);
+            throw new RuntimeException("Failed to upload file to Cloudinary", e);
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not remove temporary upload {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void retainFile(String fileUrl) {
+        // Cloudinary files are never deleted, so there is nothing to count
+    }
+
     @Override
     public void deleteFile(String fileUrl) {
         // Extract public_id from URL if possible, or just ignore.
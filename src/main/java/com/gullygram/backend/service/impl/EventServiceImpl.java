@@ -4,14 +4,20 @@ import com.gullygram.backend.dto.response.PostResponse;
 import com.gullygram.backend.entity.Post;
 import com.gullygram.backend.repository.PostRepository;
 import com.gullygram.backend.service.EventService;
-import com.gullygram.backend.service.PostService;
+import com.gullygram.backend.service.PostResponseAssembler;
+import com.gullygram.backend.util.GeoUtil;
+import com.gullygram.backend.util.Geohash;
+import com.gullygram.backend.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,23 +26,41 @@ import java.util.stream.Collectors;
 public class EventServiceImpl implements EventService {
 
     private final PostRepository postRepository;
-    private final PostService postService; // Reusing converter logic
+    private final PostResponseAssembler postResponseAssembler;
+
+    // Nearby event ids, keyed by snapped location and radius
+    private final SingleFlight<String, List<UUID>> nearbyLoads = new SingleFlight<>();
 
     @Override
     @Transactional(readOnly = true)
     public List<PostResponse> getUpcomingEventsByCity(String city, UUID currentUserId) {
         List<Post> events = postRepository.findUpcomingEventsByCity(city);
-        return events.stream()
-                .map(post -> postService.convertToResponse(post, currentUserId))
-                .collect(Collectors.toList());
+        return postResponseAssembler.toResponses(events, currentUserId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PostResponse> getUpcomingEventsNearby(double lat, double lon, double radius, UUID currentUserId) {
-        List<Post> events = postRepository.findUpcomingEventsNearby(lat, lon, radius);
-        return events.stream()
-                .map(post -> postService.convertToResponse(post, currentUserId))
-                .collect(Collectors.toList());
+        // Neighbours share the distance scan: it runs once from the centre of their grid cell,
+        // widened to cover every point in the cell, and each request keeps its exact circle
+        long cell = Geohash.encode(lat, lon, GeoUtil.SNAP_GRID_PRECISION);
+        String key = Geohash.toBase32(cell) + ":" + radius;
+        List<UUID> ids = nearbyLoads.execute(key, () -> postRepository.findUpcomingEventIdsNearby(
+            Geohash.centerLat(cell), Geohash.centerLon(cell), radius + GeoUtil.cellCircumradiusKm(cell)));
+
+        // Entities are loaded per request, in this request's persistence context
+        Map<UUID, Post> eventsById = postRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<Post> events = ids.stream()
+            .map(eventsById::get)
+            .filter(Objects::nonNull)
+            .filter(event -> event.getLat() != null && event.getLon() != null
+                && GeoUtil.calculateDistance(lat, lon, event.getLat(), event.getLon()) < radius)
+            .collect(Collectors.toList());
+        return postResponseAssembler.toResponses(events, currentUserId);
+    }
+
+    public SingleFlight<String, ?> getNearbyLoads() {
+        return nearbyLoads;
     }
 }
@@ -1,36 +1,82 @@
 package com.gullygram.backend.service.impl;
 
+import com.gullygram.backend.exception.BadRequestException;
 import com.gullygram.backend.service.StorageService;
+import com.gullygram.backend.service.media.ImageVariantService;
+import com.gullygram.backend.service.media.ImageVariants;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Content-addressed storage on local disk.
+ *
+ * An upload is hashed (SHA-256) while it streams to a temporary file and stored once per
+ * distinct content as uploads/blobs/ab/cd/abcd....jpg, so re-uploads and reposts of the
+ * same image share one file and one cache entry. The folder only matters to other backends.
+ *
+ * media_blob counts the uses of each blob, not its uploads: a post or profile takes a
+ * reference with retainFile when it stores the URL and releases it with deleteFile, so a
+ * URL reused or copied into another post cannot be released by someone who never held it.
+ * An upload holds no reference of its own; the sweeper removes blobs left unreferenced for
+ * sweepGraceMinutes, with their image variants, which also bounds how long an upload may
+ * wait to be attached. Files uploaded before blobs existed are not counted and are never removed.
+ */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 @org.springframework.boot.autoconfigure.condition.ConditionalOnProperty(name = "storage.type", havingValue = "local", matchIfMissing = true)
 public class LocalStorageServiceImpl implements StorageService {
 
-    private final Path rootLocation;
-    private final String uploadDir = "uploads";
+    public static final String UPLOAD_DIR = "uploads";
+    public static final String BLOB_DIR = "blobs";
+    public static final String TEMP_DIR = "tmp";
+    private static final String URL_PREFIX = "/uploads/" + BLOB_DIR + "/";
+    private static final Pattern BLOB_URL = Pattern.compile(
+        "^/uploads/blobs/[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})\\.[a-z0-9]+$");
+    private static final Pattern EXTENSION = Pattern.compile("^[a-z0-9]{1,10}$");
+    private static final int SWEEP_BATCH = 500;
 
-    public LocalStorageServiceImpl() {
-        this.rootLocation = Paths.get(uploadDir);
-    }
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageVariantService imageVariantService;
+
+    @Value("${storage.local.sweep-grace-minutes:1440}")
+    private long sweepGraceMinutes;
+
+    private final Path rootLocation = Paths.get(UPLOAD_DIR);
+    private final Path blobLocation = rootLocation.resolve(BLOB_DIR);
+    private final Path tempLocation = rootLocation.resolve(TEMP_DIR);
 
     @PostConstruct
     public void init() {
         try {
-            Files.createDirectories(rootLocation);
+            Files.createDirectories(blobLocation);
+            Files.createDirectories(tempLocation);
         } catch (IOException e) {
             throw new RuntimeException("Could not initialize storage location", e);
         }
@@ -38,38 +84,211 @@ public class LocalStorageServiceImpl implements StorageService {
 
     @Override
     public String uploadFile(MultipartFile file, String folder) {
+        if (file.isEmpty()) {
+            throw new RuntimeException("Failed to store empty file.");
+        }
+
+        Path tempFile = tempLocation.resolve(UUID.randomUUID() + ".part");
         try {
-            if (file.isEmpty()) {
+            String hash;
+            long size;
+            try (DigestInputStream in = new DigestInputStream(file.getInputStream(), sha256())) {
+                size = Files.copy(in, tempFile);
+                hash = HexFormat.of().formatHex(in.getMessageDigest().digest());
+            }
+            return store(tempFile, hash, size, file.getOriginalFilename());
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file.", e);
+        } finally {
+            deleteTemporary(tempFile);
+        }
+    }
+
+    /**
+     * Hashes the file in one sequential read, then renames it into place: no copy when it
+     * lives on the same filesystem as the blobs, as chunked uploads do
+     */
+    @Override
+    public String storeFile(Path file, String originalFilename, String folder) {
+        try {
+            long size = Files.size(file);
+            if (size == 0) {
                 throw new RuntimeException("Failed to store empty file.");
             }
+            MessageDigest digest = sha256();
+            try (DigestInputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return store(file, HexFormat.of().formatHex(digest.digest()), size, originalFilename);
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file.", e);
+        } finally {
+            deleteTemporary(file);
+        }
+    }
+
+    /**
+     * Take a reference to the blob; joins the caller's transaction if there is one
+     */
+    @Override
+    public void retainFile(String fileUrl) {
+        String hash = blobHash(fileUrl);
+        if (hash == null) {
+            return;
+        }
+        int updated = jdbcTemplate.update(
+            "UPDATE media_blob SET ref_count = ref_count + 1, unreferenced_at = NULL WHERE hash = ?", hash);
+        if (updated == 0) {
+            throw new BadRequestException("Uploaded file is no longer available, please upload it again");
+        }
+    }
+
+    /**
+     * Release one reference to the blob; joins the caller's transaction if there is one
+     */
+    @Override
+    public void deleteFile(String fileUrl) {
+        String hash = blobHash(fileUrl);
+        if (hash != null) {
+            release(hash);
+        }
+    }
 
-            // Create folder if not exists (e.g. uploads/avatars)
-            Path folderPath = rootLocation.resolve(folder);
-            if (!Files.exists(folderPath)) {
-                Files.createDirectories(folderPath);
+    /**
+     * Remove blobs unreferenced for longer than the grace period
+     */
+    @Scheduled(fixedDelayString = "${storage.local.sweep-interval-ms:600000}",
+               initialDelayString = "${storage.local.sweep-interval-ms:600000}")
+    public void sweep() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - sweepGraceMinutes * 60_000);
+        int removed = 0;
+        List<String[]> candidates;
+        do {
+            candidates = jdbcTemplate.query(
+                "SELECT hash, extension FROM media_blob WHERE ref_count = 0 AND unreferenced_at < ? " +
+                "ORDER BY unreferenced_at LIMIT ?",
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)}, cutoff, SWEEP_BATCH);
+            for (String[] candidate : candidates) {
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> remove(candidate[0], candidate[1], cutoff)))) {
+                        removed++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Could not remove blob {}: {}", candidate[0], e.getMessage());
+                    return;
+                }
             }
+        } while (candidates.size() == SWEEP_BATCH);
 
-            String filename = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            Path destinationFile = folderPath.resolve(filename);
+        if (removed > 0) {
+            log.info("Removed {} unreferenced media blobs", removed);
+        }
+    }
 
-            try (var inputStream = file.getInputStream()) {
-                Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * The row is deleted and the file removed before commit: an upload of the same content
+     * waits on the row lock and then finds the file gone, so it places its own copy
+     */
+    private boolean remove(String hash, String extension, Timestamp cutoff) {
+        int deleted = jdbcTemplate.update(
+            "DELETE FROM media_blob WHERE hash = ? AND ref_count = 0 AND unreferenced_at < ?", hash, cutoff);
+        if (deleted == 0) {
+            // Referenced or uploaded again since the scan
+            return false;
+        }
+        try {
+            Path blob = blobPath(hash, extension);
+            for (ImageVariants.Variant variant : ImageVariants.Variant.values()) {
+                Files.deleteIfExists(ImageVariants.variantPath(blob, variant));
             }
+            Files.deleteIfExists(blob);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
 
-            // Return URL relative to server context
-            // Return URL relative to server context
-            String fileUrl = "/uploads/" + folder + "/" + filename;
-            
-            return fileUrl;
+    /**
+     * Record the blob of a hashed temporary file, moving the file into place if it is new.
+     * The blob starts, or restarts, its grace period unreferenced until a post or profile retains it.
+     */
+    private String store(Path tempFile, String hash, long size, String originalFilename) throws IOException {
+        // Recorded before the file is placed; the fresh grace period keeps a concurrent sweep away
+        String extension = jdbcTemplate.queryForObject(
+            "INSERT INTO media_blob (hash, extension, size_bytes, ref_count, unreferenced_at) VALUES (?, ?, ?, 0, NOW()) " +
+            "ON CONFLICT (hash) DO UPDATE SET " +
+            "unreferenced_at = CASE WHEN media_blob.ref_count = 0 THEN NOW() ELSE media_blob.unreferenced_at END " +
+            "RETURNING extension",
+            String.class, hash, extensionOf(originalFilename), size);
 
+        Path blob = blobPath(hash, extension);
+        if (Files.exists(blob)) {
+            log.debug("Deduplicated upload {} into blob {}", originalFilename, hash);
+        } else {
+            Files.createDirectories(blob.getParent());
+            Files.move(tempFile, blob, StandardCopyOption.ATOMIC_MOVE);
+        }
+        imageVariantService.submit(blob, extension);
+
+        return URL_PREFIX + relativeBlobPath(hash, extension);
+    }
+
+    private void deleteTemporary(Path tempFile) {
+        try {
+            Files.deleteIfExists(tempFile);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to store file.", e);
+            log.warn("Could not remove temporary upload {}: {}", tempFile, e.getMessage());
         }
     }
 
-    @Override
-    public void deleteFile(String fileUrl) {
-        // Implementation for local delete if needed
-        // For now, we can skip actual deletion or parse the URL to find the path
+    /**
+     * The blob hash of a URL, or null when it is not a blob: an external URL or an upload
+     * from before content addressing
+     */
+    private static String blobHash(String fileUrl) {
+        Matcher matcher = fileUrl == null ? null : BLOB_URL.matcher(fileUrl);
+        return matcher != null && matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private void release(String hash) {
+        jdbcTemplate.update(
+            "UPDATE media_blob SET ref_count = ref_count - 1, " +
+            "unreferenced_at = CASE WHEN ref_count = 1 THEN NOW() ELSE unreferenced_at END " +
+            "WHERE hash = ? AND ref_count > 0",
+            hash);
+    }
+
+    private Path blobPath(String hash, String extension) {
+        return blobLocation.resolve(relativeBlobPath(hash, extension));
+    }
+
+    /**
+     * Two directory levels of two hex digits each keep directories small
+     */
+    static String relativeBlobPath(String hash, String extension) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + "." + extension;
+    }
+
+    static String extensionOf(String filename) {
+        if (filename != null) {
+            int dot = filename.lastIndexOf('.');
+            if (dot >= 0) {
+                String extension = filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+                if (EXTENSION.matcher(extension).matches()) {
+                    return extension;
+                }
+            }
+        }
+        return "bin";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
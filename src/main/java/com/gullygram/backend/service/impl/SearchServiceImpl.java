@@ -1,26 +1,35 @@
 package com.gullygram.backend.service.impl;
 
-import com.gullygram.backend.dto.response.AuthorView;
+import com.gullygram.backend.dto.response.FeedResponse;
 import com.gullygram.backend.dto.response.PostResponse;
 import com.gullygram.backend.dto.response.UserSummary;
 import com.gullygram.backend.entity.Post;
-import com.gullygram.backend.entity.User;
 import com.gullygram.backend.entity.UserProfile;
+import com.gullygram.backend.exception.BadRequestException;
 import com.gullygram.backend.repository.PostRepository;
 import com.gullygram.backend.repository.UserProfileRepository;
 import com.gullygram.backend.repository.UserRepository;
-import com.gullygram.backend.service.FeedService;
-import com.gullygram.backend.service.RelationshipService;
+import com.gullygram.backend.service.AliasSearchIndex;
+import com.gullygram.backend.service.HashtagService;
+import com.gullygram.backend.service.PostResponseAssembler;
+import com.gullygram.backend.service.PostSearchService;
 import com.gullygram.backend.service.SearchService;
+import com.gullygram.backend.service.SocialContextService;
+import com.gullygram.backend.service.ViewerSocialContext;
+import com.gullygram.backend.service.feed.FeedCursor;
+import com.gullygram.backend.util.GeoUtil;
+import com.gullygram.backend.util.Hashtags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,11 +43,16 @@ public class SearchServiceImpl implements SearchService {
     private final UserProfileRepository userProfileRepository;
     private final UserRepository userRepository;
     private final PostRepository postRepository;
-    private final RelationshipService relationshipService;
+    private final SocialContextService socialContextService;
+    private final PostResponseAssembler postResponseAssembler;
+    private final HashtagService hashtagService;
+    private final PostSearchService postSearchService;
+    private final AliasSearchIndex aliasSearchIndex;
     // private final FeedService feedService; // Removed to avoid circular deps and unused warning
 
-    // Rough approximation: 1 degree latitude ~ 111 km
-    private static final double KM_PER_DEGREE = 111.0;
+    private static final int PAGE_SIZE = 20;
+    // Largest batch of hashtag rows read per round while filling a page
+    private static final int MAX_HASHTAG_BATCH = 640;
 
     @Override
     @Transactional(readOnly = true)
@@ -47,62 +61,162 @@ public class SearchServiceImpl implements SearchService {
             return new ArrayList<>();
         }
 
+        ViewerSocialContext viewer = socialContextService.forViewer(currentUserId);
+        // The database answers until the index has loaded
+        if (aliasSearchIndex.isReady()) {
+            return aliasSearchIndex.search(query, currentUserId, viewer::isBlocked, PAGE_SIZE).stream()
+                    .map(entry -> convertToUserSummary(entry, viewer))
+                    .collect(Collectors.toList());
+        }
+
         List<UserProfile> profiles = userProfileRepository.searchUsers(query.trim());
         
         return profiles.stream()
                 .filter(p -> p.getUser() != null && !p.getUser().getId().equals(currentUserId)) // Exclude self and verify user exists
-                .map(p -> convertToUserSummary(p, currentUserId))
+                .filter(p -> !viewer.isBlocked(p.getUserId()))
+                .map(p -> convertToUserSummary(p, viewer))
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<PostResponse> searchPosts(String query, UUID currentUserId, Double lat, Double lon, Double radiusKm) {
+    public FeedResponse searchPosts(String query, UUID currentUserId, Double lat, Double lon, Double radiusKm, String cursorToken) {
         if (query == null || query.trim().length() < 2) {
-            return new ArrayList<>();
+            return FeedResponse.builder().posts(new ArrayList<>()).pageSize(PAGE_SIZE).build();
         }
 
-        BoundingBox box = calculateBoundingBox(lat, lon, radiusKm);
-        
-        Page<Post> posts = postRepository.searchPosts(
-            query.trim(),
-            box.minLat, box.maxLat, box.minLon, box.maxLon,
-            PageRequest.of(0, 20)
-        );
-
-        return posts.getContent().stream()
-                .map(post -> convertToPostResponse(post, currentUserId))
+        String q = query.trim();
+        double r = (radiusKm != null && radiusKm > 0) ? radiusKm : 50.0; // Default 50km
+        int contextHash = Objects.hash(q.toLowerCase(Locale.ROOT), lat, lon, r);
+        FeedCursor cursor = decodeSearchCursor(cursorToken, contextHash);
+        LocalDateTime snapshot = cursor != null ? cursor.getSnapshot() : LocalDateTime.now();
+        PostSearchService.Hit after = cursor != null
+            ? new PostSearchService.Hit(cursor.getId(), cursor.getCreatedAt(), cursor.getScore())
+            : null;
+
+        // One extra hit tells whether there is a next page
+        List<PostSearchService.Hit> hits = postSearchService.search(q, lat, lon, r, snapshot, after, PAGE_SIZE + 1);
+        boolean hasNext = hits.size() > PAGE_SIZE;
+        List<PostSearchService.Hit> page = hasNext ? hits.subList(0, PAGE_SIZE) : hits;
+
+        Map<UUID, Post> postsById = new HashMap<>();
+        for (Post post : postRepository.findAllById(page.stream().map(PostSearchService.Hit::getId).collect(Collectors.toList()))) {
+            postsById.put(post.getId(), post);
+        }
+        List<Post> posts = page.stream()
+                .map(hit -> postsById.get(hit.getId()))
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        List<PostResponse> responses = postResponseAssembler.toResponses(withoutBlockedAuthors(posts, currentUserId), currentUserId);
+
+        int currentPage = cursor != null ? cursor.getPage() : 0;
+        String nextCursor = null;
+        if (hasNext) {
+            PostSearchService.Hit last = page.get(page.size() - 1);
+            nextCursor = FeedCursor.builder()
+                .mode(FeedCursor.Mode.RANKED)
+                .score(last.getScore())
+                .createdAt(last.getCreatedAt())
+                .id(last.getId())
+                .snapshot(snapshot)
+                .contextHash(contextHash)
+                .page(currentPage + 1)
+                .build()
+                .encode();
+        }
+
+        return FeedResponse.builder()
+            .posts(responses)
+            .currentPage(currentPage)
+            .totalPages(currentPage + (hasNext ? 2 : 1))
+            .totalElements((long) currentPage * PAGE_SIZE + responses.size())
+            .pageSize(PAGE_SIZE)
+            .hasNext(hasNext)
+            .hasPrevious(currentPage > 0)
+            .nextCursor(nextCursor)
+            .build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PostResponse> searchHashtags(String hashtag, UUID currentUserId, Double lat, Double lon, Double radiusKm) {
-        if (hashtag == null || hashtag.trim().isEmpty()) {
+        String tag = Hashtags.normalize(hashtag);
+        if (tag == null) {
             return new ArrayList<>();
         }
-        
-        if (!hashtag.startsWith("#")) {
-            hashtag = "#" + hashtag;
+
+        List<String> cells = null;
+        double r = (radiusKm != null && radiusKm > 0) ? radiusKm : 50.0; // Default 50km
+        if (lat != null && lon != null) {
+            cells = GeoUtil.coveringGeohashes(lat, lon, r);
         }
 
-        BoundingBox box = calculateBoundingBox(lat, lon, radiusKm);
-        
-        Page<Post> posts = postRepository.searchHashtags(
-            hashtag.trim(),
-            box.minLat, box.maxLat, box.minLon, box.maxLon,
-            PageRequest.of(0, 20)
-        );
-
-        return posts.getContent().stream()
-                .map(post -> convertToPostResponse(post, currentUserId))
-                .filter(Objects::nonNull)
+        // Cells over-cover the circle and deleted or blocked posts drop out, so keep reading
+        // batches, each twice the last, until the page is full or the tag has no more posts
+        ViewerSocialContext viewer = socialContextService.forViewer(currentUserId);
+        List<Post> posts = new ArrayList<>();
+        HashtagService.TaggedPost after = null;
+        int batchSize = cells == null ? PAGE_SIZE : PAGE_SIZE * 2;
+        while (true) {
+            List<HashtagService.TaggedPost> batch = hashtagService.findPosts(tag, cells, after, batchSize);
+            Map<UUID, Post> postsById = new HashMap<>();
+            for (Post post : postRepository.findAllById(batch.stream().map(HashtagService.TaggedPost::getPostId).toList())) {
+                postsById.put(post.getId(), post);
+            }
+            for (HashtagService.TaggedPost tagged : batch) {
+                Post post = postsById.get(tagged.getPostId());
+                if (post == null || post.getDeletedAt() != null || viewer.isBlocked(post.getAuthor().getId())) {
+                    continue;
+                }
+                if (lat != null && lon != null && GeoUtil.calculateDistance(lat, lon, post.getLat(), post.getLon()) > r) {
+                    continue;
+                }
+                posts.add(post);
+                if (posts.size() == PAGE_SIZE) {
+                    return postResponseAssembler.toResponses(posts, currentUserId);
+                }
+            }
+            if (batch.size() < batchSize) {
+                return postResponseAssembler.toResponses(posts, currentUserId);
+            }
+            after = batch.get(batch.size() - 1);
+            batchSize = Math.min(batchSize * 2, MAX_HASHTAG_BATCH);
+        }
+    }
+
+    private FeedCursor decodeSearchCursor(String cursorToken, int contextHash) {
+        if (cursorToken == null || cursorToken.isBlank()) {
+            return null;
+        }
+        FeedCursor cursor = FeedCursor.decode(cursorToken);
+        if (cursor.getMode() != FeedCursor.Mode.RANKED || cursor.getContextHash() != contextHash) {
+            throw new BadRequestException("Search cursor does not match the query, location or radius");
+        }
+        return cursor;
+    }
+
+    private List<Post> withoutBlockedAuthors(List<Post> posts, UUID currentUserId) {
+        ViewerSocialContext viewer = socialContextService.forViewer(currentUserId);
+        return posts.stream()
+                .filter(post -> !viewer.isBlocked(post.getAuthor().getId()))
                 .collect(Collectors.toList());
     }
 
-    private UserSummary convertToUserSummary(UserProfile profile, UUID currentUserId) {
+    private UserSummary convertToUserSummary(AliasSearchIndex.Entry entry, ViewerSocialContext viewer) {
+        boolean isFriend = viewer.isFriend(entry.getUserId());
+        return UserSummary.builder()
+                .userId(entry.getUserId())
+                .alias(entry.getAlias())
+                .realName(isFriend ? entry.getRealName() : null)
+                .realAvatarUrl(isFriend ? entry.getAvatarUrlReal() : null)
+                .avatarUrl(entry.getAvatarUrlAlias())
+                .isFriend(isFriend)
+                .trustLevel(entry.getTrustLevel())
+                .build();
+    }
+
+    private UserSummary convertToUserSummary(UserProfile profile, ViewerSocialContext viewer) {
         if (profile == null) return null;
         try {
             // Use getUserId() which is field-based, safer than traversing to User
@@ -113,7 +227,7 @@ public class SearchServiceImpl implements SearchService {
                 log.warn("Search: Profile {} has null User entity, but proceeding with ID if possible", userId);
             }
             
-            boolean isFriend = relationshipService.areFriends(currentUserId, userId);
+            boolean isFriend = viewer.isFriend(userId);
             
             return UserSummary.builder()
                     .userId(userId)
@@ -129,77 +243,4 @@ public class SearchServiceImpl implements SearchService {
             return null;
         }
     }
-    
-    private PostResponse convertToPostResponse(Post post, UUID currentUserId) {
-        if (post == null) return null;
-        try {
-            if (post.getAuthor() == null) {
-                 log.warn("Search skipping Post {} due to missing Author", post.getId());
-                 return null;
-            }
-            // Ensure Author has Profile
-            if (post.getAuthor().getProfile() == null) {
-                 log.warn("Search skipping Post {} due to missing Author Profile", post.getId());
-                 return null;
-            }
-
-            boolean isFriend = relationshipService.areFriends(currentUserId, post.getAuthor().getId());
-            // Safe stream check for likes
-            boolean liked = post.getLikes() != null && post.getLikes().stream()
-                    .anyMatch(l -> l.getUser() != null && l.getUser().getId().equals(currentUserId));
-            
-            UserProfile authorProfile = post.getAuthor().getProfile();
-            
-            return PostResponse.builder()
-                    .id(post.getId())
-                    .text(post.getText())
-                    .visibility(post.getVisibility().name())
-                    .type(post.getType()) 
-                    .mediaUrls(post.getMediaUrls())
-                    .likeCount(post.getLikes() != null ? (long) post.getLikes().size() : 0L)
-                    .commentCount(post.getComments() != null ? (long) post.getComments().size() : 0L)
-                    .likedByCurrentUser(liked)
-                    .createdAt(post.getCreatedAt())
-                    .distance(0.0) 
-                    .author(AuthorView.builder()
-                            .userId(post.getAuthor().getId())
-                            .alias(authorProfile.getAlias())
-                            .realName(isFriend ? authorProfile.getRealName() : null)
-                            .realAvatarUrl(isFriend ? authorProfile.getAvatarUrlReal() : null)
-                            .avatarUrl(authorProfile.getAvatarUrlAlias())
-                            .isFriend(isFriend)
-                            .trustLevel(authorProfile.getTrustLevel())
-                            .build())
-                    .build();
-        } catch (Exception e) {
-             log.error("Error converting post {}: {}", post.getId(), e.getMessage());
-             return null;
-        }
-    }
-
-    private BoundingBox calculateBoundingBox(Double lat, Double lon, Double radiusKm) {
-        if (lat == null || lon == null) {
-            // Default to whole world or standard default if location missing (though typically required)
-            return new BoundingBox(-90, 90, -180, 180);
-        }
-        
-        double r = (radiusKm != null && radiusKm > 0) ? radiusKm : 50.0; // Default 50km
-        
-        double latDelta = r / KM_PER_DEGREE;
-        double lonDelta = r / (KM_PER_DEGREE * Math.cos(Math.toRadians(lat)));
-
-        return new BoundingBox(
-            lat - latDelta,
-            lat + latDelta,
-            lon - lonDelta,
-            lon + lonDelta
-        );
-    }
-
-    private static class BoundingBox {
-        double minLat, maxLat, minLon, maxLon;
-        BoundingBox(double minLat, double maxLat, double minLon, double maxLon) {
-            this.minLat = minLat; this.maxLat = maxLat; this.minLon = minLon; this.maxLon = maxLon;
-        }
-    }
 }
@@ -0,0 +1,278 @@
+package com.gullygram.backend.service.media;
+
+import com.gullygram.backend.dto.request.StartUploadRequest;
+import com.gullygram.backend.dto.response.UploadSessionResponse;
+import com.gullygram.backend.exception.BadRequestException;
+import com.gullygram.backend.exception.ConflictException;
+import com.gullygram.backend.exception.ResourceNotFoundException;
+import com.gullygram.backend.service.StorageService;
+import com.gullygram.backend.service.impl.LocalStorageServiceImpl;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resumable uploads: start, append chunks at the current offset, complete.
+ *
+ * Chunk bodies stream from the request straight into a file under uploads/tmp with
+ * FileChannel.transferFrom, so nothing is buffered on the heap. A chunk cut off by the
+ * network keeps the bytes that arrived; the client asks for the offset and resumes from
+ * there. On completion the file is handed to StorageService, which renames it into place.
+ *
+ * Sessions live in memory next to their files: a restart loses them, and idle ones are
+ * swept after sessionTtlMinutes. A session ends (complete, abort, sweep) under its lock,
+ * so its file is never removed under a chunk being written.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedUploadService {
+
+    private final StorageService storageService;
+
+    @Value("${media.upload.max-bytes:209715200}")
+    private long maxBytes;
+
+    @Value("${media.upload.max-sessions-per-user:5}")
+    private int maxSessionsPerUser;
+
+    @Value("${media.upload.session-ttl-minutes:1440}")
+    private long sessionTtlMinutes;
+
+    private Path tempLocation = Paths.get(LocalStorageServiceImpl.UPLOAD_DIR, LocalStorageServiceImpl.TEMP_DIR);
+
+    private final ConcurrentHashMap<UUID, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    // Sessions per user, counted in compute() so concurrent starts cannot pass the cap together
+    private final ConcurrentHashMap<UUID, Integer> activeSessions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(tempLocation);
+    }
+
+    public UploadSessionResponse start(UUID userId, StartUploadRequest request) throws IOException {
+        if (request.getSize() > maxBytes) {
+            throw new BadRequestException("File exceeds the maximum size of " + maxBytes + " bytes");
+        }
+        activeSessions.compute(userId, (id, active) -> {
+            int count = active == null ? 0 : active;
+            if (count >= maxSessionsPerUser) {
+                throw new BadRequestException("Too many uploads in progress");
+            }
+            return count + 1;
+        });
+
+        UUID uploadId = UUID.randomUUID();
+        Path file = tempLocation.resolve(uploadId + ".upload");
+        try {
+            Files.createFile(file);
+        } catch (IOException | RuntimeException e) {
+            releaseSlot(userId);
+            throw e;
+        }
+        UploadSession session = new UploadSession(uploadId, userId, request.getFilename(),
+            request.getFolder() == null ? "general" : request.getFolder(), request.getSize(), file);
+        sessions.put(uploadId, session);
+        return toResponse(session);
+    }
+
+    public UploadSessionResponse status(UUID userId, UUID uploadId) {
+        return toResponse(find(userId, uploadId));
+    }
+
+    /**
+     * Append the body at offset, which must be the current offset
+     * @throws ConflictException when the offset is stale or another chunk is being written
+     */
+    public UploadSessionResponse append(UUID userId, UUID uploadId, long offset, InputStream body) throws IOException {
+        UploadSession session = find(userId, uploadId);
+        if (!session.lock.tryLock()) {
+            throw new ConflictException("Another chunk of this upload is in progress");
+        }
+        try {
+            checkOpen(session);
+            if (offset != session.offset) {
+                throw new ConflictException("Expected offset " + session.offset);
+            }
+            boolean overflow = false;
+            try (FileChannel channel = FileChannel.open(session.file, StandardOpenOption.WRITE)) {
+                ReadableByteChannel in = Channels.newChannel(body);
+                long position = offset;
+                try {
+                    while (position < session.size) {
+                        long written = channel.transferFrom(in, position, session.size - position);
+                        if (written == 0) {
+                            break;
+                        }
+                        position += written;
+                    }
+                    overflow = position == session.size && in.read(ByteBuffer.allocate(1)) > 0;
+                } finally {
+                    if (overflow) {
+                        // An oversized chunk is discarded whole, not kept up to the declared size
+                        channel.truncate(offset);
+                    }
+                    // Whatever reached the file counts, also when the client went away mid-chunk
+                    session.offset = Math.min(channel.size(), session.size);
+                    session.touch();
+                }
+            }
+            if (overflow) {
+                throw new BadRequestException("Chunk exceeds the declared size of " + session.size + " bytes");
+            }
+            return toResponse(session);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Hand the finished file to storage and end the session
+     * @return the stored file's URL
+     */
+    public String complete(UUID userId, UUID uploadId) {
+        UploadSession session = find(userId, uploadId);
+        if (!session.lock.tryLock()) {
+            throw new ConflictException("A chunk of this upload is in progress");
+        }
+        try {
+            checkOpen(session);
+            if (session.offset != session.size) {
+                throw new BadRequestException("Upload incomplete: " + session.offset + " of " + session.size + " bytes");
+            }
+            end(session);
+            return storageService.storeFile(session.file, session.filename, session.folder);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * @throws ConflictException when a chunk is being written
+     */
+    public void abort(UUID userId, UUID uploadId) throws IOException {
+        UploadSession session = find(userId, uploadId);
+        if (!session.lock.tryLock()) {
+            throw new ConflictException("A chunk of this upload is in progress");
+        }
+        try {
+            checkOpen(session);
+            end(session);
+            Files.deleteIfExists(session.file);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Drop sessions idle for longer than the TTL, with their files
+     */
+    @Scheduled(fixedDelayString = "${media.upload.sweep-interval-ms:600000}")
+    public void sweep() {
+        long cutoff = System.currentTimeMillis() - sessionTtlMinutes * 60_000;
+        for (UploadSession session : sessions.values()) {
+            if (session.lastActivity >= cutoff || !session.lock.tryLock()) {
+                continue;
+            }
+            try {
+                // Re-checked under the lock: a chunk may have landed since
+                if (session.closed || session.lastActivity >= cutoff) {
+                    continue;
+                }
+                end(session);
+                Files.deleteIfExists(session.file);
+            } catch (IOException e) {
+                log.warn("Could not remove abandoned upload {}: {}", session.file, e.getMessage());
+            } finally {
+                session.lock.unlock();
+            }
+        }
+    }
+
+    private UploadSession find(UUID userId, UUID uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        // Other users' uploads are indistinguishable from missing ones
+        if (session == null || !session.userId.equals(userId)) {
+            throw new ResourceNotFoundException("Upload not found");
+        }
+        return session;
+    }
+
+    /**
+     * Close the session and give back its slot; called under the session's lock
+     */
+    private void end(UploadSession session) {
+        session.closed = true;
+        if (sessions.remove(session.uploadId, session)) {
+            releaseSlot(session.userId);
+        }
+    }
+
+    private void releaseSlot(UUID userId) {
+        activeSessions.computeIfPresent(userId, (id, active) -> active > 1 ? active - 1 : null);
+    }
+
+    /**
+     * A request that found the session before it ended must not touch its file
+     */
+    private static void checkOpen(UploadSession session) {
+        if (session.closed) {
+            throw new ResourceNotFoundException("Upload not found");
+        }
+    }
+
+    private static UploadSessionResponse toResponse(UploadSession session) {
+        return UploadSessionResponse.builder()
+            .uploadId(session.uploadId)
+            .offset(session.offset)
+            .size(session.size)
+            .build();
+    }
+
+    /**
+     * Chunks are written and the session ended under lock; offset is read without it
+     */
+    private static class UploadSession {
+        private final UUID uploadId;
+        private final UUID userId;
+        private final String filename;
+        private final String folder;
+        private final long size;
+        private final Path file;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long offset;
+        private volatile long lastActivity = System.currentTimeMillis();
+        private volatile boolean closed;
+
+        UploadSession(UUID uploadId, UUID userId, String filename, String folder, long size, Path file) {
+            this.uploadId = uploadId;
+            this.userId = userId;
+            this.filename = filename;
+            this.folder = folder;
+            this.size = size;
+            this.file = file;
+        }
+
+        void touch() {
+            lastActivity = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.gullygram.backend.service.media;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders the ImageVariants of uploaded images off the request thread.
+ *
+ * Decoding a phone photo takes tens of megabytes, so only the worker threads decode and
+ * at most queueSize uploads wait. When the queue is full the uploading thread waits up to
+ * submitTimeoutMs for room, slowing uploads down to what the workers sustain; after that
+ * the image is dropped and its variant URLs keep serving the original.
+ */
+@Service
+@Slf4j
+public class ImageVariantService {
+
+    @Value("${media.variants.enabled:true}")
+    private boolean enabled;
+
+    @Value("${media.variants.threads:2}")
+    private int threads;
+
+    @Value("${media.variants.queue-size:100}")
+    private int queueSize;
+
+    @Value("${media.variants.submit-timeout-ms:2000}")
+    private long submitTimeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong renderNanos = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            runnable -> {
+                Thread thread = new Thread(runnable, "image-variants-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            (runnable, pool) -> waitForRoom(runnable, pool));
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queue the variants of a stored original; a no-op for other formats or if they exist
+     */
+    public void submit(Path original, String extension) {
+        if (!enabled || !ImageVariants.hasVariants(extension)
+                || Files.exists(ImageVariants.variantPath(original, ImageVariants.Variant.THUMB))) {
+            return;
+        }
+        executor.execute(() -> render(original, extension));
+    }
+
+    void render(Path original, String extension) {
+        long start = System.nanoTime();
+        try {
+            ImageVariants.render(original, extension);
+            processed.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            // Undecodable or vanished originals keep serving themselves
+            failed.incrementAndGet();
+            log.warn("Could not render variants of {}: {}", original.getFileName(), e.getMessage());
+        } finally {
+            renderNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void waitForRoom(Runnable runnable, ThreadPoolExecutor pool) {
+        try {
+            if (!pool.isShutdown() && pool.getQueue().offer(runnable, submitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.incrementAndGet();
+        log.warn("Image variant queue full; serving originals for this upload");
+    }
+
+    public long getProcessedCount() {
+        return processed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Render time summed over all images, successful or not
+     */
+    public long getRenderNanos() {
+        return renderNanos.get();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+}
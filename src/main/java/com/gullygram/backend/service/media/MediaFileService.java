@@ -0,0 +1,153 @@
+package com.gullygram.backend.service.media;
+
+import com.gullygram.backend.service.impl.LocalStorageServiceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves paths under uploads/ to files with their caching policy.
+ *
+ * - Blobs and rendered variants are named by content hash, so they never change: a strong
+ *   ETag of the name and a year of immutable caching
+ * - A variant not rendered yet resolves to its original, cached briefly so clients pick
+ *   up the variant once it exists
+ * - Files from before content addressing never change either, but carry no hash: an ETag
+ *   of size and modification time and a day of caching
+ * Temporary upload files are never served.
+ */
+@Service
+public class MediaFileService {
+
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    static final String FALLBACK = "public, max-age=60";
+    static final String LEGACY = "public, max-age=86400";
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile(
+        "^[0-9a-f]{64}(_(thumb|feed|full))?\\.[a-z0-9]+$");
+
+    private final Path root;
+
+    public MediaFileService() {
+        this(Paths.get(LocalStorageServiceImpl.UPLOAD_DIR));
+    }
+
+    public MediaFileService(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    /**
+     * The file for a path relative to uploads/, if it may be served
+     */
+    public Optional<MediaFile> resolve(String relativePath) throws IOException {
+        Path path = root.resolve(relativePath).normalize();
+        if (!path.startsWith(root) || path.equals(root)
+                || path.startsWith(root.resolve(LocalStorageServiceImpl.TEMP_DIR))
+                || path.getFileName().toString().endsWith(".part")) {
+            return Optional.empty();
+        }
+
+        String name = path.getFileName().toString();
+        boolean blob = path.startsWith(root.resolve(LocalStorageServiceImpl.BLOB_DIR))
+            && CONTENT_ADDRESSED.matcher(name).matches();
+
+        if (Files.isRegularFile(path)) {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            String eTag = blob
+                ? quote(name.substring(0, name.lastIndexOf('.')))
+                : quote(Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis()));
+            return Optional.of(new MediaFile(path, name, attributes, eTag, blob ? IMMUTABLE : LEGACY));
+        }
+
+        String originalName = blob ? ImageVariants.originalName(name) : null;
+        if (originalName != null) {
+            Path original = path.resolveSibling(originalName);
+            if (Files.isRegularFile(original)) {
+                BasicFileAttributes attributes = Files.readAttributes(original, BasicFileAttributes.class);
+                return Optional.of(new MediaFile(original, originalName, attributes,
+                    quote(originalName.substring(0, originalName.lastIndexOf('.'))), FALLBACK));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Copy count bytes from position with FileChannel.transferTo, which avoids copies through
+     * the heap where the target channel allows it
+     */
+    public void transfer(MediaFile file, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.getPath(), StandardOpenOption.READ)) {
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    throw new EOFException("File shorter than expected: " + file.getName());
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    public static class MediaFile {
+        private final Path path;
+        private final String name;
+        private final long length;
+        private final long lastModified;
+        private final String eTag;
+        private final String cacheControl;
+
+        MediaFile(Path path, String name, BasicFileAttributes attributes, String eTag, String cacheControl) {
+            this.path = path;
+            this.name = name;
+            this.length = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.eTag = eTag;
+            this.cacheControl = cacheControl;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public String getCacheControl() {
+            return cacheControl;
+        }
+
+        public MediaType getContentType() {
+            return MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.gullygram.backend.service.outbox;
+
+import com.gullygram.backend.entity.Notification;
+import com.gullygram.backend.entity.OutboxEvent;
+import com.gullygram.backend.entity.UserProfile;
+import com.gullygram.backend.repository.UserProfileRepository;
+import com.gullygram.backend.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Notifications for likes, comments and friend requests.
+ * Payload: recipientId, actorId and entityId (the post or relationship).
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationEventHandler implements OutboxEventHandler {
+
+    private final NotificationService notificationService;
+    private final UserProfileRepository userProfileRepository;
+
+    @Override
+    public Set<OutboxEvent.EventType> getEventTypes() {
+        return Set.of(OutboxEvent.EventType.POST_LIKED, OutboxEvent.EventType.POST_COMMENTED,
+            OutboxEvent.EventType.FRIEND_REQUESTED, OutboxEvent.EventType.FRIEND_ACCEPTED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        UUID actorId = event.payloadId("actorId");
+        String actorAlias = userProfileRepository.findByUserId(actorId)
+            .map(UserProfile::getAlias)
+            .orElse("Someone");
+
+        switch (event.getEventType()) {
+            case POST_LIKED -> notify(event, Notification.NotificationType.POST_LIKE, "POST",
+                actorAlias + " liked your post");
+            case POST_COMMENTED -> notify(event, Notification.NotificationType.POST_COMMENT, "POST",
+                actorAlias + " commented on your post");
+            case FRIEND_REQUESTED -> notify(event, Notification.NotificationType.FRIEND_REQUEST, "RELATIONSHIP",
+                actorAlias + " sent you a friend request");
+            case FRIEND_ACCEPTED -> notify(event, Notification.NotificationType.FRIEND_ACCEPT, "RELATIONSHIP",
+                actorAlias + " accepted your friend request");
+            default -> throw new IllegalArgumentException("Unsupported event type: " + event.getEventType());
+        }
+    }
+
+    private void notify(OutboxEvent event, Notification.NotificationType type, String entityType, String message) {
+        notificationService.createNotification(
+            event.payloadId("recipientId"),
+            type,
+            event.payloadId("actorId"),
+            entityType,
+            event.payloadId("entityId"),
+            message
+        );
+    }
+}
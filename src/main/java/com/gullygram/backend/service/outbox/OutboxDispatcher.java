@@ -0,0 +1,282 @@
+package com.gullygram.backend.service.outbox;
+
+import com.gullygram.backend.entity.OutboxEvent;
+import com.gullygram.backend.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains outbox_event into the OutboxEventHandlers.
+ *
+ * A poller thread claims a batch of events and a bounded worker pool applies it:
+ * - Claims: one instance at a time (advisory lock); a claimed event is leased for
+ *   leaseSeconds, so a crashed instance's events are picked up again afterwards
+ * - Ordering: a batch is split by aggregate and each aggregate's events run in id order on one
+ *   worker; an event is not claimed while an earlier event of its aggregate is leased or retrying
+ * - Each event is handled and deleted in one transaction, at least once
+ * - Failures retry with exponential backoff; after maxAttempts the event keeps failed_at
+ *   and last_error and no longer holds back its aggregate
+ *
+ * Polls every pollIntervalMs, and right after a local write commits events (wakeUp).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final long CLAIM_LOCK_KEY = 0x6f7574626f78L;
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxEventHandler> handlers;
+
+    @Value("${outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.workers:4}")
+    private int workers;
+
+    @Value("${outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${outbox.backoff-initial-ms:1000}")
+    private long backoffInitialMs;
+
+    @Value("${outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    private final Map<OutboxEvent.EventType, OutboxEventHandler> handlersByType = new EnumMap<>(OutboxEvent.EventType.class);
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong retriedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private ExecutorService workerPool;
+    private ScheduledExecutorService poller;
+
+    @PostConstruct
+    void init() {
+        for (OutboxEventHandler handler : handlers) {
+            for (OutboxEvent.EventType type : handler.getEventTypes()) {
+                OutboxEventHandler previous = handlersByType.put(type, handler);
+                if (previous != null) {
+                    throw new IllegalStateException("Outbox event " + type + " has two handlers: " +
+                        previous.getClass().getSimpleName() + ", " + handler.getClass().getSimpleName());
+                }
+            }
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPolling() {
+        if (!enabled) {
+            log.info("Outbox dispatcher disabled; events accumulate in outbox_event");
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::drain, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+        workerPool.shutdown();
+    }
+
+    /**
+     * Poll now rather than at the next interval; wake-ups arriving before the poll share it
+     */
+    public void wakeUp() {
+        ScheduledExecutorService current = poller;
+        if (current != null && wakeUpPending.compareAndSet(false, true)) {
+            try {
+                current.execute(() -> {
+                    wakeUpPending.set(false);
+                    drain();
+                });
+            } catch (RejectedExecutionException e) {
+                wakeUpPending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Claim and apply batches until one comes back short
+     */
+    void drain() {
+        try {
+            List<OutboxEvent> batch;
+            do {
+                batch = claim();
+                process(batch);
+            } while (batch.size() >= batchSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Outbox poll failed; retrying in {} ms: {}", pollIntervalMs, e.getMessage());
+        }
+    }
+
+    List<OutboxEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            if (!outboxEventRepository.tryClaimLock(CLAIM_LOCK_KEY)) {
+                return List.of();
+            }
+            List<OutboxEvent> events = outboxEventRepository.findClaimable(now, batchSize);
+            if (!events.isEmpty()) {
+                outboxEventRepository.setAvailableAt(ids(events), now.plusSeconds(leaseSeconds));
+            }
+            return events;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    /**
+     * Apply a claimed batch: aggregates in parallel, each aggregate's events in order
+     */
+    void process(List<OutboxEvent> batch) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            byAggregate.computeIfAbsent(event.getAggregateId(), id -> new ArrayList<>()).add(event);
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(byAggregate.size());
+        for (List<OutboxEvent> events : byAggregate.values()) {
+            tasks.add(() -> {
+                processAggregate(events);
+                return null;
+            });
+        }
+        for (Future<Void> result : workerPool.invokeAll(tasks)) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                // Its unapplied events stay leased and are claimed again after the lease
+                log.warn("Outbox worker failed: {}", e.getCause().getMessage());
+            }
+        }
+    }
+
+    private void processAggregate(List<OutboxEvent> events) {
+        for (int i = 0; i < events.size(); i++) {
+            if (!apply(events.get(i))) {
+                // The rest wait behind the retry, see findClaimable
+                List<Long> rest = ids(events.subList(i + 1, events.size()));
+                if (!rest.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status ->
+                        outboxEventRepository.setAvailableAt(rest, LocalDateTime.now()));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Handle the event; false when it is to be retried later
+     */
+    private boolean apply(OutboxEvent event) {
+        OutboxEventHandler handler = handlersByType.get(event.getEventType());
+        try {
+            if (handler == null) {
+                throw new IllegalStateException("No handler for outbox event " + event.getEventType());
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                handler.handle(event);
+                outboxEventRepository.deleteProcessed(event.getId());
+            });
+            processedCount.incrementAndGet();
+            return true;
+        } catch (RuntimeException e) {
+            return recordFailure(event, e, handler == null);
+        }
+    }
+
+    private boolean recordFailure(OutboxEvent event, RuntimeException error, boolean permanent) {
+        int attempts = event.getAttempts() + 1;
+        boolean exhausted = permanent || attempts >= maxAttempts;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime availableAt = exhausted ? now : now.plusNanos(backoffMillis(attempts) * 1_000_000);
+        String message = truncate(error.toString());
+
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.recordFailure(
+            event.getId(), attempts, availableAt, exhausted ? now : null, message));
+
+        if (exhausted) {
+            failedCount.incrementAndGet();
+            log.error("Outbox event {} ({} of {} {}) failed after {} attempts: {}", event.getId(),
+                event.getEventType(), event.getAggregateType(), event.getAggregateId(), attempts, message);
+            return true;
+        }
+        retriedCount.incrementAndGet();
+        log.warn("Outbox event {} ({}) failed, attempt {} of {}: {}", event.getId(),
+            event.getEventType(), attempts, maxAttempts, message);
+        return false;
+    }
+
+    long backoffMillis(int attempts) {
+        return Math.min(backoffMaxMs, backoffInitialMs << Math.min(attempts - 1, 30));
+    }
+
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    public long getRetriedCount() {
+        return retriedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events) {
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            ids.add(event.getId());
+        }
+        return ids;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,17 @@
+package com.gullygram.backend.service.outbox;
+
+import com.gullygram.backend.entity.OutboxEvent;
+
+import java.util.Set;
+
+/**
+ * Applies outbox events of some types. Runs inside the transaction that deletes the event,
+ * and may run more than once for an event (e.g. after a crash), never concurrently with
+ * another event of the same aggregate.
+ */
+public interface OutboxEventHandler {
+
+    Set<OutboxEvent.EventType> getEventTypes();
+
+    void handle(OutboxEvent event);
+}
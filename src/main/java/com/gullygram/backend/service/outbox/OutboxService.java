@@ -0,0 +1,38 @@
+package com.gullygram.backend.service.outbox;
+
+import com.gullygram.backend.entity.OutboxEvent;
+import com.gullygram.backend.repository.OutboxEventRepository;
+import com.gullygram.backend.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records side effects of a write in the write's own transaction.
+ *
+ * The event commits or rolls back with the write, so a side effect is never lost nor run
+ * for a write that did not happen; OutboxDispatcher applies it after commit, off the request path.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher outboxDispatcher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String aggregateType, UUID aggregateId, OutboxEvent.EventType eventType,
+                        Map<String, String> payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+            .aggregateType(aggregateType)
+            .aggregateId(aggregateId)
+            .eventType(eventType)
+            .payload(payload)
+            .build());
+        TransactionHooks.afterCommit(outboxDispatcher::wakeUp);
+    }
+}
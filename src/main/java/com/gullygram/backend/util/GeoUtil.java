@@ -1,5 +1,8 @@
 package com.gullygram.backend.util;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class GeoUtil {
 
     private static final double EARTH_RADIUS_KM = 6371.0;
@@ -21,6 +24,80 @@ public class GeoUtil {
         return EARTH_RADIUS_KM * c;
     }
 
+    /**
+     * Largest radius for which {@link #distancesWithin} uses the equirectangular approximation
+     */
+    public static final double FAST_DISTANCE_MAX_RADIUS_KM = 50.0;
+
+    /**
+     * Origin latitude beyond which {@link #distancesWithin} always uses Haversine
+     */
+    public static final double FAST_DISTANCE_MAX_LATITUDE = 80.0;
+
+    /**
+     * Relative band around the radius in which {@link #distancesWithin} recomputes with Haversine.
+     * Up to 200km from an origin within ±80° the approximation is off by less than 0.15%
+     * (under 0.01% up to 50km, see GeoUtilTest), so decisions outside the band are exact.
+     */
+    public static final double FAST_DISTANCE_TOLERANCE = 0.002;
+
+    /**
+     * Distances from one point to many, for radius filtering.
+     *
+     * Within city-scale radii this uses the equirectangular approximation: cos of the mean
+     * latitude is derived from the origin's cos/sin without trig per point, so each point
+     * costs a handful of multiplications and one square root. Points whose approximate
+     * distance falls within FAST_DISTANCE_TOLERANCE of the radius are recomputed with
+     * Haversine, so "within radius" decisions match {@link #calculateDistance} exactly;
+     * other distances carry the approximation's error.
+     *
+     * @param distancesKm receives the distance of each of the first count points
+     * @return number of points within the radius
+     */
+    public static int distancesWithin(double lat, double lon, double radiusKm,
+                                      double[] lats, double[] lons, int count, double[] distancesKm) {
+        int within = 0;
+        if (radiusKm > FAST_DISTANCE_MAX_RADIUS_KM || Math.abs(lat) > FAST_DISTANCE_MAX_LATITUDE) {
+            for (int i = 0; i < count; i++) {
+                distancesKm[i] = calculateDistance(lat, lon, lats[i], lons[i]);
+                if (distancesKm[i] <= radiusKm) {
+                    within++;
+                }
+            }
+            return within;
+        }
+
+        double latRad = Math.toRadians(lat);
+        double cosLat = Math.cos(latRad);
+        double sinLat = Math.sin(latRad);
+        double lowerBand = radiusKm * (1 - FAST_DISTANCE_TOLERANCE);
+        double upperBand = radiusKm * (1 + FAST_DISTANCE_TOLERANCE);
+
+        for (int i = 0; i < count; i++) {
+            double dLat = Math.toRadians(lats[i] - lat);
+            double dLonDeg = lons[i] - lon;
+            if (dLonDeg > 180.0) {
+                dLonDeg -= 360.0;
+            } else if (dLonDeg < -180.0) {
+                dLonDeg += 360.0;
+            }
+            // cos(lat + dLat/2) to second order
+            double half = dLat / 2;
+            double cosMean = cosLat * (1 - half * half / 2) - sinLat * half;
+            double x = Math.toRadians(dLonDeg) * cosMean;
+            double distance = EARTH_RADIUS_KM * Math.sqrt(x * x + dLat * dLat);
+
+            if (distance >= lowerBand && distance <= upperBand) {
+                distance = calculateDistance(lat, lon, lats[i], lons[i]);
+            }
+            distancesKm[i] = distance;
+            if (distance <= radiusKm) {
+                within++;
+            }
+        }
+        return within;
+    }
+
     /**
      * Calculate bounding box for a given point and radius
      * @return array [minLat, maxLat, minLon, maxLon]
@@ -53,49 +130,138 @@ public class GeoUtil {
     }
 
     public static String generateGeohash(double lat, double lon, int precision) {
-        // Simple geohash implementation
-        // For production, use a library like ch.hsr:geohash
-        double[] latInterval = {-90.0, 90.0};
-        double[] lonInterval = {-180.0, 180.0};
-        
-        StringBuilder geohash = new StringBuilder();
-        boolean isEven = true;
-        int bit = 0;
-        int ch = 0;
-        
-        String base32 = "0123456789bcdefghjkmnpqrstuvwxyz";
-        
-        while (geohash.length() < precision) {
-            if (isEven) {
-                double mid = (lonInterval[0] + lonInterval[1]) / 2;
-                if (lon > mid) {
-                    ch |= (1 << (4 - bit));
-                    lonInterval[0] = mid;
-                } else {
-                    lonInterval[1] = mid;
-                }
-            } else {
-                double mid = (latInterval[0] + latInterval[1]) / 2;
-                if (lat > mid) {
-                    ch |= (1 << (4 - bit));
-                    latInterval[0] = mid;
-                } else {
-                    latInterval[1] = mid;
-                }
+        return Geohash.toBase32(Geohash.encode(lat, lon, precision));
+    }
+
+    /**
+     * Precision of the geohash stored on every post (see PostService.createPost)
+     */
+    public static final int STORED_GEOHASH_PRECISION = 6;
+
+    /**
+     * Upper bound on the number of cells returned by {@link #coveringGeohashes}.
+     * Keeps the candidate query to a handful of index range scans.
+     */
+    public static final int MAX_COVERING_CELLS = 24;
+
+    private static final long[] NO_CELLS = new long[0];
+
+    /**
+     * Grid (~150m cells at precision 7) that near-identical location queries snap to,
+     * so that neighbours can share one database call
+     */
+    public static final int SNAP_GRID_PRECISION = 7;
+
+    /**
+     * Distance from the centre of a cell to its farthest corner. A radius query from the
+     * centre, widened by this, covers the same query from any point inside the cell.
+     */
+    public static double cellCircumradiusKm(long hash) {
+        double centerLat = Geohash.centerLat(hash);
+        double centerLon = Geohash.centerLon(hash);
+        return Math.max(
+            calculateDistance(centerLat, centerLon, Geohash.minLat(hash), Geohash.minLon(hash)),
+            calculateDistance(centerLat, centerLon, Geohash.maxLat(hash), Geohash.minLon(hash)));
+    }
+
+    /**
+     * Decode a geohash into its cell bounds
+     * @return array [minLat, maxLat, minLon, maxLon]
+     */
+    public static double[] decodeGeohashBounds(String geohash) {
+        long hash = Geohash.fromBase32(geohash);
+        return new double[]{Geohash.minLat(hash), Geohash.maxLat(hash), Geohash.minLon(hash), Geohash.maxLon(hash)};
+    }
+
+    /**
+     * Cell height in degrees of latitude for a geohash precision
+     */
+    public static double geohashCellHeight(int precision) {
+        int latBits = (precision * 5) / 2;
+        return 180.0 / (1L << latBits);
+    }
+
+    /**
+     * Cell width in degrees of longitude for a geohash precision
+     */
+    public static double geohashCellWidth(int precision) {
+        int lonBits = (precision * 5 + 1) / 2;
+        return 360.0 / (1L << lonBits);
+    }
+
+    /**
+     * Pick the finest geohash precision (at most the stored precision) whose cells
+     * cover the radius circle with no more than MAX_COVERING_CELLS cells.
+     * Around Bangalore: 1km resolves to precision 6, 2-10km to 5, 15-50km to 4.
+     */
+    public static int precisionForRadius(double lat, double lon, double radiusKm) {
+        double[] bbox = getBoundingBox(lat, lon, radiusKm);
+        for (int precision = STORED_GEOHASH_PRECISION; precision > 1; precision--) {
+            long gridCells = countCells(bbox, precision);
+            if (gridCells <= MAX_COVERING_CELLS) {
+                return precision;
             }
-            
-            isEven = !isEven;
-            
-            if (bit < 4) {
-                bit++;
-            } else {
-                geohash.append(base32.charAt(ch));
-                bit = 0;
-                ch = 0;
+            // The circle covers ~π/4 of its bounding box, so a grid up to twice the cap may still fit once pruned
+            if (gridCells <= 2L * MAX_COVERING_CELLS
+                    && Geohash.coveringCells(lat, lon, radiusKm, precision, NO_CELLS) <= MAX_COVERING_CELLS) {
+                return precision;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Minimal set of geohash cells covering a radius around a point, at adaptive precision
+     * @return geohash prefixes, all of the same precision
+     */
+    public static List<String> coveringGeohashes(double lat, double lon, double radiusKm) {
+        return coveringGeohashes(lat, lon, radiusKm, precisionForRadius(lat, lon, radiusKm));
+    }
+
+    /**
+     * Geohash cells of the given precision covering a radius around a point.
+     * Walks the cell grid over the bounding box (the centre cell plus its neighbours
+     * out to the radius) and drops cells that do not intersect the circle.
+     */
+    public static List<String> coveringGeohashes(double lat, double lon, double radiusKm, int precision) {
+        long[] cells = new long[MAX_COVERING_CELLS];
+        int count = Geohash.coveringCells(lat, lon, radiusKm, precision, cells);
+        if (count > cells.length) {
+            cells = new long[count];
+            Geohash.coveringCells(lat, lon, radiusKm, precision, cells);
+        }
+
+        List<String> geohashes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            geohashes.add(Geohash.toBase32(cells[i]));
+        }
+        return geohashes;
+    }
+
+    private static long countCells(double[] bbox, int precision) {
+        double height = geohashCellHeight(precision);
+        double width = geohashCellWidth(precision);
+        long rows = (long) Math.floor((bbox[1] + 90.0) / height) - (long) Math.floor((bbox[0] + 90.0) / height) + 1;
+        long cols = (long) Math.floor((bbox[3] + 180.0) / width) - (long) Math.floor((bbox[2] + 180.0) / width) + 1;
+        return rows * cols;
+    }
+
+    /**
+     * Smallest string greater than every geohash starting with the given prefix.
+     * Used as the exclusive upper bound of an index range scan ({@code geohash >= prefix AND geohash < upper}).
+     * @return upper bound, or null when the range is open-ended
+     */
+    public static String geohashPrefixUpperBound(String prefix) {
+        char[] chars = prefix.toCharArray();
+        for (int i = chars.length - 1; i >= 0; i--) {
+            if (chars[i] == 'z') {
+                continue;
             }
+            chars[i] = chars[i] == '9' ? 'a' : (char) (chars[i] + 1);
+            return new String(chars, 0, i + 1);
         }
-        
-        return geohash.toString();
+        // Prefix is all 'z': the range is open-ended
+        return null;
     }
 
     /**
@@ -0,0 +1,285 @@
+package com.gullygram.backend.util;
+
+import java.util.Arrays;
+
+/**
+ * Geohashes packed into a primitive long.
+ *
+ * The interleaved bits are left-aligned (the first bit of the hash is bit 63) and the
+ * precision in characters sits in the low 4 bits, so one long carries a complete cell:
+ * - prefixes of a hash compare and truncate with a mask
+ * - numeric order (unsigned) matches the order of the base32 strings
+ *
+ * Everything except the base32 conversions works on primitives and allocates nothing;
+ * strings are only produced at the edges (storage, SQL prefixes, API).
+ */
+public final class Geohash {
+
+    public static final int MAX_PRECISION = 12;
+
+    /**
+     * Returned by neighbour lookups that would cross a pole
+     */
+    public static final long NONE = -1L;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final byte[] BASE32_INDEX = new byte[128];
+    private static final long PRECISION_MASK = 0xF;
+
+    static {
+        Arrays.fill(BASE32_INDEX, (byte) -1);
+        for (int i = 0; i < BASE32.length; i++) {
+            BASE32_INDEX[BASE32[i]] = (byte) i;
+        }
+    }
+
+    private Geohash() {
+    }
+
+    /**
+     * Encode a point; matches GeoUtil.generateGeohash bit for bit, including points on cell edges
+     */
+    public static long encode(double lat, double lon, int precision) {
+        checkPrecision(precision);
+        int bits = precision * 5;
+        int lonBits = (bits + 1) / 2;
+        int latBits = bits / 2;
+        return fromCell(bisect(lat, -90.0, 90.0, latBits), bisect(lon, -180.0, 180.0, lonBits), precision);
+    }
+
+    /**
+     * Hash of the cell at the given row (latitude index) and column (longitude index) of the precision's grid
+     */
+    public static long fromCell(long row, long col, int precision) {
+        int bits = precision * 5;
+        long interleaved = bits % 2 == 0
+            ? spread(col) << 1 | spread(row)
+            : spread(col) | spread(row) << 1;
+        return interleaved << (64 - bits) | precision;
+    }
+
+    public static int precision(long hash) {
+        return (int) (hash & PRECISION_MASK);
+    }
+
+    /**
+     * The enclosing cell at a coarser precision
+     */
+    public static long truncate(long hash, int precision) {
+        checkPrecision(precision);
+        if (precision > precision(hash)) {
+            throw new IllegalArgumentException("Cannot truncate precision " + precision(hash) + " to " + precision);
+        }
+        return (hash & bitMask(precision * 5)) | precision;
+    }
+
+    /**
+     * Whether the cell lies inside (or is) the prefix cell
+     */
+    public static boolean startsWith(long hash, long prefix) {
+        int prefixPrecision = precision(prefix);
+        return precision(hash) >= prefixPrecision && (hash & bitMask(prefixPrecision * 5)) == (prefix & ~PRECISION_MASK);
+    }
+
+    /**
+     * Latitude index of the cell within its precision's grid
+     */
+    public static long row(long hash) {
+        int bits = precision(hash) * 5;
+        long interleaved = interleaved(hash, bits);
+        return bits % 2 == 0 ? compact(interleaved) : compact(interleaved >>> 1);
+    }
+
+    /**
+     * Longitude index of the cell within its precision's grid
+     */
+    public static long col(long hash) {
+        int bits = precision(hash) * 5;
+        long interleaved = interleaved(hash, bits);
+        return bits % 2 == 0 ? compact(interleaved >>> 1) : compact(interleaved);
+    }
+
+    public static double minLat(long hash) {
+        return row(hash) * GeoUtil.geohashCellHeight(precision(hash)) - 90.0;
+    }
+
+    public static double maxLat(long hash) {
+        return minLat(hash) + GeoUtil.geohashCellHeight(precision(hash));
+    }
+
+    public static double minLon(long hash) {
+        return col(hash) * GeoUtil.geohashCellWidth(precision(hash)) - 180.0;
+    }
+
+    public static double maxLon(long hash) {
+        return minLon(hash) + GeoUtil.geohashCellWidth(precision(hash));
+    }
+
+    public static double centerLat(long hash) {
+        return minLat(hash) + GeoUtil.geohashCellHeight(precision(hash)) / 2;
+    }
+
+    public static double centerLon(long hash) {
+        return minLon(hash) + GeoUtil.geohashCellWidth(precision(hash)) / 2;
+    }
+
+    /**
+     * Cell offset by whole cells; longitude wraps around the antimeridian
+     * @return the neighbouring cell, or NONE beyond a pole
+     */
+    public static long neighbour(long hash, int dRow, int dCol) {
+        int precision = precision(hash);
+        int bits = precision * 5;
+        long rows = 1L << (bits / 2);
+        long cols = 1L << ((bits + 1) / 2);
+
+        long row = row(hash) + dRow;
+        if (row < 0 || row >= rows) {
+            return NONE;
+        }
+        long col = Math.floorMod(col(hash) + dCol, cols);
+        return fromCell(row, col, precision);
+    }
+
+    /**
+     * The 8 neighbours in the order N, NE, E, SE, S, SW, W, NW; NONE beyond a pole
+     * @param out array of at least 8 elements
+     */
+    public static void neighbours(long hash, long[] out) {
+        out[0] = neighbour(hash, 1, 0);
+        out[1] = neighbour(hash, 1, 1);
+        out[2] = neighbour(hash, 0, 1);
+        out[3] = neighbour(hash, -1, 1);
+        out[4] = neighbour(hash, -1, 0);
+        out[5] = neighbour(hash, -1, -1);
+        out[6] = neighbour(hash, 0, -1);
+        out[7] = neighbour(hash, 1, -1);
+    }
+
+    /**
+     * Cells of the given precision covering a radius around a point: the grid over the
+     * bounding box, minus cells whose nearest point lies outside the circle.
+     * Writes as many cells as fit into out; pass an empty array to only count them.
+     * @return the number of covering cells, which may exceed out.length
+     */
+    public static int coveringCells(double lat, double lon, double radiusKm, int precision, long[] out) {
+        checkPrecision(precision);
+        // Same bounds as GeoUtil.getBoundingBox, without the array
+        double latDelta = radiusKm * (1.0 / 111.0);
+        double lonDelta = radiusKm * (1.0 / (111.0 * Math.cos(Math.toRadians(lat))));
+        double minLat = Math.max(lat - latDelta, -90.0);
+        double maxLat = Math.min(lat + latDelta, 90.0);
+        double minLon = Math.max(lon - lonDelta, -180.0);
+        double maxLon = Math.min(lon + lonDelta, 180.0);
+
+        double height = GeoUtil.geohashCellHeight(precision);
+        double width = GeoUtil.geohashCellWidth(precision);
+        long firstRow = (long) Math.floor((minLat + 90.0) / height);
+        long lastRow = (long) Math.floor((Math.min(maxLat, 90.0 - 1e-9) + 90.0) / height);
+        long firstCol = (long) Math.floor((minLon + 180.0) / width);
+        long lastCol = (long) Math.floor((Math.min(maxLon, 180.0 - 1e-9) + 180.0) / width);
+
+        int count = 0;
+        for (long row = firstRow; row <= lastRow; row++) {
+            double cellMinLat = row * height - 90.0;
+            double nearestLat = Math.max(cellMinLat, Math.min(lat, cellMinLat + height));
+            for (long col = firstCol; col <= lastCol; col++) {
+                double cellMinLon = col * width - 180.0;
+                double nearestLon = Math.max(cellMinLon, Math.min(lon, cellMinLon + width));
+                if (GeoUtil.calculateDistance(lat, lon, nearestLat, nearestLon) > radiusKm) {
+                    continue;
+                }
+                if (count < out.length) {
+                    out[count] = fromCell(row, col, precision);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static String toBase32(long hash) {
+        int precision = precision(hash);
+        char[] chars = new char[precision];
+        for (int i = 0; i < precision; i++) {
+            chars[i] = BASE32[(int) (hash >>> (59 - 5 * i)) & 31];
+        }
+        return new String(chars);
+    }
+
+    public static long fromBase32(String geohash) {
+        int precision = geohash.length();
+        if (precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Geohash longer than " + MAX_PRECISION + ": " + geohash);
+        }
+        long hash = 0;
+        for (int i = 0; i < precision; i++) {
+            char c = geohash.charAt(i);
+            int value = c < 128 ? BASE32_INDEX[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + geohash);
+            }
+            hash |= (long) value << (59 - 5 * i);
+        }
+        return hash | precision;
+    }
+
+    /**
+     * Index of the value's interval after halving [min, max] the given number of times,
+     * taking the upper half only when strictly above the midpoint
+     */
+    private static long bisect(double value, double min, double max, int steps) {
+        long index = 0;
+        for (int i = 0; i < steps; i++) {
+            double mid = (min + max) / 2;
+            index <<= 1;
+            if (value > mid) {
+                index |= 1;
+                min = mid;
+            } else {
+                max = mid;
+            }
+        }
+        return index;
+    }
+
+    private static long interleaved(long hash, int bits) {
+        return bits == 0 ? 0 : hash >>> (64 - bits);
+    }
+
+    private static long bitMask(int bits) {
+        return bits == 0 ? 0 : -1L << (64 - bits);
+    }
+
+    /**
+     * Spread the low 32 bits of v to the even bit positions
+     */
+    private static long spread(long v) {
+        v &= 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+
+    /**
+     * Inverse of spread: gather the even bit positions into the low 32 bits
+     */
+    private static long compact(long v) {
+        v &= 0x5555555555555555L;
+        v = (v | (v >>> 1)) & 0x3333333333333333L;
+        v = (v | (v >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v >>> 4)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v >>> 8)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v >>> 16)) & 0x00000000FFFFFFFFL;
+        return v;
+    }
+
+    private static void checkPrecision(int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Geohash precision must be between 1 and " + MAX_PRECISION);
+        }
+    }
+}
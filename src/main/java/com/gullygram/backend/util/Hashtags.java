@@ -0,0 +1,53 @@
+package com.gullygram.backend.util;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hashtags of a post's text, normalized as stored in post_hashtag.tag
+ */
+public final class Hashtags {
+
+    // Match hashtags: # followed by alphanumeric characters
+    private static final Pattern HASHTAG = Pattern.compile("#(\\w+)");
+
+    public static final int MAX_LENGTH = 100;
+
+    private Hashtags() {
+    }
+
+    /**
+     * Distinct lowercase tags without '#', in order of appearance; longer than MAX_LENGTH are skipped
+     */
+    public static Set<String> extract(String text) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (text == null || text.isEmpty()) {
+            return tags;
+        }
+        Matcher matcher = HASHTAG.matcher(text);
+        while (matcher.find()) {
+            String tag = matcher.group(1);
+            if (tag.length() <= MAX_LENGTH) {
+                tags.add(tag.toLowerCase(Locale.ROOT));
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * A search term as a tag: trimmed, without a leading '#', lowercase; null if nothing is left
+     */
+    public static String normalize(String term) {
+        if (term == null) {
+            return null;
+        }
+        String tag = term.trim();
+        while (tag.startsWith("#")) {
+            tag = tag.substring(1);
+        }
+        return tag.isEmpty() ? null : tag.toLowerCase(Locale.ROOT);
+    }
+}
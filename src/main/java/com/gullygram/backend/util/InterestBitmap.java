@@ -0,0 +1,102 @@
+package com.gullygram.backend.util;
+
+import com.gullygram.backend.entity.Interest;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Interest sets packed into a long, as stored in post.interest_bits and user_profile.interest_bits.
+ *
+ * Bits 0-62 mark interest ids 0-62 exactly; bit 63 (OVERFLOW) marks any larger id.
+ * Interest ids are small serial numbers, so in practice every set is exact and matching,
+ * counting and similarity are a single AND plus popcount. Only when both sides carry
+ * OVERFLOW must the caller fall back to the id sets.
+ */
+public final class InterestBitmap {
+
+    public static final long OVERFLOW = 1L << 63;
+    public static final int MAX_EXACT_ID = 62;
+
+    private InterestBitmap() {
+    }
+
+    public static long of(Collection<Integer> interestIds) {
+        long bits = 0;
+        for (Integer interestId : interestIds) {
+            bits |= bit(interestId);
+        }
+        return bits;
+    }
+
+    public static long ofInterests(Collection<Interest> interests) {
+        long bits = 0;
+        for (Interest interest : interests) {
+            if (interest.getId() != null) {
+                bits |= bit(interest.getId());
+            }
+        }
+        return bits;
+    }
+
+    public static long bit(int interestId) {
+        return interestId >= 0 && interestId <= MAX_EXACT_ID ? 1L << interestId : OVERFLOW;
+    }
+
+    /**
+     * Whether the set holds only ids the bitmap represents exactly
+     */
+    public static boolean isExact(long bits) {
+        return (bits & OVERFLOW) == 0;
+    }
+
+    /**
+     * Whether a & b is the exact intersection, i.e. not both sides carry larger ids
+     */
+    public static boolean isExactIntersection(long a, long b) {
+        return ((a & b) & OVERFLOW) == 0;
+    }
+
+    /**
+     * Membership of an id up to MAX_EXACT_ID; larger ids need the id set
+     */
+    public static boolean contains(long bits, int interestId) {
+        return interestId >= 0 && interestId <= MAX_EXACT_ID && (bits & (1L << interestId)) != 0;
+    }
+
+    /**
+     * Whether the sets share an interest that both bitmaps represent exactly
+     */
+    public static boolean sharesExact(long a, long b) {
+        return (a & b & ~OVERFLOW) != 0;
+    }
+
+    /**
+     * Interests in both sets, counting exactly represented ids only
+     */
+    public static int sharedCount(long a, long b) {
+        return Long.bitCount(a & b & ~OVERFLOW);
+    }
+
+    /**
+     * |a ∩ b| / |a ∪ b| over exactly represented ids; 0 for two empty sets
+     */
+    public static double jaccard(long a, long b) {
+        int union = Long.bitCount((a | b) & ~OVERFLOW);
+        return union == 0 ? 0 : (double) sharedCount(a, b) / union;
+    }
+
+    /**
+     * Exactly represented ids in ascending order
+     */
+    public static Set<Integer> toIds(long bits) {
+        Set<Integer> ids = new TreeSet<>();
+        long remaining = bits & ~OVERFLOW;
+        while (remaining != 0) {
+            ids.add(Long.numberOfTrailingZeros(remaining));
+            remaining &= remaining - 1;
+        }
+        return ids;
+    }
+}
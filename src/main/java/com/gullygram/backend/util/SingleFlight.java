@@ -0,0 +1,123 @@
+package com.gullygram.backend.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one.
+ *
+ * The first caller (the leader) runs the loader on its own thread; callers arriving while
+ * it runs wait for and share its result, or its exception. Nothing is cached: once the
+ * call completes the next caller starts a new one. Shared results must be treated as read-only.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            shared.incrementAndGet();
+            return await(existing);
+        }
+
+        leaders.incrementAndGet();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Batch form of execute: keys already in flight are awaited, the rest are claimed and
+     * loaded together with one call to the loader, which must return a value for every key
+     * it is given. Counts one leader per claimed key.
+     */
+    public Map<K, V> executeAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        Map<K, CompletableFuture<V>> claimed = new HashMap<>();
+        Map<K, CompletableFuture<V>> awaited = new HashMap<>();
+        for (K key : keys) {
+            if (claimed.containsKey(key) || awaited.containsKey(key)) {
+                continue;
+            }
+            CompletableFuture<V> call = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+            if (existing != null) {
+                shared.incrementAndGet();
+                awaited.put(key, existing);
+            } else {
+                leaders.incrementAndGet();
+                claimed.put(key, call);
+            }
+        }
+
+        Map<K, V> values = new HashMap<>();
+        if (!claimed.isEmpty()) {
+            try {
+                Map<K, V> loaded = loader.apply(new ArrayList<>(claimed.keySet()));
+                for (Map.Entry<K, CompletableFuture<V>> entry : claimed.entrySet()) {
+                    if (!loaded.containsKey(entry.getKey())) {
+                        throw new IllegalStateException("Loader returned no value for " + entry.getKey());
+                    }
+                    V value = loaded.get(entry.getKey());
+                    entry.getValue().complete(value);
+                    values.put(entry.getKey(), value);
+                }
+            } catch (RuntimeException | Error e) {
+                claimed.values().forEach(call -> call.completeExceptionally(e));
+                throw e;
+            } finally {
+                claimed.forEach(inFlight::remove);
+            }
+        }
+        // Only awaited after this caller's own loads are done, so no two batches wait on each other
+        awaited.forEach((key, call) -> values.put(key, await(call)));
+        return values;
+    }
+
+    /**
+     * Calls that ran the loader
+     */
+    public long getLeaderCount() {
+        return leaders.get();
+    }
+
+    /**
+     * Calls answered with another call's result; coalescing ratio = shared / (leaders + shared)
+     */
+    public long getSharedCount() {
+        return shared.get();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package db.migration;
+
+import com.gullygram.backend.util.Hashtags;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Fills post_hashtag for posts written before V21, with the same extraction as the write path.
+ *
+ * Runs outside a transaction and commits every BATCH_SIZE posts, walking post ids in order,
+ * so a large table is neither locked nor held in one transaction. Rows already present are
+ * skipped, so an interrupted run can simply be repeated.
+ */
+public class V22__Backfill_post_hashtags extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String SELECT_BATCH =
+        "SELECT id, text, geohash, created_at FROM post " +
+        "WHERE deleted_at IS NULL AND text LIKE '%#%' AND id > ? ORDER BY id LIMIT " + BATCH_SIZE;
+
+    private static final String INSERT_TAG =
+        "INSERT INTO post_hashtag (post_id, tag, geohash, created_at) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT DO NOTHING";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement select = connection.prepareStatement(SELECT_BATCH);
+             PreparedStatement insert = connection.prepareStatement(INSERT_TAG)) {
+            // Postgres orders uuids bytewise, so the all-zero uuid sorts first
+            UUID after = new UUID(0, 0);
+            int posts;
+            do {
+                posts = 0;
+                select.setObject(1, after);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        posts++;
+                        after = (UUID) rs.getObject(1);
+                        Timestamp createdAt = rs.getTimestamp(4);
+                        for (String tag : Hashtags.extract(rs.getString(2))) {
+                            insert.setObject(1, after);
+                            insert.setString(2, tag);
+                            insert.setString(3, rs.getString(3));
+                            insert.setTimestamp(4, createdAt != null ? createdAt : new Timestamp(System.currentTimeMillis()));
+                            insert.addBatch();
+                        }
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            } while (posts == BATCH_SIZE);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Feed candidate retrieval: range scans on geohash prefixes, newest first.
+-- Partial index skips soft-deleted rows, which the feed never reads.
+CREATE INDEX IF NOT EXISTS idx_post_geohash_created
+    ON post(geohash, created_at DESC)
+    WHERE deleted_at IS NULL;
+
+-- Posts written before geohash was populated would be invisible to the geohash path
+UPDATE post
+SET geohash = ST_GeoHash(ST_SetSRID(ST_MakePoint(lon, lat), 4326), 6)
+WHERE geohash IS NULL;
@@ -0,0 +1,14 @@
+-- Denormalized engagement counters, maintained by EngagementCounterService.
+-- Likes and comments are applied in batched deltas; a periodic reconciliation repairs drift.
+ALTER TABLE post ADD COLUMN IF NOT EXISTS like_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE post ADD COLUMN IF NOT EXISTS comment_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE post p
+SET like_count = l.cnt
+FROM (SELECT post_id, COUNT(*) AS cnt FROM post_like GROUP BY post_id) l
+WHERE l.post_id = p.id;
+
+UPDATE post p
+SET comment_count = c.cnt
+FROM (SELECT post_id, COUNT(*) AS cnt FROM comment WHERE deleted_at IS NULL GROUP BY post_id) c
+WHERE c.post_id = p.id;
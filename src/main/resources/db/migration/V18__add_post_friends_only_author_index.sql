@@ -0,0 +1,4 @@
+-- Friends inbox loads: newest FRIENDS_ONLY posts of a set of authors
+CREATE INDEX IF NOT EXISTS idx_post_friends_only_author
+    ON post(author_id, created_at DESC)
+    WHERE deleted_at IS NULL AND visibility = 'FRIENDS_ONLY';
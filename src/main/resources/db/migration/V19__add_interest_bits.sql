@@ -0,0 +1,20 @@
+-- Interest sets as bitmaps (InterestBitmap): bit n for interest id n up to 62, bit 63 for any larger id.
+-- Written with the join tables by the Post and UserProfile entities.
+ALTER TABLE post ADD COLUMN IF NOT EXISTS interest_bits BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE user_profile ADD COLUMN IF NOT EXISTS interest_bits BIGINT NOT NULL DEFAULT 0;
+
+UPDATE post p
+SET interest_bits = t.bits
+FROM (SELECT post_id,
+             BIT_OR(CASE WHEN interest_id BETWEEN 0 AND 62 THEN 1::BIGINT << interest_id
+                         ELSE 1::BIGINT << 63 END) AS bits
+      FROM post_interest_tag GROUP BY post_id) t
+WHERE t.post_id = p.id;
+
+UPDATE user_profile u
+SET interest_bits = t.bits
+FROM (SELECT user_id,
+             BIT_OR(CASE WHEN interest_id BETWEEN 0 AND 62 THEN 1::BIGINT << interest_id
+                         ELSE 1::BIGINT << 63 END) AS bits
+      FROM user_interest GROUP BY user_id) t
+WHERE t.user_id = u.user_id;
@@ -0,0 +1,23 @@
+-- Transactional outbox: side effects of a write (notifications) are recorded in the
+-- write's own transaction and applied afterwards by OutboxDispatcher.
+-- Processed events are deleted; events that exhausted their retries keep failed_at and last_error.
+CREATE TABLE outbox_event (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id UUID NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    failed_at TIMESTAMP,
+    last_error TEXT
+);
+
+-- Claim scan: pending events in id order
+CREATE INDEX idx_outbox_event_pending ON outbox_event(id) WHERE failed_at IS NULL;
+
+-- Per-aggregate ordering check: earlier pending events of the same aggregate
+CREATE INDEX idx_outbox_event_aggregate ON outbox_event(aggregate_id, id) WHERE failed_at IS NULL;
+
+COMMENT ON COLUMN outbox_event.available_at IS 'Not claimable before this time: lease of a claimed event, or retry backoff';
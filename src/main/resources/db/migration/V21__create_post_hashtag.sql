@@ -0,0 +1,17 @@
+-- Hashtags of live posts, one row per (post, tag), written with the post and removed when it is deleted.
+-- Tags are lowercase without '#', so search is an exact match: #run no longer finds #running.
+-- geohash and created_at are copied from the post so a search never touches the post table
+-- until the page of ids is known. Existing posts are backfilled by V22.
+CREATE TABLE post_hashtag (
+    post_id UUID NOT NULL REFERENCES post(id) ON DELETE CASCADE,
+    tag VARCHAR(100) NOT NULL,
+    geohash VARCHAR(20),
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (post_id, tag)
+);
+
+-- Newest posts with a tag, anywhere
+CREATE INDEX idx_post_hashtag_tag_created ON post_hashtag(tag, created_at DESC);
+
+-- Newest posts with a tag inside geohash cells: a range scan per cell
+CREATE INDEX idx_post_hashtag_tag_geohash ON post_hashtag(tag, geohash, created_at DESC);
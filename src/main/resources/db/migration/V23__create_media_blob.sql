@@ -0,0 +1,16 @@
+-- Content-addressed media for local storage: one file per distinct SHA-256, shared by every upload of it.
+-- Each upload holds a reference; deleteFile and post deletion release it, and
+-- LocalStorageServiceImpl.sweep removes blobs left unreferenced for the grace period.
+CREATE TABLE media_blob (
+    hash CHAR(64) PRIMARY KEY,
+    extension VARCHAR(10) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    ref_count INT NOT NULL DEFAULT 1,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    unreferenced_at TIMESTAMP
+);
+
+-- Sweep scan: unreferenced blobs by age
+CREATE INDEX idx_media_blob_unreferenced ON media_blob(unreferenced_at) WHERE ref_count = 0;
+
+COMMENT ON COLUMN media_blob.extension IS 'Extension of the first upload; the file is served as <hash>.<extension>';
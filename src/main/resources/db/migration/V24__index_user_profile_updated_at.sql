@@ -0,0 +1,2 @@
+-- AliasSearchIndex reads back the profiles updated since its last load every few seconds
+CREATE INDEX idx_user_profile_updated_at ON user_profile (updated_at);
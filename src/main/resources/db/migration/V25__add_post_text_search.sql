@@ -0,0 +1,9 @@
+-- Post search matches and ranks against a stored tsvector instead of parsing every row's text per query.
+-- Postgres keeps the generated column in step with post.text on every insert and update, COPY included.
+ALTER TABLE post ADD COLUMN text_search tsvector
+    GENERATED ALWAYS AS (to_tsvector('english', coalesce(text, ''))) STORED;
+
+CREATE INDEX idx_post_text_search_vector ON post USING gin(text_search);
+
+-- Replaced by the index above
+DROP INDEX IF EXISTS idx_post_text_search;
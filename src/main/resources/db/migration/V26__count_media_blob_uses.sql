@@ -0,0 +1,25 @@
+-- media_blob.ref_count now counts the posts and profiles that show a blob rather than its uploads:
+-- an upload starts unreferenced, and retainFile takes a reference when the URL is stored.
+ALTER TABLE media_blob ALTER COLUMN ref_count SET DEFAULT 0;
+
+-- Recount existing blobs from the live posts and avatars that use them
+WITH uses AS (
+    SELECT substring(url FROM '^/uploads/blobs/[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})\.[a-z0-9]+$') AS hash
+    FROM (
+        SELECT jsonb_array_elements_text(p.media_urls) AS url
+        FROM post p
+        WHERE p.deleted_at IS NULL AND jsonb_typeof(p.media_urls) = 'array'
+        UNION ALL
+        SELECT avatar_url_alias FROM user_profile WHERE avatar_url_alias IS NOT NULL
+        UNION ALL
+        SELECT avatar_url_real FROM user_profile WHERE avatar_url_real IS NOT NULL
+    ) urls
+),
+counts AS (
+    SELECT hash, COUNT(*) AS uses FROM uses WHERE hash IS NOT NULL GROUP BY hash
+)
+UPDATE media_blob b
+SET ref_count = COALESCE(c.uses, 0),
+    unreferenced_at = CASE WHEN c.uses IS NULL THEN COALESCE(b.unreferenced_at, NOW()) END
+FROM (SELECT m.hash, counts.uses FROM media_blob m LEFT JOIN counts ON counts.hash = m.hash) c
+WHERE c.hash = b.hash;
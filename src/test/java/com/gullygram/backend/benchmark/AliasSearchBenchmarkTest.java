@@ -0,0 +1,102 @@
+package com.gullygram.backend.benchmark;
+
+import com.gullygram.backend.repository.UserProfileRepository;
+import com.gullygram.backend.service.AliasSearchIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Typeahead latency per keystroke: alias ILIKE through UserProfileRepository against
+ * AliasSearchIndex, typing aliases of the seeded users one character at a time.
+ *
+ * Needs a running Postgres and is skipped unless enabled:
+ *   mvn test -Dtest=AliasSearchBenchmarkTest -Dbenchmark=true -Dbenchmark.users=100000
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AliasSearchBenchmarkTest {
+
+    private static final String[] PARTS = {"raj", "priya", "amit", "neha", "vikram", "sneha", "rahul",
+        "anita", "kiran", "deepa", "arjun", "meera", "cricket", "chai", "biker", "foodie", "koramangala", "indiranagar"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    @Autowired
+    private AliasSearchIndex aliasSearchIndex;
+
+    private final List<String> typed = new ArrayList<>();
+
+    @BeforeAll
+    public void seed() {
+        int users = Integer.getInteger("benchmark.users", 100_000);
+        String run = Long.toString(System.nanoTime(), 36);
+        Random random = new Random(42);
+
+        List<Object[]> userRows = new ArrayList<>();
+        List<Object[]> profileRows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            UUID id = UUID.randomUUID();
+            String alias = PARTS[random.nextInt(PARTS.length)] + "_" + PARTS[random.nextInt(PARTS.length)] + "_" + run + i;
+            userRows.add(new Object[]{id, "bench-" + run + "-" + i + "@test.com"});
+            profileRows.add(new Object[]{id, alias, 1 + random.nextInt(5),
+                12.9352 + (random.nextDouble() - 0.5) * 0.45, 77.6245 + (random.nextDouble() - 0.5) * 0.45});
+            if (typed.size() < 20 && i % 997 == 0) {
+                typed.add(alias.substring(0, Math.min(alias.length(), 12)));
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password_hash, status) VALUES (?, ?, 'hash', 'ACTIVE')", userRows);
+        jdbcTemplate.batchUpdate("INSERT INTO user_profile (user_id, alias, trust_level, last_seen_lat, last_seen_lon) "
+            + "VALUES (?, ?, ?, ?, ?)", profileRows);
+
+        long start = System.nanoTime();
+        aliasSearchIndex.load();
+        System.out.printf("Index load: %d users in %.1f ms%n", users, (System.nanoTime() - start) / 1e6);
+    }
+
+    @Test
+    public void compareKeystrokes() {
+        run("ILIKE", q -> userProfileRepository.searchUsers(q).size());
+        run("index", q -> aliasSearchIndex.search(q, null, id -> false, 20).size());
+    }
+
+    private void run(String path, Function<String, Integer> search) {
+        // Warm up connection pool, plan cache and JIT
+        for (int i = 0; i < 3; i++) {
+            for (String alias : typed) {
+                search.apply(alias.substring(0, 4));
+            }
+        }
+
+        List<Long> nanos = new ArrayList<>();
+        for (String alias : typed) {
+            for (int length = 2; length <= alias.length(); length++) {
+                long start = System.nanoTime();
+                search.apply(alias.substring(0, length));
+                nanos.add(System.nanoTime() - start);
+            }
+        }
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("%-6s %6d keystrokes: p50 %9.1f us, p99 %9.1f us, mean %9.1f us%n",
+            path, sorted.length, sorted[sorted.length / 2] / 1e3, sorted[sorted.length * 99 / 100] / 1e3,
+            Arrays.stream(sorted).average().orElse(0) / 1e3);
+    }
+}
@@ -0,0 +1,107 @@
+package com.gullygram.backend.benchmark;
+
+import com.gullygram.backend.dto.request.BulkPostRequest;
+import com.gullygram.backend.dto.response.BulkIngestResponse;
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.entity.User;
+import com.gullygram.backend.repository.UserRepository;
+import com.gullygram.backend.service.BulkIngestionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads a synthetic dataset through the bulk path: by default a million posts around
+ * Bangalore over 30 days, with a few likes and comments each, in batches of 10000.
+ *
+ * Needs a running Postgres and is skipped unless enabled:
+ *   mvn test -Dtest=BulkIngestionBenchmarkTest -Dbenchmark=true -Dbenchmark.posts=1000000 -Dbenchmark.max-seconds=600
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class BulkIngestionBenchmarkTest {
+
+    private static final double CENTER_LAT = 12.9716;
+    private static final double CENTER_LON = 77.5946;
+    private static final int BATCH_SIZE = 10000;
+    private static final int USERS = 200;
+
+    @Autowired
+    private BulkIngestionService bulkIngestionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void loadDataset() {
+        int postCount = Integer.getInteger("benchmark.posts", 1_000_000);
+        long maxSeconds = Long.getLong("benchmark.max-seconds", 600);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(userRepository.save(User.builder()
+                .email("bulk-" + System.nanoTime() + "-" + i + "@test.com")
+                .passwordHash("hash")
+                .status(User.UserStatus.ACTIVE)
+                .build()));
+        }
+
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        long rows = 0;
+        long start = System.nanoTime();
+        for (int loaded = 0; loaded < postCount; loaded += BATCH_SIZE) {
+            List<BulkPostRequest> batch = new ArrayList<>();
+            for (int i = loaded; i < Math.min(postCount, loaded + BATCH_SIZE); i++) {
+                batch.add(post(i, users, random, now));
+            }
+            BulkIngestResponse response = bulkIngestionService.ingest(batch);
+            rows += response.getPosts() + response.getInterestTags() + response.getLikes() + response.getComments();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d posts, %d rows in %.1f s: %.0f posts/s, %.0f rows/s%n",
+            postCount, rows, seconds, postCount / seconds, rows / seconds);
+        assertTrue(seconds <= maxSeconds, "Bulk load took " + seconds + " s, bound is " + maxSeconds + " s");
+    }
+
+    private static BulkPostRequest post(int i, List<User> users, Random random, LocalDateTime now) {
+        // Half within ~5km of the centre, the rest spread over ~50km
+        double spreadDeg = (i % 2 == 0) ? 0.045 : 0.45;
+        LocalDateTime createdAt = now.minusMinutes(random.nextInt(30 * 24 * 60));
+        BulkPostRequest post = BulkPostRequest.builder()
+            .authorId(users.get(random.nextInt(users.size())).getId())
+            .type(Post.PostType.GENERAL)
+            .text("Benchmark post " + i)
+            .latitude(CENTER_LAT + (random.nextDouble() - 0.5) * spreadDeg)
+            .longitude(CENTER_LON + (random.nextDouble() - 0.5) * spreadDeg)
+            .interestIds(Set.of(1 + random.nextInt(10)))
+            .createdAt(createdAt)
+            .build();
+        for (int like = random.nextInt(4); like > 0; like--) {
+            post.getLikes().add(BulkPostRequest.Like.builder()
+                .userId(users.get(random.nextInt(users.size())).getId())
+                .createdAt(createdAt.plusMinutes(like))
+                .build());
+        }
+        if (random.nextBoolean()) {
+            post.getComments().add(BulkPostRequest.Comment.builder()
+                .authorId(users.get(random.nextInt(users.size())).getId())
+                .text("Benchmark comment")
+                .createdAt(createdAt.plusMinutes(5))
+                .build());
+        }
+        return post;
+    }
+}
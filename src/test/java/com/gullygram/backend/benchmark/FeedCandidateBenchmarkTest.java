@@ -0,0 +1,119 @@
+package com.gullygram.backend.benchmark;
+
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.entity.User;
+import com.gullygram.backend.repository.PostRepository;
+import com.gullygram.backend.repository.UserRepository;
+import com.gullygram.backend.service.feed.FeedCandidateService;
+import com.gullygram.backend.util.GeoUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares the geohash-cell candidate path against the legacy bounding-box scan.
+ *
+ * Needs a running Postgres and is skipped unless enabled:
+ *   mvn test -Dtest=FeedCandidateBenchmarkTest -Dbenchmark=true -Dbenchmark.posts=50000
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class FeedCandidateBenchmarkTest {
+
+    // Koramangala, the densest part of the pilot
+    private static final double CENTER_LAT = 12.9352;
+    private static final double CENTER_LON = 77.6245;
+    private static final int FETCH_SIZE = 30;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private FeedCandidateService feedCandidateService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    public void seed() {
+        int postCount = Integer.getInteger("benchmark.posts", 20000);
+        User author = userRepository.save(User.builder()
+                .email("bench-" + System.nanoTime() + "@test.com")
+                .passwordHash("hash")
+                .status(User.UserStatus.ACTIVE)
+                .build());
+
+        // Bangalore-like density: half the posts within ~5km, the rest spread over ~50km
+        Random random = new Random(42);
+        List<Post> batch = new ArrayList<>();
+        for (int i = 0; i < postCount; i++) {
+            double spreadDeg = (i % 2 == 0) ? 0.045 : 0.45;
+            double lat = CENTER_LAT + (random.nextDouble() - 0.5) * spreadDeg;
+            double lon = CENTER_LON + (random.nextDouble() - 0.5) * spreadDeg;
+            batch.add(Post.builder()
+                    .author(author)
+                    .text("Benchmark post " + i)
+                    .lat(lat)
+                    .lon(lon)
+                    .geohash(GeoUtil.generateGeohash(lat, lon))
+                    .build());
+            if (batch.size() == 1000) {
+                postRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        postRepository.saveAll(batch);
+    }
+
+    @Test
+    public void compareCandidatePaths() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        System.out.printf("%-8s %-8s %8s %14s %12s %12s%n",
+                "radius", "path", "cells", "statements/op", "avg ms", "candidates");
+        for (int radiusKm : new int[]{1, 5, 10, 25, 50}) {
+            int cells = GeoUtil.coveringGeohashes(CENTER_LAT, CENTER_LON, radiusKm).size();
+            run("bbox", radiusKm, 0, statistics,
+                () -> feedCandidateService.findByBoundingBox(CENTER_LAT, CENTER_LON, radiusKm, FETCH_SIZE));
+            run("geohash", radiusKm, cells, statistics,
+                () -> feedCandidateService.findByGeohashCells(CENTER_LAT, CENTER_LON, radiusKm, FETCH_SIZE));
+        }
+    }
+
+    private void run(String path, int radiusKm, int cells, Statistics statistics, Supplier<List<Post>> candidates) {
+        // Warm up connection pool, plan cache and JIT
+        for (int i = 0; i < 5; i++) {
+            candidates.get();
+        }
+
+        statistics.clear();
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            found = candidates.get().size();
+        }
+        double avgMs = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+        double statementsPerOp = (double) statistics.getPrepareStatementCount() / ITERATIONS;
+
+        System.out.printf("%-8s %-8s %8d %14.1f %12.2f %12d%n",
+                radiusKm + "km", path, cells, statementsPerOp, avgMs, found);
+    }
+}
@@ -0,0 +1,102 @@
+package com.gullygram.backend.benchmark;
+
+import com.gullygram.backend.service.media.ImageVariantService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Image variant throughput in images per second, on synthetic 12 MP phone photos.
+ *
+ * Needs no database, but is skipped unless enabled:
+ *   mvn test -Dtest=ImageVariantBenchmarkTest -Dbenchmark=true -Dbenchmark.images=40 -Dbenchmark.threads=4
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ImageVariantBenchmarkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void measureThroughput() throws Exception {
+        int images = Integer.getInteger("benchmark.images", 40);
+        int threads = Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors());
+
+        List<Path> originals = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < images; i++) {
+            Path original = dir.resolve(String.format("%064x", i) + ".jpg");
+            ImageIO.write(photo(4032, 3024, random), "jpeg", original.toFile());
+            originals.add(original);
+        }
+        long bytes = 0;
+        for (Path original : originals) {
+            bytes += Files.size(original);
+        }
+
+        ImageVariantService service = new ImageVariantService();
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "threads", threads);
+        ReflectionTestUtils.setField(service, "queueSize", images);
+        ReflectionTestUtils.setField(service, "submitTimeoutMs", 60_000L);
+        ReflectionTestUtils.invokeMethod(service, "start");
+
+        long start = System.nanoTime();
+        for (Path original : originals) {
+            service.submit(original, "jpg");
+        }
+        while (service.getProcessedCount() + service.getFailedCount() < images) {
+            Thread.sleep(5);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        ReflectionTestUtils.invokeMethod(service, "stop");
+
+        assertEquals(images, service.getProcessedCount());
+        long variantBytes = 0;
+        try (var files = Files.list(dir)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().contains("_")).toList()) {
+                variantBytes += Files.size(file);
+            }
+        }
+
+        System.out.printf("%d images (4032x3024, %.1f MB avg) on %d threads: %.2f s, %.1f images/s, %.0f ms per image per thread%n",
+            images, bytes / 1e6 / images, threads, seconds, images / seconds,
+            service.getRenderNanos() / 1e6 / images);
+        System.out.printf("Variants: %.0f KB per image for thumb + feed + full%n", variantBytes / 1e3 / images);
+    }
+
+    /**
+     * Gradients with noise and shapes, so JPEG sizes resemble photos rather than flat fills
+     */
+    private static BufferedImage photo(int width, int height, Random random) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(random.nextInt()), width, height, new Color(random.nextInt())));
+        g.fillRect(0, 0, width, height);
+        for (int i = 0; i < 200; i++) {
+            g.setColor(new Color(random.nextInt(), true));
+            g.fillOval(random.nextInt(width), random.nextInt(height), 50 + random.nextInt(600), 50 + random.nextInt(600));
+        }
+        g.dispose();
+        for (int i = 0; i < width * height / 8; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            image.setRGB(x, y, image.getRGB(x, y) ^ (random.nextInt(0x10) * 0x010101));
+        }
+        return image;
+    }
+}
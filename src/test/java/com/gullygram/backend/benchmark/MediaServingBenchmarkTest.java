@@ -0,0 +1,185 @@
+package com.gullygram.backend.benchmark;
+
+import com.gullygram.backend.service.impl.LocalStorageServiceImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Feed scrolling over the same images through the previous resource handler, mounted at
+ * /legacy-uploads, and through MediaFileController, with a client that caches as browsers do.
+ *
+ * Needs a running Postgres and is skipped unless enabled:
+ *   mvn test -Dtest=MediaServingBenchmarkTest -Dbenchmark=true -Dbenchmark.images=30 -Dbenchmark.scrolls=20
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MediaServingBenchmarkTest {
+
+    private static final Path BLOBS = Paths.get(LocalStorageServiceImpl.UPLOAD_DIR, LocalStorageServiceImpl.BLOB_DIR);
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<String> paths = new ArrayList<>();
+
+    @TestConfiguration
+    static class LegacyHandler implements WebMvcConfigurer {
+
+        @Override
+        public void addResourceHandlers(ResourceHandlerRegistry registry) {
+            registry.addResourceHandler("/legacy-uploads/**")
+                    .addResourceLocations("file:uploads/");
+        }
+
+        @Bean
+        @Order(0)
+        SecurityFilterChain legacyUploads(HttpSecurity http) throws Exception {
+            return http.securityMatcher("/legacy-uploads/**")
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .build();
+        }
+    }
+
+    @BeforeAll
+    void writeImages() throws Exception {
+        int images = Integer.getInteger("benchmark.images", 30);
+        Random random = new Random(42);
+        for (int i = 0; i < images; i++) {
+            // Feed photos of 50-500 KB
+            byte[] content = new byte[50_000 + random.nextInt(450_000)];
+            random.nextBytes(content);
+            String hash = String.format("%064x", 0xbe00 + i);
+            Path file = BLOBS.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + ".jpg");
+            Files.createDirectories(file.getParent());
+            Files.write(file, content);
+            paths.add(BLOBS.relativize(file).toString());
+        }
+    }
+
+    @AfterAll
+    void removeImages() throws Exception {
+        for (String path : paths) {
+            Files.deleteIfExists(BLOBS.resolve(path));
+        }
+    }
+
+    @Test
+    public void compareScrolling() throws Exception {
+        int scrolls = Integer.getInteger("benchmark.scrolls", 20);
+
+        // Warm both paths up
+        scroll("/legacy-uploads/blobs/", new HashMap<>(), new Stats());
+        scroll("/uploads/blobs/", new HashMap<>(), new Stats());
+
+        for (String prefix : List.of("/legacy-uploads/blobs/", "/uploads/blobs/")) {
+            Map<String, CachedEntry> cache = new HashMap<>();
+            Stats stats = new Stats();
+            long start = System.nanoTime();
+            for (int i = 0; i < scrolls; i++) {
+                scroll(prefix, cache, stats);
+            }
+            double ms = (System.nanoTime() - start) / 1e6;
+            System.out.printf("%-24s %d scrolls x %d images: %6d requests (%d x 200, %d x 304), %8.1f MB, %8.1f ms, %.2f ms per image shown%n",
+                prefix, scrolls, paths.size(), stats.requests, stats.full, stats.notModified,
+                stats.bytes / 1e6, ms, ms / (scrolls * paths.size()));
+        }
+
+        Stats range = new Stats();
+        long start = System.nanoTime();
+        for (String path : paths) {
+            HttpResponse<byte[]> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/uploads/blobs/" + path))
+                    .header("Range", "bytes=0-16383").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+            range.bytes += response.body().length;
+        }
+        System.out.printf("Range bytes=0-16383 over %d images: %.1f KB, %.1f ms%n",
+            paths.size(), range.bytes / 1e3, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Show every image once: fresh cache entries cost nothing, stale ones are revalidated
+     */
+    private void scroll(String prefix, Map<String, CachedEntry> cache, Stats stats) throws Exception {
+        long now = System.currentTimeMillis();
+        for (String path : paths) {
+            CachedEntry cached = cache.get(path);
+            if (cached != null && cached.freshUntil > now) {
+                continue;
+            }
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + prefix + path));
+            if (cached != null && cached.eTag != null) {
+                request.header("If-None-Match", cached.eTag);
+            } else if (cached != null && cached.lastModified != null) {
+                request.header("If-Modified-Since", cached.lastModified);
+            }
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            stats.requests++;
+            stats.bytes += response.body().length;
+            if (response.statusCode() == 304) {
+                stats.notModified++;
+            } else {
+                stats.full++;
+            }
+
+            String cacheControl = response.headers().firstValue("Cache-Control").orElse("");
+            if (cacheControl.contains("no-store")) {
+                cache.remove(path);
+                continue;
+            }
+            CachedEntry entry = new CachedEntry();
+            entry.eTag = response.headers().firstValue("ETag").orElse(cached == null ? null : cached.eTag);
+            entry.lastModified = response.headers().firstValue("Last-Modified").orElse(cached == null ? null : cached.lastModified);
+            entry.freshUntil = now + maxAgeMillis(cacheControl);
+            cache.put(path, entry);
+        }
+    }
+
+    private static long maxAgeMillis(String cacheControl) {
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.startsWith("max-age=") && !cacheControl.contains("no-cache")) {
+                return Long.parseLong(trimmed.substring("max-age=".length())) * 1000;
+            }
+        }
+        return 0;
+    }
+
+    private static class CachedEntry {
+        private String eTag;
+        private String lastModified;
+        private long freshUntil;
+    }
+
+    private static class Stats {
+        private int requests;
+        private int full;
+        private int notModified;
+        private long bytes;
+    }
+}
@@ -0,0 +1,125 @@
+package com.gullygram.backend.benchmark;
+
+import com.gullygram.backend.entity.OutboxEvent;
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.entity.User;
+import com.gullygram.backend.repository.NotificationRepository;
+import com.gullygram.backend.repository.PostRepository;
+import com.gullygram.backend.repository.UserRepository;
+import com.gullygram.backend.service.LikeService;
+import com.gullygram.backend.service.outbox.NotificationEventHandler;
+import com.gullygram.backend.util.GeoUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Like latency with the notification applied inline, as before the outbox, versus
+ * enqueued to the outbox, and how long enqueued notifications take to appear.
+ *
+ * Needs a running Postgres and is skipped unless enabled:
+ *   mvn test -Dtest=OutboxLatencyBenchmarkTest -Dbenchmark=true -Dbenchmark.likes=500
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class OutboxLatencyBenchmarkTest {
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private NotificationEventHandler notificationEventHandler;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void compareInlineAndOutboxNotifications() throws InterruptedException {
+        int likes = Integer.getInteger("benchmark.likes", 500);
+        List<User> likers = new ArrayList<>();
+        for (int i = 0; i < likes; i++) {
+            likers.add(user());
+        }
+
+        System.out.printf("%-8s %10s %10s %10s%n", "mode", "p50 ms", "p99 ms", "max ms");
+
+        Post inlinePost = post(user());
+        report("inline", measure(likers, liker -> transactionTemplate.executeWithoutResult(status -> {
+            likeService.toggleLike(inlinePost.getId(), liker.getId());
+            notificationEventHandler.handle(OutboxEvent.builder()
+                .eventType(OutboxEvent.EventType.POST_LIKED)
+                .payload(Map.of(
+                    "recipientId", inlinePost.getAuthor().getId().toString(),
+                    "actorId", liker.getId().toString(),
+                    "entityId", inlinePost.getId().toString()))
+                .build());
+        })));
+
+        User author = user();
+        Post outboxPost = post(author);
+        long start = System.nanoTime();
+        report("outbox", measure(likers, liker -> likeService.toggleLike(outboxPost.getId(), liker.getId())));
+
+        while (notificationRepository.countUnreadByUserId(author.getId()) < likes) {
+            Thread.sleep(5);
+        }
+        System.out.printf("all %d outbox notifications visible %.1f ms after the first like%n",
+            likes, (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    private double[] measure(List<User> likers, Consumer<User> like) {
+        double[] millis = new double[likers.size()];
+        for (int i = 0; i < likers.size(); i++) {
+            long start = System.nanoTime();
+            like.accept(likers.get(i));
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis;
+    }
+
+    private static void report(String mode, double[] sortedMillis) {
+        System.out.printf("%-8s %10.2f %10.2f %10.2f%n", mode,
+            sortedMillis[sortedMillis.length / 2],
+            sortedMillis[(int) (sortedMillis.length * 0.99)],
+            sortedMillis[sortedMillis.length - 1]);
+    }
+
+    private User user() {
+        return userRepository.save(User.builder()
+            .email("bench-" + UUID.randomUUID() + "@test.com")
+            .passwordHash("hash")
+            .status(User.UserStatus.ACTIVE)
+            .build());
+    }
+
+    private Post post(User author) {
+        return postRepository.save(Post.builder()
+            .author(author)
+            .text("Outbox benchmark post")
+            .lat(12.9352)
+            .lon(77.6245)
+            .geohash(GeoUtil.generateGeohash(12.9352, 77.6245))
+            .build());
+    }
+}
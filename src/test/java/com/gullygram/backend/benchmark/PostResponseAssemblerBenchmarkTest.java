@@ -0,0 +1,109 @@
+package com.gullygram.backend.benchmark;
+
+import com.gullygram.backend.config.SqlStatementCounter;
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.entity.User;
+import com.gullygram.backend.entity.UserProfile;
+import com.gullygram.backend.repository.PostRepository;
+import com.gullygram.backend.repository.UserProfileRepository;
+import com.gullygram.backend.repository.UserRepository;
+import com.gullygram.backend.service.PostResponseAssembler;
+import com.gullygram.backend.util.GeoUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Shows that converting a page of posts costs a constant number of statements.
+ *
+ * Needs a running Postgres and is skipped unless enabled:
+ *   mvn test -Dtest=PostResponseAssemblerBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PostResponseAssemblerBenchmarkTest {
+
+    private static final int AUTHORS = 10;
+    private static final int POSTS = 50;
+
+    @Autowired
+    private PostResponseAssembler postResponseAssembler;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<UUID> postIds = new ArrayList<>();
+    private UUID viewerId;
+
+    @BeforeAll
+    public void seed() {
+        List<User> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            User author = userRepository.save(User.builder()
+                    .email("assembler-" + System.nanoTime() + "@test.com")
+                    .passwordHash("hash")
+                    .status(User.UserStatus.ACTIVE)
+                    .build());
+            userProfileRepository.save(UserProfile.builder()
+                    .user(author)
+                    .alias("assembler_" + System.nanoTime())
+                    .build());
+            authors.add(author);
+        }
+        viewerId = authors.get(0).getId();
+
+        for (int i = 0; i < POSTS; i++) {
+            Post post = postRepository.save(Post.builder()
+                    .author(authors.get(i % AUTHORS))
+                    .text("Assembler post " + i)
+                    .lat(12.9352)
+                    .lon(77.6245)
+                    .geohash(GeoUtil.generateGeohash(12.9352, 77.6245))
+                    .build());
+            postIds.add(post.getId());
+        }
+    }
+
+    @Test
+    public void statementsStayConstantWithPageSize() {
+        int single = countStatements(1);
+        int page = countStatements(POSTS);
+
+        System.out.printf("%-8s %12s%n", "posts", "statements");
+        System.out.printf("%-8d %12d%n", 1, single);
+        System.out.printf("%-8d %12d%n", POSTS, page);
+
+        assertEquals(single, page);
+    }
+
+    private int countStatements(int postCount) {
+        return transactionTemplate.execute(status -> {
+            List<Post> posts = postRepository.findAllById(postIds.subList(0, postCount));
+            SqlStatementCounter.reset();
+            postResponseAssembler.toResponses(posts, viewerId);
+            return SqlStatementCounter.current();
+        });
+    }
+}
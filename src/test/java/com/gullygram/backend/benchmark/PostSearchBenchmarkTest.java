@@ -0,0 +1,144 @@
+package com.gullygram.backend.benchmark;
+
+import com.gullygram.backend.dto.request.BulkPostRequest;
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.entity.User;
+import com.gullygram.backend.repository.UserRepository;
+import com.gullygram.backend.service.BulkIngestionService;
+import com.gullygram.backend.service.PostSearchService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ranked post search over a synthetic corpus, by default a million posts around Bangalore
+ * over 30 days. Words are drawn with Zipf-like frequencies, so the queries below match from
+ * about a tenth to nearly all of the corpus. Each query pages ten times through its cursor,
+ * with and without a location, and no post may show up on two pages.
+ *
+ * Needs a running Postgres and is skipped unless enabled:
+ *   mvn test -Dtest=PostSearchBenchmarkTest -Dbenchmark=true -Dbenchmark.posts=1000000
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PostSearchBenchmarkTest {
+
+    private static final double CENTER_LAT = 12.9716;
+    private static final double CENTER_LON = 77.5946;
+    private static final int BATCH_SIZE = 10000;
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGES = 10;
+
+    // Most frequent first
+    private static final String[] WORDS = {"traffic", "food", "rain", "weekend", "market", "cricket", "coffee",
+        "metro", "park", "music", "festival", "biryani", "startup", "lake", "temple", "football", "yoga",
+        "bookstore", "vintage", "pottery", "astronomy", "origami", "beekeeping", "calligraphy"};
+
+    @Autowired
+    private BulkIngestionService bulkIngestionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostSearchService postSearchService;
+
+    @BeforeAll
+    public void seed() {
+        int postCount = Integer.getInteger("benchmark.posts", 1_000_000);
+        User author = userRepository.save(User.builder()
+            .email("search-" + System.nanoTime() + "@test.com")
+            .passwordHash("hash")
+            .status(User.UserStatus.ACTIVE)
+            .build());
+
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        long start = System.nanoTime();
+        for (int loaded = 0; loaded < postCount; loaded += BATCH_SIZE) {
+            List<BulkPostRequest> batch = new ArrayList<>();
+            for (int i = loaded; i < Math.min(postCount, loaded + BATCH_SIZE); i++) {
+                double spreadDeg = (i % 2 == 0) ? 0.045 : 0.45;
+                batch.add(BulkPostRequest.builder()
+                    .authorId(author.getId())
+                    .type(Post.PostType.GENERAL)
+                    .text(text(random))
+                    .latitude(CENTER_LAT + (random.nextDouble() - 0.5) * spreadDeg)
+                    .longitude(CENTER_LON + (random.nextDouble() - 0.5) * spreadDeg)
+                    .createdAt(now.minusMinutes(random.nextInt(30 * 24 * 60)))
+                    .build());
+            }
+            bulkIngestionService.ingest(batch);
+        }
+        System.out.printf("Loaded %d posts in %.1f s%n", postCount, (System.nanoTime() - start) / 1e9);
+    }
+
+    @Test
+    public void pageThroughQueries() {
+        System.out.printf("%-22s %-9s %12s %12s %12s %8s%n", "query", "location", "first ms", "avg page ms", "last page ms", "hits");
+        for (String query : List.of("calligraphy", "lake temple", "cricket", "traffic", "rain traffic")) {
+            run(query, null, null);
+            run(query, CENTER_LAT, CENTER_LON);
+        }
+    }
+
+    private void run(String query, Double lat, Double lon) {
+        // Warm up plan cache and JIT
+        for (int i = 0; i < 3; i++) {
+            postSearchService.search(query, lat, lon, 10, LocalDateTime.now(), null, PAGE_SIZE + 1);
+        }
+
+        LocalDateTime snapshot = LocalDateTime.now();
+        Set<UUID> seen = new HashSet<>();
+        PostSearchService.Hit after = null;
+        double firstMs = 0;
+        double lastMs = 0;
+        double totalMs = 0;
+        int pages = 0;
+        for (; pages < PAGES; pages++) {
+            long start = System.nanoTime();
+            List<PostSearchService.Hit> hits = postSearchService.search(query, lat, lon, 10, snapshot, after, PAGE_SIZE + 1);
+            lastMs = (System.nanoTime() - start) / 1e6;
+            totalMs += lastMs;
+            if (pages == 0) {
+                firstMs = lastMs;
+            }
+            List<PostSearchService.Hit> page = hits.subList(0, Math.min(PAGE_SIZE, hits.size()));
+            for (PostSearchService.Hit hit : page) {
+                assertTrue(seen.add(hit.getId()), "Post " + hit.getId() + " returned on two pages");
+            }
+            if (hits.size() <= PAGE_SIZE) {
+                pages++;
+                break;
+            }
+            after = page.get(page.size() - 1);
+        }
+        System.out.printf("%-22s %-9s %12.2f %12.2f %12.2f %8d%n",
+            query, lat == null ? "none" : "10km", firstMs, totalMs / pages, lastMs, seen.size());
+    }
+
+    /**
+     * Five to fifteen words, the i-th most frequent word about 1/(i+1) as likely as the first
+     */
+    private static String text(Random random) {
+        StringJoiner text = new StringJoiner(" ");
+        int words = 5 + random.nextInt(11);
+        for (int i = 0; i < words; i++) {
+            double u = random.nextDouble();
+            int rank = (int) Math.min(WORDS.length - 1, Math.floor(Math.exp(u * Math.log(WORDS.length + 1)) - 1));
+            text.add(WORDS[rank]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package com.gullygram.backend.controller;
+
+import com.gullygram.backend.exception.GlobalExceptionHandler;
+import com.gullygram.backend.service.media.MediaFileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class MediaFileControllerTest {
+
+    private static final String HASH = "cd".repeat(32);
+    private static final String URL = "/uploads/blobs/cd/cd/" + HASH + ".png";
+    private static final String ETAG = "\"" + HASH + "\"";
+
+    @TempDir
+    Path root;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(root.resolve("blobs/cd/cd"));
+        Files.writeString(root.resolve("blobs/cd/cd/" + HASH + ".png"), "0123456789");
+        mockMvc = MockMvcBuilders.standaloneSetup(new MediaFileController(new MediaFileService(root)))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+    }
+
+    @Test
+    void servesTheWholeFileWithValidators() throws Exception {
+        mockMvc.perform(get(URL))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", ETAG))
+            .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"))
+            .andExpect(header().string("Accept-Ranges", "bytes"))
+            .andExpect(content().contentType("image/png"))
+            .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void matchingETagIsNotModified() throws Exception {
+        mockMvc.perform(get(URL).header("If-None-Match", ETAG))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void singleRangeIsPartialContent() throws Exception {
+        mockMvc.perform(get(URL).header("Range", "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string("Content-Range", "bytes 2-5/10"))
+            .andExpect(header().longValue("Content-Length", 4))
+            .andExpect(content().string("2345"));
+
+        mockMvc.perform(get(URL).header("Range", "bytes=-3"))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().string("789"));
+    }
+
+    @Test
+    void staleIfRangeOrSeveralRangesGetTheWholeFile() throws Exception {
+        mockMvc.perform(get(URL).header("Range", "bytes=2-5").header("If-Range", "\"other\""))
+            .andExpect(status().isOk())
+            .andExpect(content().string("0123456789"));
+
+        mockMvc.perform(get(URL).header("Range", "bytes=0-1,4-5"))
+            .andExpect(status().isOk())
+            .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void rangeBeyondTheEndIsNotSatisfiable() throws Exception {
+        mockMvc.perform(get(URL).header("Range", "bytes=10-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string("Content-Range", "bytes */10"));
+    }
+
+    @Test
+    void headHasLengthButNoBody() throws Exception {
+        mockMvc.perform(head(URL))
+            .andExpect(status().isOk())
+            .andExpect(header().longValue("Content-Length", 10))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void missingFileIsNotFound() throws Exception {
+        mockMvc.perform(get("/uploads/blobs/cd/cd/missing.png"))
+            .andExpect(status().isNotFound());
+    }
+}
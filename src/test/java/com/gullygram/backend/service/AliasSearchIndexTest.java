@@ -0,0 +1,113 @@
+package com.gullygram.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class AliasSearchIndexTest {
+
+    private static final UUID VIEWER = UUID.randomUUID();
+
+    private JdbcTemplate jdbcTemplate;
+    private AliasSearchIndex index;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        index = new AliasSearchIndex(jdbcTemplate);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "fullReloadIntervalMs", 3_600_000L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLoadsAllProfilesOnce() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenReturn(List.of(
+            entry("riya_sharma", 2, 12.97, 77.59),
+            entry("Rahul", 1, 12.97, 77.59)));
+        assertFalse(index.isReady());
+
+        index.load();
+
+        assertTrue(index.isReady());
+        assertEquals(List.of("riya_sharma", "Rahul"), aliases(index.search("r", null, id -> false, 20)));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class));
+    }
+
+    @Test
+    public void testExactThenPrefixThenSubstringRankedByTrustAndProximity() {
+        index.put(entry("viewer", 1, 12.97, 77.59, VIEWER));
+        index.put(entry("the_cricketer", 5, 12.97, 77.59));
+        index.put(entry("cricket_far", 3, 28.61, 77.20));
+        index.put(entry("cricket_near", 3, 12.98, 77.60));
+        index.put(entry("cricket_trusted", 5, 28.61, 77.20));
+        index.put(entry("cricket", 1, null, null));
+        index.rebuild();
+
+        List<String> results = aliases(index.search("Cricket", VIEWER, id -> false, 20));
+
+        assertEquals(List.of("cricket", "cricket_near", "cricket_trusted", "cricket_far", "the_cricketer"), results);
+    }
+
+    @Test
+    public void testShortQueriesMatchPrefixesOnly() {
+        index.put(entry("amit", 1, null, null));
+        index.put(entry("sam", 1, null, null));
+        index.rebuild();
+
+        assertEquals(List.of("amit"), aliases(index.search("am", null, id -> false, 20)));
+        assertEquals(List.of("sam"), aliases(index.search("sam", null, id -> false, 20)));
+    }
+
+    @Test
+    public void testRenameIsVisibleBeforeAndAfterRebuild() {
+        AliasSearchIndex.Entry before = entry("old_alias", 1, null, null);
+        index.put(before);
+        index.rebuild();
+
+        index.put(entry("new_alias", 1, null, null, before.getUserId()));
+
+        assertTrue(index.search("old_", null, id -> false, 20).isEmpty());
+        assertEquals(List.of("new_alias"), aliases(index.search("alias", null, id -> false, 20)));
+
+        index.rebuild();
+        assertTrue(index.search("old_", null, id -> false, 20).isEmpty());
+        assertEquals(List.of("new_alias"), aliases(index.search("new", null, id -> false, 20)));
+    }
+
+    @Test
+    public void testExcludesViewerAndBlockedBeforeLimit() {
+        AliasSearchIndex.Entry blocked = entry("dev_a", 5, null, null);
+        index.put(entry("dev", 5, null, null, VIEWER));
+        index.put(blocked);
+        index.put(entry("dev_b", 1, null, null));
+        index.rebuild();
+
+        List<String> results = aliases(index.search("dev", VIEWER, blocked.getUserId()::equals, 1));
+
+        assertEquals(List.of("dev_b"), results);
+    }
+
+    private static List<String> aliases(List<AliasSearchIndex.Entry> entries) {
+        return entries.stream().map(AliasSearchIndex.Entry::getAlias).collect(Collectors.toList());
+    }
+
+    private static AliasSearchIndex.Entry entry(String alias, int trustLevel, Double lat, Double lon) {
+        return entry(alias, trustLevel, lat, lon, UUID.randomUUID());
+    }
+
+    private static AliasSearchIndex.Entry entry(String alias, int trustLevel, Double lat, Double lon, UUID userId) {
+        return new AliasSearchIndex.Entry(userId, alias, null, null, null, trustLevel, lat, lon, null);
+    }
+}
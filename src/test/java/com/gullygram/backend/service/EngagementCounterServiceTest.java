@@ -0,0 +1,121 @@
+package com.gullygram.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class EngagementCounterServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private EngagementCounterService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        service = new EngagementCounterService(jdbcTemplate, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(service, "flushIntervalMs", 0L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushAppliesSummedDeltasInOneBatch() {
+        UUID hot = UUID.randomUUID();
+        UUID quiet = UUID.randomUUID();
+        for (int i = 0; i < 100; i++) {
+            service.recordLike(hot, 1);
+        }
+        service.recordLike(hot, -1);
+        service.recordComment(quiet, 1);
+
+        assertEquals(99, service.pendingLikes(hot));
+        service.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        Object[] hotRow = batch.getValue().stream().filter(row -> row[2].equals(hot)).findFirst().orElseThrow();
+        assertEquals(99L, hotRow[0]);
+        assertEquals(0L, hotRow[1]);
+        assertEquals(0, service.pendingLikes(hot));
+    }
+
+    @Test
+    void cancelledOutDeltasAreNotWritten() {
+        UUID postId = UUID.randomUUID();
+        service.recordLike(postId, 1);
+        service.recordLike(postId, -1);
+
+        service.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void failedFlushKeepsDeltasForRetry() {
+        UUID postId = UUID.randomUUID();
+        service.recordComment(postId, 3);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("db down"));
+
+        service.flush();
+
+        verify(transactionManager).rollback(any());
+        assertEquals(3, service.pendingComments(postId));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconcileRepairsOnlyUnchangedDriftWithoutPendingDelta() throws SQLException {
+        UUID drifted = UUID.randomUUID();
+        UUID pendingHere = UUID.randomUUID();
+        UUID exact = UUID.randomUUID();
+        service.recordLike(pendingHere, 1);
+        List<ResultSet> rows = List.of(row(drifted, 5, 1, 7, 1), row(pendingHere, 2, 0, 3, 0), row(exact, 4, 2, 4, 2));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any())).thenAnswer(invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                mapped.add(mapper.mapRow(rows.get(i), i));
+            }
+            return mapped;
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        service.repair(service.findSuspects());
+
+        // The pending like is counted in the source table but not yet in like_count
+        ArgumentCaptor<List<Object[]>> repairs = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), repairs.capture());
+        assertEquals(1, repairs.getValue().size());
+        assertArrayEquals(new Object[]{7L, 1L, drifted, 5L, 1L, 7L, 1L}, repairs.getValue().get(0));
+    }
+
+    private static ResultSet row(UUID postId, long storedLikes, long storedComments, long likes, long comments)
+            throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn(postId);
+        when(rs.getLong("like_count")).thenReturn(storedLikes);
+        when(rs.getLong("comment_count")).thenReturn(storedComments);
+        when(rs.getLong("likes")).thenReturn(likes);
+        when(rs.getLong("comments")).thenReturn(comments);
+        return rs;
+    }
+}
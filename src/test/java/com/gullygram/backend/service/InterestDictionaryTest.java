@@ -0,0 +1,55 @@
+package com.gullygram.backend.service;
+
+import com.gullygram.backend.entity.Interest;
+import com.gullygram.backend.exception.ResourceNotFoundException;
+import com.gullygram.backend.repository.InterestAliasRepository;
+import com.gullygram.backend.repository.InterestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class InterestDictionaryTest {
+
+    private InterestRepository interestRepository;
+    private InterestAliasRepository interestAliasRepository;
+    private InterestDictionary interestDictionary;
+
+    @BeforeEach
+    public void setup() {
+        interestRepository = mock(InterestRepository.class);
+        interestAliasRepository = mock(InterestAliasRepository.class);
+        when(interestRepository.findAll()).thenReturn(List.of(
+            Interest.builder().id(4).name("Music").build(),
+            Interest.builder().id(5).name("Sports").build(),
+            Interest.builder().id(6).name("Technology").build()));
+        when(interestAliasRepository.findAllAliasMappings()).thenReturn(List.<Object[]>of(
+            new Object[]{"Football", 5},
+            new Object[]{"coding", 6}));
+        interestDictionary = new InterestDictionary(interestRepository, interestAliasRepository);
+    }
+
+    @Test
+    public void testResolvesExplicitIdsNamesAndAliasesWithoutQueries() {
+        interestDictionary.reload();
+        clearInvocations(interestRepository, interestAliasRepository);
+
+        Set<Integer> resolved = interestDictionary.resolve("Sunday #FOOTBALL at the park, then #music #unknown", List.of(6));
+
+        assertEquals(Set.of(4, 5, 6), resolved);
+        verifyNoInteractions(interestRepository, interestAliasRepository);
+    }
+
+    @Test
+    public void testUnknownIdReloadsOnceThenFails() {
+        assertEquals(3, interestDictionary.listAll().size());
+
+        assertThrows(ResourceNotFoundException.class, () -> interestDictionary.resolve(null, List.of(99)));
+        // Loaded just now, so the miss does not reload again
+        verify(interestRepository, times(1)).findAll();
+    }
+}
@@ -0,0 +1,64 @@
+package com.gullygram.backend.service;
+
+import com.gullygram.backend.repository.RelationshipRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SocialContextServiceTest {
+
+    private final UUID viewer = UUID.randomUUID();
+    private final UUID friend = UUID.randomUUID();
+    private final UUID blocked = UUID.randomUUID();
+
+    private RelationshipRepository relationshipRepository;
+    private SocialContextService service;
+
+    @BeforeEach
+    void setUp() {
+        relationshipRepository = mock(RelationshipRepository.class);
+        when(relationshipRepository.findFriendUserIds(viewer)).thenReturn(List.of(friend));
+        when(relationshipRepository.findBlockedUserIds(viewer)).thenReturn(List.of(blocked));
+
+        service = new SocialContextService(relationshipRepository);
+        ReflectionTestUtils.setField(service, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(service, "maxEntries", 100);
+    }
+
+    @Test
+    void contextAnswersFromLoadedSets() {
+        ViewerSocialContext context = service.forViewer(viewer);
+
+        assertTrue(context.isSelf(viewer));
+        assertTrue(context.isFriend(friend));
+        assertFalse(context.isFriend(blocked));
+        assertTrue(context.isBlocked(blocked));
+    }
+
+    @Test
+    void contextIsCachedUntilInvalidated() {
+        service.forViewer(viewer);
+        service.forViewer(viewer);
+        verify(relationshipRepository, times(1)).findFriendUserIds(viewer);
+
+        service.invalidate(viewer, friend);
+        service.forViewer(viewer);
+        verify(relationshipRepository, times(2)).findFriendUserIds(viewer);
+    }
+
+    @Test
+    void zeroTtlAlwaysReloads() {
+        ReflectionTestUtils.setField(service, "ttlSeconds", 0L);
+
+        service.forViewer(viewer);
+        service.forViewer(viewer);
+
+        verify(relationshipRepository, times(2)).findBlockedUserIds(viewer);
+    }
+}
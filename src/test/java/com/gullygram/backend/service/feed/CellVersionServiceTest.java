@@ -0,0 +1,86 @@
+package com.gullygram.backend.service.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CellVersionServiceTest {
+
+    private final CellVersionService cellVersionService = new CellVersionService();
+
+    @Test
+    public void testWriteBumpsEveryPrefixCell() {
+        cellVersionService.bumpCell("tdr1wx");
+
+        long version = cellVersionService.cellVersion("tdr1wx");
+        assertTrue(version > 0);
+        assertEquals(version, cellVersionService.cellVersion("tdr1"));
+        assertEquals(version, cellVersionService.cellVersion("tdr1w"));
+        assertEquals(0, cellVersionService.cellVersion("tdr1v"));
+
+        cellVersionService.bumpCell("tdr1vz");
+        assertTrue(cellVersionService.cellVersion("tdr1") > version);
+        assertEquals(version, cellVersionService.cellVersion("tdr1w"));
+    }
+
+    @Test
+    public void testFingerprintChangesOnlyWithCoveredCellsOrViewer() {
+        UUID viewer = UUID.randomUUID();
+        List<String> cells = List.of("tdr1v", "tdr1w");
+        String before = cellVersionService.fingerprint(viewer, cells);
+
+        cellVersionService.bumpCell("tdr1yz");
+        cellVersionService.bumpViewer(UUID.randomUUID());
+        assertEquals(before, cellVersionService.fingerprint(viewer, cells));
+
+        cellVersionService.bumpCell("tdr1wx");
+        String afterWrite = cellVersionService.fingerprint(viewer, cells);
+        assertNotEquals(before, afterWrite);
+
+        cellVersionService.bumpViewer(viewer);
+        assertNotEquals(afterWrite, cellVersionService.fingerprint(viewer, cells));
+    }
+
+    @Test
+    public void testForgottenVersionsAreNeverHandedOutAgain() {
+        UUID viewer = UUID.randomUUID();
+        List<String> cells = List.of("tdr1w");
+        cellVersionService.bumpCell("tdr1wx");
+        cellVersionService.bumpViewer(viewer);
+        String bumped = cellVersionService.fingerprint(viewer, cells);
+
+        // Every version is older than two time buckets of zero seconds
+        ReflectionTestUtils.setField(cellVersionService, "etagTimeBucketSeconds", -1L);
+        cellVersionService.sweep();
+        assertEquals(0, cellVersionService.size());
+
+        cellVersionService.bumpCell("tdr1wx");
+        cellVersionService.bumpViewer(viewer);
+        assertNotEquals(bumped, cellVersionService.fingerprint(viewer, cells));
+    }
+
+    @Test
+    public void testCellsBelowStoredPrecisionAreNotTracked() {
+        cellVersionService.bumpCell("tdr1wxyz");
+
+        assertEquals(6, cellVersionService.size());
+        assertEquals(cellVersionService.cellVersion("tdr1wx"), cellVersionService.cellVersion("tdr1wxyz"));
+    }
+
+    @Test
+    public void testOverflowStartsNewEpoch() {
+        ReflectionTestUtils.setField(cellVersionService, "maxVersions", 4);
+        UUID viewer = UUID.randomUUID();
+        List<String> cells = List.of("tdr1w");
+        String before = cellVersionService.fingerprint(viewer, cells);
+
+        cellVersionService.bumpCell("tdr1wx");
+
+        assertEquals(0, cellVersionService.size());
+        assertNotEquals(before, cellVersionService.fingerprint(viewer, cells));
+    }
+}
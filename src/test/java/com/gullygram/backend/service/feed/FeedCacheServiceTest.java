@@ -0,0 +1,157 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class FeedCacheServiceTest {
+
+    private FeedCandidateService feedCandidateService;
+    private FeedCacheService feedCacheService;
+    private User author;
+
+    @BeforeEach
+    public void setup() {
+        feedCandidateService = mock(FeedCandidateService.class);
+        when(feedCandidateService.loadCells(anyCollection(), anyInt())).thenAnswer(invocation -> {
+            Map<String, List<FeedPostSkeleton>> cells = new HashMap<>();
+            for (String cell : invocation.<Collection<String>>getArgument(0)) {
+                cells.put(cell, new ArrayList<>());
+            }
+            return cells;
+        });
+
+        feedCacheService = new FeedCacheService(feedCandidateService, new CellVersionService());
+        ReflectionTestUtils.setField(feedCacheService, "maxCells", 2);
+        ReflectionTestUtils.setField(feedCacheService, "maxPostsPerCell", 3);
+        ReflectionTestUtils.setField(feedCacheService, "ttlSeconds", 300L);
+
+        author = User.builder().id(UUID.randomUUID()).build();
+    }
+
+    @Test
+    public void testCellIsLoadedOnceAndThenServedFromMemory() {
+        feedCacheService.getCandidates(List.of("tdr1w"));
+        feedCacheService.getCandidates(List.of("tdr1w"));
+
+        verify(feedCandidateService, times(1)).loadCells(List.of("tdr1w"), 3);
+        assertEquals(1, feedCacheService.getHitCount());
+        assertEquals(1, feedCacheService.getMissCount());
+    }
+
+    @Test
+    public void testMissingCellsAreLoadedTogether() {
+        feedCacheService.getCandidates(List.of("tdr1w"));
+        feedCacheService.getCandidates(List.of("tdr1w", "tdr1x", "tdr1y"));
+
+        verify(feedCandidateService, times(1)).loadCells(List.of("tdr1w"), 3);
+        verify(feedCandidateService, times(1)).loadCells(argThat(keys -> keys.size() == 2
+            && keys.containsAll(List.of("tdr1x", "tdr1y"))), eq(3));
+        verifyNoMoreInteractions(feedCandidateService);
+        assertEquals(1, feedCacheService.getHitCount());
+        assertEquals(3, feedCacheService.getMissCount());
+    }
+
+    @Test
+    public void testCreatedPostIsAddedToEveryCachedPrefixCell() {
+        feedCacheService.getCandidates(List.of("tdr1"));
+        feedCacheService.getCandidates(List.of("tdr1w"));
+
+        Post post = post("tdr1wx", LocalDateTime.now());
+        feedCacheService.onPostCreated(post);
+
+        assertEquals(post.getId(), feedCacheService.getCandidates(List.of("tdr1")).get(0).getId());
+        assertEquals(post.getId(), feedCacheService.getCandidates(List.of("tdr1w")).get(0).getId());
+    }
+
+    @Test
+    public void testCellKeepsOnlyNewestPosts() {
+        feedCacheService.getCandidates(List.of("tdr1w"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            feedCacheService.onPostCreated(post("tdr1wx", now.plusMinutes(i)));
+        }
+
+        List<FeedPostSkeleton> cached = feedCacheService.getCandidates(List.of("tdr1w"));
+        assertEquals(3, cached.size());
+        assertEquals(now.plusMinutes(4), cached.get(0).getCreatedAt());
+        assertEquals(now.plusMinutes(2), cached.get(2).getCreatedAt());
+    }
+
+    @Test
+    public void testLikesCommentsAndDeletesPatchCachedSkeleton() {
+        feedCacheService.getCandidates(List.of("tdr1w"));
+        Post post = post("tdr1wx", LocalDateTime.now());
+        feedCacheService.onPostCreated(post);
+
+        feedCacheService.onLikeToggled(post, true);
+        feedCacheService.onLikeToggled(post, true);
+        feedCacheService.onLikeToggled(post, false);
+        feedCacheService.onCommentCreated(post);
+
+        FeedPostSkeleton skeleton = feedCacheService.getCandidates(List.of("tdr1w")).get(0);
+        assertEquals(1, skeleton.getLikeCount());
+        assertEquals(1, skeleton.getCommentCount());
+
+        feedCacheService.onPostDeleted(post);
+        assertTrue(feedCacheService.getCandidates(List.of("tdr1w")).isEmpty());
+    }
+
+    @Test
+    public void testLikeOnPostInNestedCachedCellsCountsOnce() {
+        feedCacheService.getCandidates(List.of("tdr1"));
+        feedCacheService.getCandidates(List.of("tdr1w"));
+        Post post = post("tdr1wx", LocalDateTime.now());
+        feedCacheService.onPostCreated(post);
+
+        feedCacheService.onLikeToggled(post, true);
+        feedCacheService.onCommentCreated(post);
+
+        for (String cell : List.of("tdr1", "tdr1w")) {
+            FeedPostSkeleton skeleton = feedCacheService.getCandidates(List.of(cell)).get(0);
+            assertEquals(1, skeleton.getLikeCount());
+            assertEquals(1, skeleton.getCommentCount());
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedCellIsEvicted() {
+        feedCacheService.getCandidates(List.of("tdr1w"));
+        feedCacheService.getCandidates(List.of("tdr1x"));
+        feedCacheService.getCandidates(List.of("tdr1w"));
+        feedCacheService.getCandidates(List.of("tdr1y")); // evicts tdr1x
+
+        feedCacheService.getCandidates(List.of("tdr1w"));
+        feedCacheService.getCandidates(List.of("tdr1x"));
+
+        verify(feedCandidateService, times(1)).loadCells(List.of("tdr1w"), 3);
+        verify(feedCandidateService, times(2)).loadCells(List.of("tdr1x"), 3);
+    }
+
+    private Post post(String geohash, LocalDateTime createdAt) {
+        return Post.builder()
+                .id(UUID.randomUUID())
+                .author(author)
+                .text("test")
+                .lat(12.93)
+                .lon(77.62)
+                .geohash(geohash)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        LocalDateTime snapshot = LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123456000);
+        UUID id = UUID.randomUUID();
+        FeedCursor cursor = FeedCursor.builder()
+            .mode(FeedCursor.Mode.RANKED)
+            .score(87.25)
+            .createdAt(snapshot.minusHours(3))
+            .id(id)
+            .snapshot(snapshot)
+            .floor(snapshot.minusDays(2))
+            .contextHash(FeedCursor.contextHash(12.93, 77.62, 10, true))
+            .page(3)
+            .build();
+
+        FeedCursor decoded = FeedCursor.decode(cursor.encode());
+
+        assertEquals(FeedCursor.Mode.RANKED, decoded.getMode());
+        assertEquals(87.25, decoded.getScore());
+        assertEquals(snapshot.minusHours(3), decoded.getCreatedAt());
+        assertEquals(id, decoded.getId());
+        assertEquals(snapshot, decoded.getSnapshot());
+        assertEquals(snapshot.minusDays(2), decoded.getFloor());
+        assertEquals(cursor.getContextHash(), decoded.getContextHash());
+        assertEquals(3, decoded.getPage());
+    }
+
+    @Test
+    void chronologicalCursorWithoutIdOrFloor() {
+        LocalDateTime floor = LocalDateTime.of(2024, 4, 20, 8, 0);
+        FeedCursor cursor = FeedCursor.builder()
+            .mode(FeedCursor.Mode.CHRONOLOGICAL)
+            .createdAt(floor)
+            .snapshot(floor.plusDays(5))
+            .contextHash(42)
+            .page(1)
+            .build();
+
+        FeedCursor decoded = FeedCursor.decode(cursor.encode());
+
+        assertEquals(FeedCursor.Mode.CHRONOLOGICAL, decoded.getMode());
+        assertEquals(floor, decoded.getCreatedAt());
+        assertNull(decoded.getId());
+        assertNull(decoded.getFloor());
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        assertThrows(BadRequestException.class, () -> FeedCursor.decode("not a cursor"));
+        assertThrows(BadRequestException.class, () -> FeedCursor.decode("MXxSQU5LRUR8MS4w"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.gullygram.backend.service.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedSessionCacheTest {
+
+    private final FeedSessionCache feedSessionCache = new FeedSessionCache();
+
+    @Test
+    public void testSessionKeepsItsOrder() {
+        UUID viewer = UUID.randomUUID();
+        LocalDateTime snapshot = LocalDateTime.now();
+        FeedSessionCache.RankedSession session = session(3);
+        feedSessionCache.put(FeedSessionCache.key(viewer, 7, snapshot), session);
+
+        FeedSessionCache.RankedSession cached = feedSessionCache.get(FeedSessionCache.key(viewer, 7, snapshot));
+        assertSame(session, cached);
+        assertEquals(1, cached.indexOf(cached.id(1)));
+        assertEquals(-1, cached.indexOf(UUID.randomUUID()));
+
+        assertNull(feedSessionCache.get(FeedSessionCache.key(viewer, 8, snapshot)));
+        assertNull(feedSessionCache.get(FeedSessionCache.key(UUID.randomUUID(), 7, snapshot)));
+    }
+
+    @Test
+    public void testExpiredSessionIsDropped() {
+        ReflectionTestUtils.setField(feedSessionCache, "ttlSeconds", -1L);
+        String key = FeedSessionCache.key(UUID.randomUUID(), 7, LocalDateTime.now());
+        feedSessionCache.put(key, session(1));
+
+        assertNull(feedSessionCache.get(key));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedSessionIsEvicted() {
+        ReflectionTestUtils.setField(feedSessionCache, "maxSessions", 2);
+        LocalDateTime snapshot = LocalDateTime.now();
+        String first = FeedSessionCache.key(UUID.randomUUID(), 7, snapshot);
+        String second = FeedSessionCache.key(UUID.randomUUID(), 7, snapshot);
+        String third = FeedSessionCache.key(UUID.randomUUID(), 7, snapshot);
+
+        feedSessionCache.put(first, session(1));
+        feedSessionCache.put(second, session(1));
+        feedSessionCache.get(first);
+        feedSessionCache.put(third, session(1));
+
+        assertNotNull(feedSessionCache.get(first));
+        assertNull(feedSessionCache.get(second));
+        assertNotNull(feedSessionCache.get(third));
+    }
+
+    private static FeedSessionCache.RankedSession session(int size) {
+        UUID[] ids = new UUID[size];
+        double[] scores = new double[size];
+        LocalDateTime[] createdAts = new LocalDateTime[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = UUID.randomUUID();
+            scores[i] = size - i;
+            createdAts[i] = LocalDateTime.now().minusMinutes(i);
+        }
+        return new FeedSessionCache.RankedSession(ids, scores, createdAts, true, size);
+    }
+}
@@ -0,0 +1,129 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.service.SocialContextService;
+import com.gullygram.backend.service.ViewerSocialContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class FriendsInboxServiceTest {
+
+    private final UUID viewerId = UUID.randomUUID();
+    private final UUID authorId = UUID.randomUUID();
+
+    private FeedCandidateService feedCandidateService;
+    private SocialContextService socialContextService;
+    private FriendsInboxService friendsInboxService;
+    private ViewerSocialContext viewer;
+
+    @BeforeEach
+    public void setup() {
+        feedCandidateService = mock(FeedCandidateService.class);
+        socialContextService = mock(SocialContextService.class);
+        when(feedCandidateService.findRecentFriendsOnlySkeletons(anyCollection(), anyInt())).thenReturn(List.of());
+
+        viewer = new ViewerSocialContext(viewerId, List.of(authorId), List.of());
+        when(socialContextService.forViewer(authorId)).thenReturn(new ViewerSocialContext(authorId, List.of(viewerId), List.of()));
+
+        friendsInboxService = new FriendsInboxService(feedCandidateService, socialContextService, new CellVersionService());
+        ReflectionTestUtils.setField(friendsInboxService, "enabled", true);
+        ReflectionTestUtils.setField(friendsInboxService, "maxEntries", 2);
+        ReflectionTestUtils.setField(friendsInboxService, "maxInboxes", 100);
+        ReflectionTestUtils.setField(friendsInboxService, "ttlSeconds", 600L);
+        ReflectionTestUtils.setField(friendsInboxService, "fanoutLimit", 10);
+    }
+
+    @Test
+    public void testInboxIsLoadedOnceThenFilledByFanOut() {
+        assertTrue(friendsInboxService.getInbox(viewer).isEmpty());
+
+        FeedPostSkeleton post = skeleton(LocalDateTime.now());
+        friendsInboxService.fanOut(post);
+
+        assertEquals(List.of(post.getId()), ids(friendsInboxService.getInbox(viewer)));
+        verify(feedCandidateService, times(1)).findRecentFriendsOnlySkeletons(anyCollection(), anyInt());
+    }
+
+    @Test
+    public void testInboxKeepsNewestEntriesOnly() {
+        friendsInboxService.getInbox(viewer);
+        FeedPostSkeleton oldest = skeleton(LocalDateTime.now().minusHours(3));
+        friendsInboxService.fanOut(oldest);
+        friendsInboxService.fanOut(skeleton(LocalDateTime.now().minusHours(2)));
+        friendsInboxService.fanOut(skeleton(LocalDateTime.now().minusHours(1)));
+
+        List<UUID> inbox = ids(friendsInboxService.getInbox(viewer));
+        assertEquals(2, inbox.size());
+        assertFalse(inbox.contains(oldest.getId()));
+    }
+
+    @Test
+    public void testHighFanoutAuthorIsPulledFromOutbox() {
+        ReflectionTestUtils.setField(friendsInboxService, "fanoutLimit", 0);
+        friendsInboxService.getInbox(viewer);
+
+        FeedPostSkeleton post = skeleton(LocalDateTime.now());
+        friendsInboxService.fanOut(post);
+
+        assertEquals(List.of(post.getId()), ids(friendsInboxService.getInbox(viewer)));
+        ViewerSocialContext stranger = new ViewerSocialContext(UUID.randomUUID(), Set.of(), Set.of());
+        assertTrue(friendsInboxService.getInbox(stranger).isEmpty());
+    }
+
+    @Test
+    public void testLikesAndCommentsPatchInboxAndOutboxSkeletons() {
+        friendsInboxService.getInbox(viewer);
+        FeedPostSkeleton fannedOut = skeleton(LocalDateTime.now().minusMinutes(1));
+        friendsInboxService.fanOut(fannedOut);
+        ReflectionTestUtils.setField(friendsInboxService, "fanoutLimit", 0);
+        FeedPostSkeleton pulled = skeleton(LocalDateTime.now());
+        friendsInboxService.fanOut(pulled);
+
+        friendsInboxService.adjustCounts(authorId, fannedOut.getId(), 1, 1);
+        friendsInboxService.adjustCounts(authorId, pulled.getId(), 1, 0);
+        friendsInboxService.adjustCounts(authorId, pulled.getId(), 1, 0);
+
+        assertEquals(1, fannedOut.getLikeCount());
+        assertEquals(1, fannedOut.getCommentCount());
+        assertEquals(2, pulled.getLikeCount());
+    }
+
+    @Test
+    public void testIdleOutboxIsDropped() {
+        ReflectionTestUtils.setField(friendsInboxService, "fanoutLimit", 0);
+        friendsInboxService.fanOut(skeleton(LocalDateTime.now()));
+        friendsInboxService.sweepOutboxes();
+        assertEquals(1, friendsInboxService.outboxCount());
+
+        ReflectionTestUtils.setField(friendsInboxService, "ttlSeconds", -1L);
+        friendsInboxService.sweepOutboxes();
+        assertEquals(0, friendsInboxService.outboxCount());
+    }
+
+    private FeedPostSkeleton skeleton(LocalDateTime createdAt) {
+        return FeedPostSkeleton.builder()
+            .id(UUID.randomUUID())
+            .authorId(authorId)
+            .lat(12.97)
+            .lon(77.59)
+            .geohash("tdr1w")
+            .createdAt(createdAt)
+            .visibility(Post.PostVisibility.FRIENDS_ONLY)
+            .build();
+    }
+
+    private static List<UUID> ids(List<FeedPostSkeleton> posts) {
+        return posts.stream().map(FeedPostSkeleton::getId).toList();
+    }
+}
@@ -0,0 +1,90 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.entity.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredHybridFeedRankerTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LON = 77.5946;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+    private final TieredHybridFeedRanker ranker = new TieredHybridFeedRanker();
+
+    @Test
+    void localPostsRankByRecencyWithInterestBonus() {
+        FeedPostSkeleton older = skeleton(now.minusHours(3), Set.of(7));
+        FeedPostSkeleton newer = skeleton(now.minusHours(1), Set.of());
+        FeedCandidateBatch batch = FeedCandidateBatch.of(List.of(older, newer), LAT, LON, 10);
+
+        int[] ranked = ranker.rank(batch, context(Set.of(7)).build(), 10);
+
+        assertEquals(2, ranked.length);
+        assertEquals(older.getId(), batch.id(ranked[0]));
+        assertEquals(102.0, batch.score(ranked[0]));
+        assertEquals(99.0, batch.score(ranked[1]));
+    }
+
+    @Test
+    void interestIdsBeyondTheBitmapStillMatch() {
+        FeedPostSkeleton post = skeleton(now, Set.of(200));
+        FeedCandidateBatch batch = FeedCandidateBatch.of(List.of(post), LAT, LON, 10);
+
+        assertTrue(context(Set.of(200)).build().isInterestMatch(batch, 0));
+        assertFalse(context(Set.of(201)).build().isInterestMatch(batch, 0));
+    }
+
+    @Test
+    void topKMatchesFullSortAndResumesAfterBoundary() {
+        List<FeedPostSkeleton> posts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            posts.add(skeleton(now.minusHours(i % 7), Set.of()));
+        }
+        FeedCandidateBatch batch = FeedCandidateBatch.of(posts, LAT, LON, 10);
+
+        int[] all = ranker.rank(batch, context(Set.of()).build(), 50);
+        int[] firstPage = ranker.rank(batch, context(Set.of()).build(), 10);
+        for (int r = 0; r < 10; r++) {
+            assertEquals(all[r], firstPage[r]);
+        }
+
+        int last = firstPage[9];
+        int[] secondPage = ranker.rank(batch, context(Set.of())
+            .hasBoundary(true)
+            .boundaryScore(batch.score(last))
+            .boundaryCreatedAtMicros(batch.createdAtMicros(last))
+            .boundaryId(batch.id(last))
+            .build(), 10);
+        for (int r = 0; r < 10; r++) {
+            assertEquals(all[10 + r], secondPage[r]);
+        }
+    }
+
+    private FeedRankingContext.FeedRankingContextBuilder context(Set<Integer> userInterestIds) {
+        return FeedRankingContext.builder()
+            .radiusKm(10)
+            .userInterestIds(userInterestIds)
+            .userInterestMask(FeedPostSkeleton.interestMask(userInterestIds))
+            .snapshotMicros(FeedPostSkeleton.toEpochMicros(now));
+    }
+
+    private FeedPostSkeleton skeleton(LocalDateTime createdAt, Set<Integer> interestIds) {
+        return FeedPostSkeleton.builder()
+            .id(UUID.randomUUID())
+            .authorId(UUID.randomUUID())
+            .lat(LAT)
+            .lon(LON)
+            .createdAt(createdAt)
+            .visibility(Post.PostVisibility.PUBLIC)
+            .interestIds(interestIds)
+            .build();
+    }
+}
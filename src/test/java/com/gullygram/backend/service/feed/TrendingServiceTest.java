@@ -0,0 +1,114 @@
+package com.gullygram.backend.service.feed;
+
+import com.gullygram.backend.entity.Post;
+import com.gullygram.backend.service.ViewerSocialContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class TrendingServiceTest {
+
+    // Indiranagar and Koramangala, ~4km apart; a post ~12km east
+    private static final double LAT = 12.9719;
+    private static final double LON = 77.6412;
+    private static final String GEOHASH = "tdr1y";
+
+    private TrendingService trendingService;
+    private final UUID authorId = UUID.randomUUID();
+
+    @BeforeEach
+    public void setup() {
+        trendingService = new TrendingService(mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(trendingService, "enabled", true);
+        ReflectionTestUtils.setField(trendingService, "halfLifeMinutes", 60L);
+        ReflectionTestUtils.setField(trendingService, "bucketSeconds", 60L);
+        ReflectionTestUtils.setField(trendingService, "maxPosts", 100);
+        trendingService.precomputeDecay();
+    }
+
+    @Test
+    public void testScoreHalvesAfterOneHalfLife() {
+        UUID postId = UUID.randomUUID();
+        long now = trendingService.currentBucket();
+        trendingService.add(postId, authorId, LAT, LON, GEOHASH, Post.PostVisibility.PUBLIC,
+            TrendingService.COMMENT_WEIGHT, now - 60);
+        trendingService.add(postId, authorId, LAT, LON, GEOHASH, Post.PostVisibility.PUBLIC,
+            TrendingService.LIKE_WEIGHT, now);
+
+        assertEquals(1.5 + 2.0, trendingService.trendScore(postId), 1e-9);
+        assertEquals(3.5, trendingService.cellHeat(GEOHASH.substring(0, TrendingService.CELL_PRECISION)), 1e-9);
+    }
+
+    @Test
+    public void testUnlikeNeverGoesNegative() {
+        UUID postId = UUID.randomUUID();
+        long now = trendingService.currentBucket();
+        trendingService.add(postId, authorId, LAT, LON, GEOHASH, Post.PostVisibility.PUBLIC, -TrendingService.LIKE_WEIGHT, now);
+
+        assertEquals(0.0, trendingService.trendScore(postId));
+    }
+
+    @Test
+    public void testTrendingNearRanksRecentEngagementAndFiltersRadiusAndVisibility() {
+        long now = trendingService.currentBucket();
+        UUID viral = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        UUID friendsOnly = UUID.randomUUID();
+        UUID farAway = UUID.randomUUID();
+
+        trendingService.add(viral, authorId, LAT, LON, GEOHASH, Post.PostVisibility.PUBLIC, 6.0, now);
+        // More engagement in total, but five half-lives ago
+        trendingService.add(stale, authorId, 12.9352, 77.6245, "tdr1w", Post.PostVisibility.PUBLIC, 40.0, now - 300);
+        trendingService.add(friendsOnly, authorId, LAT, LON, GEOHASH, Post.PostVisibility.FRIENDS_ONLY, 50.0, now);
+        trendingService.add(farAway, authorId, 12.9698, 77.7500, "tdr3c", Post.PostVisibility.PUBLIC, 50.0, now);
+
+        ViewerSocialContext viewer = new ViewerSocialContext(UUID.randomUUID(), List.of(), List.of());
+        assertEquals(List.of(viral, stale), trendingService.trendingNear(viewer, LAT, LON, 10, 10));
+
+        ViewerSocialContext friend = new ViewerSocialContext(UUID.randomUUID(), List.of(authorId), List.of());
+        assertEquals(List.of(friendsOnly, viral), trendingService.trendingNear(friend, LAT, LON, 10, 2));
+    }
+
+    @Test
+    public void testSweepDropsColdPostsAndTheirEmptyCells() {
+        long now = trendingService.currentBucket();
+        UUID cold = UUID.randomUUID();
+        UUID hot = UUID.randomUUID();
+        // Sixteen half-lives ago: decayed to nothing
+        trendingService.add(cold, authorId, 12.9352, 77.6245, "tdr1w", Post.PostVisibility.PUBLIC, 2.0, now - 960);
+        trendingService.add(hot, authorId, LAT, LON, GEOHASH, Post.PostVisibility.PUBLIC, 2.0, now);
+
+        trendingService.sweep();
+
+        assertEquals(0.0, trendingService.trendScore(cold));
+        assertEquals(0.0, trendingService.cellHeat("tdr1w"));
+        ViewerSocialContext viewer = new ViewerSocialContext(UUID.randomUUID(), List.of(), List.of());
+        assertEquals(List.of(hot), trendingService.trendingNear(viewer, LAT, LON, 10, 10));
+
+        // The swept cell comes back with the next engagement in it
+        trendingService.add(cold, authorId, 12.9352, 77.6245, "tdr1w", Post.PostVisibility.PUBLIC, 3.0, now);
+        assertEquals(List.of(cold, hot), trendingService.trendingNear(viewer, LAT, LON, 10, 10));
+    }
+
+    @Test
+    public void testScoreBatchFillsTrendColumn() {
+        UUID postId = UUID.randomUUID();
+        trendingService.add(postId, authorId, LAT, LON, GEOHASH, Post.PostVisibility.PUBLIC, 4.0,
+            trendingService.currentBucket());
+
+        FeedPostSkeleton hot = FeedPostSkeleton.builder().id(postId).lat(LAT).lon(LON).build();
+        FeedPostSkeleton quiet = FeedPostSkeleton.builder().id(UUID.randomUUID()).lat(LAT).lon(LON).build();
+        FeedCandidateBatch batch = FeedCandidateBatch.of(List.of(hot, quiet), LAT, LON, 10);
+        trendingService.scoreBatch(batch, System.currentTimeMillis());
+
+        assertEquals(4.0, batch.trendScore(0), 1e-9);
+        assertEquals(0.0, batch.trendScore(1));
+    }
+}
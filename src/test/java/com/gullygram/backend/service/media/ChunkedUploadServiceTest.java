@@ -0,0 +1,220 @@
+package com.gullygram.backend.service.media;
+
+import com.gullygram.backend.dto.request.StartUploadRequest;
+import com.gullygram.backend.dto.response.UploadSessionResponse;
+import com.gullygram.backend.exception.BadRequestException;
+import com.gullygram.backend.exception.ConflictException;
+import com.gullygram.backend.exception.ResourceNotFoundException;
+import com.gullygram.backend.service.StorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChunkedUploadServiceTest {
+
+    private final UUID user = UUID.randomUUID();
+
+    @TempDir
+    Path tempDir;
+
+    private StorageService storageService;
+    private ChunkedUploadService service;
+
+    @BeforeEach
+    void setUp() {
+        storageService = mock(StorageService.class);
+        service = new ChunkedUploadService(storageService);
+        ReflectionTestUtils.setField(service, "tempLocation", tempDir);
+        ReflectionTestUtils.setField(service, "maxBytes", 1000L);
+        ReflectionTestUtils.setField(service, "maxSessionsPerUser", 2);
+        ReflectionTestUtils.setField(service, "sessionTtlMinutes", 60L);
+    }
+
+    @Test
+    void chunksAreAppendedAndTheFileIsHandedToStorage() throws Exception {
+        UUID id = start(10).getUploadId();
+
+        assertEquals(4, service.append(user, id, 0, body("0123")).getOffset());
+        assertEquals(10, service.append(user, id, 4, body("456789")).getOffset());
+
+        Path[] stored = new Path[1];
+        when(storageService.storeFile(any(), eq("clip.mp4"), eq("posts"))).thenAnswer(invocation -> {
+            stored[0] = invocation.getArgument(0);
+            assertEquals("0123456789", Files.readString(stored[0]));
+            return "/uploads/blobs/x";
+        });
+
+        assertEquals("/uploads/blobs/x", service.complete(user, id));
+        assertThrows(ResourceNotFoundException.class, () -> service.status(user, id));
+    }
+
+    @Test
+    void staleOffsetIsAConflict() throws Exception {
+        UUID id = start(10).getUploadId();
+        service.append(user, id, 0, body("0123"));
+
+        assertThrows(ConflictException.class, () -> service.append(user, id, 0, body("0123")));
+        assertEquals(4, service.status(user, id).getOffset());
+    }
+
+    @Test
+    void interruptedChunkKeepsTheBytesThatArrived() throws Exception {
+        UUID id = start(10).getUploadId();
+
+        assertThrows(IOException.class, () -> service.append(user, id, 0, failingAfter("01234")));
+
+        assertEquals(5, service.status(user, id).getOffset());
+        assertEquals(10, service.append(user, id, 5, body("56789")).getOffset());
+    }
+
+    @Test
+    void incompleteOrOversizedUploadsAreRejected() throws Exception {
+        UUID id = start(4).getUploadId();
+
+        assertThrows(BadRequestException.class, () -> service.complete(user, id));
+        assertThrows(BadRequestException.class, () -> service.append(user, id, 0, body("012345")));
+        assertThrows(BadRequestException.class, () -> start(1001));
+        verify(storageService, never()).storeFile(any(), any(), any());
+    }
+
+    @Test
+    void uploadsArePrivateAndLimitedPerUser() throws Exception {
+        UUID id = start(10).getUploadId();
+        start(10);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.status(UUID.randomUUID(), id));
+        assertThrows(BadRequestException.class, () -> start(10));
+
+        service.abort(user, id);
+        assertThrows(ResourceNotFoundException.class, () -> service.status(user, id));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void oversizedChunkIsDiscardedWhole() throws Exception {
+        UUID id = start(6).getUploadId();
+        service.append(user, id, 0, body("012"));
+
+        assertThrows(BadRequestException.class, () -> service.append(user, id, 3, body("3456")));
+
+        assertEquals(3, service.status(user, id).getOffset());
+        assertEquals(6, service.append(user, id, 3, body("345")).getOffset());
+    }
+
+    @Test
+    void abortDuringAChunkIsAConflict() throws Exception {
+        UUID id = start(10).getUploadId();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            try {
+                service.append(user, id, 0, blockingUntil(reading, release));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.start();
+        reading.await();
+
+        assertThrows(ConflictException.class, () -> service.abort(user, id));
+        release.countDown();
+        writer.join();
+
+        service.abort(user, id);
+        assertThrows(ResourceNotFoundException.class, () -> service.status(user, id));
+    }
+
+    @Test
+    void endedSessionsFreeTheirSlot() throws Exception {
+        UUID aborted = start(10).getUploadId();
+        start(10);
+        service.abort(user, aborted);
+        start(10);
+        assertThrows(BadRequestException.class, () -> start(10));
+
+        ReflectionTestUtils.setField(service, "sessionTtlMinutes", -1L);
+        service.sweep();
+
+        start(10);
+        start(10);
+        try (var files = Files.list(tempDir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    private UploadSessionResponse start(long size) throws IOException {
+        return service.start(user, StartUploadRequest.builder().filename("clip.mp4").size(size).folder("posts").build());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Signals the first read, then blocks until released and ends the body
+     */
+    private static InputStream blockingUntil(CountDownLatch reading, CountDownLatch release) {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                return read(new byte[1], 0, 1);
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return -1;
+            }
+        };
+    }
+
+    /**
+     * Delivers the content, then fails as a dropped connection does
+     */
+    private static InputStream failingAfter(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.US_ASCII);
+        return new InputStream() {
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                if (position == bytes.length) {
+                    throw new IOException("Connection reset");
+                }
+                return bytes[position++];
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (position == bytes.length) {
+                    throw new IOException("Connection reset");
+                }
+                int count = Math.min(length, bytes.length - position);
+                System.arraycopy(bytes, position, buffer, offset, count);
+                position += count;
+                return count;
+            }
+        };
+    }
+}
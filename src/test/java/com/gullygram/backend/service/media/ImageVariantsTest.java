@@ -0,0 +1,101 @@
+package com.gullygram.backend.service.media;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageVariantsTest {
+
+    private static final String HASH = "ab".repeat(32);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void variantUrlsSitNextToLocalImageBlobsOnly() {
+        String url = "/uploads/blobs/ab/ab/" + HASH + ".jpg";
+
+        assertEquals("/uploads/blobs/ab/ab/" + HASH + "_feed.jpg",
+            ImageVariants.variantUrl(url, ImageVariants.Variant.FEED));
+        assertEquals(HASH + ".jpg", ImageVariants.originalName(HASH + "_thumb.jpg"));
+        assertNull(ImageVariants.originalName(HASH + ".jpg"));
+
+        String video = "/uploads/blobs/ab/ab/" + HASH + ".mp4";
+        String external = "https://res.cloudinary.com/demo/image/upload/sample.jpg";
+        assertEquals(video, ImageVariants.variantUrl(video, ImageVariants.Variant.FEED));
+        assertEquals(external, ImageVariants.variantUrl(external, ImageVariants.Variant.FEED));
+    }
+
+    @Test
+    void scalingKeepsAspectRatioAndNeverUpscales() {
+        BufferedImage photo = new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage feed = ImageVariants.scale(photo, 720, false);
+        assertEquals(720, feed.getWidth());
+        assertEquals(540, feed.getHeight());
+
+        BufferedImage small = new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB);
+        assertSame(small, ImageVariants.scale(small, 720, false));
+    }
+
+    @Test
+    void orientationSixRotatesClockwise() {
+        BufferedImage image = new BufferedImage(3, 2, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, 0xFF0000);
+
+        BufferedImage rotated = ImageVariants.orient(image, 6);
+
+        assertEquals(2, rotated.getWidth());
+        assertEquals(3, rotated.getHeight());
+        // The top-left pixel ends up top-right
+        assertEquals(0xFF0000, rotated.getRGB(1, 0) & 0xFFFFFF);
+    }
+
+    @Test
+    void readsOrientationFromExifInEitherByteOrder() {
+        assertEquals(6, ImageVariants.exifOrientation(exif(false, 6)));
+        assertEquals(8, ImageVariants.exifOrientation(exif(true, 8)));
+        assertEquals(0, ImageVariants.exifOrientation(new byte[]{'J', 'F', 'I', 'F', 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}));
+    }
+
+    @Test
+    void renderWritesEveryVariantNextToTheOriginal() throws Exception {
+        Path original = dir.resolve(HASH + ".jpg");
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "jpeg", original.toFile());
+
+        ImageVariants.render(original, "jpg");
+
+        for (ImageVariants.Variant variant : ImageVariants.Variant.values()) {
+            Path path = ImageVariants.variantPath(original, variant);
+            BufferedImage rendered = ImageIO.read(path.toFile());
+            assertEquals(variant.getMaxEdge(), rendered.getWidth());
+            assertEquals(variant.getMaxEdge() / 2, rendered.getHeight());
+        }
+        try (var files = Files.list(dir)) {
+            assertEquals(4, files.count());
+        }
+    }
+
+    /**
+     * Exif APP1 payload with a single IFD0 entry: the orientation
+     */
+    private static byte[] exif(boolean littleEndian, int orientation) {
+        ByteBuffer buffer = ByteBuffer.allocate(6 + 8 + 2 + 12 + 4);
+        buffer.put(new byte[]{'E', 'x', 'i', 'f', 0, 0});
+        buffer.put(littleEndian ? new byte[]{'I', 'I'} : new byte[]{'M', 'M'});
+        buffer.order(littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        buffer.putShort((short) 42).putInt(8);
+        buffer.putShort((short) 1);
+        buffer.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        buffer.putInt(0);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,87 @@
+package com.gullygram.backend.service.media;
+
+import com.gullygram.backend.service.media.MediaFileService.MediaFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaFileServiceTest {
+
+    private static final String HASH = "ab".repeat(32);
+    private static final String BLOB = "blobs/ab/ab/" + HASH + ".jpg";
+
+    @TempDir
+    Path root;
+
+    private MediaFileService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new MediaFileService(root);
+        Files.createDirectories(root.resolve("blobs/ab/ab"));
+        Files.writeString(root.resolve(BLOB), "0123456789");
+    }
+
+    @Test
+    void blobsAreImmutableWithTheirHashAsETag() throws Exception {
+        MediaFile file = service.resolve(BLOB).orElseThrow();
+
+        assertEquals("\"" + HASH + "\"", file.getETag());
+        assertEquals(MediaFileService.IMMUTABLE, file.getCacheControl());
+        assertEquals("image/jpeg", file.getContentType().toString());
+        assertEquals(10, file.getLength());
+    }
+
+    @Test
+    void missingVariantFallsBackToTheOriginalBriefly() throws Exception {
+        MediaFile fallback = service.resolve("blobs/ab/ab/" + HASH + "_feed.jpg").orElseThrow();
+        assertEquals(root.resolve(BLOB).toAbsolutePath().normalize(), fallback.getPath());
+        assertEquals(MediaFileService.FALLBACK, fallback.getCacheControl());
+
+        Files.writeString(root.resolve("blobs/ab/ab/" + HASH + "_feed.jpg"), "feed");
+        MediaFile variant = service.resolve("blobs/ab/ab/" + HASH + "_feed.jpg").orElseThrow();
+        assertEquals("\"" + HASH + "_feed\"", variant.getETag());
+        assertEquals(MediaFileService.IMMUTABLE, variant.getCacheControl());
+    }
+
+    @Test
+    void legacyFilesAreCachedForADay() throws Exception {
+        Files.createDirectories(root.resolve("avatars"));
+        Files.writeString(root.resolve("avatars/0b1c_me.png"), "png");
+
+        MediaFile file = service.resolve("avatars/0b1c_me.png").orElseThrow();
+
+        assertEquals(MediaFileService.LEGACY, file.getCacheControl());
+        assertTrue(file.getETag().startsWith("\"3-"));
+    }
+
+    @Test
+    void temporaryAndOutsideFilesAreNotServed() throws Exception {
+        Files.createDirectories(root.resolve("tmp"));
+        Files.writeString(root.resolve("tmp/upload.part"), "partial");
+
+        assertTrue(service.resolve("tmp/upload.part").isEmpty());
+        assertTrue(service.resolve("blobs/../tmp/upload.part").isEmpty());
+        assertTrue(service.resolve("../" + root.getFileName() + "/" + BLOB.replace("blobs", "../etc")).isEmpty());
+        assertTrue(service.resolve("/etc/passwd").isEmpty());
+        assertTrue(service.resolve("blobs/ab/ab/missing.jpg").isEmpty());
+    }
+
+    @Test
+    void transfersTheRequestedRange() throws Exception {
+        MediaFile file = service.resolve(BLOB).orElseThrow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.transfer(file, 2, 5, Channels.newChannel(out));
+
+        assertEquals("23456", out.toString(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,133 @@
+package com.gullygram.backend.service.outbox;
+
+import com.gullygram.backend.entity.OutboxEvent;
+import com.gullygram.backend.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxDispatcherTest {
+
+    private final UUID post = UUID.randomUUID();
+    private final UUID otherPost = UUID.randomUUID();
+
+    private OutboxEventRepository repository;
+    private RecordingHandler handler;
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        handler = new RecordingHandler();
+        dispatcher = new OutboxDispatcher(repository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), List.of(handler));
+        ReflectionTestUtils.setField(dispatcher, "workers", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffInitialMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxMs", 5000L);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+    }
+
+    @Test
+    void eventsOfAnAggregateAreHandledInOrderAndDeleted() throws Exception {
+        dispatcher.process(List.of(event(1, post), event(2, otherPost), event(3, post), event(4, post)));
+
+        assertEquals(List.of(1L, 3L, 4L), handler.handledFor(post));
+        assertEquals(List.of(2L), handler.handledFor(otherPost));
+        verify(repository, times(4)).deleteProcessed(anyLong());
+        assertEquals(4, dispatcher.getProcessedCount());
+    }
+
+    @Test
+    void failedEventIsRetriedLaterAndHoldsBackItsAggregate() throws Exception {
+        handler.failing.add(2L);
+
+        dispatcher.process(List.of(event(1, post), event(2, post), event(3, post), event(4, otherPost)));
+
+        assertEquals(List.of(1L), handler.handledFor(post));
+        assertEquals(List.of(4L), handler.handledFor(otherPost));
+        verify(repository).recordFailure(eq(2L), eq(1), any(LocalDateTime.class), isNull(), contains("boom"));
+        verify(repository, never()).deleteProcessed(2L);
+        // Event 3 is released from its lease but waits behind event 2's backoff
+        verify(repository).setAvailableAt(eq(List.of(3L)), any(LocalDateTime.class));
+        assertEquals(1, dispatcher.getRetriedCount());
+    }
+
+    @Test
+    void exhaustedEventFailsForGoodAndNoLongerHoldsBackItsAggregate() throws Exception {
+        handler.failing.add(1L);
+        OutboxEvent lastAttempt = event(1, post);
+        lastAttempt.setAttempts(2);
+
+        dispatcher.process(List.of(lastAttempt, event(2, post)));
+
+        verify(repository).recordFailure(eq(1L), eq(3), any(LocalDateTime.class), any(LocalDateTime.class), anyString());
+        assertEquals(List.of(2L), handler.handledFor(post));
+        assertEquals(1, dispatcher.getFailedCount());
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        assertEquals(1000, dispatcher.backoffMillis(1));
+        assertEquals(2000, dispatcher.backoffMillis(2));
+        assertEquals(4000, dispatcher.backoffMillis(3));
+        assertEquals(5000, dispatcher.backoffMillis(4));
+        assertEquals(5000, dispatcher.backoffMillis(60));
+    }
+
+    @Test
+    void twoHandlersForOneTypeAreRejected() {
+        OutboxDispatcher conflicting = new OutboxDispatcher(repository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), List.of(handler, new RecordingHandler()));
+
+        assertThrows(IllegalStateException.class, conflicting::init);
+    }
+
+    private static OutboxEvent event(long id, UUID aggregateId) {
+        return OutboxEvent.builder()
+            .id(id)
+            .aggregateType("POST")
+            .aggregateId(aggregateId)
+            .eventType(OutboxEvent.EventType.POST_LIKED)
+            .payload(Map.of())
+            .build();
+    }
+
+    private static class RecordingHandler implements OutboxEventHandler {
+        private final Map<UUID, List<Long>> handled = Collections.synchronizedMap(new HashMap<>());
+        private final Set<Long> failing = new HashSet<>();
+
+        @Override
+        public Set<OutboxEvent.EventType> getEventTypes() {
+            return Set.of(OutboxEvent.EventType.POST_LIKED);
+        }
+
+        @Override
+        public void handle(OutboxEvent event) {
+            if (failing.contains(event.getId())) {
+                throw new IllegalStateException("boom");
+            }
+            handled.computeIfAbsent(event.getAggregateId(), id -> Collections.synchronizedList(new ArrayList<>()))
+                .add(event.getId());
+        }
+
+        List<Long> handledFor(UUID aggregateId) {
+            return handled.getOrDefault(aggregateId, List.of());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.gullygram.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoUtilTest {
+
+    private static final int POINTS = 50_000;
+
+    @Test
+    void fastDistanceErrorStaysWithinDocumentedBounds() {
+        // Under 0.01% up to 50km, under 0.15% up to 200km, for origins within ±80°
+        assertMaxRelativeError(80, 50, 1e-4);
+        assertMaxRelativeError(80, 200, 1.5e-3);
+        // Bangalore latitudes: orders of magnitude tighter
+        assertMaxRelativeError(15, 50, 1e-5);
+    }
+
+    @Test
+    void radiusDecisionsMatchHaversineExactly() {
+        Random random = new Random(7);
+        double lat = 12.9716;
+        double lon = 77.5946;
+        double radiusKm = 10;
+        double[] lats = new double[POINTS];
+        double[] lons = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            // Concentrate points around the radius, where the fallback matters
+            double[] point = offset(lat, lon, radiusKm * (0.99 + random.nextDouble() * 0.02), random.nextDouble() * 2 * Math.PI);
+            lats[i] = point[0];
+            lons[i] = point[1];
+        }
+        double[] distances = new double[POINTS];
+
+        int within = GeoUtil.distancesWithin(lat, lon, radiusKm, lats, lons, POINTS, distances);
+
+        int expected = 0;
+        for (int i = 0; i < POINTS; i++) {
+            boolean haversineWithin = GeoUtil.calculateDistance(lat, lon, lats[i], lons[i]) <= radiusKm;
+            assertEquals(haversineWithin, distances[i] <= radiusKm);
+            expected += haversineWithin ? 1 : 0;
+        }
+        assertEquals(expected, within);
+    }
+
+    @Test
+    void wrapsAroundTheAntimeridian() {
+        double[] distances = new double[1];
+        GeoUtil.distancesWithin(0, 179.95, 20, new double[]{0}, new double[]{-179.95}, 1, distances);
+
+        assertEquals(GeoUtil.calculateDistance(0, 179.95, 0, -179.95), distances[0], 1e-3);
+    }
+
+    @Test
+    void largeRadiusUsesHaversine() {
+        double[] distances = new double[1];
+        GeoUtil.distancesWithin(12.97, 77.59, 500, new double[]{13.5}, new double[]{80.2}, 1, distances);
+
+        assertEquals(GeoUtil.calculateDistance(12.97, 77.59, 13.5, 80.2), distances[0]);
+    }
+
+    private static void assertMaxRelativeError(double maxLat, double maxKm, double bound) {
+        Random random = new Random(42);
+        double[] lats = new double[POINTS];
+        double[] lons = new double[POINTS];
+        double[] originLats = new double[POINTS];
+        double[] originLons = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            originLats[i] = (random.nextDouble() * 2 - 1) * maxLat;
+            originLons[i] = random.nextDouble() * 360 - 180;
+            double[] point = offset(originLats[i], originLons[i], 0.01 + random.nextDouble() * maxKm,
+                random.nextDouble() * 2 * Math.PI);
+            lats[i] = point[0];
+            lons[i] = point[1];
+        }
+
+        double worst = 0;
+        double[] distance = new double[1];
+        for (int i = 0; i < POINTS; i++) {
+            // Radius 0 keeps every point out of the Haversine band, so the approximation itself is measured
+            GeoUtil.distancesWithin(originLats[i], originLons[i], 0, new double[]{lats[i]}, new double[]{lons[i]}, 1, distance);
+            double exact = GeoUtil.calculateDistance(originLats[i], originLons[i], lats[i], lons[i]);
+            worst = Math.max(worst, Math.abs(distance[0] - exact) / exact);
+        }
+        assertTrue(worst < bound, "max relative error " + worst + " for " + maxKm + "km at ±" + maxLat);
+    }
+
+    /**
+     * Point at roughly the given distance and bearing, longitude normalised to [-180, 180)
+     */
+    private static double[] offset(double lat, double lon, double km, double bearing) {
+        double pointLat = lat + Math.toDegrees(km / 6371.0 * Math.cos(bearing));
+        double pointLon = lon + Math.toDegrees(km / 6371.0 * Math.sin(bearing) / Math.cos(Math.toRadians(lat)));
+        pointLat = Math.max(-89.9, Math.min(89.9, pointLat));
+        pointLon = ((pointLon + 180) % 360 + 360) % 360 - 180;
+        return new double[]{pointLat, pointLon};
+    }
+}
@@ -0,0 +1,122 @@
+package com.gullygram.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeohashTest {
+
+    @Test
+    void encodeMatchesStringImplementation() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lon = random.nextDouble() * 360 - 180;
+            int precision = 1 + random.nextInt(Geohash.MAX_PRECISION);
+            long hash = Geohash.encode(lat, lon, precision);
+
+            assertEquals(stringGeohash(lat, lon, precision), Geohash.toBase32(hash));
+            assertEquals(hash, Geohash.fromBase32(Geohash.toBase32(hash)));
+        }
+    }
+
+    @Test
+    void pointsOnCellEdgesEncodeLikeStringImplementation() {
+        double[][] points = {{0, 0}, {90, 180}, {-90, -180}, {45, 90}, {12.65625, 77.34375}};
+        for (double[] point : points) {
+            for (int precision = 1; precision <= Geohash.MAX_PRECISION; precision++) {
+                assertEquals(stringGeohash(point[0], point[1], precision),
+                    Geohash.toBase32(Geohash.encode(point[0], point[1], precision)));
+            }
+        }
+    }
+
+    @Test
+    void decodeReturnsCellContainingPoint() {
+        long hash = Geohash.fromBase32("tdr1v9");
+
+        assertEquals("tdr1v9", Geohash.toBase32(Geohash.encode(Geohash.centerLat(hash), Geohash.centerLon(hash), 6)));
+        assertEquals(GeoUtil.geohashCellHeight(6), Geohash.maxLat(hash) - Geohash.minLat(hash), 1e-12);
+        assertEquals(GeoUtil.geohashCellWidth(6), Geohash.maxLon(hash) - Geohash.minLon(hash), 1e-12);
+    }
+
+    @Test
+    void truncateKeepsPrefixAndOrderFollowsStrings() {
+        long hash = Geohash.encode(12.9716, 77.5946, 9);
+        long prefix = Geohash.truncate(hash, 4);
+
+        assertEquals(Geohash.toBase32(hash).substring(0, 4), Geohash.toBase32(prefix));
+        assertTrue(Geohash.startsWith(hash, prefix));
+        assertFalse(Geohash.startsWith(prefix, hash));
+        assertTrue(Long.compareUnsigned(Geohash.fromBase32("tdr1"), Geohash.fromBase32("tdr2")) < 0);
+    }
+
+    @Test
+    void neighboursAreAdjacentCells() {
+        long hash = Geohash.fromBase32("tdr1v9");
+        long[] neighbours = new long[8];
+        Geohash.neighbours(hash, neighbours);
+
+        double height = GeoUtil.geohashCellHeight(6);
+        double width = GeoUtil.geohashCellWidth(6);
+        assertEquals(Geohash.encode(Geohash.centerLat(hash) + height, Geohash.centerLon(hash), 6), neighbours[0]);
+        assertEquals(Geohash.encode(Geohash.centerLat(hash), Geohash.centerLon(hash) + width, 6), neighbours[2]);
+        assertEquals(Geohash.encode(Geohash.centerLat(hash) - height, Geohash.centerLon(hash) - width, 6), neighbours[5]);
+
+        // Longitude wraps, latitude stops at the poles
+        long eastEdge = Geohash.encode(0.1, 179.99, 3);
+        assertEquals(Geohash.encode(0.1, -179.99, 3), Geohash.neighbour(eastEdge, 0, 1));
+        assertEquals(Geohash.NONE, Geohash.neighbour(Geohash.encode(89.99, 0, 3), 1, 0));
+    }
+
+    @Test
+    void coveringCellsMatchGeoUtilAndCountWithoutBuffer() {
+        long[] cells = new long[GeoUtil.MAX_COVERING_CELLS];
+        int count = Geohash.coveringCells(12.9716, 77.5946, 10, 5, cells);
+
+        assertEquals(count, Geohash.coveringCells(12.9716, 77.5946, 10, 5, new long[0]));
+        assertEquals(GeoUtil.coveringGeohashes(12.9716, 77.5946, 10, 5).size(), count);
+        String centre = GeoUtil.generateGeohash(12.9716, 77.5946, 5);
+        boolean containsCentre = false;
+        for (int i = 0; i < count; i++) {
+            containsCentre |= Geohash.toBase32(cells[i]).equals(centre);
+        }
+        assertTrue(containsCentre);
+    }
+
+    /**
+     * The original StringBuilder implementation of GeoUtil.generateGeohash, kept as the reference
+     */
+    private static String stringGeohash(double lat, double lon, int precision) {
+        double[] latInterval = {-90.0, 90.0};
+        double[] lonInterval = {-180.0, 180.0};
+        StringBuilder geohash = new StringBuilder();
+        boolean isEven = true;
+        int bit = 0;
+        int ch = 0;
+        String base32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+        while (geohash.length() < precision) {
+            double[] interval = isEven ? lonInterval : latInterval;
+            double value = isEven ? lon : lat;
+            double mid = (interval[0] + interval[1]) / 2;
+            if (value > mid) {
+                ch |= (1 << (4 - bit));
+                interval[0] = mid;
+            } else {
+                interval[1] = mid;
+            }
+            isEven = !isEven;
+            if (bit < 4) {
+                bit++;
+            } else {
+                geohash.append(base32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return geohash.toString();
+    }
+}
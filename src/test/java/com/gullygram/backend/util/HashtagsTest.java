@@ -0,0 +1,35 @@
+package com.gullygram.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashtagsTest {
+
+    @Test
+    void extractsDistinctLowercaseTagsInOrder() {
+        Set<String> tags = Hashtags.extract("Morning #Run at Cubbon, then #running club. #run #Food_Walk!");
+
+        assertEquals(List.of("run", "running", "food_walk"), List.copyOf(tags));
+    }
+
+    @Test
+    void skipsTagsLongerThanTheColumn() {
+        String longTag = "a".repeat(Hashtags.MAX_LENGTH + 1);
+
+        assertEquals(Set.of("ok"), Hashtags.extract("#" + longTag + " #ok"));
+        assertTrue(Hashtags.extract(null).isEmpty());
+        assertTrue(Hashtags.extract("no tags here").isEmpty());
+    }
+
+    @Test
+    void normalizesSearchTerms() {
+        assertEquals("run", Hashtags.normalize("  #Run "));
+        assertEquals("run", Hashtags.normalize("##run"));
+        assertNull(Hashtags.normalize("#"));
+        assertNull(Hashtags.normalize("   "));
+    }
+}
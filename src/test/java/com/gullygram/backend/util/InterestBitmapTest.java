@@ -0,0 +1,47 @@
+package com.gullygram.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InterestBitmapTest {
+
+    @Test
+    public void testRoundTripAndOverflow() {
+        long bits = InterestBitmap.of(List.of(1, 4, 62));
+        assertTrue(InterestBitmap.isExact(bits));
+        assertEquals(Set.of(1, 4, 62), InterestBitmap.toIds(bits));
+        assertTrue(InterestBitmap.contains(bits, 4));
+        assertFalse(InterestBitmap.contains(bits, 5));
+
+        long overflowing = InterestBitmap.of(List.of(1, 63, 200));
+        assertFalse(InterestBitmap.isExact(overflowing));
+        assertEquals(Set.of(1), InterestBitmap.toIds(overflowing));
+        assertFalse(InterestBitmap.contains(overflowing, 200));
+    }
+
+    @Test
+    public void testSharedCountAndJaccard() {
+        long a = InterestBitmap.of(List.of(1, 2, 3, 4));
+        long b = InterestBitmap.of(List.of(3, 4, 5));
+
+        assertTrue(InterestBitmap.sharesExact(a, b));
+        assertEquals(2, InterestBitmap.sharedCount(a, b));
+        assertEquals(2.0 / 5, InterestBitmap.jaccard(a, b), 1e-12);
+        assertEquals(0.0, InterestBitmap.jaccard(0, 0));
+    }
+
+    @Test
+    public void testIntersectionIsExactUnlessBothOverflow() {
+        long exact = InterestBitmap.of(List.of(2));
+        long overflowA = InterestBitmap.of(List.of(2, 100));
+        long overflowB = InterestBitmap.of(List.of(7, 100));
+
+        assertTrue(InterestBitmap.isExactIntersection(exact, overflowA));
+        assertFalse(InterestBitmap.isExactIntersection(overflowA, overflowB));
+        assertFalse(InterestBitmap.sharesExact(overflowA, overflowB));
+    }
+}
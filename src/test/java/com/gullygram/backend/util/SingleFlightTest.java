@@ -0,0 +1,125 @@
+package com.gullygram.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<Integer> leader = executor.submit(() -> flight.execute("cell", () -> {
+                leaderStarted.countDown();
+                await(release);
+                return loads.incrementAndGet();
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(executor.submit(() -> flight.execute("cell", loads::incrementAndGet)));
+            }
+            // Followers are counted before they block on the leader
+            while (flight.getSharedCount() < 7) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> follower : followers) {
+                assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, flight.getLeaderCount());
+        assertEquals(7, flight.getSharedCount());
+
+        // Completed calls are not cached
+        assertEquals(2, flight.execute("cell", loads::incrementAndGet));
+    }
+
+    @Test
+    public void testBatchLoadsOnlyKeysNotInFlight() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<String>> batches = new ArrayList<>();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> leader = executor.submit(() -> flight.execute("a", () -> {
+                leaderStarted.countDown();
+                await(release);
+                return 1;
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            release.countDown();
+
+            Map<String, Integer> values = flight.executeAll(List.of("a", "b", "c"), keys -> {
+                batches.add(keys);
+                Map<String, Integer> loaded = new HashMap<>();
+                keys.forEach(key -> loaded.put(key, key.equals("a") ? 10 : 2));
+                return loaded;
+            });
+
+            assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+            assertEquals(3, values.size());
+            assertEquals(2, values.get("b"));
+            assertEquals(2, values.get("c"));
+            // "a" was either shared with the running call or loaded after it finished
+            assertTrue(values.get("a") == 1 || values.get("a") == 10);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, batches.size());
+        assertTrue(batches.get(0).containsAll(List.of("b", "c")));
+    }
+
+    @Test
+    public void testBatchFailsWhenLoaderSkipsAKey() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+        assertThrows(IllegalStateException.class, () -> flight.executeAll(List.of("a", "b"), keys -> Map.of("a", 1)));
+        assertEquals(Map.of("b", 2), flight.executeAll(List.of("b"), keys -> Map.of("b", 2)));
+    }
+
+    @Test
+    public void testFailureReachesCallerAndIsNotRemembered() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+        assertThrows(IllegalStateException.class, () -> flight.execute("cell", () -> {
+            throw new IllegalStateException("database down");
+        }));
+        assertEquals(7, flight.execute("cell", () -> 7));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}